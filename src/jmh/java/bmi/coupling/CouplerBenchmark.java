@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.coupling;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bmi.BMIModelException;
+import bmi.examples.IncrementModel;
+
+/**
+ * Cost of exchanging values between two coupled increment models, for a full grid link and a scaled link of every tenth
+ * cell. Run with <code>-prof gc</code> to check that exchanges do not allocate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CouplerBenchmark {
+
+    @Param({ "100", "1000" })
+    public int gridSize;
+
+    private IncrementModel source;
+    private IncrementModel target;
+    private Coupler full;
+    private Coupler sampled;
+
+    @Setup
+    public void setUp() throws BMIModelException {
+        source = new IncrementModel(gridSize, gridSize);
+        source.initialize("");
+        target = new IncrementModel(gridSize, gridSize);
+        target.initialize("");
+
+        full = new Coupler();
+        full.link(source, "var1", target, "var1");
+        full.prepare();
+
+        int[] indices = new int[gridSize * gridSize / 10];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i * 10;
+        }
+        sampled = new Coupler();
+        sampled.addLink(new Link(source, "var1", indices, target, "var1", indices, 0.001, 273.15));
+        sampled.prepare();
+    }
+
+    @TearDown
+    public void tearDown() throws BMIModelException {
+        source.finalizeModel();
+        target.finalizeModel();
+    }
+
+    @Benchmark
+    public void exchangeFull() throws BMIModelException {
+        full.exchange();
+    }
+
+    @Benchmark
+    public void exchangeSampled() throws BMIModelException {
+        sampled.exchange();
+    }
+
+}
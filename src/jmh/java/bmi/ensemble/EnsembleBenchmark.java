@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.ensemble;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bmi.BMIModelException;
+import bmi.EBMI;
+import bmi.examples.IncrementModel;
+import bmi.examples.RasterKernels;
+
+/**
+ * Scaling of an {@link Ensemble} of increment models with the number of worker threads. Ideally the time per step stays
+ * constant as threads and cores are added, until the members no longer fit in the caches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EnsembleBenchmark {
+
+    @Param({ "1", "2", "4", "8", "16" })
+    public int threads;
+
+    @Param({ "64" })
+    public int members;
+
+    @Param({ "256" })
+    public int gridSize;
+
+    private ForkJoinPool pool;
+    private Ensemble ensemble;
+    private double[] matrix;
+
+    @Setup
+    public void setUp() throws BMIModelException {
+        pool = new ForkJoinPool(threads);
+        //members run in parallel, so the grid of a single member is not split any further
+        final RasterKernels kernels = new RasterKernels(pool, Integer.MAX_VALUE);
+
+        ensemble = new Ensemble(new ModelFactory() {
+            @Override
+            public EBMI create(int member) throws BMIModelException {
+                return new IncrementModel(gridSize, gridSize, kernels);
+            }
+        }, members, pool);
+
+        ensemble.initialize("", new Perturbation() {
+            @Override
+            public void apply(EBMI model, int member) throws BMIModelException {
+                //never run out of time steps
+                model.setEndTime(Double.MAX_VALUE);
+            }
+        }, null);
+
+        matrix = new double[members * ensemble.getCellCount("var1")];
+    }
+
+    @TearDown
+    public void tearDown() throws BMIModelException {
+        ensemble.finalizeModel();
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void update() throws BMIModelException {
+        ensemble.update();
+    }
+
+    @Benchmark
+    public double[] getDouble() throws BMIModelException {
+        ensemble.getDouble("var1", matrix, 0);
+        return matrix;
+    }
+
+}
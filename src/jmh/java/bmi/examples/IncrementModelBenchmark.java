@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bmi.BMIGridType;
+import bmi.BMIModelException;
+import bmi.IndexPlan;
+
+/**
+ * Per-call cost of the BMI functions of the {@link IncrementModel}, for a number of (square) grid sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IncrementModelBenchmark {
+
+    private static final String VAR = "var1";
+
+    @Param({ "100", "1000", "4000" })
+    public int gridSize;
+
+    IncrementModel model;
+    double[] values;
+
+    @Setup
+    public void setUp() throws BMIModelException {
+        model = new IncrementModel(gridSize, gridSize);
+        model.initializeConfig("");
+        //never run out of time steps
+        model.setEndTime(Double.MAX_VALUE);
+        model.initializeModel();
+
+        values = new double[model.getVarSize(VAR)];
+    }
+
+    @TearDown
+    public void tearDown() throws BMIModelException {
+        model.finalizeModel();
+    }
+
+    /**
+     * Random (unsorted) indices covering a fraction of the grid, for the *AtIndices functions.
+     */
+    @State(Scope.Thread)
+    public static class Indices {
+
+        @Param({ "0.001", "0.01", "0.1" })
+        public double density;
+
+        int[] indices;
+        IndexPlan plan;
+        double[] values;
+
+        @Setup
+        public void setUp(IncrementModelBenchmark benchmark) throws BMIModelException {
+            int size = benchmark.model.getVarSize(VAR);
+            Random random = new Random(42);
+
+            indices = new int[Math.max(1, (int) (size * density))];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = random.nextInt(size);
+            }
+            plan = IndexPlan.compile(indices);
+            values = new double[indices.length];
+        }
+    }
+
+    @Benchmark
+    public double update() throws BMIModelException {
+        model.update();
+        return model.getCurrentTime();
+    }
+
+    @Benchmark
+    public double updateUntil() throws BMIModelException {
+        model.updateUntil(model.getCurrentTime() + 10);
+        return model.getCurrentTime();
+    }
+
+    @Benchmark
+    public double[] getDouble() throws BMIModelException {
+        return model.getDouble(VAR);
+    }
+
+    @Benchmark
+    public double[] getDoubleIntoArray() throws BMIModelException {
+        model.getDouble(VAR, values, 0, values.length);
+        return values;
+    }
+
+    @Benchmark
+    public void setDouble() throws BMIModelException {
+        model.setDouble(VAR, values);
+    }
+
+    @Benchmark
+    public double[] getDoubleAtIndices(Indices indices) throws BMIModelException {
+        return model.getDoubleAtIndices(VAR, indices.indices);
+    }
+
+    @Benchmark
+    public double[] getDoubleAtIndicesIntoArray(Indices indices) throws BMIModelException {
+        model.getDoubleAtIndices(VAR, indices.indices, indices.values, 0);
+        return indices.values;
+    }
+
+    @Benchmark
+    public void setDoubleAtIndices(Indices indices) throws BMIModelException {
+        model.setDoubleAtIndices(VAR, indices.indices, indices.values);
+    }
+
+    @Benchmark
+    public double[] getDoubleAtIndicesPlan(Indices indices) throws BMIModelException {
+        model.getDoubleAtIndices(VAR, indices.plan, indices.values, 0);
+        return indices.values;
+    }
+
+    @Benchmark
+    public void setDoubleAtIndicesPlan(Indices indices) throws BMIModelException {
+        model.setDoubleAtIndices(VAR, indices.plan, indices.values, 0);
+    }
+
+    @Benchmark
+    public BMIGridType getGridType() throws BMIModelException {
+        return model.getGridType(VAR);
+    }
+
+    @Benchmark
+    public int[] getGridShape() throws BMIModelException {
+        return model.getGridShape(VAR);
+    }
+
+    @Benchmark
+    public double[] getGridSpacing() throws BMIModelException {
+        return model.getGridSpacing(VAR);
+    }
+
+    @Benchmark
+    public double[] getGridOrigin() throws BMIModelException {
+        return model.getGridOrigin(VAR);
+    }
+
+    @Benchmark
+    public String getVarType() throws BMIModelException {
+        return model.getVarType(VAR);
+    }
+
+    @Benchmark
+    public int getVarNbytes() throws BMIModelException {
+        return model.getVarNbytes(VAR);
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the scalar and vectorized raster operations on large grids. The vectorized implementation needs Java 17 and the
+ * jdk.incubator.vector module, which the jmh task of the build adds to the benchmark JVMs when available. On older JDKs run
+ * only the scalar implementation, e.g. with -Pjmh.args='-p implementation=scalar'.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RasterOpsBenchmark {
+
+    @Param({ "1000000", "10000000", "100000000" })
+    public int size;
+
+    @Param({ "scalar", "vector" })
+    public String implementation;
+
+    private RasterOps ops;
+    private double[] x;
+    private double[] y;
+    private boolean[] mask;
+    private int[] indices;
+    private double[] gathered;
+
+    @Setup
+    public void setUp() {
+        ops = implementation.equals("vector") ? RasterOps.vector() : RasterOps.scalar();
+        if (ops == null) {
+            throw new IllegalStateException("vector implementation not available");
+        }
+
+        Random random = new Random(42);
+        x = new double[size];
+        y = new double[size];
+        mask = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = random.nextDouble();
+            y[i] = random.nextDouble();
+            mask[i] = random.nextBoolean();
+        }
+
+        //gather and scatter a sixteenth of the cells
+        indices = new int[size / 16];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = random.nextInt(size);
+        }
+        gathered = new double[indices.length];
+    }
+
+    @Benchmark
+    public double[] fill() {
+        ops.fill(y, 0, size, 1.0);
+        return y;
+    }
+
+    @Benchmark
+    public double[] addScalar() {
+        ops.addScalar(y, 0, size, 1.0);
+        return y;
+    }
+
+    @Benchmark
+    public double[] copy() {
+        ops.copy(x, 0, y, 0, size);
+        return y;
+    }
+
+    @Benchmark
+    public double[] gather() {
+        ops.gather(x, indices, gathered, 0);
+        return gathered;
+    }
+
+    @Benchmark
+    public double[] scatter() {
+        ops.scatter(gathered, 0, indices, y);
+        return y;
+    }
+
+    @Benchmark
+    public double[] axpy() {
+        ops.axpy(0.5, x, 0, y, 0, size);
+        return y;
+    }
+
+    @Benchmark
+    public double[] clamp() {
+        ops.clamp(y, 0, size, 0.25, 0.75);
+        return y;
+    }
+
+    @Benchmark
+    public double[] maskedAdd() {
+        ops.maskedAdd(y, 0, size, mask, 0, 1.0);
+        return y;
+    }
+
+    @Benchmark
+    public double min() {
+        return ops.min(x, 0, size);
+    }
+
+    @Benchmark
+    public double max() {
+        return ops.max(x, 0, size);
+    }
+
+    @Benchmark
+    public double sum() {
+        return ops.sum(x, 0, size);
+    }
+
+}
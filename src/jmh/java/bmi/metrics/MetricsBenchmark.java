@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bmi.BMIModelException;
+import bmi.EBMI;
+import bmi.examples.IncrementModel;
+
+/**
+ * Overhead of recording metrics: the same cheap calls, with and without the {@link MetricsEBMI} decorator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private EBMI plain;
+    private EBMI measured;
+    private final int[] indices = { 1, 2, 3, 4 };
+
+    @Setup
+    public void setUp() throws BMIModelException {
+        plain = new IncrementModel();
+        plain.initialize("");
+        measured = new MetricsEBMI(new IncrementModel());
+        measured.initialize("");
+    }
+
+    @Benchmark
+    public double[] getDoubleAtIndicesPlain() throws BMIModelException {
+        return plain.getDoubleAtIndices("var1", indices);
+    }
+
+    @Benchmark
+    public double[] getDoubleAtIndicesMeasured() throws BMIModelException {
+        return measured.getDoubleAtIndices("var1", indices);
+    }
+
+    @Benchmark
+    public double getCurrentTimePlain() throws BMIModelException {
+        return plain.getCurrentTime();
+    }
+
+    @Benchmark
+    public double getCurrentTimeMeasured() throws BMIModelException {
+        return measured.getCurrentTime();
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.output;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bmi.BMIModelException;
+import bmi.examples.IncrementModel;
+
+/**
+ * Time the model thread spends per recorded step, with and without compression. Once the queue is full this includes
+ * waiting for the I/O thread, so the score is bounded by the write speed of the disk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OutputRecorderBenchmark {
+
+    @Param({ "250" })
+    public int gridSize;
+
+    @Param({ "false", "true" })
+    public boolean compress;
+
+    private IncrementModel model;
+    private File file;
+    private OutputRecorder recorder;
+
+    @Setup
+    public void setUp() throws BMIModelException, IOException {
+        model = new IncrementModel(gridSize, gridSize);
+        model.initialize("");
+        file = File.createTempFile("output-recorder-benchmark", ".bin");
+    }
+
+    @Setup(Level.Iteration)
+    public void startRecorder() throws BMIModelException {
+        recorder = new OutputRecorder(model, file, OutputRecorder.DEFAULT_QUEUE_CAPACITY, compress);
+        recorder.addVariable("var1", 1);
+        recorder.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopRecorder() throws BMIModelException {
+        recorder.close();
+    }
+
+    @TearDown
+    public void tearDown() throws BMIModelException {
+        model.finalizeModel();
+        file.delete();
+    }
+
+    @Benchmark
+    public void record() throws BMIModelException {
+        recorder.record();
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.probe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bmi.BMIModelException;
+import bmi.examples.IncrementModel;
+
+/**
+ * Cost of sampling gauge locations once per step with a probe, compared to collecting the arrays returned by
+ * getDoubleAtIndices in a list. Run with "-prof gc" to compare allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProbeBenchmark {
+
+    //samples kept, the list is cleared when it reaches the same size
+    private static final int CAPACITY = 1000;
+
+    @Param({ "300" })
+    public int gauges;
+
+    private IncrementModel model;
+    private ProbeEBMI probing;
+    private int[] indices;
+    private final List<double[]> series = new ArrayList<double[]>();
+
+    @Setup
+    public void setUp() throws BMIModelException {
+        model = new IncrementModel(1000, 1000);
+        probing = new ProbeEBMI(model);
+        probing.initialize("");
+
+        Random random = new Random(1);
+        indices = new int[gauges];
+        for (int i = 0; i < gauges; i++) {
+            indices[i] = random.nextInt(1000 * 1000);
+        }
+        probing.addProbe("var1", indices, CAPACITY);
+    }
+
+    @TearDown
+    public void tearDown() throws BMIModelException {
+        probing.finalizeModel();
+    }
+
+    @Benchmark
+    public void probe() throws BMIModelException {
+        probing.sample();
+    }
+
+    @Benchmark
+    public int getDoubleAtIndices() throws BMIModelException {
+        if (series.size() == CAPACITY) {
+            series.clear();
+        }
+        series.add(model.getDoubleAtIndices("var1", indices));
+        return series.size();
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.regrid;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bmi.BMIModelException;
+
+/**
+ * Cost of regridding a field from a fine to a coarser uniform grid, sequentially and in parallel.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RegridBenchmark {
+
+    @Param({ "NEAREST", "BILINEAR", "CONSERVATIVE" })
+    public RegridMethod method;
+
+    @Param({ "1000" })
+    public int gridSize;
+
+    private SparseMatrix weights;
+    private double[] source;
+    private double[] target;
+
+    @Setup
+    public void setUp() throws BMIModelException {
+        GridDescription fine = GridDescription.uniform(new int[] { gridSize, gridSize }, new double[] { 1, 1 },
+                new double[] { 0, 0 });
+        GridDescription coarse = GridDescription.uniform(new int[] { gridSize / 3, gridSize / 3 }, new double[] { 3, 3 },
+                new double[] { 1, 1 });
+
+        weights = Weights.build(fine, coarse, method);
+        source = new double[fine.getSize()];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = i % 100;
+        }
+        target = new double[coarse.getSize()];
+    }
+
+    @Benchmark
+    public double[] multiply() {
+        weights.multiply(source, target);
+        return target;
+    }
+
+    @Benchmark
+    public double[] multiplyParallel() {
+        weights.multiply(source, target, ForkJoinPool.commonPool());
+        return target;
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.remote;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bmi.BMIModelException;
+import bmi.examples.IncrementModel;
+
+/**
+ * Throughput of getDouble on large grids through a {@link BMIServer} on the loopback interface. The <code>bytes</code>
+ * counter reports the payload transferred per second; divide by 10^9 for GB/s.
+ *
+ * <code>getDouble</code> allocates a new array per call, <code>getDoubleInto</code> copies into a reused array, and
+ * <code>getDoublePipelined</code> keeps <code>depth</code> requests in flight at once.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+//the largest grid keeps depth + 1 copies of 128 MB on the client, and more on the server
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RemoteBenchmark {
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Transferred {
+
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    //8 MB and 128 MB per transfer, the larger one is dominated by bulk transfer rather than per call overhead
+    @Param({ "1000", "4000" })
+    public int gridSize;
+
+    @Param({ "4" })
+    public int depth;
+
+    private BMIServer server;
+    private RemoteEBMI model;
+    private double[][] dest;
+    private CompletableFuture<?>[] pending;
+
+    @Setup
+    public void setUp() throws BMIModelException, IOException {
+        IncrementModel local = new IncrementModel(gridSize, gridSize);
+        server = BMIServer.open(local, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        model = RemoteEBMI.connect(server.getLocalAddress());
+        model.initialize("");
+
+        dest = new double[depth][gridSize * gridSize];
+        pending = new CompletableFuture<?>[depth];
+    }
+
+    @TearDown
+    public void tearDown() throws BMIModelException, IOException {
+        model.finalizeModel();
+        model.close();
+        server.close();
+    }
+
+    @Benchmark
+    public double[] getDouble(Transferred transferred) throws BMIModelException {
+        double[] result = model.getDouble("var1");
+        transferred.bytes += 8L * result.length;
+        return result;
+    }
+
+    @Benchmark
+    public double[] getDoubleInto(Transferred transferred) throws BMIModelException {
+        double[] result = model.getDoubleAsync("var1", dest[0], 0).join();
+        transferred.bytes += 8L * result.length;
+        return result;
+    }
+
+    @Benchmark
+    public void getDoublePipelined(Transferred transferred) throws BMIModelException {
+        for (int i = 0; i < depth; i++) {
+            pending[i] = model.getDoubleAsync("var1", dest[i], 0);
+        }
+        for (int i = 0; i < depth; i++) {
+            pending[i].join();
+            transferred.bytes += 8L * dest[i].length;
+        }
+    }
+
+}
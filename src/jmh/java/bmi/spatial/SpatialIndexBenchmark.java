@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.spatial;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bmi.GridGeometry;
+
+/**
+ * Cost per point of mapping points to the indices of a grid of a million values, compared to a linear search over the
+ * coordinates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SpatialIndexBenchmark {
+
+    private static final int POINTS = 10000;
+
+    @Param({ "UNIFORM", "UNSTRUCTURED" })
+    public String grid;
+
+    @Param({ "1000" })
+    public int gridSize;
+
+    private SpatialIndex index;
+    private double[] gridX;
+    private double[] gridY;
+    private double[] x;
+    private double[] y;
+    private int[] indices;
+    private final int[] neighbours = new int[8];
+    private final double[] distances = new double[8];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        GridGeometry geometry = GridGeometry.uniform(new int[] { gridSize, gridSize }, new double[] { 1, 1 },
+                new double[] { 0, 0 });
+        if (grid.equals("UNSTRUCTURED")) {
+            double[] pointX = new double[gridSize * gridSize];
+            double[] pointY = new double[gridSize * gridSize];
+            for (int i = 0; i < pointX.length; i++) {
+                pointX[i] = random.nextDouble() * gridSize;
+                pointY[i] = random.nextDouble() * gridSize;
+            }
+            geometry = GridGeometry.unstructured(pointX, pointY);
+        }
+        index = SpatialIndex.build(geometry);
+        gridX = geometry.streamX().toArray();
+        gridY = geometry.streamY().toArray();
+
+        x = new double[POINTS];
+        y = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            x[i] = random.nextDouble() * gridSize;
+            y[i] = random.nextDouble() * gridSize;
+        }
+        indices = new int[POINTS];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public int[] nearest() {
+        index.nearest(x, y, Double.POSITIVE_INFINITY, indices);
+        return indices;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public int kNearest8() {
+        int result = 0;
+        for (int i = 0; i < POINTS; i++) {
+            index.kNearest(x[i], y[i], 8, neighbours, distances);
+            result += neighbours[7];
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public int linearSearch() {
+        int result = 0;
+        for (int i = 0; i < 10; i++) {
+            double best = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < gridX.length; j++) {
+                double dx = gridX[j] - x[i];
+                double dy = gridY[j] - y[i];
+                double distance = dx * dx + dy * dy;
+                if (distance < best) {
+                    best = distance;
+                    result = j;
+                }
+            }
+        }
+        return result;
+    }
+
+}
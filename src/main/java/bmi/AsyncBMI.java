@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Extension of the BMI interface with asynchronous stepping, so a driver can overlap reading and writing values of the
+ * previous step with computing the next one. At most one update is pending at a time: starting an update first waits for the
+ * previous one.
+ *
+ * While an update is pending, the output variables and current time can be read, and return the values of the last completed
+ * step. Models that do several steps in one update may instead return the values from before the update until all steps are
+ * done. Other calls wait for the pending update to finish first. Models should still only be called from one thread at a time.
+ */
+public interface AsyncBMI extends BMI {
+
+    /**
+     * Start a single time step in the background.
+     *
+     * @return a future that completes when the step is done. Failures of the step are reported by the future, and by the next
+     *         call that has to wait for the step.
+     * @throws BMIModelException
+     *             if the step cannot be started, e.g. if the end time has already been reached
+     */
+    public CompletableFuture<Void> updateAsync() throws BMIModelException;
+
+    /**
+     * Start updating until the given time in the background.
+     *
+     * @param time
+     *            the time to update to
+     * @return a future that completes when the model has reached the given time
+     * @throws BMIModelException
+     *             if the update cannot be started, e.g. if the time is before the current time or after the end time
+     */
+    public CompletableFuture<Void> updateUntilAsync(double time) throws BMIModelException;
+
+}
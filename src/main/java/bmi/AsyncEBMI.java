@@ -0,0 +1,475 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Decorator that adds asynchronous stepping ({@link AsyncBMI}) to any EBMI model. Before every background update the output
+ * variables and current time are copied, and read from this copy while the update is pending. All other calls wait for the
+ * update to finish first. The wrapped model is only ever called by one thread at a time.
+ *
+ * Output variables of type float64 and float32 are copied. Reading other output variables waits for the update. Copies reuse
+ * their arrays between steps, unless the size of a variable changes, and use {@link BufferedBMI} if the model supports it.
+ * Models without it still allocate the array returned by {@link BMI#getDouble(String)}. Reads during an update return a
+ * copy of the snapshot, as its arrays are overwritten by the next update.
+ */
+public class AsyncEBMI extends ForwardingEBMI implements AsyncBMI {
+
+    private final Executor executor;
+
+    //copy of the output variables, taken before the pending update
+    private final Map<String, Object> snapshot = new HashMap<String, Object>();
+    private double snapshotTime;
+
+    private String[] outputs = null;
+    private CompletableFuture<Void> pending = null;
+
+    /**
+     * Wrap a model, running updates in the common fork join pool.
+     */
+    public AsyncEBMI(EBMI delegate) {
+        this(delegate, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param delegate
+     *            the model to wrap
+     * @param executor
+     *            used to run updates of the model
+     */
+    public AsyncEBMI(EBMI delegate, Executor executor) {
+        super(delegate);
+        this.executor = executor;
+    }
+
+    /**
+     * Wait for the pending update, if any.
+     * 
+     * @throws BMIModelException
+     *             if the update failed
+     */
+    public void awaitUpdate() throws BMIModelException {
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof BMIModelException) {
+                throw (BMIModelException) e.getCause();
+            }
+            throw new BMIModelException("background update failed", e.getCause());
+        } catch (CancellationException e) {
+            throw new BMIModelException("background update cancelled", e);
+        } finally {
+            pending = null;
+        }
+    }
+
+    /**
+     * @return true if an update is still running, and reads should use the snapshot.
+     */
+    private boolean updating() throws BMIModelException {
+        if (pending != null && pending.isDone()) {
+            awaitUpdate();
+        }
+        return pending != null;
+    }
+
+    private void takeSnapshot() throws BMIModelException {
+        EBMI model = getDelegate();
+
+        if (outputs == null) {
+            outputs = model.getOutputVarNames();
+        }
+
+        snapshotTime = model.getCurrentTime();
+
+        for (String name : outputs) {
+            String type = model.getVarType(name);
+            Object previous = snapshot.get(name);
+
+            if (type.equals("float64")) {
+                double[] values = previous instanceof double[] ? (double[]) previous : null;
+                if (model instanceof BufferedBMI && values != null && values.length == model.getVarSize(name)) {
+                    ((BufferedBMI) model).getDouble(name, values, 0, values.length);
+                } else {
+                    double[] current = model.getDouble(name);
+                    if (values != null && values.length == current.length) {
+                        System.arraycopy(current, 0, values, 0, current.length);
+                    } else {
+                        snapshot.put(name, current.clone());
+                    }
+                }
+            } else if (type.equals("float32")) {
+                float[] values = previous instanceof float[] ? (float[]) previous : null;
+                if (model instanceof BufferedBMI && values != null && values.length == model.getVarSize(name)) {
+                    ((BufferedBMI) model).getFloat(name, values, 0, values.length);
+                } else {
+                    float[] current = model.getFloat(name);
+                    if (values != null && values.length == current.length) {
+                        System.arraycopy(current, 0, values, 0, current.length);
+                    } else {
+                        snapshot.put(name, current.clone());
+                    }
+                }
+            }
+        }
+    }
+
+    private void clearSnapshot() {
+        snapshot.clear();
+        outputs = null;
+    }
+
+    private CompletableFuture<Void> start(final double time, final boolean until) throws BMIModelException {
+        awaitUpdate();
+        takeSnapshot();
+
+        final EBMI model = getDelegate();
+
+        pending = CompletableFuture.runAsync(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (until) {
+                        model.updateUntil(time);
+                    } else {
+                        model.update();
+                    }
+                } catch (BMIModelException e) {
+                    throw new CompletionException(e);
+                }
+            }
+        }, executor);
+
+        return pending;
+    }
+
+    @Override
+    public CompletableFuture<Void> updateAsync() throws BMIModelException {
+        return start(0, false);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateUntilAsync(double time) throws BMIModelException {
+        return start(time, true);
+    }
+
+    @Override
+    public double getCurrentTime() throws BMIModelException {
+        if (updating()) {
+            return snapshotTime;
+        }
+        return super.getCurrentTime();
+    }
+
+    @Override
+    public double[] getDouble(String longVarName) throws BMIModelException {
+        if (updating() && snapshot.get(longVarName) instanceof double[]) {
+            return ((double[]) snapshot.get(longVarName)).clone();
+        }
+        awaitUpdate();
+        return super.getDouble(longVarName);
+    }
+
+    @Override
+    public double[] getDoubleAtIndices(String longVarName, int[] indices) throws BMIModelException {
+        if (updating() && snapshot.get(longVarName) instanceof double[]) {
+            double[] values = (double[]) snapshot.get(longVarName);
+            double[] result = new double[indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                result[i] = values[indices[i]];
+            }
+            return result;
+        }
+        awaitUpdate();
+        return super.getDoubleAtIndices(longVarName, indices);
+    }
+
+    @Override
+    public float[] getFloat(String longVarName) throws BMIModelException {
+        if (updating() && snapshot.get(longVarName) instanceof float[]) {
+            return ((float[]) snapshot.get(longVarName)).clone();
+        }
+        awaitUpdate();
+        return super.getFloat(longVarName);
+    }
+
+    @Override
+    public float[] getFloatAtIndices(String longVarName, int[] indices) throws BMIModelException {
+        if (updating() && snapshot.get(longVarName) instanceof float[]) {
+            float[] values = (float[]) snapshot.get(longVarName);
+            float[] result = new float[indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                result[i] = values[indices[i]];
+            }
+            return result;
+        }
+        awaitUpdate();
+        return super.getFloatAtIndices(longVarName, indices);
+    }
+
+    @Override
+    public void initialize(String file) throws BMIModelException {
+        awaitUpdate();
+        clearSnapshot();
+        super.initialize(file);
+    }
+
+    @Override
+    public void initializeConfig(String configFile) throws BMIModelException {
+        awaitUpdate();
+        clearSnapshot();
+        super.initializeConfig(configFile);
+    }
+
+    @Override
+    public void initializeModel() throws BMIModelException {
+        awaitUpdate();
+        clearSnapshot();
+        super.initializeModel();
+    }
+
+    @Override
+    public void finalizeModel() throws BMIModelException {
+        try {
+            awaitUpdate();
+        } catch (BMIModelException e) {
+            //the outcome of the update does not matter anymore, the model is finalized anyway
+        }
+        clearSnapshot();
+        super.finalizeModel();
+    }
+
+    @Override
+    public void update() throws BMIModelException {
+        awaitUpdate();
+        super.update();
+    }
+
+    @Override
+    public void updateUntil(double time) throws BMIModelException {
+        awaitUpdate();
+        super.updateUntil(time);
+    }
+
+    @Override
+    public void updateFrac(double timeFrac) throws BMIModelException {
+        awaitUpdate();
+        super.updateFrac(timeFrac);
+    }
+
+    @Override
+    public String getComponentName() throws BMIModelException {
+        awaitUpdate();
+        return super.getComponentName();
+    }
+
+    @Override
+    public String[] getInputVarNames() throws BMIModelException {
+        awaitUpdate();
+        return super.getInputVarNames();
+    }
+
+    @Override
+    public String[] getOutputVarNames() throws BMIModelException {
+        awaitUpdate();
+        return super.getOutputVarNames();
+    }
+
+    @Override
+    public String getVarType(String longVarName) throws BMIModelException {
+        awaitUpdate();
+        return super.getVarType(longVarName);
+    }
+
+    @Override
+    public String getVarUnits(String longVarName) throws BMIModelException {
+        awaitUpdate();
+        return super.getVarUnits(longVarName);
+    }
+
+    @Override
+    public int getVarRank(String longVarName) throws BMIModelException {
+        awaitUpdate();
+        return super.getVarRank(longVarName);
+    }
+
+    @Override
+    public int getVarSize(String longVarName) throws BMIModelException {
+        awaitUpdate();
+        return super.getVarSize(longVarName);
+    }
+
+    @Override
+    public int getVarNbytes(String longVarName) throws BMIModelException {
+        awaitUpdate();
+        return super.getVarNbytes(longVarName);
+    }
+
+    @Override
+    public double getStartTime() throws BMIModelException {
+        awaitUpdate();
+        return super.getStartTime();
+    }
+
+    @Override
+    public double getEndTime() throws BMIModelException {
+        awaitUpdate();
+        return super.getEndTime();
+    }
+
+    @Override
+    public double getTimeStep() throws BMIModelException {
+        awaitUpdate();
+        return super.getTimeStep();
+    }
+
+    @Override
+    public String getTimeUnits() throws BMIModelException {
+        awaitUpdate();
+        return super.getTimeUnits();
+    }
+
+    @Override
+    public void setDouble(String longVarName, double[] src) throws BMIModelException {
+        awaitUpdate();
+        super.setDouble(longVarName, src);
+    }
+
+    @Override
+    public void setDoubleAtIndices(String longVarName, int[] indices, double[] src) throws BMIModelException {
+        awaitUpdate();
+        super.setDoubleAtIndices(longVarName, indices, src);
+    }
+
+    @Override
+    public void setFloat(String longVarName, float[] src) throws BMIModelException {
+        awaitUpdate();
+        super.setFloat(longVarName, src);
+    }
+
+    @Override
+    public void setFloatAtIndices(String longVarName, int[] indices, float[] src) throws BMIModelException {
+        awaitUpdate();
+        super.setFloatAtIndices(longVarName, indices, src);
+    }
+
+    @Override
+    public BMIGridType getGridType(String longVarName) throws BMIModelException {
+        awaitUpdate();
+        return super.getGridType(longVarName);
+    }
+
+    @Override
+    public int[] getGridShape(String longVarName) throws BMIModelException {
+        awaitUpdate();
+        return super.getGridShape(longVarName);
+    }
+
+    @Override
+    public double[] getGridSpacing(String longVarName) throws BMIModelException {
+        awaitUpdate();
+        return super.getGridSpacing(longVarName);
+    }
+
+    @Override
+    public double[] getGridOrigin(String longVarName) throws BMIModelException {
+        awaitUpdate();
+        return super.getGridOrigin(longVarName);
+    }
+
+    @Override
+    public double[] getGridX(String longVarName) throws BMIModelException {
+        awaitUpdate();
+        return super.getGridX(longVarName);
+    }
+
+    @Override
+    public double[] getGridY(String longVarName) throws BMIModelException {
+        awaitUpdate();
+        return super.getGridY(longVarName);
+    }
+
+    @Override
+    public double[] getGridZ(String longVarName) throws BMIModelException {
+        awaitUpdate();
+        return super.getGridZ(longVarName);
+    }
+
+    @Override
+    public int[] getGridConnectivity(String longVarName) throws BMIModelException {
+        awaitUpdate();
+        return super.getGridConnectivity(longVarName);
+    }
+
+    @Override
+    public int[] getGridOffset(String longVarName) throws BMIModelException {
+        awaitUpdate();
+        return super.getGridOffset(longVarName);
+    }
+
+    @Override
+    public void setStartTime(double startTime) throws BMIModelException {
+        awaitUpdate();
+        super.setStartTime(startTime);
+    }
+
+    @Override
+    public void setEndTime(double endTime) throws BMIModelException {
+        awaitUpdate();
+        super.setEndTime(endTime);
+    }
+
+    @Override
+    public String[] getAttributeNames() throws BMIModelException {
+        awaitUpdate();
+        return super.getAttributeNames();
+    }
+
+    @Override
+    public String getAttributeValue(String attributeName) throws BMIModelException {
+        awaitUpdate();
+        return super.getAttributeValue(attributeName);
+    }
+
+    @Override
+    public void setAttributeValue(String attributeName, String attributeValue) throws BMIModelException {
+        awaitUpdate();
+        super.setAttributeValue(attributeName, attributeValue);
+    }
+
+    @Override
+    public void saveState(String destinationDirectory) throws BMIModelException {
+        awaitUpdate();
+        super.saveState(destinationDirectory);
+    }
+
+    @Override
+    public void loadState(String sourceDirectory) throws BMIModelException {
+        awaitUpdate();
+        super.loadState(sourceDirectory);
+    }
+
+}
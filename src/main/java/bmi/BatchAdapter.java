@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+/**
+ * Adds the {@link BatchBMI} interface to any BMI model, by getting or setting the variables of a batch one at a time. If the
+ * model implements {@link BufferedBMI}, values are copied directly into the packed array.
+ */
+public class BatchAdapter extends ForwardingBMI implements BatchBMI {
+
+    //set if the model supports copying into caller supplied arrays
+    private final BufferedBMI buffered;
+
+    /**
+     * Returns the given model if it already supports batches, or wraps it in an adapter otherwise.
+     * 
+     * @param model
+     *            the model
+     * @return a model supporting batches
+     */
+    public static BatchBMI of(BMI model) {
+        if (model instanceof BatchBMI) {
+            return (BatchBMI) model;
+        }
+        return new BatchAdapter(model);
+    }
+
+    public BatchAdapter(BMI delegate) {
+        super(delegate);
+        if (delegate instanceof BufferedBMI) {
+            this.buffered = (BufferedBMI) delegate;
+        } else {
+            this.buffered = null;
+        }
+    }
+
+    @Override
+    public void getDoubleBatch(VariableBatch batch, double[] dest, int offset) throws BMIModelException {
+        int[] indices = batch.getIndices();
+
+        for (int i = 0; i < batch.size(); i++) {
+            String name = batch.getName(i);
+            int position = offset + batch.getOffset(i);
+
+            if (buffered != null) {
+                if (indices == null) {
+                    buffered.getDouble(name, dest, position, batch.getLength(i));
+                } else {
+                    buffered.getDoubleAtIndices(name, indices, dest, position);
+                }
+            } else {
+                double[] values = indices == null ? getDelegate().getDouble(name) : getDelegate().getDoubleAtIndices(name,
+                        indices);
+                System.arraycopy(values, 0, dest, position, batch.getLength(i));
+            }
+        }
+    }
+
+    @Override
+    public void setDoubleBatch(VariableBatch batch, double[] src, int offset) throws BMIModelException {
+        int[] indices = batch.getIndices();
+
+        for (int i = 0; i < batch.size(); i++) {
+            String name = batch.getName(i);
+            int position = offset + batch.getOffset(i);
+            int length = batch.getLength(i);
+
+            if (buffered != null) {
+                if (indices == null) {
+                    buffered.setDouble(name, src, position, length);
+                } else {
+                    buffered.setDoubleAtIndices(name, indices, src, position);
+                }
+            } else {
+                double[] values = new double[length];
+                System.arraycopy(src, position, values, 0, length);
+                if (indices == null) {
+                    getDelegate().setDouble(name, values);
+                } else {
+                    getDelegate().setDoubleAtIndices(name, indices, values);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void getFloatBatch(VariableBatch batch, float[] dest, int offset) throws BMIModelException {
+        int[] indices = batch.getIndices();
+
+        for (int i = 0; i < batch.size(); i++) {
+            String name = batch.getName(i);
+            int position = offset + batch.getOffset(i);
+
+            if (buffered != null) {
+                if (indices == null) {
+                    buffered.getFloat(name, dest, position, batch.getLength(i));
+                } else {
+                    buffered.getFloatAtIndices(name, indices, dest, position);
+                }
+            } else {
+                float[] values = indices == null ? getDelegate().getFloat(name) : getDelegate().getFloatAtIndices(name, indices);
+                System.arraycopy(values, 0, dest, position, batch.getLength(i));
+            }
+        }
+    }
+
+    @Override
+    public void setFloatBatch(VariableBatch batch, float[] src, int offset) throws BMIModelException {
+        int[] indices = batch.getIndices();
+
+        for (int i = 0; i < batch.size(); i++) {
+            String name = batch.getName(i);
+            int position = offset + batch.getOffset(i);
+            int length = batch.getLength(i);
+
+            if (buffered != null) {
+                if (indices == null) {
+                    buffered.setFloat(name, src, position, length);
+                } else {
+                    buffered.setFloatAtIndices(name, indices, src, position);
+                }
+            } else {
+                float[] values = new float[length];
+                System.arraycopy(src, position, values, 0, length);
+                if (indices == null) {
+                    getDelegate().setFloat(name, values);
+                } else {
+                    getDelegate().setFloatAtIndices(name, indices, values);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+/**
+ * Extension of the BMI interface to get or set a number of variables in a single call, using a packed array as described by
+ * a {@link VariableBatch}. Use {@link BatchAdapter#of(BMI)} to get this interface for any BMI model.
+ */
+public interface BatchBMI extends BMI {
+
+    /**
+     * Copy the values of all variables in the batch into the given array.
+     * 
+     * @param batch
+     *            the variables (and indices) to get
+     * @param dest
+     *            the array to copy the values into
+     * @param offset
+     *            position in <code>dest</code> of the start of the packed values
+     * @throws BMIModelException
+     *             in case of problems
+     */
+    public void getDoubleBatch(VariableBatch batch, double[] dest, int offset) throws BMIModelException;
+
+    /**
+     * Set the values of all variables in the batch from the given array.
+     * 
+     * @param batch
+     *            the variables (and indices) to set
+     * @param src
+     *            the array containing the packed values
+     * @param offset
+     *            position in <code>src</code> of the start of the packed values
+     * @throws BMIModelException
+     *             in case of problems
+     */
+    public void setDoubleBatch(VariableBatch batch, double[] src, int offset) throws BMIModelException;
+
+    public void getFloatBatch(VariableBatch batch, float[] dest, int offset) throws BMIModelException;
+
+    public void setFloatBatch(VariableBatch batch, float[] src, int offset) throws BMIModelException;
+
+}
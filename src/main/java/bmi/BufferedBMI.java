@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Extension of the BMI interface with getters and setters that use a buffer supplied by the caller, instead of allocating a
+ * new array for every call. Useful when values are polled every timestep on large grids.
+ *
+ * Array variants copy <code>length</code> values between the variable (starting at its first element) and the given array
+ * (starting at <code>offset</code>). Buffer variants use the buffer's position and remaining elements, and advance the
+ * position by the number of values copied, like the bulk methods of {@link java.nio.DoubleBuffer}.
+ */
+public interface BufferedBMI extends BMI {
+
+    /**
+     * Copy the first <code>length</code> values of a variable into the given array.
+     *
+     * @param longVarName
+     *            the variable to get
+     * @param dest
+     *            the array to copy the values into
+     * @param offset
+     *            the first element of <code>dest</code> to write to
+     * @param length
+     *            the number of values to copy, at most the size of the variable
+     * @throws BMIModelException
+     *             in case of problems
+     */
+    public void getDouble(String longVarName, double[] dest, int offset, int length) throws BMIModelException;
+
+    /**
+     * Copy all values of a variable into the given buffer. The buffer should have at least getVarSize() elements remaining.
+     *
+     * @param longVarName
+     *            the variable to get
+     * @param dest
+     *            the buffer to copy the values into
+     * @throws BMIModelException
+     *             in case of problems
+     */
+    public void getDouble(String longVarName, DoubleBuffer dest) throws BMIModelException;
+
+    /**
+     * Copy the values at the given indices of a variable into the given array, starting at <code>offset</code>.
+     *
+     * @param longVarName
+     *            the variable to get
+     * @param indices
+     *            the indices of the values to copy
+     * @param dest
+     *            the array to copy the values into
+     * @param offset
+     *            the first element of <code>dest</code> to write to
+     * @throws BMIModelException
+     *             in case of problems
+     */
+    public void getDoubleAtIndices(String longVarName, int[] indices, double[] dest, int offset) throws BMIModelException;
+
+    public void getDoubleAtIndices(String longVarName, int[] indices, DoubleBuffer dest) throws BMIModelException;
+
+    /**
+     * Set the first <code>length</code> values of a variable from the given array, starting at <code>offset</code>.
+     *
+     * @param longVarName
+     *            the variable to set
+     * @param src
+     *            the array to copy the values from
+     * @param offset
+     *            the first element of <code>src</code> to read from
+     * @param length
+     *            the number of values to copy, at most the size of the variable
+     * @throws BMIModelException
+     *             in case of problems
+     */
+    public void setDouble(String longVarName, double[] src, int offset, int length) throws BMIModelException;
+
+    public void setDouble(String longVarName, DoubleBuffer src) throws BMIModelException;
+
+    public void setDoubleAtIndices(String longVarName, int[] indices, double[] src, int offset) throws BMIModelException;
+
+    public void setDoubleAtIndices(String longVarName, int[] indices, DoubleBuffer src) throws BMIModelException;
+
+    public void getFloat(String longVarName, float[] dest, int offset, int length) throws BMIModelException;
+
+    public void getFloat(String longVarName, FloatBuffer dest) throws BMIModelException;
+
+    public void getFloatAtIndices(String longVarName, int[] indices, float[] dest, int offset) throws BMIModelException;
+
+    public void getFloatAtIndices(String longVarName, int[] indices, FloatBuffer dest) throws BMIModelException;
+
+    public void setFloat(String longVarName, float[] src, int offset, int length) throws BMIModelException;
+
+    public void setFloat(String longVarName, FloatBuffer src) throws BMIModelException;
+
+    public void setFloatAtIndices(String longVarName, int[] indices, float[] src, int offset) throws BMIModelException;
+
+    public void setFloatAtIndices(String longVarName, int[] indices, FloatBuffer src) throws BMIModelException;
+
+}
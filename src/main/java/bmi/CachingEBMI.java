@@ -0,0 +1,244 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator that caches the metadata of variables, which does not change once a model is initialized. Useful when the model
+ * is behind a bridge and every call is a round trip, while couplers and user interfaces ask for the same metadata over and
+ * over.
+ *
+ * Cached are getVarType, getVarUnits, getVarRank, getGridType, getGridShape, getGridSpacing and getGridOrigin. Values are
+ * cached on first use after the model has been initialized with initialize() or initializeModel(), and dropped again by
+ * finalizeModel(), initializeConfig() and initialize(). Before initialization all calls are forwarded to the model.
+ *
+ * By default the cached arrays themselves are returned, and should not be modified by the caller. Pass
+ * <code>copyArrays</code> to get a fresh copy on every call instead.
+ */
+public class CachingEBMI extends ForwardingEBMI {
+
+    private final boolean copyArrays;
+
+    private final ConcurrentMap<String, String> types = new ConcurrentHashMap<String, String>();
+    private final ConcurrentMap<String, String> units = new ConcurrentHashMap<String, String>();
+    private final ConcurrentMap<String, Integer> ranks = new ConcurrentHashMap<String, Integer>();
+    private final ConcurrentMap<String, BMIGridType> gridTypes = new ConcurrentHashMap<String, BMIGridType>();
+    private final ConcurrentMap<String, int[]> gridShapes = new ConcurrentHashMap<String, int[]>();
+    private final ConcurrentMap<String, double[]> gridSpacings = new ConcurrentHashMap<String, double[]>();
+    private final ConcurrentMap<String, double[]> gridOrigins = new ConcurrentHashMap<String, double[]>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private volatile boolean initialized = false;
+
+    /**
+     * Wrap a model, returning the cached arrays themselves.
+     */
+    public CachingEBMI(EBMI delegate) {
+        this(delegate, false);
+    }
+
+    /**
+     * @param delegate
+     *            the model to wrap
+     * @param copyArrays
+     *            if true, return a copy of cached arrays on every call
+     */
+    public CachingEBMI(EBMI delegate, boolean copyArrays) {
+        super(delegate);
+        this.copyArrays = copyArrays;
+    }
+
+    /**
+     * Drop all cached metadata. The next call for each value is forwarded to the model again.
+     */
+    public void invalidate() {
+        types.clear();
+        units.clear();
+        ranks.clear();
+        gridTypes.clear();
+        gridShapes.clear();
+        gridSpacings.clear();
+        gridOrigins.clear();
+    }
+
+    /**
+     * @return the number of calls answered from the cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of calls forwarded to the model, including those made before initialization.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the fraction of calls answered from the cache, or 0 if no calls were made yet.
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        if (total == 0) {
+            return 0.0;
+        }
+        return (double) hits / total;
+    }
+
+    public void resetCounters() {
+        hits.reset();
+        misses.reset();
+    }
+
+    private <V> V cached(ConcurrentMap<String, V> cache, String longVarName) {
+        if (!initialized) {
+            misses.increment();
+            return null;
+        }
+        V result = cache.get(longVarName);
+        if (result == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return result;
+    }
+
+    private <V> void store(ConcurrentMap<String, V> cache, String longVarName, V value) {
+        //never cache values fetched before initialization, or null values
+        if (initialized && value != null) {
+            cache.put(longVarName, value);
+        }
+    }
+
+    private int[] copy(int[] values) {
+        return copyArrays && values != null ? values.clone() : values;
+    }
+
+    private double[] copy(double[] values) {
+        return copyArrays && values != null ? values.clone() : values;
+    }
+
+    @Override
+    public void initialize(String file) throws BMIModelException {
+        initialized = false;
+        invalidate();
+        super.initialize(file);
+        initialized = true;
+    }
+
+    @Override
+    public void initializeConfig(String configFile) throws BMIModelException {
+        initialized = false;
+        invalidate();
+        super.initializeConfig(configFile);
+    }
+
+    @Override
+    public void initializeModel() throws BMIModelException {
+        super.initializeModel();
+        initialized = true;
+    }
+
+    @Override
+    public void finalizeModel() throws BMIModelException {
+        initialized = false;
+        invalidate();
+        super.finalizeModel();
+    }
+
+    @Override
+    public String getVarType(String longVarName) throws BMIModelException {
+        String result = cached(types, longVarName);
+        if (result == null) {
+            result = super.getVarType(longVarName);
+            store(types, longVarName, result);
+        }
+        return result;
+    }
+
+    @Override
+    public String getVarUnits(String longVarName) throws BMIModelException {
+        String result = cached(units, longVarName);
+        if (result == null) {
+            result = super.getVarUnits(longVarName);
+            store(units, longVarName, result);
+        }
+        return result;
+    }
+
+    @Override
+    public int getVarRank(String longVarName) throws BMIModelException {
+        Integer result = cached(ranks, longVarName);
+        if (result == null) {
+            result = super.getVarRank(longVarName);
+            store(ranks, longVarName, result);
+        }
+        return result;
+    }
+
+    @Override
+    public BMIGridType getGridType(String longVarName) throws BMIModelException {
+        BMIGridType result = cached(gridTypes, longVarName);
+        if (result == null) {
+            result = super.getGridType(longVarName);
+            store(gridTypes, longVarName, result);
+        }
+        return result;
+    }
+
+    @Override
+    public int[] getGridShape(String longVarName) throws BMIModelException {
+        int[] result = cached(gridShapes, longVarName);
+        if (result == null) {
+            //keep a private copy, the model may reuse its array
+            result = super.getGridShape(longVarName);
+            result = result == null ? null : result.clone();
+            store(gridShapes, longVarName, result);
+        }
+        return copy(result);
+    }
+
+    @Override
+    public double[] getGridSpacing(String longVarName) throws BMIModelException {
+        double[] result = cached(gridSpacings, longVarName);
+        if (result == null) {
+            result = super.getGridSpacing(longVarName);
+            result = result == null ? null : result.clone();
+            store(gridSpacings, longVarName, result);
+        }
+        return copy(result);
+    }
+
+    @Override
+    public double[] getGridOrigin(String longVarName) throws BMIModelException {
+        double[] result = cached(gridOrigins, longVarName);
+        if (result == null) {
+            result = super.getGridOrigin(longVarName);
+            result = result == null ? null : result.clone();
+            store(gridOrigins, longVarName, result);
+        }
+        return copy(result);
+    }
+
+}
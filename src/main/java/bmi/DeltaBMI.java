@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+/**
+ * Extension of the BMI interface to exchange only the values of a variable that changed, instead of the whole variable. Useful
+ * for consumers (visualization, couplers, writers) that poll a variable of which only a small part changes each step, e.g. a
+ * snowmelt front or flood extent.
+ *
+ * Models keep a version per block of values, so a delta may contain unchanged values near changed ones, but never misses a
+ * change. Version 0 always returns all values.
+ */
+public interface DeltaBMI extends BMI {
+
+    /**
+     * Get the current version of a variable. Changes made after this call will be returned by
+     * {@link #getDoubleChanges(String, long)} for this version.
+     *
+     * @param longVarName
+     *            the variable to get the version of
+     * @return the current version
+     * @throws BMIModelException
+     *             in case of problems
+     */
+    public long getVarVersion(String longVarName) throws BMIModelException;
+
+    /**
+     * Get the values of a variable that changed since the given version.
+     *
+     * @param longVarName
+     *            the variable to get
+     * @param since
+     *            a version returned by {@link #getVarVersion(String)} or {@link VariableDelta#getVersion()}, or 0 for all
+     *            values
+     * @return the changed values and their indices, and the version to pass to the next call
+     * @throws BMIModelException
+     *             in case of problems
+     */
+    public VariableDelta getDoubleChanges(String longVarName, long since) throws BMIModelException;
+
+    /**
+     * Set the values of a delta, e.g. one obtained from another model with {@link #getDoubleChanges(String, long)}. The version
+     * of the delta is not used.
+     *
+     * @param longVarName
+     *            the variable to set
+     * @param delta
+     *            the values to set
+     * @throws BMIModelException
+     *             in case of problems, or if the delta does not fit the variable
+     */
+    public void applyDoubleChanges(String longVarName, VariableDelta delta) throws BMIModelException;
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+/**
+ * BMI implementation that forwards all calls to another model. Base class for adapters and decorators that only need to
+ * change some of the calls.
+ */
+public abstract class ForwardingBMI implements BMI {
+
+    private final BMI delegate;
+
+    protected ForwardingBMI(BMI delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate model cannot be null");
+        }
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return the model all calls are forwarded to.
+     */
+    public BMI getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void initialize(String file) throws BMIModelException {
+        delegate.initialize(file);
+    }
+
+    @Override
+    public void update() throws BMIModelException {
+        delegate.update();
+    }
+
+    @Override
+    public void updateUntil(double time) throws BMIModelException {
+        delegate.updateUntil(time);
+    }
+
+    @Override
+    public void updateFrac(double timeFrac) throws BMIModelException {
+        delegate.updateFrac(timeFrac);
+    }
+
+    @Override
+    public void finalizeModel() throws BMIModelException {
+        delegate.finalizeModel();
+    }
+
+    @Override
+    public String getComponentName() throws BMIModelException {
+        return delegate.getComponentName();
+    }
+
+    @Override
+    public String[] getInputVarNames() throws BMIModelException {
+        return delegate.getInputVarNames();
+    }
+
+    @Override
+    public String[] getOutputVarNames() throws BMIModelException {
+        return delegate.getOutputVarNames();
+    }
+
+    @Override
+    public String getVarType(String longVarName) throws BMIModelException {
+        return delegate.getVarType(longVarName);
+    }
+
+    @Override
+    public String getVarUnits(String longVarName) throws BMIModelException {
+        return delegate.getVarUnits(longVarName);
+    }
+
+    @Override
+    public int getVarRank(String longVarName) throws BMIModelException {
+        return delegate.getVarRank(longVarName);
+    }
+
+    @Override
+    public int getVarSize(String longVarName) throws BMIModelException {
+        return delegate.getVarSize(longVarName);
+    }
+
+    @Override
+    public int getVarNbytes(String longVarName) throws BMIModelException {
+        return delegate.getVarNbytes(longVarName);
+    }
+
+    @Override
+    public double getStartTime() throws BMIModelException {
+        return delegate.getStartTime();
+    }
+
+    @Override
+    public double getCurrentTime() throws BMIModelException {
+        return delegate.getCurrentTime();
+    }
+
+    @Override
+    public double getEndTime() throws BMIModelException {
+        return delegate.getEndTime();
+    }
+
+    @Override
+    public double getTimeStep() throws BMIModelException {
+        return delegate.getTimeStep();
+    }
+
+    @Override
+    public String getTimeUnits() throws BMIModelException {
+        return delegate.getTimeUnits();
+    }
+
+    @Override
+    public double[] getDouble(String longVarName) throws BMIModelException {
+        return delegate.getDouble(longVarName);
+    }
+
+    @Override
+    public double[] getDoubleAtIndices(String longVarName, int[] indices) throws BMIModelException {
+        return delegate.getDoubleAtIndices(longVarName, indices);
+    }
+
+    @Override
+    public void setDouble(String longVarName, double[] src) throws BMIModelException {
+        delegate.setDouble(longVarName, src);
+    }
+
+    @Override
+    public void setDoubleAtIndices(String longVarName, int[] indices, double[] src) throws BMIModelException {
+        delegate.setDoubleAtIndices(longVarName, indices, src);
+    }
+
+    @Override
+    public float[] getFloat(String longVarName) throws BMIModelException {
+        return delegate.getFloat(longVarName);
+    }
+
+    @Override
+    public float[] getFloatAtIndices(String longVarName, int[] indices) throws BMIModelException {
+        return delegate.getFloatAtIndices(longVarName, indices);
+    }
+
+    @Override
+    public void setFloat(String longVarName, float[] src) throws BMIModelException {
+        delegate.setFloat(longVarName, src);
+    }
+
+    @Override
+    public void setFloatAtIndices(String longVarName, int[] indices, float[] src) throws BMIModelException {
+        delegate.setFloatAtIndices(longVarName, indices, src);
+    }
+
+    @Override
+    public BMIGridType getGridType(String longVarName) throws BMIModelException {
+        return delegate.getGridType(longVarName);
+    }
+
+    @Override
+    public int[] getGridShape(String longVarName) throws BMIModelException {
+        return delegate.getGridShape(longVarName);
+    }
+
+    @Override
+    public double[] getGridSpacing(String longVarName) throws BMIModelException {
+        return delegate.getGridSpacing(longVarName);
+    }
+
+    @Override
+    public double[] getGridOrigin(String longVarName) throws BMIModelException {
+        return delegate.getGridOrigin(longVarName);
+    }
+
+    @Override
+    public double[] getGridX(String longVarName) throws BMIModelException {
+        return delegate.getGridX(longVarName);
+    }
+
+    @Override
+    public double[] getGridY(String longVarName) throws BMIModelException {
+        return delegate.getGridY(longVarName);
+    }
+
+    @Override
+    public double[] getGridZ(String longVarName) throws BMIModelException {
+        return delegate.getGridZ(longVarName);
+    }
+
+    @Override
+    public int[] getGridConnectivity(String longVarName) throws BMIModelException {
+        return delegate.getGridConnectivity(longVarName);
+    }
+
+    @Override
+    public int[] getGridOffset(String longVarName) throws BMIModelException {
+        return delegate.getGridOffset(longVarName);
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+/**
+ * EBMI implementation that forwards all calls to another model. Base class for decorators that only need to change some of
+ * the calls.
+ */
+public abstract class ForwardingEBMI extends ForwardingBMI implements EBMI {
+
+    private final EBMI delegate;
+
+    protected ForwardingEBMI(EBMI delegate) {
+        super(delegate);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public EBMI getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void initializeConfig(String configFile) throws BMIModelException {
+        delegate.initializeConfig(configFile);
+    }
+
+    @Override
+    public void initializeModel() throws BMIModelException {
+        delegate.initializeModel();
+    }
+
+    @Override
+    public void setStartTime(double startTime) throws BMIModelException {
+        delegate.setStartTime(startTime);
+    }
+
+    @Override
+    public void setEndTime(double endTime) throws BMIModelException {
+        delegate.setEndTime(endTime);
+    }
+
+    @Override
+    public String[] getAttributeNames() throws BMIModelException {
+        return delegate.getAttributeNames();
+    }
+
+    @Override
+    public String getAttributeValue(String attributeName) throws BMIModelException {
+        return delegate.getAttributeValue(attributeName);
+    }
+
+    @Override
+    public void setAttributeValue(String attributeName, String attributeValue) throws BMIModelException {
+        delegate.setAttributeValue(attributeName, attributeValue);
+    }
+
+    @Override
+    public void saveState(String destinationDirectory) throws BMIModelException {
+        delegate.saveState(destinationDirectory);
+    }
+
+    @Override
+    public void loadState(String sourceDirectory) throws BMIModelException {
+        delegate.loadState(sourceDirectory);
+    }
+
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+/**
+ * Extension of the BMI interface that describes the grid of a variable with a {@link GridGeometry}, so coordinates can be
+ * computed on demand instead of copying full coordinate arrays.
+ */
+public interface GeometryBMI extends BMI {
+
+    /**
+     * Get the geometry of the grid of a variable.
+     *
+     * @param longVarName
+     *            the variable to get the grid geometry of
+     * @return the geometry of the grid
+     * @throws BMIModelException
+     *             in case of problems
+     */
+    public GridGeometry getGridGeometry(String longVarName) throws BMIModelException;
+
+}
@@ -0,0 +1,466 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+/**
+ * Coordinates of the values of a two dimensional grid, computed on demand. Shapes are in row major order: { rows, columns },
+ * and spacing and origin use the same order: { y, x }. Values are identified by their row major index.
+ *
+ * Coordinates can be obtained per index, per row, or with an iterator or stream over all values, none of which allocate
+ * arrays for uniform and rectilinear grids. Only {@link #getGridX()} and {@link #getGridY()} return full arrays, in the layout
+ * of {@link BMI#getGridX(String)} and {@link BMI#getGridY(String)}. These are computed on first use and cached.
+ *
+ * Geometries are immutable, and can be shared between threads.
+ */
+public abstract class GridGeometry {
+
+    private final int rows;
+    private final int columns;
+
+    private volatile double[] gridX = null;
+    private volatile double[] gridY = null;
+
+    protected GridGeometry(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * @param shape
+     *            { rows, columns }, or { columns } for a single row
+     * @param spacing
+     *            { dy, dx }, or { dx }
+     * @param origin
+     *            { y, x } of the first value, or { x }
+     */
+    public static GridGeometry uniform(int[] shape, double[] spacing, double[] origin) {
+        if (shape.length == 1 && spacing.length == 1 && origin.length == 1) {
+            return new Uniform(1, shape[0], 1.0, spacing[0], 0.0, origin[0]);
+        }
+        if (shape.length != 2 || spacing.length != 2 || origin.length != 2) {
+            throw new IllegalArgumentException("only one and two dimensional grids are supported");
+        }
+        return new Uniform(shape[0], shape[1], spacing[0], spacing[1], origin[0], origin[1]);
+    }
+
+    /**
+     * @param x
+     *            the x coordinate of every column
+     * @param y
+     *            the y coordinate of every row
+     */
+    public static GridGeometry rectilinear(double[] x, double[] y) {
+        return new Rectilinear(x.clone(), y.clone());
+    }
+
+    /**
+     * @param shape
+     *            { rows, columns }
+     * @param x
+     *            the x coordinate of every value, row major
+     * @param y
+     *            the y coordinate of every value, row major
+     */
+    public static GridGeometry structured(int[] shape, double[] x, double[] y) {
+        if (shape.length != 2) {
+            throw new IllegalArgumentException("only two dimensional structured grids are supported");
+        }
+        return new PointSet(BMIGridType.STRUCTURED, shape[0], shape[1], x.clone(), y.clone());
+    }
+
+    /**
+     * @param x
+     *            the x coordinate of every value
+     * @param y
+     *            the y coordinate of every value
+     */
+    public static GridGeometry unstructured(double[] x, double[] y) {
+        return new PointSet(BMIGridType.UNSTRUCTURED, 1, x.length, x.clone(), y.clone());
+    }
+
+    /**
+     * Get the geometry of the grid of a variable. Models implementing {@link GeometryBMI} are asked directly, otherwise the
+     * geometry is created from the grid functions of the model.
+     *
+     * @throws BMIModelException
+     *             if the model does not provide the required information, or the grid is not supported
+     */
+    public static GridGeometry of(BMI model, String longVarName) throws BMIModelException {
+        if (model instanceof GeometryBMI) {
+            return ((GeometryBMI) model).getGridGeometry(longVarName);
+        }
+
+        try {
+            switch (model.getGridType(longVarName)) {
+            case UNIFORM:
+                return uniform(model.getGridShape(longVarName), model.getGridSpacing(longVarName),
+                        model.getGridOrigin(longVarName));
+            case RECTILINEAR:
+                return rectilinear(model.getGridX(longVarName), model.getGridY(longVarName));
+            case STRUCTURED:
+                return structured(model.getGridShape(longVarName), model.getGridX(longVarName), model.getGridY(longVarName));
+            default:
+                return unstructured(model.getGridX(longVarName), model.getGridY(longVarName));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new BMIModelException("unsupported grid for variable " + longVarName + ": " + e.getMessage(), e);
+        }
+    }
+
+    public abstract BMIGridType getType();
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the number of values on this grid.
+     */
+    public int getSize() {
+        return rows * columns;
+    }
+
+    /**
+     * @return the x coordinate of the value at the given (row major) index.
+     */
+    public abstract double getX(int index);
+
+    /**
+     * @return the y coordinate of the value at the given (row major) index.
+     */
+    public abstract double getY(int index);
+
+    /**
+     * Copy the x coordinates of all values in a row into <code>dest</code>, starting at <code>offset</code>.
+     */
+    public void getRowX(int row, double[] dest, int offset) {
+        int first = checkRow(row) * columns;
+        for (int i = 0; i < columns; i++) {
+            dest[offset + i] = getX(first + i);
+        }
+    }
+
+    /**
+     * Copy the y coordinates of all values in a row into <code>dest</code>, starting at <code>offset</code>.
+     */
+    public void getRowY(int row, double[] dest, int offset) {
+        int first = checkRow(row) * columns;
+        for (int i = 0; i < columns; i++) {
+            dest[offset + i] = getY(first + i);
+        }
+    }
+
+    /**
+     * @return the given row, if it is part of this grid.
+     */
+    protected int checkRow(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("row " + row + " outside of grid with " + rows + " rows");
+        }
+        return row;
+    }
+
+    /**
+     * @return an iterator over the x coordinates of all values, in row major order.
+     */
+    public PrimitiveIterator.OfDouble iterateX() {
+        return new CoordinateIterator(true);
+    }
+
+    /**
+     * @return an iterator over the y coordinates of all values, in row major order.
+     */
+    public PrimitiveIterator.OfDouble iterateY() {
+        return new CoordinateIterator(false);
+    }
+
+    /**
+     * @return a stream of the x coordinates of all values, in row major order. Can be split for parallel processing.
+     */
+    public DoubleStream streamX() {
+        return IntStream.range(0, getSize()).mapToDouble(new IntToDoubleFunction() {
+            @Override
+            public double applyAsDouble(int index) {
+                return getX(index);
+            }
+        });
+    }
+
+    /**
+     * @return a stream of the y coordinates of all values, in row major order. Can be split for parallel processing.
+     */
+    public DoubleStream streamY() {
+        return IntStream.range(0, getSize()).mapToDouble(new IntToDoubleFunction() {
+            @Override
+            public double applyAsDouble(int index) {
+                return getY(index);
+            }
+        });
+    }
+
+    /**
+     * Returns the x coordinates as defined by {@link BMI#getGridX(String)}: one per column for uniform and rectilinear grids,
+     * one per value otherwise. Computed on first use and cached, so should not be modified.
+     */
+    public double[] getGridX() {
+        double[] result = gridX;
+        if (result == null) {
+            //computing twice in a race is harmless, both results are equal
+            result = computeGridX();
+            gridX = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the y coordinates as defined by {@link BMI#getGridY(String)}: one per row for uniform and rectilinear grids, one
+     * per value otherwise. Computed on first use and cached, so should not be modified.
+     */
+    public double[] getGridY() {
+        double[] result = gridY;
+        if (result == null) {
+            result = computeGridY();
+            gridY = result;
+        }
+        return result;
+    }
+
+    /**
+     * Compute the array returned by {@link #getGridX()}. Only called once, unless called concurrently.
+     */
+    protected abstract double[] computeGridX();
+
+    protected abstract double[] computeGridY();
+
+    @Override
+    public String toString() {
+        return "GridGeometry [type=" + getType() + ", rows=" + rows + ", columns=" + columns + "]";
+    }
+
+    private final class CoordinateIterator implements PrimitiveIterator.OfDouble {
+
+        private final boolean x;
+        private final int size = getSize();
+        private int next = 0;
+
+        CoordinateIterator(boolean x) {
+            this.x = x;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public double nextDouble() {
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            int index = next++;
+            return x ? getX(index) : getY(index);
+        }
+    }
+
+    /**
+     * Grid completely defined by its shape, spacing and origin. Value (row, column) is at (origin + index * spacing).
+     */
+    private static final class Uniform extends GridGeometry {
+
+        private final double dy;
+        private final double dx;
+        private final double y0;
+        private final double x0;
+
+        Uniform(int rows, int columns, double dy, double dx, double y0, double x0) {
+            super(rows, columns);
+            this.dy = dy;
+            this.dx = dx;
+            this.y0 = y0;
+            this.x0 = x0;
+        }
+
+        @Override
+        public BMIGridType getType() {
+            return BMIGridType.UNIFORM;
+        }
+
+        @Override
+        public double getX(int index) {
+            return x0 + (index % getColumns()) * dx;
+        }
+
+        @Override
+        public double getY(int index) {
+            return y0 + (index / getColumns()) * dy;
+        }
+
+        @Override
+        public void getRowX(int row, double[] dest, int offset) {
+            checkRow(row);
+            for (int i = 0; i < getColumns(); i++) {
+                dest[offset + i] = x0 + i * dx;
+            }
+        }
+
+        @Override
+        public void getRowY(int row, double[] dest, int offset) {
+            double y = y0 + checkRow(row) * dy;
+            for (int i = 0; i < getColumns(); i++) {
+                dest[offset + i] = y;
+            }
+        }
+
+        @Override
+        protected double[] computeGridX() {
+            double[] result = new double[getColumns()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = x0 + i * dx;
+            }
+            return result;
+        }
+
+        @Override
+        protected double[] computeGridY() {
+            double[] result = new double[getRows()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = y0 + i * dy;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Grid defined by the x coordinate of every column and the y coordinate of every row.
+     */
+    private static final class Rectilinear extends GridGeometry {
+
+        private final double[] x;
+        private final double[] y;
+
+        Rectilinear(double[] x, double[] y) {
+            super(y.length, x.length);
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public BMIGridType getType() {
+            return BMIGridType.RECTILINEAR;
+        }
+
+        @Override
+        public double getX(int index) {
+            return x[index % x.length];
+        }
+
+        @Override
+        public double getY(int index) {
+            return y[index / x.length];
+        }
+
+        @Override
+        public void getRowX(int row, double[] dest, int offset) {
+            checkRow(row);
+            System.arraycopy(x, 0, dest, offset, x.length);
+        }
+
+        @Override
+        public void getRowY(int row, double[] dest, int offset) {
+            double value = y[checkRow(row)];
+            for (int i = 0; i < x.length; i++) {
+                dest[offset + i] = value;
+            }
+        }
+
+        @Override
+        protected double[] computeGridX() {
+            return x;
+        }
+
+        @Override
+        protected double[] computeGridY() {
+            return y;
+        }
+    }
+
+    /**
+     * Structured or unstructured grid, with the coordinates of every value given explicitly.
+     */
+    private static final class PointSet extends GridGeometry {
+
+        private final BMIGridType type;
+        private final double[] x;
+        private final double[] y;
+
+        PointSet(BMIGridType type, int rows, int columns, double[] x, double[] y) {
+            super(rows, columns);
+            if (x.length != rows * columns || y.length != rows * columns) {
+                throw new IllegalArgumentException("expected " + rows * columns + " x and y coordinates, got " + x.length
+                        + " and " + y.length);
+            }
+            this.type = type;
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public BMIGridType getType() {
+            return type;
+        }
+
+        @Override
+        public double getX(int index) {
+            return x[index];
+        }
+
+        @Override
+        public double getY(int index) {
+            return y[index];
+        }
+
+        @Override
+        public void getRowX(int row, double[] dest, int offset) {
+            System.arraycopy(x, checkRow(row) * getColumns(), dest, offset, getColumns());
+        }
+
+        @Override
+        public void getRowY(int row, double[] dest, int offset) {
+            System.arraycopy(y, checkRow(row) * getColumns(), dest, offset, getColumns());
+        }
+
+        @Override
+        protected double[] computeGridX() {
+            return x;
+        }
+
+        @Override
+        protected double[] computeGridY() {
+            return y;
+        }
+    }
+
+}
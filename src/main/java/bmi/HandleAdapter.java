@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adds the {@link HandleBMI} interface to any BMI model. Handles are resolved once using the metadata functions of the model
+ * and cached in a registry, so later lookups by name are a single map lookup. Calls using a handle are forwarded to the model
+ * using the name of the variable. The registry is cleared when the model is initialized or finalized.
+ */
+public class HandleAdapter extends ForwardingBMI implements HandleBMI {
+
+    private final Map<String, VariableHandle> handles = new ConcurrentHashMap<String, VariableHandle>();
+
+    //set if the model supports copying into caller supplied arrays
+    private final BufferedBMI buffered;
+
+    /**
+     * Returns the given model if it already supports handles, or wraps it in an adapter otherwise.
+     * 
+     * @param model
+     *            the model
+     * @return a model supporting handles
+     */
+    public static HandleBMI of(BMI model) {
+        if (model instanceof HandleBMI) {
+            return (HandleBMI) model;
+        }
+        return new HandleAdapter(model);
+    }
+
+    public HandleAdapter(BMI delegate) {
+        super(delegate);
+        if (delegate instanceof BufferedBMI) {
+            this.buffered = (BufferedBMI) delegate;
+        } else {
+            this.buffered = null;
+        }
+    }
+
+    @Override
+    public VariableHandle getVarHandle(String longVarName) throws BMIModelException {
+        VariableHandle result = handles.get(longVarName);
+
+        if (result == null) {
+            BMI model = getDelegate();
+            result = new VariableHandle(this, longVarName, model.getVarType(longVarName), model.getVarRank(longVarName),
+                    model.getVarSize(longVarName), model.getVarNbytes(longVarName), null);
+            handles.put(longVarName, result);
+        }
+
+        return result;
+    }
+
+    private String name(VariableHandle variable) throws BMIModelException {
+        if (variable.getOwner() != this) {
+            throw new BMIModelException("handle for variable " + variable.getName() + " does not belong to this model");
+        }
+        return variable.getName();
+    }
+
+    @Override
+    public void initialize(String file) throws BMIModelException {
+        handles.clear();
+        super.initialize(file);
+    }
+
+    @Override
+    public void finalizeModel() throws BMIModelException {
+        handles.clear();
+        super.finalizeModel();
+    }
+
+    @Override
+    public double[] getDouble(VariableHandle variable) throws BMIModelException {
+        return getDelegate().getDouble(name(variable));
+    }
+
+    @Override
+    public void getDouble(VariableHandle variable, double[] dest, int offset, int length) throws BMIModelException {
+        if (buffered != null) {
+            buffered.getDouble(name(variable), dest, offset, length);
+        } else {
+            System.arraycopy(getDelegate().getDouble(name(variable)), 0, dest, offset, length);
+        }
+    }
+
+    @Override
+    public double[] getDoubleAtIndices(VariableHandle variable, int[] indices) throws BMIModelException {
+        return getDelegate().getDoubleAtIndices(name(variable), indices);
+    }
+
+    @Override
+    public void setDouble(VariableHandle variable, double[] src) throws BMIModelException {
+        getDelegate().setDouble(name(variable), src);
+    }
+
+    @Override
+    public void setDoubleAtIndices(VariableHandle variable, int[] indices, double[] src) throws BMIModelException {
+        getDelegate().setDoubleAtIndices(name(variable), indices, src);
+    }
+
+    @Override
+    public float[] getFloat(VariableHandle variable) throws BMIModelException {
+        return getDelegate().getFloat(name(variable));
+    }
+
+    @Override
+    public void getFloat(VariableHandle variable, float[] dest, int offset, int length) throws BMIModelException {
+        if (buffered != null) {
+            buffered.getFloat(name(variable), dest, offset, length);
+        } else {
+            System.arraycopy(getDelegate().getFloat(name(variable)), 0, dest, offset, length);
+        }
+    }
+
+    @Override
+    public float[] getFloatAtIndices(VariableHandle variable, int[] indices) throws BMIModelException {
+        return getDelegate().getFloatAtIndices(name(variable), indices);
+    }
+
+    @Override
+    public void setFloat(VariableHandle variable, float[] src) throws BMIModelException {
+        getDelegate().setFloat(name(variable), src);
+    }
+
+    @Override
+    public void setFloatAtIndices(VariableHandle variable, int[] indices, float[] src) throws BMIModelException {
+        getDelegate().setFloatAtIndices(name(variable), indices, src);
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+/**
+ * Extension of the BMI interface with getters and setters that take a pre-resolved {@link VariableHandle} instead of a
+ * variable name. Use {@link HandleAdapter#of(BMI)} to get this interface for any BMI model.
+ */
+public interface HandleBMI extends BMI {
+
+    /**
+     * Resolve a variable name into a handle, which can be used in subsequent calls instead of the name.
+     * 
+     * @param longVarName
+     *            the variable to resolve
+     * @return a handle for the given variable
+     * @throws BMIModelException
+     *             if the variable does not exist, or the model is not initialized
+     */
+    public VariableHandle getVarHandle(String longVarName) throws BMIModelException;
+
+    public double[] getDouble(VariableHandle variable) throws BMIModelException;
+
+    /**
+     * Copy the first <code>length</code> values of a variable into the given array, starting at <code>offset</code>.
+     */
+    public void getDouble(VariableHandle variable, double[] dest, int offset, int length) throws BMIModelException;
+
+    public double[] getDoubleAtIndices(VariableHandle variable, int[] indices) throws BMIModelException;
+
+    public void setDouble(VariableHandle variable, double[] src) throws BMIModelException;
+
+    public void setDoubleAtIndices(VariableHandle variable, int[] indices, double[] src) throws BMIModelException;
+
+    public float[] getFloat(VariableHandle variable) throws BMIModelException;
+
+    public void getFloat(VariableHandle variable, float[] dest, int offset, int length) throws BMIModelException;
+
+    public float[] getFloatAtIndices(VariableHandle variable, int[] indices) throws BMIModelException;
+
+    public void setFloat(VariableHandle variable, float[] src) throws BMIModelException;
+
+    public void setFloatAtIndices(VariableHandle variable, int[] indices, float[] src) throws BMIModelException;
+
+}
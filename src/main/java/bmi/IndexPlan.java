@@ -0,0 +1,223 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+import java.util.Arrays;
+
+/**
+ * An index array compiled for repeated gathers and scatters, as used by {@link IndexPlanBMI}. Indices are sorted, duplicates
+ * are removed, and consecutive indices are stored as runs (start, length), so a gather becomes a sequence of block copies in
+ * memory order. Values are always packed in plan order: ascending index, each index once. Use
+ * {@link #expand(double[], int, double[], int)} to convert to the order of the original index array.
+ *
+ * Plans are immutable, and can be shared between threads and models.
+ */
+public final class IndexPlan {
+
+    private final int[] indices;
+    private final int[] runStarts;
+    private final int[] runLengths;
+    private final int[] runOffsets;
+    //for every original index, the position of its value in plan order
+    private final int[] positions;
+
+    private IndexPlan(int[] indices, int[] runStarts, int[] runLengths, int[] runOffsets, int[] positions) {
+        this.indices = indices;
+        this.runStarts = runStarts;
+        this.runLengths = runLengths;
+        this.runOffsets = runOffsets;
+        this.positions = positions;
+    }
+
+    /**
+     * Compile an index array into a plan.
+     * 
+     * @param indices
+     *            the indices, in any order, possibly containing duplicates. Should not be negative
+     * @return a plan for the given indices
+     */
+    public static IndexPlan compile(int[] indices) {
+        int[] sorted = indices.clone();
+        Arrays.sort(sorted);
+
+        if (sorted.length > 0 && sorted[0] < 0) {
+            throw new IllegalArgumentException("negative index " + sorted[0]);
+        }
+
+        //remove duplicates and count runs
+        int unique = 0;
+        int runs = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (unique > 0 && sorted[i] == sorted[unique - 1]) {
+                continue;
+            }
+            if (unique == 0 || sorted[i] != sorted[unique - 1] + 1) {
+                runs++;
+            }
+            sorted[unique++] = sorted[i];
+        }
+        int[] uniqueIndices = Arrays.copyOf(sorted, unique);
+
+        int[] runStarts = new int[runs];
+        int[] runLengths = new int[runs];
+        int[] runOffsets = new int[runs];
+        int run = -1;
+        for (int i = 0; i < unique; i++) {
+            if (i == 0 || uniqueIndices[i] != uniqueIndices[i - 1] + 1) {
+                run++;
+                runStarts[run] = uniqueIndices[i];
+                runOffsets[run] = i;
+            }
+            runLengths[run]++;
+        }
+
+        int[] positions = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            positions[i] = Arrays.binarySearch(uniqueIndices, indices[i]);
+        }
+
+        return new IndexPlan(uniqueIndices, runStarts, runLengths, runOffsets, positions);
+    }
+
+    /**
+     * Create a plan for runs of consecutive indices, without sorting. Adjacent runs are merged.
+     *
+     * @param starts
+     *            the first index of each run, in ascending order
+     * @param lengths
+     *            the number of indices in each run, at least 1
+     * @return a plan for the indices of all runs
+     */
+    public static IndexPlan ofRuns(int[] starts, int[] lengths) {
+        if (starts.length != lengths.length) {
+            throw new IllegalArgumentException("got " + starts.length + " run starts but " + lengths.length + " run lengths");
+        }
+        int total = 0;
+        int runs = 0;
+        for (int i = 0; i < starts.length; i++) {
+            if (starts[i] < 0 || lengths[i] < 1) {
+                throw new IllegalArgumentException("invalid run of " + lengths[i] + " indices at " + starts[i]);
+            }
+            if (i > 0 && starts[i] < starts[i - 1] + lengths[i - 1]) {
+                throw new IllegalArgumentException("runs not in ascending order or overlapping at " + starts[i]);
+            }
+            if (i == 0 || starts[i] != starts[i - 1] + lengths[i - 1]) {
+                runs++;
+            }
+            total += lengths[i];
+        }
+
+        int[] indices = new int[total];
+        int[] runStarts = new int[runs];
+        int[] runLengths = new int[runs];
+        int[] runOffsets = new int[runs];
+        int run = -1;
+        int next = 0;
+        for (int i = 0; i < starts.length; i++) {
+            if (i == 0 || starts[i] != starts[i - 1] + lengths[i - 1]) {
+                run++;
+                runStarts[run] = starts[i];
+                runOffsets[run] = next;
+            }
+            runLengths[run] += lengths[i];
+            for (int j = 0; j < lengths[i]; j++) {
+                indices[next++] = starts[i] + j;
+            }
+        }
+
+        int[] positions = new int[total];
+        for (int i = 0; i < total; i++) {
+            positions[i] = i;
+        }
+
+        return new IndexPlan(indices, runStarts, runLengths, runOffsets, positions);
+    }
+
+    /**
+     * @return the number of distinct indices, which is the number of values gathered or scattered.
+     */
+    public int size() {
+        return indices.length;
+    }
+
+    /**
+     * @return the number of indices in the original index array.
+     */
+    public int getOriginalLength() {
+        return positions.length;
+    }
+
+    /**
+     * @return the largest index, or -1 if this plan is empty.
+     */
+    public int getMaxIndex() {
+        return indices.length == 0 ? -1 : indices[indices.length - 1];
+    }
+
+    /**
+     * @return the distinct indices in ascending order. Should not be modified.
+     */
+    public int[] getIndices() {
+        return indices;
+    }
+
+    public int getRunCount() {
+        return runStarts.length;
+    }
+
+    /**
+     * @return the first index of the given run.
+     */
+    public int getRunStart(int run) {
+        return runStarts[run];
+    }
+
+    public int getRunLength(int run) {
+        return runLengths[run];
+    }
+
+    /**
+     * @return the position of the first value of the given run in plan order.
+     */
+    public int getRunOffset(int run) {
+        return runOffsets[run];
+    }
+
+    /**
+     * Convert values in plan order to the order of the original index array, repeating values of duplicate indices.
+     * 
+     * @param packed
+     *            values in plan order
+     * @param packedOffset
+     *            position of the first value in <code>packed</code>
+     * @param dest
+     *            array to write {@link #getOriginalLength()} values to
+     * @param destOffset
+     *            first position in <code>dest</code> to write to
+     */
+    public void expand(double[] packed, int packedOffset, double[] dest, int destOffset) {
+        for (int i = 0; i < positions.length; i++) {
+            dest[destOffset + i] = packed[packedOffset + positions[i]];
+        }
+    }
+
+    public void expand(float[] packed, int packedOffset, float[] dest, int destOffset) {
+        for (int i = 0; i < positions.length; i++) {
+            dest[destOffset + i] = packed[packedOffset + positions[i]];
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+/**
+ * Extension of the BMI interface to gather and scatter values using a precompiled {@link IndexPlan}, for index sets that are
+ * used repeatedly (e.g. observation operators in data assimilation). Values are packed in plan order.
+ */
+public interface IndexPlanBMI extends BMI {
+
+    /**
+     * Copy the values at the indices of the plan into the given array, in plan order.
+     * 
+     * @param longVarName
+     *            the variable to get
+     * @param plan
+     *            the indices to get
+     * @param dest
+     *            the array to copy {@link IndexPlan#size()} values into
+     * @param offset
+     *            the first element of <code>dest</code> to write to
+     * @throws BMIModelException
+     *             in case of problems, or if the plan does not fit the variable
+     */
+    public void getDoubleAtIndices(String longVarName, IndexPlan plan, double[] dest, int offset) throws BMIModelException;
+
+    /**
+     * Set the values at the indices of the plan from the given array, in plan order.
+     * 
+     * @param longVarName
+     *            the variable to set
+     * @param plan
+     *            the indices to set
+     * @param src
+     *            the array containing {@link IndexPlan#size()} values
+     * @param offset
+     *            the first element of <code>src</code> to read from
+     * @throws BMIModelException
+     *             in case of problems, or if the plan does not fit the variable
+     */
+    public void setDoubleAtIndices(String longVarName, IndexPlan plan, double[] src, int offset) throws BMIModelException;
+
+    public void getFloatAtIndices(String longVarName, IndexPlan plan, float[] dest, int offset) throws BMIModelException;
+
+    public void setFloatAtIndices(String longVarName, IndexPlan plan, float[] src, int offset) throws BMIModelException;
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+/**
+ * Opaque handle to an in-memory snapshot of the state of a model, created by {@link SnapshotBMI#snapshot()}. Snapshots are
+ * only valid for the model that created them, and only until they are released, or the model is finalized or initialized
+ * again.
+ */
+public final class ModelSnapshot {
+
+    private final Object owner;
+    private final double time;
+    private final Object data;
+
+    /**
+     * Create a new snapshot. Normally only called by models.
+     *
+     * @param owner
+     *            the model this snapshot belongs to
+     * @param time
+     *            the model time at which the snapshot was taken
+     * @param data
+     *            model specific snapshot data
+     */
+    public ModelSnapshot(Object owner, double time, Object data) {
+        this.owner = owner;
+        this.time = time;
+        this.data = data;
+    }
+
+    public Object getOwner() {
+        return owner;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return "ModelSnapshot [time=" + time + "]";
+    }
+
+}
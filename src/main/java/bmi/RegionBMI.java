@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+/**
+ * Extension of the BMI interface to access a contiguous range of values, or a rectangular window of a grid, without building
+ * an index array. Windows are given in the row major order of getGridShape: a window of <code>rows</code> by
+ * <code>columns</code> values starting at (<code>row</code>, <code>column</code>), packed row by row into the caller's array.
+ */
+public interface RegionBMI extends BMI {
+
+    /**
+     * Copy <code>length</code> values of a variable, starting at value <code>start</code>, into the given array.
+     * 
+     * @param longVarName
+     *            the variable to get
+     * @param start
+     *            the index of the first value to copy
+     * @param dest
+     *            the array to copy the values into
+     * @param offset
+     *            the first element of <code>dest</code> to write to
+     * @param length
+     *            the number of values to copy
+     * @throws BMIModelException
+     *             in case of problems, or if the range is outside of the variable
+     */
+    public void getDoubleRange(String longVarName, int start, double[] dest, int offset, int length) throws BMIModelException;
+
+    public void setDoubleRange(String longVarName, int start, double[] src, int offset, int length) throws BMIModelException;
+
+    /**
+     * Copy a rectangular window of a 2D variable into the given array, row by row.
+     * 
+     * @param longVarName
+     *            the variable to get
+     * @param row
+     *            the first row of the window
+     * @param column
+     *            the first column of the window
+     * @param rows
+     *            the number of rows in the window
+     * @param columns
+     *            the number of columns in the window
+     * @param dest
+     *            the array to copy the values into
+     * @param offset
+     *            the first element of <code>dest</code> to write to
+     * @throws BMIModelException
+     *             in case of problems, or if the window is outside of the grid
+     */
+    public void getDoubleWindow(String longVarName, int row, int column, int rows, int columns, double[] dest, int offset)
+            throws BMIModelException;
+
+    public void setDoubleWindow(String longVarName, int row, int column, int rows, int columns, double[] src, int offset)
+            throws BMIModelException;
+
+    public void getFloatRange(String longVarName, int start, float[] dest, int offset, int length) throws BMIModelException;
+
+    public void setFloatRange(String longVarName, int start, float[] src, int offset, int length) throws BMIModelException;
+
+    public void getFloatWindow(String longVarName, int row, int column, int rows, int columns, float[] dest, int offset)
+            throws BMIModelException;
+
+    public void setFloatWindow(String longVarName, int row, int column, int rows, int columns, float[] src, int offset)
+            throws BMIModelException;
+
+}
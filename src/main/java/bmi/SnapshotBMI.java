@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+/**
+ * Extension of the BMI interface with in-memory snapshots of the model state, as a much faster alternative to
+ * {@link EBMI#saveState(String)} and {@link EBMI#loadState(String)} when rolling a model back repeatedly, e.g. within an
+ * assimilation window. Models are expected to make taking a snapshot cheap (e.g. by copy-on-write), so snapshots should be
+ * released when no longer needed.
+ */
+public interface SnapshotBMI extends BMI {
+
+    /**
+     * Take a snapshot of the current state of the model, including its current time.
+     *
+     * @return a handle to the snapshot
+     * @throws BMIModelException
+     *             in case of problems
+     */
+    public ModelSnapshot snapshot() throws BMIModelException;
+
+    /**
+     * Reset the state of the model to that of a snapshot. The snapshot remains valid, and can be restored again.
+     *
+     * @param snapshot
+     *            a snapshot of this model
+     * @throws BMIModelException
+     *             if the snapshot is not a valid snapshot of this model
+     */
+    public void restore(ModelSnapshot snapshot) throws BMIModelException;
+
+    /**
+     * Release a snapshot, freeing any resources used by it.
+     *
+     * @param snapshot
+     *            a snapshot of this model
+     * @throws BMIModelException
+     *             if the snapshot is not a valid snapshot of this model
+     */
+    public void release(ModelSnapshot snapshot) throws BMIModelException;
+
+}
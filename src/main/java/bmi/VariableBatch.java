@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+/**
+ * A fixed set of variables that are read or written together by {@link BatchBMI}, packed into a single contiguous array. The
+ * values of variable <code>i</code> start at {@link #getOffset(int)} in the packed array, and take {@link #getLength(int)}
+ * elements. Either all values of each variable are included, or only the values at a set of indices shared by all variables.
+ * 
+ * A batch is created once for a model, after which it can be used for any number of calls. If the model supports handles,
+ * these are resolved when the batch is created.
+ */
+public final class VariableBatch {
+
+    private final String[] names;
+    private final VariableHandle[] handles;
+    private final int[] indices;
+    private final int[] offsets;
+
+    private VariableBatch(String[] names, VariableHandle[] handles, int[] indices, int[] offsets) {
+        this.names = names;
+        this.handles = handles;
+        this.indices = indices;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Create a batch including all values of the given variables.
+     */
+    public static VariableBatch create(BMI model, String... names) throws BMIModelException {
+        return create(model, null, names);
+    }
+
+    /**
+     * Create a batch of the given variables, including only the values at the given indices, or all values if indices is
+     * null.
+     */
+    public static VariableBatch create(BMI model, int[] indices, String... names) throws BMIModelException {
+        String[] copy = names.clone();
+        int[] offsets = new int[copy.length + 1];
+        VariableHandle[] handles = null;
+
+        if (model instanceof HandleBMI) {
+            handles = new VariableHandle[copy.length];
+            for (int i = 0; i < copy.length; i++) {
+                handles[i] = ((HandleBMI) model).getVarHandle(copy[i]);
+            }
+        }
+
+        for (int i = 0; i < copy.length; i++) {
+            int length;
+            if (indices != null) {
+                length = indices.length;
+            } else if (handles != null) {
+                length = handles[i].getSize();
+            } else {
+                length = model.getVarSize(copy[i]);
+            }
+            offsets[i + 1] = offsets[i] + length;
+        }
+
+        return new VariableBatch(copy, handles, indices == null ? null : indices.clone(), offsets);
+    }
+
+    /**
+     * @return the number of variables in this batch.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int variable) {
+        return names[variable];
+    }
+
+    /**
+     * @return the handle of the given variable, or null if the model does not support handles.
+     */
+    public VariableHandle getHandle(int variable) {
+        return handles == null ? null : handles[variable];
+    }
+
+    /**
+     * @return the shared indices, or null if all values of each variable are included.
+     */
+    public int[] getIndices() {
+        return indices;
+    }
+
+    /**
+     * @return the offset of the values of the given variable in the packed array.
+     */
+    public int getOffset(int variable) {
+        return offsets[variable];
+    }
+
+    /**
+     * @return the number of values of the given variable in the packed array.
+     */
+    public int getLength(int variable) {
+        return offsets[variable + 1] - offsets[variable];
+    }
+
+    /**
+     * @return the total number of values in the packed array.
+     */
+    public int getTotalLength() {
+        return offsets[names.length];
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+/**
+ * The values of a variable that changed since a given version, as returned by
+ * {@link DeltaBMI#getDoubleChanges(String, long)}. Values are packed in the order of the plan. Pass {@link #getVersion()} to
+ * the next call to get only the changes made after this delta was created.
+ */
+public final class VariableDelta {
+
+    private final long version;
+    private final IndexPlan plan;
+    private final double[] values;
+
+    /**
+     * Create a new delta. Normally only called by models.
+     *
+     * @param version
+     *            the version of the variable at the time the values were read
+     * @param plan
+     *            the indices that changed
+     * @param values
+     *            the values at the indices of the plan, in plan order
+     */
+    public VariableDelta(long version, IndexPlan plan, double[] values) {
+        if (values.length != plan.size()) {
+            throw new IllegalArgumentException("got " + values.length + " values for a plan of " + plan.size() + " indices");
+        }
+        this.version = version;
+        this.plan = plan;
+        this.values = values;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public IndexPlan getPlan() {
+        return plan;
+    }
+
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * @return the number of changed values
+     */
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "VariableDelta [version=" + version + ", size=" + values.length + ", runs=" + plan.getRunCount() + "]";
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+/**
+ * A variable of a model, resolved once by name using {@link HandleBMI#getVarHandle(String)}. Passing a handle instead of a
+ * name avoids looking up and validating the variable name on every call. Handles are only valid for the model that created
+ * them, and only until the model is finalized or initialized again.
+ */
+public final class VariableHandle {
+
+    private final Object owner;
+    private final String name;
+    private final String type;
+    private final int rank;
+    private final int size;
+    private final int nbytes;
+    private final Object storage;
+
+    /**
+     * Create a new handle. Normally only called by models.
+     * 
+     * @param owner
+     *            the model this handle belongs to
+     * @param name
+     *            the name of the variable
+     * @param type
+     *            the type of the variable, as returned by getVarType
+     * @param rank
+     *            the rank of the variable
+     * @param size
+     *            the number of values in the variable
+     * @param nbytes
+     *            the size of the variable in bytes
+     * @param storage
+     *            model specific reference to the storage of the variable, or null
+     */
+    public VariableHandle(Object owner, String name, String type, int rank, int size, int nbytes, Object storage) {
+        this.owner = owner;
+        this.name = name;
+        this.type = type;
+        this.rank = rank;
+        this.size = size;
+        this.nbytes = nbytes;
+        this.storage = storage;
+    }
+
+    public Object getOwner() {
+        return owner;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getNbytes() {
+        return nbytes;
+    }
+
+    public Object getStorage() {
+        return storage;
+    }
+
+    @Override
+    public String toString() {
+        return "VariableHandle [name=" + name + ", type=" + type + ", rank=" + rank + ", size=" + size + "]";
+    }
+
+}
@@ -0,0 +1,412 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.coupling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import bmi.BMI;
+import bmi.BMIModelException;
+import bmi.BufferedBMI;
+import bmi.regrid.GridDescription;
+import bmi.regrid.SparseMatrix;
+import bmi.regrid.WeightCache;
+
+/**
+ * Couples models by copying values along {@link Link}s, and advances them in lockstep.
+ *
+ * Every link gets its own preallocated buffer when the coupler is prepared (at the first exchange or step after adding a
+ * link). With models that implement {@link BufferedBMI}, exchanging values then allocates nothing. Other models allocate the
+ * arrays returned by their getters, and are given a copy of the buffer in their setters, as they may keep the array.
+ *
+ * Models may have different time steps. Every {@link #step()} updates the models that are furthest behind: those whose next
+ * time (current time plus time step) is the earliest. Their inputs are exchanged first, from the current values of the source
+ * models.
+ *
+ * Links with a regridding method multiply the source values with a sparse weight matrix, in parallel on the pool of the
+ * coupler. Weights are taken from a {@link WeightCache}, so they are built once per pair of grids.
+ */
+public class Coupler {
+
+    //relative tolerance used when comparing model times
+    private static final double TIME_TOLERANCE = 1e-9;
+
+    /**
+     * A link, prepared for repeated transfers.
+     */
+    private static final class Transfer {
+
+        private final Link link;
+        private final int sourceLength;
+        private final int targetLength;
+        private final SparseMatrix weights;
+        private final ForkJoinPool pool;
+        private final boolean floatSource;
+        private final boolean floatTarget;
+        private final boolean convert;
+        private final double[] values;
+        //the same as values, unless regridded
+        private final double[] output;
+        //only used if the source or target uses float values
+        private final float[] sourceFloats;
+        private final float[] targetFloats;
+
+        Transfer(Link link, int sourceLength, int targetLength, SparseMatrix weights, ForkJoinPool pool, boolean floatSource,
+                boolean floatTarget) {
+            this.link = link;
+            this.sourceLength = sourceLength;
+            this.targetLength = targetLength;
+            this.weights = weights;
+            this.pool = pool;
+            this.floatSource = floatSource;
+            this.floatTarget = floatTarget;
+            this.convert = link.getScale() != 1.0 || link.getOffset() != 0.0;
+            this.values = new double[sourceLength];
+            this.output = weights == null ? values : new double[targetLength];
+            this.sourceFloats = floatSource ? new float[sourceLength] : null;
+            this.targetFloats = floatTarget ? new float[targetLength] : null;
+        }
+
+        void run() throws BMIModelException {
+            read();
+
+            if (weights != null) {
+                weights.multiply(values, output, pool);
+            }
+
+            if (convert) {
+                double scale = link.getScale();
+                double offset = link.getOffset();
+                for (int i = 0; i < targetLength; i++) {
+                    output[i] = output[i] * scale + offset;
+                }
+            }
+
+            write();
+        }
+
+        private void read() throws BMIModelException {
+            BMI source = link.getSource();
+            String name = link.getSourceVariable();
+            int[] indices = link.getSourceIndices();
+
+            if (!floatSource) {
+                if (source instanceof BufferedBMI && indices == null) {
+                    ((BufferedBMI) source).getDouble(name, values, 0, sourceLength);
+                } else if (source instanceof BufferedBMI) {
+                    ((BufferedBMI) source).getDoubleAtIndices(name, indices, values, 0);
+                } else if (indices == null) {
+                    System.arraycopy(source.getDouble(name), 0, values, 0, sourceLength);
+                } else {
+                    System.arraycopy(source.getDoubleAtIndices(name, indices), 0, values, 0, sourceLength);
+                }
+                return;
+            }
+
+            if (source instanceof BufferedBMI && indices == null) {
+                ((BufferedBMI) source).getFloat(name, sourceFloats, 0, sourceLength);
+            } else if (source instanceof BufferedBMI) {
+                ((BufferedBMI) source).getFloatAtIndices(name, indices, sourceFloats, 0);
+            } else if (indices == null) {
+                System.arraycopy(source.getFloat(name), 0, sourceFloats, 0, sourceLength);
+            } else {
+                System.arraycopy(source.getFloatAtIndices(name, indices), 0, sourceFloats, 0, sourceLength);
+            }
+            for (int i = 0; i < sourceLength; i++) {
+                values[i] = sourceFloats[i];
+            }
+        }
+
+        private void write() throws BMIModelException {
+            BMI target = link.getTarget();
+            String name = link.getTargetVariable();
+            int[] indices = link.getTargetIndices();
+
+            if (!floatTarget) {
+                if (target instanceof BufferedBMI && indices == null) {
+                    ((BufferedBMI) target).setDouble(name, output, 0, targetLength);
+                } else if (target instanceof BufferedBMI) {
+                    ((BufferedBMI) target).setDoubleAtIndices(name, indices, output, 0);
+                } else if (indices == null) {
+                    //the model may keep the array, and the buffer is overwritten by the next exchange
+                    target.setDouble(name, output.clone());
+                } else {
+                    target.setDoubleAtIndices(name, indices, output.clone());
+                }
+                return;
+            }
+
+            for (int i = 0; i < targetLength; i++) {
+                targetFloats[i] = (float) output[i];
+            }
+            if (target instanceof BufferedBMI && indices == null) {
+                ((BufferedBMI) target).setFloat(name, targetFloats, 0, targetLength);
+            } else if (target instanceof BufferedBMI) {
+                ((BufferedBMI) target).setFloatAtIndices(name, indices, targetFloats, 0);
+            } else if (indices == null) {
+                target.setFloat(name, targetFloats.clone());
+            } else {
+                target.setFloatAtIndices(name, indices, targetFloats.clone());
+            }
+        }
+    }
+
+    private final WeightCache weightCache;
+    private final ForkJoinPool pool;
+
+    private final List<BMI> models = new ArrayList<BMI>();
+    private final List<Link> links = new ArrayList<Link>();
+
+    //created by prepare()
+    private BMI[] modelArray = null;
+    private Transfer[] transfers;
+    //per model, the transfers that have the model as target
+    private Transfer[][] inputs;
+    private double[] nextTimes;
+
+    /**
+     * Create a coupler that uses the default weight cache, and the common fork join pool for regridding.
+     */
+    public Coupler() {
+        this(WeightCache.getDefault(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param weightCache
+     *            cache for the weights of regridded links
+     * @param pool
+     *            used to regrid values in parallel
+     */
+    public Coupler(WeightCache weightCache, ForkJoinPool pool) {
+        this.weightCache = weightCache;
+        this.pool = pool;
+    }
+
+    /**
+     * Add a model to advance, even if it is not linked (yet). Linked models are added automatically.
+     */
+    public void addModel(BMI model) {
+        for (BMI existing : models) {
+            if (existing == model) {
+                return;
+            }
+        }
+        models.add(model);
+        modelArray = null;
+    }
+
+    public void addLink(Link link) {
+        addModel(link.getSource());
+        addModel(link.getTarget());
+        links.add(link);
+        modelArray = null;
+    }
+
+    /**
+     * Link all values of two variables of the same size.
+     * 
+     * @return the new link
+     */
+    public Link link(BMI source, String sourceVariable, BMI target, String targetVariable) {
+        Link result = new Link(source, sourceVariable, target, targetVariable);
+        addLink(result);
+        return result;
+    }
+
+    public List<BMI> getModels() {
+        return Collections.unmodifiableList(models);
+    }
+
+    public List<Link> getLinks() {
+        return Collections.unmodifiableList(links);
+    }
+
+    private static boolean contains(String[] names, String name) {
+        for (String candidate : names) {
+            if (candidate.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isFloat(BMI model, String name) throws BMIModelException {
+        String type = model.getVarType(name);
+
+        if (type.equals("float32")) {
+            return true;
+        } else if (type.equals("float64")) {
+            return false;
+        }
+        throw new BMIModelException("cannot couple variable " + name + " of type " + type);
+    }
+
+    private Transfer prepare(Link link) throws BMIModelException {
+        BMI source = link.getSource();
+        BMI target = link.getTarget();
+
+        if (!contains(source.getOutputVarNames(), link.getSourceVariable())) {
+            throw new BMIModelException("variable " + link.getSourceVariable() + " is not an output of "
+                    + source.getComponentName());
+        }
+        if (!contains(target.getInputVarNames(), link.getTargetVariable())) {
+            throw new BMIModelException("variable " + link.getTargetVariable() + " is not an input of "
+                    + target.getComponentName());
+        }
+
+        int sourceLength = link.getSourceIndices() == null ? source.getVarSize(link.getSourceVariable())
+                : link.getSourceIndices().length;
+        int targetLength = link.getTargetIndices() == null ? target.getVarSize(link.getTargetVariable())
+                : link.getTargetIndices().length;
+
+        SparseMatrix weights = null;
+        if (link.getRegridMethod() != null) {
+            weights = weightCache.getWeights(GridDescription.of(source, link.getSourceVariable()),
+                    GridDescription.of(target, link.getTargetVariable()), link.getRegridMethod());
+            if (weights.getColumns() != sourceLength || weights.getRows() != targetLength) {
+                throw new BMIModelException(link + " has grids of " + weights.getColumns() + " and " + weights.getRows()
+                        + " values, but variables of " + sourceLength + " and " + targetLength + " values");
+            }
+        } else if (sourceLength != targetLength) {
+            throw new BMIModelException(link + " selects " + sourceLength + " source values, but " + targetLength
+                    + " target values");
+        }
+
+        return new Transfer(link, sourceLength, targetLength, weights, pool, isFloat(source, link.getSourceVariable()),
+                isFloat(target, link.getTargetVariable()));
+    }
+
+    /**
+     * Validate all links and allocate their buffers. Called automatically when needed, but can be called explicitly to
+     * detect errors early. Should be called again if the models are initialized again.
+     * 
+     * @throws BMIModelException
+     *             if a link is invalid
+     */
+    public void prepare() throws BMIModelException {
+        BMI[] modelArray = models.toArray(new BMI[models.size()]);
+
+        transfers = new Transfer[links.size()];
+        for (int i = 0; i < transfers.length; i++) {
+            transfers[i] = prepare(links.get(i));
+        }
+
+        inputs = new Transfer[modelArray.length][];
+        for (int i = 0; i < modelArray.length; i++) {
+            List<Transfer> modelInputs = new ArrayList<Transfer>();
+            for (Transfer transfer : transfers) {
+                if (transfer.link.getTarget() == modelArray[i]) {
+                    modelInputs.add(transfer);
+                }
+            }
+            inputs[i] = modelInputs.toArray(new Transfer[modelInputs.size()]);
+        }
+
+        nextTimes = new double[modelArray.length];
+        this.modelArray = modelArray;
+    }
+
+    private void ensurePrepared() throws BMIModelException {
+        if (modelArray == null) {
+            prepare();
+        }
+    }
+
+    /**
+     * Copy values along all links, in the order the links were added.
+     */
+    public void exchange() throws BMIModelException {
+        ensurePrepared();
+
+        for (Transfer transfer : transfers) {
+            transfer.run();
+        }
+    }
+
+    /**
+     * @return the time of the model that is furthest behind.
+     */
+    public double getCurrentTime() throws BMIModelException {
+        ensurePrepared();
+
+        double result = Double.POSITIVE_INFINITY;
+        for (BMI model : modelArray) {
+            result = Math.min(result, model.getCurrentTime());
+        }
+        return result;
+    }
+
+    private static boolean sameTime(double a, double b) {
+        return Math.abs(a - b) <= TIME_TOLERANCE * Math.max(1.0, Math.abs(b));
+    }
+
+    /**
+     * @return the earliest time any model reaches by doing one step, which is the time the next call to {@link #step()}
+     *         advances to.
+     */
+    private double computeNextTimes() throws BMIModelException {
+        double result = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < modelArray.length; i++) {
+            nextTimes[i] = modelArray[i].getCurrentTime() + modelArray[i].getTimeStep();
+            result = Math.min(result, nextTimes[i]);
+        }
+        return result;
+    }
+
+    private void step(double next) throws BMIModelException {
+        //exchange all inputs before updating any model, so models stepping together see each others values of the same time
+        for (int i = 0; i < modelArray.length; i++) {
+            if (sameTime(nextTimes[i], next)) {
+                for (Transfer transfer : inputs[i]) {
+                    transfer.run();
+                }
+            }
+        }
+        for (int i = 0; i < modelArray.length; i++) {
+            if (sameTime(nextTimes[i], next)) {
+                modelArray[i].update();
+            }
+        }
+    }
+
+    /**
+     * Exchange the inputs of, and update, the models that are furthest behind.
+     */
+    public void step() throws BMIModelException {
+        ensurePrepared();
+
+        step(computeNextTimes());
+    }
+
+    /**
+     * Step until no model can do another step without passing the given time.
+     * 
+     * @param time
+     *            the time to advance to
+     */
+    public void updateUntil(double time) throws BMIModelException {
+        ensurePrepared();
+
+        double next = computeNextTimes();
+        while (next < time || sameTime(next, time)) {
+            step(next);
+            next = computeNextTimes();
+        }
+    }
+
+}
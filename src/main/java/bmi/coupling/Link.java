@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.coupling;
+
+import bmi.BMI;
+import bmi.regrid.RegridMethod;
+
+/**
+ * Connection from an output variable of one model to an input variable of another, used by a {@link Coupler}. Values can be
+ * selected with index arrays on both sides, and are converted with <code>target = source * scale + offset</code> (e.g. for
+ * unit conversion).
+ *
+ * Variables on different grids can be linked by giving a regridding method instead of index arrays. The weights are computed
+ * from the grid functions of both models when the coupler is prepared.
+ */
+public final class Link {
+
+    private final BMI source;
+    private final String sourceVariable;
+    private final int[] sourceIndices;
+    private final BMI target;
+    private final String targetVariable;
+    private final int[] targetIndices;
+    private final RegridMethod regridMethod;
+    private final double scale;
+    private final double offset;
+
+    /**
+     * Link all values of two variables of the same size, without conversion.
+     */
+    public Link(BMI source, String sourceVariable, BMI target, String targetVariable) {
+        this(source, sourceVariable, null, target, targetVariable, null, 1.0, 0.0);
+    }
+
+    /**
+     * Link all values of two variables on different grids, by regridding.
+     *
+     * @param source
+     *            the model providing the values
+     * @param sourceVariable
+     *            an output variable of the source model
+     * @param target
+     *            the model receiving the values
+     * @param targetVariable
+     *            an input variable of the target model
+     * @param regridMethod
+     *            the method used to regrid from the source to the target grid
+     * @param scale
+     *            factor all values are multiplied with
+     * @param offset
+     *            added to all values after scaling
+     */
+    public Link(BMI source, String sourceVariable, BMI target, String targetVariable, RegridMethod regridMethod,
+            double scale, double offset) {
+        this(source, sourceVariable, null, target, targetVariable, null, regridMethod, scale, offset);
+    }
+
+    /**
+     * @param source
+     *            the model providing the values
+     * @param sourceVariable
+     *            an output variable of the source model
+     * @param sourceIndices
+     *            the indices of the source values, or null for all values
+     * @param target
+     *            the model receiving the values
+     * @param targetVariable
+     *            an input variable of the target model
+     * @param targetIndices
+     *            the indices to store the values at, or null for all values. Should select as many values as the source.
+     * @param scale
+     *            factor all values are multiplied with
+     * @param offset
+     *            added to all values after scaling
+     */
+    public Link(BMI source, String sourceVariable, int[] sourceIndices, BMI target, String targetVariable,
+            int[] targetIndices, double scale, double offset) {
+        this(source, sourceVariable, sourceIndices, target, targetVariable, targetIndices, null, scale, offset);
+    }
+
+    private Link(BMI source, String sourceVariable, int[] sourceIndices, BMI target, String targetVariable,
+            int[] targetIndices, RegridMethod regridMethod, double scale, double offset) {
+        if (source == null || target == null) {
+            throw new IllegalArgumentException("linked models cannot be null");
+        }
+        this.source = source;
+        this.sourceVariable = sourceVariable;
+        this.sourceIndices = sourceIndices == null ? null : sourceIndices.clone();
+        this.target = target;
+        this.targetVariable = targetVariable;
+        this.targetIndices = targetIndices == null ? null : targetIndices.clone();
+        this.regridMethod = regridMethod;
+        this.scale = scale;
+        this.offset = offset;
+    }
+
+    public BMI getSource() {
+        return source;
+    }
+
+    public String getSourceVariable() {
+        return sourceVariable;
+    }
+
+    /**
+     * @return the indices of the source values, or null for all values. Should not be modified.
+     */
+    public int[] getSourceIndices() {
+        return sourceIndices;
+    }
+
+    public BMI getTarget() {
+        return target;
+    }
+
+    public String getTargetVariable() {
+        return targetVariable;
+    }
+
+    /**
+     * @return the indices of the target values, or null for all values. Should not be modified.
+     */
+    public int[] getTargetIndices() {
+        return targetIndices;
+    }
+
+    /**
+     * @return the method used to regrid values, or null if both sides select the same number of values.
+     */
+    public RegridMethod getRegridMethod() {
+        return regridMethod;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public double getOffset() {
+        return offset;
+    }
+
+    @Override
+    public String toString() {
+        return "Link [" + sourceVariable + " -> " + targetVariable + ", regrid=" + regridMethod + ", scale=" + scale
+                + ", offset=" + offset + "]";
+    }
+
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.ensemble;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import bmi.BMIModelException;
+import bmi.BufferedBMI;
+import bmi.EBMI;
+
+/**
+ * Ensemble of instances of the same model, e.g. for data assimilation. Members are created by a {@link ModelFactory}, can be
+ * perturbed individually, and are initialized and updated in parallel on a fork join pool. Values of a variable are collected
+ * into (or distributed from) a single members x cells matrix, stored row major in a double array.
+ *
+ * Every member is a separate task, so idle workers steal members from busy ones. If models parallelize internally as well,
+ * they should normally do so on the same pool to prevent oversubscription of the cores.
+ *
+ * If a call fails for some members, it is still completed for all others, after which the failure of the first failed member
+ * is thrown.
+ */
+public class Ensemble {
+
+    private interface MemberTask {
+        void run(EBMI model, int member) throws BMIModelException;
+    }
+
+    private final class MemberAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final MemberTask task;
+        private final int start;
+        private final int end;
+        private final BMIModelException[] failures;
+
+        MemberAction(MemberTask task, int start, int end, BMIModelException[] failures) {
+            this.task = task;
+            this.start = start;
+            this.end = end;
+            this.failures = failures;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > 1) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new MemberAction(task, start, middle, failures), new MemberAction(task, middle, end, failures));
+                return;
+            }
+            try {
+                task.run(models[start], start);
+            } catch (BMIModelException | RuntimeException e) {
+                failures[start] = new BMIModelException("ensemble member " + start + " failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private final ModelFactory factory;
+    private final ForkJoinPool pool;
+    private final EBMI[] models;
+
+    /**
+     * Create an ensemble that runs on the common fork join pool.
+     */
+    public Ensemble(ModelFactory factory, int members) {
+        this(factory, members, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param factory
+     *            used to create the members
+     * @param members
+     *            the number of members
+     * @param pool
+     *            the pool used to run calls to the members. Its parallelism bounds the number of members running at the
+     *            same time.
+     */
+    public Ensemble(ModelFactory factory, int members, ForkJoinPool pool) {
+        if (members < 1) {
+            throw new IllegalArgumentException("ensemble needs at least one member, not " + members);
+        }
+        this.factory = factory;
+        this.pool = pool;
+        this.models = new EBMI[members];
+    }
+
+    private void forEach(MemberTask task) throws BMIModelException {
+        BMIModelException[] failures = new BMIModelException[models.length];
+
+        pool.invoke(new MemberAction(task, 0, models.length, failures));
+
+        for (BMIModelException failure : failures) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private void checkInitialized() throws BMIModelException {
+        if (models[0] == null) {
+            throw new BMIModelException("ensemble not initialized");
+        }
+    }
+
+    public int size() {
+        return models.length;
+    }
+
+    /**
+     * @return the model of the given member, or null if the ensemble has not been initialized yet.
+     */
+    public EBMI getMember(int member) {
+        return models[member];
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Create and initialize all members.
+     *
+     * @param configFile
+     *            the configuration file passed to every member
+     * @param configure
+     *            applied to every member after initializeConfig, e.g. to set attributes. May be null
+     * @param perturb
+     *            applied to every member after initializeModel, e.g. to change the initial state. May be null
+     * @throws BMIModelException
+     *             if creating or initializing any of the members failed
+     */
+    public void initialize(final String configFile, final Perturbation configure, final Perturbation perturb)
+            throws BMIModelException {
+        forEach(new MemberTask() {
+            @Override
+            public void run(EBMI unused, int member) throws BMIModelException {
+                EBMI model = factory.create(member);
+                models[member] = model;
+
+                model.initializeConfig(configFile);
+                if (configure != null) {
+                    configure.apply(model, member);
+                }
+                model.initializeModel();
+                if (perturb != null) {
+                    perturb.apply(model, member);
+                }
+            }
+        });
+    }
+
+    public void initialize(String configFile) throws BMIModelException {
+        initialize(configFile, null, null);
+    }
+
+    /**
+     * Apply a perturbation to all members in parallel.
+     */
+    public void perturb(final Perturbation perturbation) throws BMIModelException {
+        checkInitialized();
+        forEach(new MemberTask() {
+            @Override
+            public void run(EBMI model, int member) throws BMIModelException {
+                perturbation.apply(model, member);
+            }
+        });
+    }
+
+    public void update() throws BMIModelException {
+        checkInitialized();
+        forEach(new MemberTask() {
+            @Override
+            public void run(EBMI model, int member) throws BMIModelException {
+                model.update();
+            }
+        });
+    }
+
+    public void updateUntil(final double time) throws BMIModelException {
+        checkInitialized();
+        forEach(new MemberTask() {
+            @Override
+            public void run(EBMI model, int member) throws BMIModelException {
+                model.updateUntil(time);
+            }
+        });
+    }
+
+    /**
+     * Finalize all members.
+     */
+    public void finalizeModel() throws BMIModelException {
+        checkInitialized();
+        forEach(new MemberTask() {
+            @Override
+            public void run(EBMI model, int member) throws BMIModelException {
+                model.finalizeModel();
+            }
+        });
+    }
+
+    /**
+     * @return the number of values of the given variable in a single member, which is the row length of the matrix.
+     */
+    public int getCellCount(String longVarName) throws BMIModelException {
+        checkInitialized();
+        return models[0].getVarSize(longVarName);
+    }
+
+    /**
+     * Collect the values of a variable of all members into a new members x cells matrix.
+     */
+    public double[] getDouble(String longVarName) throws BMIModelException {
+        long length = (long) models.length * getCellCount(longVarName);
+        if (length > Integer.MAX_VALUE) {
+            throw new BMIModelException("ensemble matrix of " + length + " values does not fit in an array");
+        }
+        double[] result = new double[(int) length];
+        getDouble(longVarName, result, 0);
+        return result;
+    }
+
+    /**
+     * Collect the values of a variable of all members into a members x cells matrix. Every member copies its own row in
+     * parallel.
+     *
+     * @param longVarName
+     *            the variable to collect
+     * @param dest
+     *            the array to store the matrix in, row major
+     * @param offset
+     *            the position of the first value of the matrix in <code>dest</code>
+     */
+    public void getDouble(final String longVarName, final double[] dest, final int offset) throws BMIModelException {
+        final int cells = getCellCount(longVarName);
+
+        forEach(new MemberTask() {
+            @Override
+            public void run(EBMI model, int member) throws BMIModelException {
+                int row = offset + member * cells;
+
+                if (model instanceof BufferedBMI) {
+                    ((BufferedBMI) model).getDouble(longVarName, dest, row, cells);
+                } else {
+                    System.arraycopy(model.getDouble(longVarName), 0, dest, row, cells);
+                }
+            }
+        });
+    }
+
+    /**
+     * Set the values of a variable of all members from a members x cells matrix, e.g. the analysis of an assimilation step.
+     *
+     * @param longVarName
+     *            the variable to set
+     * @param src
+     *            the array containing the matrix, row major
+     * @param offset
+     *            the position of the first value of the matrix in <code>src</code>
+     */
+    public void setDouble(final String longVarName, final double[] src, final int offset) throws BMIModelException {
+        final int cells = getCellCount(longVarName);
+
+        forEach(new MemberTask() {
+            @Override
+            public void run(EBMI model, int member) throws BMIModelException {
+                int row = offset + member * cells;
+
+                if (model instanceof BufferedBMI) {
+                    ((BufferedBMI) model).setDouble(longVarName, src, row, cells);
+                } else {
+                    double[] values = new double[cells];
+                    System.arraycopy(src, row, values, 0, cells);
+                    model.setDouble(longVarName, values);
+                }
+            }
+        });
+    }
+
+}
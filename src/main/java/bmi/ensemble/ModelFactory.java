@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.ensemble;
+
+import bmi.BMIModelException;
+import bmi.EBMI;
+
+/**
+ * Creates the models of an {@link Ensemble}. Called concurrently for different members.
+ */
+public interface ModelFactory {
+
+    /**
+     * Create a new, uninitialized model.
+     *
+     * @param member
+     *            the index of the ensemble member the model is created for
+     * @return the new model
+     * @throws BMIModelException
+     *             if the model could not be created
+     */
+    public EBMI create(int member) throws BMIModelException;
+
+}
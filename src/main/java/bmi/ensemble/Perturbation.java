@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.ensemble;
+
+import bmi.BMIModelException;
+import bmi.EBMI;
+
+/**
+ * Changes a single member of an {@link Ensemble}, e.g. by setting an attribute or adding noise to a variable. Called
+ * concurrently for different members, so implementations that use random numbers should use a generator per member (e.g.
+ * seeded with the member index).
+ */
+public interface Perturbation {
+
+    /**
+     * Perturb a single model.
+     *
+     * @param model
+     *            the model of the member
+     * @param member
+     *            the index of the member
+     * @throws BMIModelException
+     *             in case of problems
+     */
+    public void apply(EBMI model, int member) throws BMIModelException;
+
+}
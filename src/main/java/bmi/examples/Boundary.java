@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+/**
+ * How stencils treat neighbours that fall outside of the raster.
+ */
+public enum Boundary {
+
+    /** Use the value of the nearest cell on the edge. */
+    CLAMP,
+
+    /** Wrap around to the opposite edge (periodic boundary). */
+    WRAP,
+
+    /** Mirror around the edge cell, excluding the edge cell itself. */
+    REFLECT,
+
+    /** Use zero for all cells outside of the raster. */
+    ZERO;
+
+    /**
+     * Map a possibly out of range coordinate to a coordinate within [0, size), or -1 for ZERO boundaries.
+     */
+    int map(int coordinate, int size) {
+        if (coordinate >= 0 && coordinate < size) {
+            return coordinate;
+        }
+        switch (this) {
+        case CLAMP:
+            return coordinate < 0 ? 0 : size - 1;
+        case WRAP:
+            return ((coordinate % size) + size) % size;
+        case REFLECT:
+            if (size == 1) {
+                return 0;
+            }
+            int period = 2 * (size - 1);
+            int result = ((coordinate % period) + period) % period;
+            return result < size ? result : period - result;
+        default:
+            return -1;
+        }
+    }
+
+}
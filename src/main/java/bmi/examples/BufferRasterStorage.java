@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Raster storage backed by NIO buffers outside of the Java heap. As a single buffer is limited to 2^31 bytes, the values are
+ * spread over a number of equally sized chunks.
+ */
+public abstract class BufferRasterStorage implements RasterStorage {
+
+    /**
+     * Default number of values per chunk, as a power of two (2^27 doubles, 1 GiB).
+     */
+    public static final int DEFAULT_CHUNK_SHIFT = 27;
+
+    private final int size;
+    private final int chunkShift;
+    private final int chunkMask;
+    private final DoubleBuffer[] chunks;
+
+    protected BufferRasterStorage(int size, int chunkShift) {
+        if (size < 0) {
+            throw new IllegalArgumentException("negative storage size: " + size);
+        }
+        this.size = size;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1 << chunkShift) - 1;
+        this.chunks = new DoubleBuffer[(int) ((size + (long) chunkMask) >>> chunkShift)];
+    }
+
+    /**
+     * Create the buffers holding the values. Called by subclasses once from their constructor.
+     */
+    protected void createChunks() {
+        for (int i = 0; i < chunks.length; i++) {
+            long start = ((long) i) << chunkShift;
+            int length = (int) Math.min(1L << chunkShift, size - start);
+            chunks[i] = createChunk(i, start, length);
+        }
+    }
+
+    /**
+     * Create a single chunk.
+     * 
+     * @param chunk
+     *            the number of this chunk
+     * @param start
+     *            the index of the first value in this chunk
+     * @param length
+     *            the number of values in this chunk
+     * @return a buffer with exactly <code>length</code> elements
+     */
+    protected abstract DoubleBuffer createChunk(int chunk, long start, int length);
+
+    protected DoubleBuffer[] chunks() {
+        return chunks;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String getType() {
+        return "float64";
+    }
+
+    @Override
+    public double get(int index) {
+        return chunks[index >>> chunkShift].get(index & chunkMask);
+    }
+
+    @Override
+    public void set(int index, double value) {
+        chunks[index >>> chunkShift].put(index & chunkMask, value);
+    }
+
+    @Override
+    public void fill(int start, int length, double value) {
+        int end = start + length;
+        for (int i = start; i < end;) {
+            DoubleBuffer chunk = chunks[i >>> chunkShift];
+            int chunkEnd = Math.min(end, (i | chunkMask) + 1);
+            for (int j = i & chunkMask; i < chunkEnd; i++, j++) {
+                chunk.put(j, value);
+            }
+        }
+    }
+
+    @Override
+    public void add(int start, int length, double value) {
+        int end = start + length;
+        for (int i = start; i < end;) {
+            DoubleBuffer chunk = chunks[i >>> chunkShift];
+            int chunkEnd = Math.min(end, (i | chunkMask) + 1);
+            for (int j = i & chunkMask; i < chunkEnd; i++, j++) {
+                chunk.put(j, chunk.get(j) + value);
+            }
+        }
+    }
+
+    /**
+     * Returns a view of (part of) a chunk, positioned at the given value and limited to the end of the chunk or the
+     * requested length, whichever comes first. Views are used so concurrent bulk copies do not share a buffer position.
+     */
+    private DoubleBuffer view(int index, int length) {
+        DoubleBuffer result = chunks[index >>> chunkShift].duplicate();
+        int position = index & chunkMask;
+        result.limit(Math.min(result.capacity(), position + length));
+        result.position(position);
+        return result;
+    }
+
+    @Override
+    public void get(int start, double[] dest, int offset, int length) {
+        while (length > 0) {
+            DoubleBuffer view = view(start, length);
+            int count = view.remaining();
+            view.get(dest, offset, count);
+            start += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void get(int start, DoubleBuffer dest, int length) {
+        while (length > 0) {
+            DoubleBuffer view = view(start, length);
+            int count = view.remaining();
+            dest.put(view);
+            start += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void set(int start, double[] src, int offset, int length) {
+        while (length > 0) {
+            DoubleBuffer view = view(start, length);
+            int count = view.remaining();
+            view.put(src, offset, count);
+            start += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void set(int start, DoubleBuffer src, int length) {
+        while (length > 0) {
+            DoubleBuffer view = view(start, length);
+            int count = view.remaining();
+            DoubleBuffer part = src.duplicate();
+            part.limit(part.position() + count);
+            view.put(part);
+            src.position(src.position() + count);
+            start += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void get(int start, float[] dest, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[offset + i] = (float) get(start + i);
+        }
+    }
+
+    @Override
+    public void get(int start, FloatBuffer dest, int length) {
+        for (int i = 0; i < length; i++) {
+            dest.put((float) get(start + i));
+        }
+    }
+
+    @Override
+    public void set(int start, float[] src, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            set(start + i, src[offset + i]);
+        }
+    }
+
+    @Override
+    public void set(int start, FloatBuffer src, int length) {
+        for (int i = 0; i < length; i++) {
+            set(start + i, src.get());
+        }
+    }
+
+    @Override
+    public double[] array() {
+        return null;
+    }
+
+    @Override
+    public float[] floatArray() {
+        return null;
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * Raster storage in direct (off-heap) memory. Values do not count towards the Java heap, and are not moved or scanned by the
+ * garbage collector.
+ */
+public class DirectRasterStorage extends BufferRasterStorage {
+
+    public DirectRasterStorage(int size) {
+        this(size, DEFAULT_CHUNK_SHIFT);
+    }
+
+    DirectRasterStorage(int size, int chunkShift) {
+        super(size, chunkShift);
+        createChunks();
+    }
+
+    @Override
+    protected DoubleBuffer createChunk(int chunk, long start, int length) {
+        return ByteBuffer.allocateDirect(length * (Double.SIZE / 8)).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+    }
+
+    @Override
+    public void close() {
+        //memory is released once this storage is garbage collected
+    }
+
+}
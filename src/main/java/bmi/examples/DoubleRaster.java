@@ -15,28 +15,85 @@
  */
 package bmi.examples;
 
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import bmi.IndexPlan;
+
+/**
+ * Two dimensional grid of values, stored row major in a {@link RasterStorage}. Values are stored in the precision of the
+ * storage, e.g. single precision in a {@link HeapFloatRasterStorage}, and can be accessed as both doubles and floats.
+ * Values are only converted when accessed in the other precision.
+ *
+ * Supports copy-on-write snapshots: {@link #snapshot()} takes constant time, after which the original values of a block of
+ * {@link #SNAPSHOT_BLOCK_SIZE} cells are copied the first time the block is written. All writes through this class and
+ * {@link RasterKernels} are tracked; writes directly to the storage or to the array returned by {@link #getValues()} are not.
+ * Snapshots are not thread safe: writes should not run concurrently with taking, restoring or releasing a snapshot.
+ *
+ * The same writes also stamp each block of {@link #CHANGE_BLOCK_SIZE} cells with a new version, so {@link #getChanges(long)}
+ * can return only the cells modified since a given version. Versions come from a single counter shared by all rasters, so
+ * they remain comparable when a model swaps one raster for another.
+ */
 public class DoubleRaster {
 
+    public static final int SNAPSHOT_BLOCK_SIZE = 4096;
+
+    private static final int SNAPSHOT_BLOCK_SHIFT = 12;
+
+    public static final int CHANGE_BLOCK_SIZE = 1024;
+
+    private static final int CHANGE_BLOCK_SHIFT = 10;
+
+    private static final AtomicLong CLOCK = new AtomicLong();
+
+    private static final RasterSnapshot[] NO_SNAPSHOTS = new RasterSnapshot[0];
+
+    //runs of an index plan shorter than this are copied value by value, avoiding the call overhead of a bulk copy
+    private static final int MIN_BULK_RUN = 8;
+
+    private final RasterStorage storage;
+    //backing array of the storage, if any. Used for fast element access.
     private final double[] data;
+    private final float[] floatData;
+    private static final RasterOps OPS = RasterOps.get();
     private final int width;
     private final int height;
 
+    //snapshots that have not been released yet, oldest first
+    private RasterSnapshot[] snapshots = NO_SNAPSHOTS;
+    //per block, the version of the newest snapshot that no longer needs a copy of the block
+    private int[] preserved = null;
+    //version of the newest snapshot
+    private int version = 0;
+    //per block of CHANGE_BLOCK_SIZE cells, the version of the last write
+    private final long[] changed;
+
     public DoubleRaster(int x, int y) {
-        data = new double[x * y];
+        this(x, y, new HeapRasterStorage(x * y));
+    }
+
+    public DoubleRaster(int x, int y, RasterStorage storage) {
+        if (storage.size() != x * y) {
+            throw new IllegalArgumentException("storage size " + storage.size() + " does not match raster size " + x + "x" + y);
+        }
+        this.storage = storage;
+        this.data = storage.array();
+        this.floatData = storage.floatArray();
         this.width = x;
         this.height = y;
+        //all values are new, so a raster starts out changed
+        this.changed = new long[(storage.size() + CHANGE_BLOCK_SIZE - 1) >>> CHANGE_BLOCK_SHIFT];
+        Arrays.fill(changed, CLOCK.incrementAndGet());
     }
 
     public void setScalar(double scalar) {
-        for (int i = 0; i < data.length; i++) {
-            data[i] = scalar;
-        }
+        RasterKernels.getDefault().fill(this, scalar);
     }
 
     public void addScalar(double scalar) {
-        for (int i = 0; i < data.length; i++) {
-            data[i] += scalar;
-        }
+        RasterKernels.getDefault().add(this, scalar);
     }
 
     public int getRank() {
@@ -51,28 +108,529 @@ public class DoubleRaster {
         return this.height;
     }
 
+    public RasterStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * @return the BMI type of the stored values, "float64" or "float32".
+     */
+    public String getType() {
+        return storage.getType();
+    }
+
+    /**
+     * Returns all values. For heap storage of doubles this is the backing array itself, otherwise a copy.
+     */
     public double[] getValues() {
-        return data;
+        if (data != null) {
+            return data;
+        }
+        double[] result = new double[storage.size()];
+        storage.get(0, result, 0, result.length);
+        return result;
     }
 
     public double[] getValues(int[] indices) {
         double[] result = new double[indices.length];
 
-        for (int i = 0; i < result.length; i++) {
-            result[i] = data[indices[i]];
+        getValues(indices, result, 0);
+
+        return result;
+    }
+
+    /**
+     * Copy the first <code>length</code> values into <code>dest</code>, starting at <code>offset</code>.
+     */
+    public void getValues(double[] dest, int offset, int length) {
+        storage.get(0, dest, offset, length);
+    }
+
+    /**
+     * Copy all values into <code>dest</code>, advancing its position.
+     */
+    public void getValues(DoubleBuffer dest) {
+        storage.get(0, dest, storage.size());
+    }
+
+    /**
+     * Gather the values at the given indices into <code>dest</code>, starting at <code>offset</code>.
+     */
+    public void getValues(int[] indices, double[] dest, int offset) {
+        if (data != null) {
+            OPS.gather(data, indices, dest, offset);
+        } else {
+            for (int i = 0; i < indices.length; i++) {
+                dest[offset + i] = storage.get(indices[i]);
+            }
         }
+    }
+
+    public void getValues(int[] indices, DoubleBuffer dest) {
+        for (int i = 0; i < indices.length; i++) {
+            dest.put(storage.get(indices[i]));
+        }
+    }
+
+    /**
+     * Returns all values as floats. For heap storage of floats this is the backing array itself, otherwise a copy.
+     */
+    public float[] getFloatValues() {
+        if (floatData != null) {
+            return floatData;
+        }
+        float[] result = new float[storage.size()];
+        storage.get(0, result, 0, result.length);
+        return result;
+    }
+
+    public float[] getFloatValues(int[] indices) {
+        float[] result = new float[indices.length];
+
+        getValues(indices, result, 0);
 
         return result;
     }
 
+    public void getValues(float[] dest, int offset, int length) {
+        storage.get(0, dest, offset, length);
+    }
+
+    public void getValues(FloatBuffer dest) {
+        storage.get(0, dest, storage.size());
+    }
+
+    public void getValues(int[] indices, float[] dest, int offset) {
+        if (floatData != null) {
+            for (int i = 0; i < indices.length; i++) {
+                dest[offset + i] = floatData[indices[i]];
+            }
+        } else {
+            for (int i = 0; i < indices.length; i++) {
+                dest[offset + i] = (float) storage.get(indices[i]);
+            }
+        }
+    }
+
+    public void getValues(int[] indices, FloatBuffer dest) {
+        for (int i = 0; i < indices.length; i++) {
+            dest.put((float) storage.get(indices[i]));
+        }
+    }
+
+    /**
+     * Copy <code>length</code> values, starting at value <code>start</code>, into <code>dest</code>.
+     */
+    public void getRange(int start, double[] dest, int offset, int length) {
+        storage.get(start, dest, offset, length);
+    }
+
+    public void setRange(int start, double[] src, int offset, int length) {
+        beforeWrite(start, length);
+        storage.set(start, src, offset, length);
+    }
+
+    public void getRange(int start, float[] dest, int offset, int length) {
+        storage.get(start, dest, offset, length);
+    }
+
+    public void setRange(int start, float[] src, int offset, int length) {
+        beforeWrite(start, length);
+        storage.set(start, src, offset, length);
+    }
+
+    /**
+     * Copy a window of <code>rows</code> by <code>columns</code> values, starting at (<code>row</code>, <code>column</code>),
+     * into <code>dest</code> row by row.
+     */
+    public void getWindow(int row, int column, int rows, int columns, double[] dest, int offset) {
+        for (int i = 0; i < rows; i++) {
+            storage.get((row + i) * width + column, dest, offset + i * columns, columns);
+        }
+    }
+
+    public void setWindow(int row, int column, int rows, int columns, double[] src, int offset) {
+        beforeWrite(row * width + column, (rows - 1) * width + columns);
+        for (int i = 0; i < rows; i++) {
+            storage.set((row + i) * width + column, src, offset + i * columns, columns);
+        }
+    }
+
+    public void getWindow(int row, int column, int rows, int columns, float[] dest, int offset) {
+        for (int i = 0; i < rows; i++) {
+            storage.get((row + i) * width + column, dest, offset + i * columns, columns);
+        }
+    }
+
+    public void setWindow(int row, int column, int rows, int columns, float[] src, int offset) {
+        beforeWrite(row * width + column, (rows - 1) * width + columns);
+        for (int i = 0; i < rows; i++) {
+            storage.set((row + i) * width + column, src, offset + i * columns, columns);
+        }
+    }
+
+    /**
+     * Gather the values at the indices of the plan into <code>dest</code>, in plan order. Long runs are copied in bulk.
+     */
+    public void getValues(IndexPlan plan, double[] dest, int offset) {
+        if (data != null && isFragmented(plan)) {
+            OPS.gather(data, plan.getIndices(), dest, offset);
+            return;
+        }
+        for (int run = 0; run < plan.getRunCount(); run++) {
+            int start = plan.getRunStart(run);
+            int length = plan.getRunLength(run);
+            int position = offset + plan.getRunOffset(run);
+
+            if (length >= MIN_BULK_RUN || data == null) {
+                storage.get(start, dest, position, length);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    dest[position + i] = data[start + i];
+                }
+            }
+        }
+    }
+
+    //true if the runs of a plan are too short on average for run by run copying to pay off. The plan's indices are in plan
+    //order, so gathering them one by one gives the same result.
+    private static boolean isFragmented(IndexPlan plan) {
+        return plan.getRunCount() * MIN_BULK_RUN > plan.size();
+    }
+
+    public void setValues(IndexPlan plan, double[] src, int offset) {
+        long stamp = CLOCK.incrementAndGet();
+        for (int run = 0; run < plan.getRunCount(); run++) {
+            markChanged(plan.getRunStart(run), plan.getRunLength(run), stamp);
+            preserve(plan.getRunStart(run), plan.getRunLength(run));
+        }
+        for (int run = 0; run < plan.getRunCount(); run++) {
+            int start = plan.getRunStart(run);
+            int length = plan.getRunLength(run);
+            int position = offset + plan.getRunOffset(run);
+
+            if (length >= MIN_BULK_RUN || data == null) {
+                storage.set(start, src, position, length);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    data[start + i] = src[position + i];
+                }
+            }
+        }
+    }
+
+    public void getValues(IndexPlan plan, float[] dest, int offset) {
+        if (floatData != null && isFragmented(plan)) {
+            int[] indices = plan.getIndices();
+            for (int i = 0; i < indices.length; i++) {
+                dest[offset + i] = floatData[indices[i]];
+            }
+            return;
+        }
+        for (int run = 0; run < plan.getRunCount(); run++) {
+            int start = plan.getRunStart(run);
+            int length = plan.getRunLength(run);
+            int position = offset + plan.getRunOffset(run);
+
+            if (length >= MIN_BULK_RUN || floatData == null) {
+                storage.get(start, dest, position, length);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    dest[position + i] = floatData[start + i];
+                }
+            }
+        }
+    }
+
+    public void setValues(IndexPlan plan, float[] src, int offset) {
+        long stamp = CLOCK.incrementAndGet();
+        for (int run = 0; run < plan.getRunCount(); run++) {
+            markChanged(plan.getRunStart(run), plan.getRunLength(run), stamp);
+            preserve(plan.getRunStart(run), plan.getRunLength(run));
+        }
+        for (int run = 0; run < plan.getRunCount(); run++) {
+            int start = plan.getRunStart(run);
+            int length = plan.getRunLength(run);
+            int position = offset + plan.getRunOffset(run);
+
+            if (length >= MIN_BULK_RUN || floatData == null) {
+                storage.set(start, src, position, length);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    floatData[start + i] = src[position + i];
+                }
+            }
+        }
+    }
+
     public void setValues(double[] src) {
-        System.arraycopy(src, 0, data, 0, src.length);
+        beforeWrite(0, src.length);
+        storage.set(0, src, 0, src.length);
+    }
+
+    public void setValues(double[] src, int offset, int length) {
+        beforeWrite(0, length);
+        storage.set(0, src, offset, length);
+    }
+
+    /**
+     * Set all values from <code>src</code>, advancing its position.
+     */
+    public void setValues(DoubleBuffer src) {
+        beforeWrite(0, storage.size());
+        storage.set(0, src, storage.size());
     }
 
     public void setValues(int[] indices, double[] src) {
+        setValues(indices, src, 0);
+    }
+
+    public void setValues(int[] indices, double[] src, int offset) {
+        beforeWrite(indices);
+        if (data != null) {
+            OPS.scatter(src, offset, indices, data);
+        } else {
+            for (int i = 0; i < indices.length; i++) {
+                storage.set(indices[i], src[offset + i]);
+            }
+        }
+    }
+
+    public void setValues(int[] indices, DoubleBuffer src) {
+        beforeWrite(indices);
         for (int i = 0; i < indices.length; i++) {
-            data[indices[i]] = src[i];
+            storage.set(indices[i], src.get());
+        }
+    }
+
+    public void setValues(float[] src) {
+        beforeWrite(0, src.length);
+        storage.set(0, src, 0, src.length);
+    }
+
+    public void setValues(float[] src, int offset, int length) {
+        beforeWrite(0, length);
+        storage.set(0, src, offset, length);
+    }
+
+    public void setValues(FloatBuffer src) {
+        beforeWrite(0, storage.size());
+        storage.set(0, src, storage.size());
+    }
+
+    public void setValues(int[] indices, float[] src) {
+        setValues(indices, src, 0);
+    }
+
+    public void setValues(int[] indices, float[] src, int offset) {
+        beforeWrite(indices);
+        if (floatData != null) {
+            for (int i = 0; i < indices.length; i++) {
+                floatData[indices[i]] = src[offset + i];
+            }
+        } else {
+            for (int i = 0; i < indices.length; i++) {
+                storage.set(indices[i], src[offset + i]);
+            }
+        }
+    }
+
+    public void setValues(int[] indices, FloatBuffer src) {
+        beforeWrite(indices);
+        for (int i = 0; i < indices.length; i++) {
+            storage.set(indices[i], src.get());
+        }
+    }
+
+    /**
+     * Take a snapshot of the current values. Until the snapshot is released, every block written for the first time is copied
+     * first.
+     */
+    public RasterSnapshot snapshot() {
+        int blockCount = (storage.size() + SNAPSHOT_BLOCK_SIZE - 1) >>> SNAPSHOT_BLOCK_SHIFT;
+
+        if (preserved == null) {
+            preserved = new int[blockCount];
+        }
+        version++;
+
+        RasterSnapshot result = new RasterSnapshot(this, version, blockCount);
+
+        RasterSnapshot[] updated = new RasterSnapshot[snapshots.length + 1];
+        System.arraycopy(snapshots, 0, updated, 0, snapshots.length);
+        updated[snapshots.length] = result;
+        snapshots = updated;
+
+        return result;
+    }
+
+    /**
+     * Reset all values to those of the given snapshot, copying only the blocks modified since. The snapshot remains valid, and
+     * can be restored again later.
+     */
+    public void restore(RasterSnapshot snapshot) {
+        checkSnapshot(snapshot);
+
+        for (int block = 0; block < snapshot.blocks.length; block++) {
+            Object values = snapshot.blocks[block];
+            if (values != null) {
+                int start = block << SNAPSHOT_BLOCK_SHIFT;
+                int length = Math.min(SNAPSHOT_BLOCK_SIZE, storage.size() - start);
+                //other snapshots may still need the current values
+                beforeWrite(start, length);
+                if (values instanceof float[]) {
+                    storage.set(start, (float[]) values, 0, length);
+                } else {
+                    storage.set(start, (double[]) values, 0, length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Release a snapshot, so modified blocks are no longer copied for it.
+     */
+    public void release(RasterSnapshot snapshot) {
+        checkSnapshot(snapshot);
+
+        RasterSnapshot[] updated = new RasterSnapshot[snapshots.length - 1];
+        int next = 0;
+        for (RasterSnapshot current : snapshots) {
+            if (current != snapshot) {
+                updated[next++] = current;
+            }
+        }
+        snapshots = updated.length == 0 ? NO_SNAPSHOTS : updated;
+        snapshot.released = true;
+    }
+
+    private void checkSnapshot(RasterSnapshot snapshot) {
+        if (snapshot.raster != this) {
+            throw new IllegalArgumentException("snapshot of a different raster");
+        }
+        if (snapshot.released) {
+            throw new IllegalArgumentException("snapshot already released");
+        }
+    }
+
+    /**
+     * @return the current version. Cells written after this call will have a newer version.
+     */
+    public static long getVersion() {
+        return CLOCK.get();
+    }
+
+    /**
+     * Mark cells as changed without writing them, e.g. when this raster takes the place of another one.
+     */
+    public void markChanged(int start, int length) {
+        if (length > 0) {
+            markChanged(start, length, CLOCK.incrementAndGet());
+        }
+    }
+
+    /**
+     * Returns the cells written after the given version, as runs of whole blocks of {@link #CHANGE_BLOCK_SIZE} cells. Version
+     * 0 (or any version before this raster was created) returns all cells.
+     * 
+     * @param since
+     *            a version returned by {@link #getVersion()}
+     * @return a plan of the changed cells, empty if nothing changed
+     */
+    public IndexPlan getChanges(long since) {
+        int size = storage.size();
+        int runs = 0;
+        int[] starts = new int[(changed.length + 1) / 2];
+        int[] lengths = new int[starts.length];
+
+        int block = 0;
+        while (block < changed.length) {
+            if (changed[block] <= since) {
+                block++;
+                continue;
+            }
+            int first = block;
+            while (block < changed.length && changed[block] > since) {
+                block++;
+            }
+            int start = first << CHANGE_BLOCK_SHIFT;
+            starts[runs] = start;
+            lengths[runs] = Math.min(block << CHANGE_BLOCK_SHIFT, size) - start;
+            runs++;
+        }
+        return IndexPlan.ofRuns(Arrays.copyOf(starts, runs), Arrays.copyOf(lengths, runs));
+    }
+
+    private void markChanged(int start, int length, long stamp) {
+        int last = (start + length - 1) >>> CHANGE_BLOCK_SHIFT;
+        for (int block = start >>> CHANGE_BLOCK_SHIFT; block <= last; block++) {
+            changed[block] = stamp;
+        }
+    }
+
+    /**
+     * Must be called before modifying the given cells, to record the change and to copy the original values for all snapshots
+     * that still need them.
+     */
+    void beforeWrite(int start, int length) {
+        if (length <= 0) {
+            return;
+        }
+        markChanged(start, length, CLOCK.incrementAndGet());
+        preserve(start, length);
+    }
+
+    private void preserve(int start, int length) {
+        if (snapshots.length == 0 || length <= 0) {
+            return;
+        }
+        int last = (start + length - 1) >>> SNAPSHOT_BLOCK_SHIFT;
+        for (int block = start >>> SNAPSHOT_BLOCK_SHIFT; block <= last; block++) {
+            if (preserved[block] < version) {
+                preserve(block);
+            }
+        }
+    }
+
+    private void beforeWrite(int[] indices) {
+        long stamp = CLOCK.incrementAndGet();
+        for (int index : indices) {
+            changed[index >>> CHANGE_BLOCK_SHIFT] = stamp;
+        }
+        if (snapshots.length == 0) {
+            return;
+        }
+        for (int index : indices) {
+            int block = index >>> SNAPSHOT_BLOCK_SHIFT;
+            if (preserved[block] < version) {
+                preserve(block);
+            }
+        }
+    }
+
+    private void preserve(int block) {
+        int start = block << SNAPSHOT_BLOCK_SHIFT;
+        int length = Math.min(SNAPSHOT_BLOCK_SIZE, storage.size() - start);
+
+        //copies are kept in the precision of the storage
+        Object copy;
+        if (storage.getType().equals("float32")) {
+            float[] values = new float[length];
+            storage.get(start, values, 0, length);
+            copy = values;
+        } else {
+            double[] values = new double[length];
+            storage.get(start, values, 0, length);
+            copy = values;
+        }
+
+        //shared by all snapshots taken since the block was last preserved, as the values have not changed since
+        for (RasterSnapshot snapshot : snapshots) {
+            if (snapshot.version > preserved[block]) {
+                snapshot.blocks[block] = copy;
+            }
         }
+        preserved[block] = version;
     }
 
-}
\ No newline at end of file
+}
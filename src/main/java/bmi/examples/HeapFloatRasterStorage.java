@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Raster storage backed by a plain float array on the Java heap. Uses half the memory (and memory bandwidth) of
+ * {@link HeapRasterStorage}. Float values are copied in bulk, double values are converted on every access.
+ */
+public class HeapFloatRasterStorage implements RasterStorage {
+
+    private final float[] data;
+
+    public HeapFloatRasterStorage(int size) {
+        this.data = new float[size];
+    }
+
+    @Override
+    public int size() {
+        return data.length;
+    }
+
+    @Override
+    public String getType() {
+        return "float32";
+    }
+
+    @Override
+    public double get(int index) {
+        return data[index];
+    }
+
+    @Override
+    public void set(int index, double value) {
+        data[index] = (float) value;
+    }
+
+    @Override
+    public void fill(int start, int length, double value) {
+        float converted = (float) value;
+        for (int i = start; i < start + length; i++) {
+            data[i] = converted;
+        }
+    }
+
+    @Override
+    public void add(int start, int length, double value) {
+        for (int i = start; i < start + length; i++) {
+            data[i] = (float) (data[i] + value);
+        }
+    }
+
+    @Override
+    public void get(int start, double[] dest, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[offset + i] = data[start + i];
+        }
+    }
+
+    @Override
+    public void get(int start, DoubleBuffer dest, int length) {
+        for (int i = 0; i < length; i++) {
+            dest.put(data[start + i]);
+        }
+    }
+
+    @Override
+    public void set(int start, double[] src, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            data[start + i] = (float) src[offset + i];
+        }
+    }
+
+    @Override
+    public void set(int start, DoubleBuffer src, int length) {
+        for (int i = 0; i < length; i++) {
+            data[start + i] = (float) src.get();
+        }
+    }
+
+    @Override
+    public void get(int start, float[] dest, int offset, int length) {
+        System.arraycopy(data, start, dest, offset, length);
+    }
+
+    @Override
+    public void get(int start, FloatBuffer dest, int length) {
+        dest.put(data, start, length);
+    }
+
+    @Override
+    public void set(int start, float[] src, int offset, int length) {
+        System.arraycopy(src, offset, data, start, length);
+    }
+
+    @Override
+    public void set(int start, FloatBuffer src, int length) {
+        src.get(data, start, length);
+    }
+
+    @Override
+    public double[] array() {
+        return null;
+    }
+
+    @Override
+    public float[] floatArray() {
+        return data;
+    }
+
+    @Override
+    public void close() {
+        //nothing to do
+    }
+
+}
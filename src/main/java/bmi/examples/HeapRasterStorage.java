@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Raster storage backed by a plain double array on the Java heap.
+ */
+public class HeapRasterStorage implements RasterStorage {
+
+    private final double[] data;
+    private static final RasterOps OPS = RasterOps.get();
+
+    public HeapRasterStorage(int size) {
+        this.data = new double[size];
+    }
+
+    @Override
+    public int size() {
+        return data.length;
+    }
+
+    @Override
+    public String getType() {
+        return "float64";
+    }
+
+    @Override
+    public double get(int index) {
+        return data[index];
+    }
+
+    @Override
+    public void set(int index, double value) {
+        data[index] = value;
+    }
+
+    @Override
+    public void fill(int start, int length, double value) {
+        OPS.fill(data, start, length, value);
+    }
+
+    @Override
+    public void add(int start, int length, double value) {
+        OPS.addScalar(data, start, length, value);
+    }
+
+    @Override
+    public void get(int start, double[] dest, int offset, int length) {
+        System.arraycopy(data, start, dest, offset, length);
+    }
+
+    @Override
+    public void get(int start, DoubleBuffer dest, int length) {
+        dest.put(data, start, length);
+    }
+
+    @Override
+    public void set(int start, double[] src, int offset, int length) {
+        System.arraycopy(src, offset, data, start, length);
+    }
+
+    @Override
+    public void set(int start, DoubleBuffer src, int length) {
+        src.get(data, start, length);
+    }
+
+    @Override
+    public void get(int start, float[] dest, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[offset + i] = (float) data[start + i];
+        }
+    }
+
+    @Override
+    public void get(int start, FloatBuffer dest, int length) {
+        for (int i = 0; i < length; i++) {
+            dest.put((float) data[start + i]);
+        }
+    }
+
+    @Override
+    public void set(int start, float[] src, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            data[start + i] = src[offset + i];
+        }
+    }
+
+    @Override
+    public void set(int start, FloatBuffer src, int length) {
+        for (int i = 0; i < length; i++) {
+            data[start + i] = src.get();
+        }
+    }
+
+    @Override
+    public double[] array() {
+        return data;
+    }
+
+    @Override
+    public float[] floatArray() {
+        return null;
+    }
+
+    @Override
+    public void close() {
+        //nothing to do
+    }
+
+}
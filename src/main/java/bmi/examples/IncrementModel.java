@@ -15,30 +15,127 @@
  */
 package bmi.examples;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import bmi.AsyncBMI;
 import bmi.BMIGridType;
 import bmi.BMIModelException;
+import bmi.BatchBMI;
+import bmi.BufferedBMI;
+import bmi.DeltaBMI;
 import bmi.EBMI;
+import bmi.GeometryBMI;
+import bmi.GridGeometry;
+import bmi.HandleBMI;
+import bmi.IndexPlan;
+import bmi.IndexPlanBMI;
+import bmi.ModelSnapshot;
+import bmi.RegionBMI;
+import bmi.SnapshotBMI;
+import bmi.VariableBatch;
+import bmi.VariableDelta;
+import bmi.VariableHandle;
+import bmi.state.ModelState;
+import bmi.state.StateFile;
 
 /**
  * Model that holds only a single (grid) variable, which increments at every timestep.
  * 
+ * The storage of the grid can be selected with the "raster.storage" attribute after initializeConfig: "heap" (default),
+ * "direct" (off-heap memory) or "mapped" (a memory mapped file, given by the "raster.file" attribute, or a temporary file if
+ * not set).
+ * 
+ * With the "state.buffering" attribute set to "double" the model keeps a second grid, and computes each step from one grid
+ * into the other. Steps started with {@link #updateAsync()} or {@link #updateUntilAsync(double)} then run in the thread pool
+ * of the kernels, while the values and time from before the update can still be read. Both are replaced at once when the last
+ * step is done. In the default "single" mode the grid is updated in place, and asynchronous updates run in the calling thread.
+ * 
+ * The "var1.precision" attribute selects the precision in which the grid is stored: "float64" (default) or "float32", which
+ * halves the memory used. Single precision is only supported for heap storage. Both precisions can be accessed with the
+ * double and float functions, values are only converted when accessed in the other precision.
  * 
  * @author Rolf Hut
  * @author Niels Drost
  *
  */
-public class IncrementModel implements EBMI {
+public class IncrementModel implements EBMI, BufferedBMI, HandleBMI, BatchBMI, RegionBMI, IndexPlanBMI, AsyncBMI,
+        SnapshotBMI, DeltaBMI, GeometryBMI {
+
+    private static final CellOperator INCREMENT = new CellOperator() {
+        @Override
+        public double apply(int row, int column, double value) {
+            return value + 1;
+        }
+    };
+
+    /**
+     * The grid of the last completed step, together with the model time of its values. Background updates replace both at
+     * once, so readers never see the grid of one step with the time of another.
+     */
+    private static final class Published {
+        private final DoubleRaster raster;
+        private final double time;
+
+        Published(DoubleRaster raster, double time) {
+            this.raster = raster;
+            this.time = time;
+        }
+    }
+
     private double dt;
-    private double t;
     private double startTime;
     private double endTime;
-    private DoubleRaster state = null;
+    //written by background updates, read by the caller
+    private volatile Published current = new Published(null, 0);
+    //grid the next step is computed into, only used when double buffered
+    private DoubleRaster spare = null;
+    private CompletableFuture<Void> pending = null;
+    private VariableHandle var1 = null;
+    private String rasterStorage = "heap";
+    private String rasterFile = null;
+    private String stateBuffering = "single";
+    private String precision = "float64";
 
     private final int[] shape;
+    //coordinates are computed on demand, the grid never changes
+    private final GridGeometry geometry;
     private final String name = "Example java toy increment Model";
+    private final RasterKernels kernels;
 
     public IncrementModel() {
-        shape = new int[] { 10, 10 };
+        this(10, 10);
+    }
+
+    /**
+     * @param kernels
+     *            used to run computations on the grid, e.g. to select a thread pool or block size
+     */
+    public IncrementModel(RasterKernels kernels) {
+        this(10, 10, kernels);
+    }
+
+    public IncrementModel(int rows, int columns) {
+        this(rows, columns, RasterKernels.getDefault());
+    }
+
+    /**
+     * @param rows
+     *            number of rows in the grid
+     * @param columns
+     *            number of columns in the grid
+     * @param kernels
+     *            used to run computations on the grid, e.g. to select a thread pool or block size
+     */
+    public IncrementModel(int rows, int columns, RasterKernels kernels) {
+        shape = new int[] { rows, columns };
+        geometry = GridGeometry.uniform(shape, new double[] { 1.0, 1.0 }, new double[] { 0.0, 0.0 });
+        this.kernels = kernels;
     }
 
     @Override
@@ -47,15 +144,58 @@ public class IncrementModel implements EBMI {
 
         dt = 1.0;
         startTime = 1.0;
-        t = startTime;
+        current = new Published(current.raster, startTime);
         endTime = 20.0;
+        rasterStorage = "heap";
+        rasterFile = null;
+        stateBuffering = "single";
+        precision = "float64";
     }
 
     @Override
     public void initializeModel() throws BMIModelException {
         //initialize state
-        state = new DoubleRaster(shape[0], shape[1]);
-        state.setScalar(startTime);
+        DoubleRaster state = createRaster(rasterFile);
+        kernels.fill(state, startTime);
+        current = new Published(state, current.time);
+        if (stateBuffering.equals("double")) {
+            spare = createRaster(rasterFile == null ? null : rasterFile + ".back");
+        }
+        //the handle cannot refer to the grid if it is swapped at every step
+        var1 = new VariableHandle(this, "var1", getVarType("var1"), current.raster.getRank(), getVarSize("var1"), getVarNbytes("var1"),
+                spare == null ? state : null);
+    }
+
+    private DoubleRaster createRaster(String rasterFile) throws BMIModelException {
+        int size = shape[0] * shape[1];
+        RasterStorage storage;
+
+        if (precision.equals("float32")) {
+            if (!rasterStorage.equals("heap")) {
+                throw new BMIModelException("float32 precision is only supported for heap storage, not " + rasterStorage);
+            }
+            storage = new HeapFloatRasterStorage(size);
+        } else if (rasterStorage.equals("heap")) {
+            storage = new HeapRasterStorage(size);
+        } else if (rasterStorage.equals("direct")) {
+            storage = new DirectRasterStorage(size);
+        } else {
+            File file = null;
+            try {
+                if (rasterFile == null) {
+                    file = File.createTempFile("increment-model", ".raster");
+                    file.deleteOnExit();
+                } else {
+                    file = new File(rasterFile);
+                }
+                storage = new MappedRasterStorage(file, size);
+            } catch (IOException e) {
+                throw new BMIModelException("could not map raster file " + file, e);
+            }
+        }
+
+        //shape is in row major order: { rows, columns }
+        return new DoubleRaster(shape[1], shape[0], storage);
     }
 
     @Override
@@ -66,28 +206,135 @@ public class IncrementModel implements EBMI {
 
     @Override
     public void update() throws BMIModelException {
-        if (t >= endTime) {
+        awaitUpdate();
+        if (current.time >= endTime) {
             throw new BMIModelException("endTime already reached, model not updated");
         }
-        state.addScalar(1);
-        t += dt;
+        steps(1, Double.POSITIVE_INFINITY);
     };
 
     @Override
     public void updateUntil(double time) throws BMIModelException {
-        if ((time < t) | (time > endTime)) {
+        awaitUpdate();
+        if ((time < current.time) | (time > endTime)) {
             throw new BMIModelException("wrong time input: smaller than model time or larger than endTime");
         }
-        while (t < time) {
-            update();
-        }
+        steps(Integer.MAX_VALUE, time);
     };
 
+    @Override
+    public CompletableFuture<Void> updateAsync() throws BMIModelException {
+        awaitUpdate();
+        if (current.time >= endTime) {
+            throw new BMIModelException("endTime already reached, model not updated");
+        }
+        return startUpdate(1, Double.POSITIVE_INFINITY);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateUntilAsync(double time) throws BMIModelException {
+        awaitUpdate();
+        if ((time < current.time) | (time > endTime)) {
+            throw new BMIModelException("wrong time input: smaller than model time or larger than endTime");
+        }
+        return startUpdate(Integer.MAX_VALUE, time);
+    }
+
+    /**
+     * Start doing at most maxSteps steps, stopping when the given time is reached.
+     */
+    private CompletableFuture<Void> startUpdate(final int maxSteps, final double time) {
+        Runnable steps = new Runnable() {
+            @Override
+            public void run() {
+                steps(maxSteps, time);
+            }
+        };
+
+        if (spare == null) {
+            //readers would see a partially updated grid, so update in place right away
+            steps.run();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        pending = CompletableFuture.runAsync(steps, kernels.getPool());
+        return pending;
+    }
+
+    /**
+     * Do at most maxSteps steps, stopping when the given time is reached. When double buffered, all steps are computed in
+     * the spare grid, which is only published once the last step is done. The published grid is never written, so readers
+     * can keep using it while the steps run.
+     */
+    private void steps(int maxSteps, double time) {
+        Published previous = current;
+        DoubleRaster raster = previous.raster;
+        double next = previous.time;
+
+        for (int i = 0; i < maxSteps && next < time; i++) {
+            if (spare == null) {
+                kernels.add(raster, 1);
+                next += dt;
+                current = new Published(raster, next);
+            } else {
+                kernels.map(raster, spare, INCREMENT);
+                raster = spare;
+                next += dt;
+            }
+        }
+
+        if (raster != previous.raster) {
+            //a delta read of the previous grid while the steps ran may already have returned a version after the stamps
+            //of the steps, so stamp the whole grid again before publishing it
+            raster.markChanged(0, raster.getStorage().size());
+            spare = previous.raster;
+            current = new Published(raster, next);
+        }
+    }
+
+    /**
+     * Wait for the pending background update, if any. Called before anything that modifies the model.
+     */
+    private void awaitUpdate() throws BMIModelException {
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.join();
+        } catch (CompletionException e) {
+            throw new BMIModelException("background update failed", e.getCause());
+        } catch (CancellationException e) {
+            throw new BMIModelException("background update cancelled", e);
+        } finally {
+            pending = null;
+        }
+    }
+
+    private DoubleRaster writable() throws BMIModelException {
+        awaitUpdate();
+        return current.raster;
+    }
+
     @Override
     public void finalizeModel() {
+        if (pending != null) {
+            try {
+                pending.join();
+            } catch (CompletionException | CancellationException e) {
+                //the outcome of the update does not matter anymore, only that it no longer uses the grids
+            }
+            pending = null;
+        }
         dt = 0;
-        t = 0;
-        state = null;
+        if (current.raster != null) {
+            current.raster.getStorage().close();
+        }
+        if (spare != null) {
+            spare.getStorage().close();
+        }
+        current = new Published(null, 0);
+        spare = null;
+        var1 = null;
     };
 
     @Override
@@ -105,7 +352,7 @@ public class IncrementModel implements EBMI {
         if (!longVarName.equals("var1")) {
             throw new BMIModelException("variable " + longVarName + " does not exist");
         }
-        return "float64";
+        return precision;
     };
 
     @Override
@@ -121,7 +368,7 @@ public class IncrementModel implements EBMI {
         if (!longVarName.equals("var1")) {
             throw new BMIModelException("variable " + longVarName + " does not exist");
         }
-        return state.getRank();
+        return current.raster.getRank();
     };
 
     @Override
@@ -136,7 +383,7 @@ public class IncrementModel implements EBMI {
 
     @Override
     public double getCurrentTime() {
-        return t;
+        return current.time;
     }
 
     @Override
@@ -150,7 +397,7 @@ public class IncrementModel implements EBMI {
             throw new BMIModelException("variable " + long_var_name + " does not exist");
         }
 
-        return state.getValues();
+        return current.raster.getValues();
     }
 
     @Override
@@ -159,7 +406,7 @@ public class IncrementModel implements EBMI {
             throw new BMIModelException("variable " + long_var_name + " does not exist");
         }
 
-        return state.getValues(indices);
+        return current.raster.getValues(indices);
     }
 
     @Override
@@ -168,7 +415,7 @@ public class IncrementModel implements EBMI {
             throw new BMIModelException("variable " + long_var_name + " does not exist");
         }
 
-        state.setValues(src);
+        writable().setValues(src);
     }
 
     @Override
@@ -177,7 +424,232 @@ public class IncrementModel implements EBMI {
             throw new BMIModelException("variable " + long_var_name + " does not exist");
         }
 
-        state.setValues(indices, src);
+        writable().setValues(indices, src);
+    }
+
+    @Override
+    public void getDouble(String longVarName, double[] dest, int offset, int length) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+
+        current.raster.getValues(dest, offset, length);
+    }
+
+    @Override
+    public void getDouble(String longVarName, DoubleBuffer dest) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+
+        current.raster.getValues(dest);
+    }
+
+    @Override
+    public void getDoubleAtIndices(String longVarName, int[] indices, double[] dest, int offset) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+
+        current.raster.getValues(indices, dest, offset);
+    }
+
+    @Override
+    public void getDoubleAtIndices(String longVarName, int[] indices, DoubleBuffer dest) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+
+        current.raster.getValues(indices, dest);
+    }
+
+    @Override
+    public void setDouble(String longVarName, double[] src, int offset, int length) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+
+        writable().setValues(src, offset, length);
+    }
+
+    @Override
+    public void setDouble(String longVarName, DoubleBuffer src) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+
+        writable().setValues(src);
+    }
+
+    @Override
+    public void setDoubleAtIndices(String longVarName, int[] indices, double[] src, int offset) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+
+        writable().setValues(indices, src, offset);
+    }
+
+    @Override
+    public void setDoubleAtIndices(String longVarName, int[] indices, DoubleBuffer src) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+
+        writable().setValues(indices, src);
+    }
+
+    @Override
+    public VariableHandle getVarHandle(String longVarName) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        if (var1 == null) {
+            throw new BMIModelException("model not initialized");
+        }
+        return var1;
+    }
+
+    private DoubleRaster raster(VariableHandle variable) throws BMIModelException {
+        if (variable == null) {
+            throw new BMIModelException("no variable handle given");
+        }
+        if (var1 == null) {
+            throw new BMIModelException("model not initialized");
+        }
+        if (variable != var1) {
+            throw new BMIModelException("invalid handle for variable " + variable.getName());
+        }
+        return current.raster;
+    }
+
+    @Override
+    public double[] getDouble(VariableHandle variable) throws BMIModelException {
+        return raster(variable).getValues();
+    }
+
+    @Override
+    public void getDouble(VariableHandle variable, double[] dest, int offset, int length) throws BMIModelException {
+        raster(variable).getValues(dest, offset, length);
+    }
+
+    @Override
+    public double[] getDoubleAtIndices(VariableHandle variable, int[] indices) throws BMIModelException {
+        return raster(variable).getValues(indices);
+    }
+
+    @Override
+    public void setDouble(VariableHandle variable, double[] src) throws BMIModelException {
+        awaitUpdate();
+        raster(variable).setValues(src);
+    }
+
+    @Override
+    public void setDoubleAtIndices(VariableHandle variable, int[] indices, double[] src) throws BMIModelException {
+        awaitUpdate();
+        raster(variable).setValues(indices, src);
+    }
+
+    private DoubleRaster raster(VariableBatch batch, int variable) throws BMIModelException {
+        VariableHandle handle = batch.getHandle(variable);
+        if (handle != null) {
+            return raster(handle);
+        }
+        return raster(getVarHandle(batch.getName(variable)));
+    }
+
+    @Override
+    public void getDoubleBatch(VariableBatch batch, double[] dest, int offset) throws BMIModelException {
+        int[] indices = batch.getIndices();
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (indices == null) {
+                raster(batch, i).getValues(dest, offset + batch.getOffset(i), batch.getLength(i));
+            } else {
+                raster(batch, i).getValues(indices, dest, offset + batch.getOffset(i));
+            }
+        }
+    }
+
+    @Override
+    public void setDoubleBatch(VariableBatch batch, double[] src, int offset) throws BMIModelException {
+        awaitUpdate();
+        int[] indices = batch.getIndices();
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (indices == null) {
+                raster(batch, i).setValues(src, offset + batch.getOffset(i), batch.getLength(i));
+            } else {
+                raster(batch, i).setValues(indices, src, offset + batch.getOffset(i));
+            }
+        }
+    }
+
+    private DoubleRaster range(String longVarName, int start, int length) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        if (start < 0 || length < 0 || start + length > current.raster.getStorage().size()) {
+            throw new BMIModelException("range [" + start + ", " + (start + length) + ") outside of variable " + longVarName);
+        }
+        return current.raster;
+    }
+
+    private DoubleRaster window(String longVarName, int row, int column, int rows, int columns) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        if (row < 0 || column < 0 || rows < 0 || columns < 0 || row + rows > current.raster.getHeight()
+                || column + columns > current.raster.getWidth()) {
+            throw new BMIModelException("window of " + rows + "x" + columns + " at (" + row + ", " + column
+                    + ") outside of grid of variable " + longVarName);
+        }
+        return current.raster;
+    }
+
+    @Override
+    public void getDoubleRange(String longVarName, int start, double[] dest, int offset, int length) throws BMIModelException {
+        range(longVarName, start, length).getRange(start, dest, offset, length);
+    }
+
+    @Override
+    public void setDoubleRange(String longVarName, int start, double[] src, int offset, int length) throws BMIModelException {
+        awaitUpdate();
+        range(longVarName, start, length).setRange(start, src, offset, length);
+    }
+
+    @Override
+    public void getDoubleWindow(String longVarName, int row, int column, int rows, int columns, double[] dest, int offset)
+            throws BMIModelException {
+        window(longVarName, row, column, rows, columns).getWindow(row, column, rows, columns, dest, offset);
+    }
+
+    @Override
+    public void setDoubleWindow(String longVarName, int row, int column, int rows, int columns, double[] src, int offset)
+            throws BMIModelException {
+        awaitUpdate();
+        window(longVarName, row, column, rows, columns).setWindow(row, column, rows, columns, src, offset);
+    }
+
+    private DoubleRaster planned(String longVarName, IndexPlan plan) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        if (plan.getMaxIndex() >= current.raster.getStorage().size()) {
+            throw new BMIModelException("index " + plan.getMaxIndex() + " outside of variable " + longVarName);
+        }
+        return current.raster;
+    }
+
+    @Override
+    public void getDoubleAtIndices(String longVarName, IndexPlan plan, double[] dest, int offset) throws BMIModelException {
+        planned(longVarName, plan).getValues(plan, dest, offset);
+    }
+
+    @Override
+    public void setDoubleAtIndices(String longVarName, IndexPlan plan, double[] src, int offset) throws BMIModelException {
+        awaitUpdate();
+        planned(longVarName, plan).setValues(plan, src, offset);
     }
 
     @Override
@@ -217,7 +689,10 @@ public class IncrementModel implements EBMI {
      */
     @Override
     public float[] getFloat(String longVarName) throws BMIModelException {
-        throw new BMIModelException("model does not use float values");
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        return current.raster.getFloatValues();
     }
 
     /* (non-Javadoc)
@@ -225,7 +700,10 @@ public class IncrementModel implements EBMI {
      */
     @Override
     public float[] getFloatAtIndices(String longVarName, int[] indices) throws BMIModelException {
-        throw new BMIModelException("model does not use float values");
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        return current.raster.getFloatValues(indices);
     }
 
     /* (non-Javadoc)
@@ -233,7 +711,10 @@ public class IncrementModel implements EBMI {
      */
     @Override
     public void setFloat(String longVarName, float[] src) throws BMIModelException {
-        throw new BMIModelException("model does not use float values");
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        writable().setValues(src);
     }
 
     /* (non-Javadoc)
@@ -241,7 +722,193 @@ public class IncrementModel implements EBMI {
      */
     @Override
     public void setFloatAtIndices(String longVarName, int[] indices, float[] src) throws BMIModelException {
-        throw new BMIModelException("model does not use float values");
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        writable().setValues(indices, src);
+    }
+
+    @Override
+    public void getFloat(String longVarName, float[] dest, int offset, int length) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        current.raster.getValues(dest, offset, length);
+    }
+
+    @Override
+    public void getFloat(String longVarName, FloatBuffer dest) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        current.raster.getValues(dest);
+    }
+
+    @Override
+    public void getFloatAtIndices(String longVarName, int[] indices, float[] dest, int offset) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        current.raster.getValues(indices, dest, offset);
+    }
+
+    @Override
+    public void getFloatAtIndices(String longVarName, int[] indices, FloatBuffer dest) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        current.raster.getValues(indices, dest);
+    }
+
+    @Override
+    public void setFloat(String longVarName, float[] src, int offset, int length) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        writable().setValues(src, offset, length);
+    }
+
+    @Override
+    public void setFloat(String longVarName, FloatBuffer src) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        writable().setValues(src);
+    }
+
+    @Override
+    public void setFloatAtIndices(String longVarName, int[] indices, float[] src, int offset) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        writable().setValues(indices, src, offset);
+    }
+
+    @Override
+    public void setFloatAtIndices(String longVarName, int[] indices, FloatBuffer src) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        writable().setValues(indices, src);
+    }
+
+    @Override
+    public float[] getFloat(VariableHandle variable) throws BMIModelException {
+        return raster(variable).getFloatValues();
+    }
+
+    @Override
+    public void getFloat(VariableHandle variable, float[] dest, int offset, int length) throws BMIModelException {
+        raster(variable).getValues(dest, offset, length);
+    }
+
+    @Override
+    public float[] getFloatAtIndices(VariableHandle variable, int[] indices) throws BMIModelException {
+        return raster(variable).getFloatValues(indices);
+    }
+
+    @Override
+    public void setFloat(VariableHandle variable, float[] src) throws BMIModelException {
+        awaitUpdate();
+        raster(variable).setValues(src);
+    }
+
+    @Override
+    public void setFloatAtIndices(VariableHandle variable, int[] indices, float[] src) throws BMIModelException {
+        awaitUpdate();
+        raster(variable).setValues(indices, src);
+    }
+
+    @Override
+    public void getFloatBatch(VariableBatch batch, float[] dest, int offset) throws BMIModelException {
+        int[] indices = batch.getIndices();
+        for (int i = 0; i < batch.size(); i++) {
+            if (indices == null) {
+                raster(batch, i).getValues(dest, offset + batch.getOffset(i), batch.getLength(i));
+            } else {
+                raster(batch, i).getValues(indices, dest, offset + batch.getOffset(i));
+            }
+        }
+    }
+
+    @Override
+    public void setFloatBatch(VariableBatch batch, float[] src, int offset) throws BMIModelException {
+        awaitUpdate();
+        int[] indices = batch.getIndices();
+        for (int i = 0; i < batch.size(); i++) {
+            if (indices == null) {
+                raster(batch, i).setValues(src, offset + batch.getOffset(i), batch.getLength(i));
+            } else {
+                raster(batch, i).setValues(indices, src, offset + batch.getOffset(i));
+            }
+        }
+    }
+
+    @Override
+    public void getFloatRange(String longVarName, int start, float[] dest, int offset, int length)
+            throws BMIModelException {
+        range(longVarName, start, length).getRange(start, dest, offset, length);
+    }
+
+    @Override
+    public void setFloatRange(String longVarName, int start, float[] src, int offset, int length)
+            throws BMIModelException {
+        awaitUpdate();
+        range(longVarName, start, length).setRange(start, src, offset, length);
+    }
+
+    @Override
+    public void getFloatWindow(String longVarName, int row, int column, int rows, int columns, float[] dest, int offset)
+            throws BMIModelException {
+        window(longVarName, row, column, rows, columns).getWindow(row, column, rows, columns, dest, offset);
+    }
+
+    @Override
+    public void setFloatWindow(String longVarName, int row, int column, int rows, int columns, float[] src, int offset)
+            throws BMIModelException {
+        awaitUpdate();
+        window(longVarName, row, column, rows, columns).setWindow(row, column, rows, columns, src, offset);
+    }
+
+    @Override
+    public void getFloatAtIndices(String longVarName, IndexPlan plan, float[] dest, int offset) throws BMIModelException {
+        planned(longVarName, plan).getValues(plan, dest, offset);
+    }
+
+    @Override
+    public void setFloatAtIndices(String longVarName, IndexPlan plan, float[] src, int offset) throws BMIModelException {
+        awaitUpdate();
+        planned(longVarName, plan).setValues(plan, src, offset);
+    }
+
+    @Override
+    public long getVarVersion(String longVarName) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        return DoubleRaster.getVersion();
+    }
+
+    @Override
+    public VariableDelta getDoubleChanges(String longVarName, long since) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        DoubleRaster raster = current.raster;
+
+        //taken before collecting the changes, so writes made meanwhile are returned again by the next call
+        long version = DoubleRaster.getVersion();
+        IndexPlan plan = raster.getChanges(since);
+        double[] values = new double[plan.size()];
+        raster.getValues(plan, values, 0);
+
+        return new VariableDelta(version, plan, values);
+    }
+
+    @Override
+    public void applyDoubleChanges(String longVarName, VariableDelta delta) throws BMIModelException {
+        awaitUpdate();
+        planned(longVarName, delta.getPlan()).setValues(delta.getPlan(), delta.getValues(), 0);
     }
 
     @Override
@@ -249,17 +916,81 @@ public class IncrementModel implements EBMI {
         throw new BMIModelException("model does not support this function");
     }
 
+    private ModelState createModelState() throws BMIModelException {
+        Published current = this.current;
+        if (current.raster == null) {
+            throw new BMIModelException("model not initialized");
+        }
+        ModelState result = new ModelState(current.time, dt, startTime, endTime);
+        result.addVariable(new RasterStateVariable("var1", current.raster, getGridSpacing("var1"), getGridOrigin("var1")));
+        return result;
+    }
+
     @Override
     public void saveState(String destinationFolder) throws BMIModelException {
-        throw new BMIModelException("model does not support saving/loading state");
+        awaitUpdate();
+        StateFile.save(new File(destinationFolder), createModelState());
     }
     
     @Override
     public void loadState(String sourceFolder) throws BMIModelException {
-        throw new BMIModelException("model does not support saving/loading state");
+        awaitUpdate();
+        ModelState modelState = createModelState();
+
+        StateFile.load(new File(sourceFolder), modelState);
+
+        current = new Published(current.raster, modelState.getTime());
+        dt = modelState.getTimeStep();
+        startTime = modelState.getStartTime();
+        endTime = modelState.getEndTime();
     }
 
 
+    private RasterSnapshot rasterSnapshot(ModelSnapshot snapshot) throws BMIModelException {
+        if (snapshot.getOwner() != this || !(snapshot.getData() instanceof RasterSnapshot)) {
+            throw new BMIModelException("not a snapshot of this model");
+        }
+        RasterSnapshot result = (RasterSnapshot) snapshot.getData();
+        DoubleRaster raster = result.getRaster();
+        DoubleRaster state = current.raster;
+        if (result.isReleased() || state == null || (raster != state && raster != spare)) {
+            throw new BMIModelException("snapshot no longer valid");
+        }
+        return result;
+    }
+
+    @Override
+    public ModelSnapshot snapshot() throws BMIModelException {
+        if (current.raster == null) {
+            throw new BMIModelException("model not initialized");
+        }
+        awaitUpdate();
+        return new ModelSnapshot(this, current.time, current.raster.snapshot());
+    }
+
+    @Override
+    public void restore(ModelSnapshot snapshot) throws BMIModelException {
+        awaitUpdate();
+        RasterSnapshot values = rasterSnapshot(snapshot);
+        DoubleRaster raster = values.getRaster();
+
+        raster.restore(values);
+        //when double buffered the grids may have been swapped since the snapshot was taken
+        if (raster == spare) {
+            spare = current.raster;
+            //blocks not restored may still differ from the grid it replaces
+            raster.markChanged(0, raster.getStorage().size());
+        }
+        current = new Published(raster, snapshot.getTime());
+    }
+
+    @Override
+    public void release(ModelSnapshot snapshot) throws BMIModelException {
+        awaitUpdate();
+        RasterSnapshot values = rasterSnapshot(snapshot);
+        values.getRaster().release(values);
+    }
+
     @Override
     public int getVarSize(String longVarName) throws BMIModelException {
         int result = 1;
@@ -273,7 +1004,8 @@ public class IncrementModel implements EBMI {
 
     @Override
     public int getVarNbytes(String longVarName) throws BMIModelException {
-        return getVarSize(longVarName) * (Double.SIZE / 8);
+        int elementSize = getVarType(longVarName).equals("float32") ? Float.SIZE / 8 : Double.SIZE / 8;
+        return getVarSize(longVarName) * elementSize;
     }
 
     @Override
@@ -288,12 +1020,22 @@ public class IncrementModel implements EBMI {
 
     @Override
     public double[] getGridX(String longVarName) throws BMIModelException {
-        throw new BMIModelException("model only supports raster variables");
+        //the geometry caches its arrays, callers may modify the result
+        return getGridGeometry(longVarName).getGridX().clone();
     }
 
     @Override
     public double[] getGridY(String longVarName) throws BMIModelException {
-        throw new BMIModelException("model only supports raster variables");
+        //the geometry caches its arrays, callers may modify the result
+        return getGridGeometry(longVarName).getGridY().clone();
+    }
+
+    @Override
+    public GridGeometry getGridGeometry(String longVarName) throws BMIModelException {
+        if (!longVarName.equals("var1")) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+        return geometry;
     }
 
     @Override
@@ -313,7 +1055,7 @@ public class IncrementModel implements EBMI {
 
     @Override
     public void setStartTime(double startTime) throws BMIModelException {
-        if (this.state != null) {
+        if (current.raster != null) {
             throw new BMIModelException("cannot set start time after model has been initialized");
         }
 
@@ -322,7 +1064,7 @@ public class IncrementModel implements EBMI {
 
     @Override
     public void setEndTime(double endTime) throws BMIModelException {
-        if (this.state != null) {
+        if (current.raster != null) {
             throw new BMIModelException("cannot set start time after model has been initialized");
         }
 
@@ -331,13 +1073,21 @@ public class IncrementModel implements EBMI {
 
     @Override
     public String[] getAttributeNames() throws BMIModelException {
-        return new String[] { "author" };
+        return new String[] { "author", "raster.storage", "raster.file", "state.buffering", "var1.precision" };
     }
 
     @Override
     public String getAttributeValue(String attributeName) throws BMIModelException {
         if (attributeName.equals("author")) {
             return "Rolf Hut";
+        } else if (attributeName.equals("raster.storage")) {
+            return rasterStorage;
+        } else if (attributeName.equals("raster.file")) {
+            return rasterFile;
+        } else if (attributeName.equals("state.buffering")) {
+            return stateBuffering;
+        } else if (attributeName.equals("var1.precision")) {
+            return precision;
         } else {
             throw new BMIModelException("unknown attribute " + attributeName);
         }
@@ -345,6 +1095,34 @@ public class IncrementModel implements EBMI {
 
     @Override
     public void setAttributeValue(String attributeName, String attributeValue) throws BMIModelException {
-        throw new BMIModelException("no settable attributes in this model");
+        if (attributeName.equals("raster.storage")) {
+            if (!(attributeValue.equals("heap") || attributeValue.equals("direct") || attributeValue.equals("mapped"))) {
+                throw new BMIModelException("unknown raster storage " + attributeValue + ", should be heap, direct or mapped");
+            }
+        } else if (attributeName.equals("state.buffering")) {
+            if (!(attributeValue.equals("single") || attributeValue.equals("double"))) {
+                throw new BMIModelException("unknown state buffering " + attributeValue + ", should be single or double");
+            }
+        } else if (attributeName.equals("var1.precision")) {
+            if (!(attributeValue.equals("float64") || attributeValue.equals("float32"))) {
+                throw new BMIModelException("unknown precision " + attributeValue + ", should be float64 or float32");
+            }
+        } else if (!attributeName.equals("raster.file")) {
+            throw new BMIModelException("cannot set attribute " + attributeName);
+        }
+
+        if (current.raster != null) {
+            throw new BMIModelException("cannot set attribute " + attributeName + " after model has been initialized");
+        }
+
+        if (attributeName.equals("raster.storage")) {
+            rasterStorage = attributeValue;
+        } else if (attributeName.equals("state.buffering")) {
+            stateBuffering = attributeValue;
+        } else if (attributeName.equals("var1.precision")) {
+            precision = attributeValue;
+        } else {
+            rasterFile = attributeValue;
+        }
     }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Raster storage in a memory mapped file. The operating system pages values in and out as needed, so rasters can be larger
+ * than the available heap (or even physical memory), and other processes can map the same file to share the values. Values
+ * are stored in little endian byte order, without any header.
+ */
+public class MappedRasterStorage extends BufferRasterStorage {
+
+    private final File file;
+    private final MappedByteBuffer[] mappings;
+
+    /**
+     * Map the given file, growing it to hold <code>size</code> values if needed. Existing values in the file are kept.
+     * 
+     * @param file
+     *            the file to map
+     * @param size
+     *            the number of values
+     * @throws IOException
+     *             if the file could not be created or mapped
+     */
+    public MappedRasterStorage(File file, int size) throws IOException {
+        this(file, size, DEFAULT_CHUNK_SHIFT);
+    }
+
+    MappedRasterStorage(File file, int size, int chunkShift) throws IOException {
+        super(size, chunkShift);
+        this.file = file;
+        this.mappings = new MappedByteBuffer[chunks().length];
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            long bytes = ((long) size) * (Double.SIZE / 8);
+            if (raf.length() < bytes) {
+                raf.setLength(bytes);
+            }
+            FileChannel channel = raf.getChannel();
+            long chunkBytes = (1L << chunkShift) * (Double.SIZE / 8);
+            for (int i = 0; i < mappings.length; i++) {
+                long position = i * chunkBytes;
+                mappings[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.min(chunkBytes, bytes - position));
+            }
+        } finally {
+            //mappings stay valid after the file is closed
+            raf.close();
+        }
+        createChunks();
+    }
+
+    @Override
+    protected DoubleBuffer createChunk(int chunk, long start, int length) {
+        return mappings[chunk].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() {
+        for (MappedByteBuffer mapping : mappings) {
+            mapping.force();
+        }
+    }
+
+}
@@ -0,0 +1,480 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import java.util.concurrent.RecursiveAction;
+
+import bmi.BMIGridType;
+import bmi.BMIModelException;
+import bmi.EBMI;
+import bmi.GeometryBMI;
+import bmi.GridGeometry;
+import bmi.mesh.UnstructuredMesh;
+
+/**
+ * Model with a single variable on the faces of an unstructured mesh, which diffuses to neighbouring faces at every timestep.
+ * Every step, each face exchanges <code>diffusivity * (neighbour - value)</code> with each face it shares an edge with, so the
+ * total is conserved. Initially the first face has concentration 1, all others 0.
+ * 
+ * Faces are updated in parallel, in blocks of faces on the pool of the given {@link RasterKernels}. The "diffusivity" attribute
+ * (default 0.1) can be set any time before initializeModel, also before initialize. It should be at most 1 divided by the
+ * largest number of neighbours of a face for the model to be stable.
+ * 
+ * The grid functions describe the mesh: node coordinates, connectivity and offsets. {@link #getGridGeometry(String)} gives the
+ * centroids of the faces, the locations of the values.
+ */
+public class MeshDiffusionModel implements EBMI, GeometryBMI {
+
+    private final class FaceTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] in;
+        private final double[] out;
+        private final int faceStart;
+        private final int faceEnd;
+
+        FaceTask(double[] in, double[] out, int faceStart, int faceEnd) {
+            this.in = in;
+            this.out = out;
+            this.faceStart = faceStart;
+            this.faceEnd = faceEnd;
+        }
+
+        @Override
+        protected void compute() {
+            if (faceEnd - faceStart <= kernels.getThreshold()) {
+                diffuse(in, out, faceStart, faceEnd);
+            } else {
+                int middle = (faceStart + faceEnd) >>> 1;
+                invokeAll(new FaceTask(in, out, faceStart, middle), new FaceTask(in, out, middle, faceEnd));
+            }
+        }
+    }
+
+    private static final String VARIABLE = "concentration";
+
+    private final String name = "Example java unstructured mesh diffusion model";
+    private final UnstructuredMesh mesh;
+    private final RasterKernels kernels;
+
+    private double dt;
+    private double t;
+    private double startTime;
+    private double endTime;
+    private double diffusivity = 0.1;
+
+    private double[] state = null;
+    //values of the next step are computed into this array, after which the two are swapped
+    private double[] spare = null;
+    private int[] neighbourOffsets;
+    private int[] neighbours;
+
+    public MeshDiffusionModel() {
+        this(UnstructuredMesh.triangulated(10, 10, 1.0, 1.0));
+    }
+
+    public MeshDiffusionModel(UnstructuredMesh mesh) {
+        this(mesh, RasterKernels.getDefault());
+    }
+
+    /**
+     * @param mesh
+     *            the mesh to diffuse on
+     * @param kernels
+     *            the pool to update faces on, and the minimum number of faces per block
+     */
+    public MeshDiffusionModel(UnstructuredMesh mesh, RasterKernels kernels) {
+        this.mesh = mesh;
+        this.kernels = kernels;
+    }
+
+    public UnstructuredMesh getMesh() {
+        return mesh;
+    }
+
+    private void checkVariable(String longVarName) throws BMIModelException {
+        if (!longVarName.equals(VARIABLE)) {
+            throw new BMIModelException("variable " + longVarName + " does not exist");
+        }
+    }
+
+    private void checkInitialized() throws BMIModelException {
+        if (state == null) {
+            throw new BMIModelException("model not initialized");
+        }
+    }
+
+    @Override
+    public void initializeConfig(String configFile) throws BMIModelException {
+        //file not actually used
+
+        dt = 1.0;
+        startTime = 0.0;
+        t = startTime;
+        endTime = 100.0;
+        //diffusivity is not reset, so a value set before initialize is kept
+    }
+
+    @Override
+    public void initializeModel() throws BMIModelException {
+        //computed once by the mesh, and shared by all steps
+        neighbourOffsets = mesh.getNeighbourOffsets();
+        neighbours = mesh.getNeighbours();
+
+        if (diffusivity * mesh.getMaxNeighbourCount() > 1.0) {
+            throw new BMIModelException("diffusivity " + diffusivity + " unstable for faces with "
+                    + mesh.getMaxNeighbourCount() + " neighbours");
+        }
+
+        state = new double[mesh.getFaceCount()];
+        spare = new double[mesh.getFaceCount()];
+        if (state.length > 0) {
+            state[0] = 1.0;
+        }
+    }
+
+    @Override
+    public void initialize(String file) throws BMIModelException {
+        initializeConfig(file);
+        initializeModel();
+    }
+
+    private void diffuse(double[] in, double[] out, int faceStart, int faceEnd) {
+        double k = diffusivity;
+        for (int face = faceStart; face < faceEnd; face++) {
+            double value = in[face];
+            double flux = 0;
+            for (int i = neighbourOffsets[face]; i < neighbourOffsets[face + 1]; i++) {
+                flux += in[neighbours[i]] - value;
+            }
+            out[face] = value + k * flux;
+        }
+    }
+
+    private void step() {
+        if (state.length <= kernels.getThreshold()) {
+            diffuse(state, spare, 0, state.length);
+        } else {
+            kernels.getPool().invoke(new FaceTask(state, spare, 0, state.length));
+        }
+        double[] next = spare;
+        spare = state;
+        state = next;
+        t += dt;
+    }
+
+    @Override
+    public void update() throws BMIModelException {
+        checkInitialized();
+        if (t >= endTime) {
+            throw new BMIModelException("endTime already reached, model not updated");
+        }
+        step();
+    }
+
+    @Override
+    public void updateUntil(double time) throws BMIModelException {
+        checkInitialized();
+        if ((time < t) | (time > endTime)) {
+            throw new BMIModelException("wrong time input: smaller than model time or larger than endTime");
+        }
+        while (t < time) {
+            step();
+        }
+    }
+
+    @Override
+    public void updateFrac(double timeFrac) throws BMIModelException {
+        throw new BMIModelException("model does not support this function");
+    }
+
+    @Override
+    public void finalizeModel() {
+        dt = 0;
+        t = 0;
+        state = null;
+        spare = null;
+    }
+
+    @Override
+    public String getComponentName() {
+        return name;
+    }
+
+    @Override
+    public String[] getInputVarNames() {
+        return new String[] { VARIABLE };
+    }
+
+    @Override
+    public String[] getOutputVarNames() {
+        return new String[] { VARIABLE };
+    }
+
+    @Override
+    public String getVarType(String longVarName) throws BMIModelException {
+        checkVariable(longVarName);
+        return "float64";
+    }
+
+    @Override
+    public String getVarUnits(String longVarName) throws BMIModelException {
+        checkVariable(longVarName);
+        return "-";
+    }
+
+    @Override
+    public int getVarRank(String longVarName) throws BMIModelException {
+        checkVariable(longVarName);
+        return 1;
+    }
+
+    @Override
+    public int getVarSize(String longVarName) throws BMIModelException {
+        checkVariable(longVarName);
+        return mesh.getFaceCount();
+    }
+
+    @Override
+    public int getVarNbytes(String longVarName) throws BMIModelException {
+        return getVarSize(longVarName) * (Double.SIZE / 8);
+    }
+
+    @Override
+    public double getStartTime() {
+        return startTime;
+    }
+
+    @Override
+    public double getCurrentTime() {
+        return t;
+    }
+
+    @Override
+    public double getEndTime() {
+        return endTime;
+    }
+
+    @Override
+    public double getTimeStep() {
+        return dt;
+    }
+
+    @Override
+    public String getTimeUnits() {
+        return "seconds";
+    }
+
+    @Override
+    public double[] getDouble(String longVarName) throws BMIModelException {
+        checkVariable(longVarName);
+        checkInitialized();
+        //the array is reused for a later step, so return a copy
+        return state.clone();
+    }
+
+    @Override
+    public double[] getDoubleAtIndices(String longVarName, int[] indices) throws BMIModelException {
+        checkVariable(longVarName);
+        checkInitialized();
+        double[] result = new double[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            result[i] = state[indices[i]];
+        }
+        return result;
+    }
+
+    @Override
+    public void setDouble(String longVarName, double[] src) throws BMIModelException {
+        checkVariable(longVarName);
+        checkInitialized();
+        if (src.length != state.length) {
+            throw new BMIModelException("expected " + state.length + " values for " + longVarName + ", got " + src.length);
+        }
+        System.arraycopy(src, 0, state, 0, src.length);
+    }
+
+    @Override
+    public void setDoubleAtIndices(String longVarName, int[] indices, double[] src) throws BMIModelException {
+        checkVariable(longVarName);
+        checkInitialized();
+        for (int i = 0; i < indices.length; i++) {
+            state[indices[i]] = src[i];
+        }
+    }
+
+    @Override
+    public float[] getFloat(String longVarName) throws BMIModelException {
+        double[] values = getDouble(longVarName);
+        float[] result = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (float) values[i];
+        }
+        return result;
+    }
+
+    @Override
+    public float[] getFloatAtIndices(String longVarName, int[] indices) throws BMIModelException {
+        double[] values = getDoubleAtIndices(longVarName, indices);
+        float[] result = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (float) values[i];
+        }
+        return result;
+    }
+
+    @Override
+    public void setFloat(String longVarName, float[] src) throws BMIModelException {
+        double[] values = new double[src.length];
+        for (int i = 0; i < src.length; i++) {
+            values[i] = src[i];
+        }
+        setDouble(longVarName, values);
+    }
+
+    @Override
+    public void setFloatAtIndices(String longVarName, int[] indices, float[] src) throws BMIModelException {
+        double[] values = new double[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            values[i] = src[i];
+        }
+        setDoubleAtIndices(longVarName, indices, values);
+    }
+
+    @Override
+    public BMIGridType getGridType(String longVarName) throws BMIModelException {
+        checkVariable(longVarName);
+        return BMIGridType.UNSTRUCTURED;
+    }
+
+    @Override
+    public int[] getGridShape(String longVarName) throws BMIModelException {
+        checkVariable(longVarName);
+        return new int[] { mesh.getFaceCount() };
+    }
+
+    @Override
+    public double[] getGridSpacing(String longVarName) throws BMIModelException {
+        throw new BMIModelException("model only supports unstructured variables");
+    }
+
+    @Override
+    public double[] getGridOrigin(String longVarName) throws BMIModelException {
+        throw new BMIModelException("model only supports unstructured variables");
+    }
+
+    @Override
+    public double[] getGridX(String longVarName) throws BMIModelException {
+        checkVariable(longVarName);
+        //the mesh is shared, callers may modify the result
+        return mesh.getNodeX().clone();
+    }
+
+    @Override
+    public double[] getGridY(String longVarName) throws BMIModelException {
+        checkVariable(longVarName);
+        return mesh.getNodeY().clone();
+    }
+
+    @Override
+    public double[] getGridZ(String longVarName) throws BMIModelException {
+        throw new BMIModelException("model only supports two dimensional meshes");
+    }
+
+    @Override
+    public int[] getGridConnectivity(String longVarName) throws BMIModelException {
+        checkVariable(longVarName);
+        return mesh.getConnectivity().clone();
+    }
+
+    @Override
+    public int[] getGridOffset(String longVarName) throws BMIModelException {
+        checkVariable(longVarName);
+        return mesh.getOffsets().clone();
+    }
+
+    @Override
+    public GridGeometry getGridGeometry(String longVarName) throws BMIModelException {
+        checkVariable(longVarName);
+        return mesh.getFaceGeometry();
+    }
+
+    @Override
+    public void setStartTime(double startTime) throws BMIModelException {
+        if (this.state != null) {
+            throw new BMIModelException("cannot set start time after model has been initialized");
+        }
+
+        this.startTime = startTime;
+        this.t = startTime;
+    }
+
+    @Override
+    public void setEndTime(double endTime) throws BMIModelException {
+        if (this.state != null) {
+            throw new BMIModelException("cannot set end time after model has been initialized");
+        }
+
+        this.endTime = endTime;
+    }
+
+    @Override
+    public String[] getAttributeNames() {
+        return new String[] { "diffusivity" };
+    }
+
+    @Override
+    public String getAttributeValue(String attributeName) throws BMIModelException {
+        if (attributeName.equals("diffusivity")) {
+            return Double.toString(diffusivity);
+        } else {
+            throw new BMIModelException("unknown attribute " + attributeName);
+        }
+    }
+
+    @Override
+    public void setAttributeValue(String attributeName, String attributeValue) throws BMIModelException {
+        if (!attributeName.equals("diffusivity")) {
+            throw new BMIModelException("cannot set attribute " + attributeName);
+        }
+        if (this.state != null) {
+            throw new BMIModelException("cannot set attribute " + attributeName + " after model has been initialized");
+        }
+
+        double value;
+        try {
+            value = Double.parseDouble(attributeValue);
+        } catch (NumberFormatException e) {
+            throw new BMIModelException("invalid diffusivity " + attributeValue, e);
+        }
+        if (!(value >= 0)) {
+            throw new BMIModelException("diffusivity should not be negative, not " + attributeValue);
+        }
+        diffusivity = value;
+    }
+
+    @Override
+    public void saveState(String destinationDirectory) throws BMIModelException {
+        throw new BMIModelException("model does not support this function");
+    }
+
+    @Override
+    public void loadState(String sourceDirectory) throws BMIModelException {
+        throw new BMIModelException("model does not support this function");
+    }
+
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs per-cell and neighbourhood (stencil) computations on rasters in parallel. Work is split into blocks of whole rows,
+ * which are processed on a fork-join pool. Rasters with at most <code>threshold</code> cells are processed directly in the
+ * calling thread, larger rasters are split until each block has at most <code>threshold</code> cells (or a single row).
+ */
+public class RasterKernels {
+
+    /**
+     * Default minimum number of cells per block.
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 16;
+
+    private static final RasterKernels DEFAULT = new RasterKernels(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+
+    /**
+     * @return kernels running on the common fork-join pool, with the default threshold.
+     */
+    public static RasterKernels getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Work on a block of rows.
+     */
+    private interface RowBlock {
+        void run(int rowStart, int rowEnd);
+    }
+
+    private final class RowTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RowBlock block;
+        private final int width;
+        private final int rowStart;
+        private final int rowEnd;
+
+        RowTask(RowBlock block, int width, int rowStart, int rowEnd) {
+            this.block = block;
+            this.width = width;
+            this.rowStart = rowStart;
+            this.rowEnd = rowEnd;
+        }
+
+        @Override
+        protected void compute() {
+            int rows = rowEnd - rowStart;
+            if (rows <= 1 || ((long) rows) * width <= threshold) {
+                block.run(rowStart, rowEnd);
+            } else {
+                int middle = rowStart + rows / 2;
+                invokeAll(new RowTask(block, width, rowStart, middle), new RowTask(block, width, middle, rowEnd));
+            }
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * @param pool
+     *            the pool to run blocks on
+     * @param threshold
+     *            minimum number of cells per block. Larger values reduce overhead, smaller values improve load balancing
+     */
+    public RasterKernels(ForkJoinPool pool, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold should be positive, not " + threshold);
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    private void run(int width, int height, RowBlock block) {
+        if (((long) width) * height <= threshold) {
+            block.run(0, height);
+        } else {
+            pool.invoke(new RowTask(block, width, 0, height));
+        }
+    }
+
+    private static void checkSameShape(DoubleRaster src, DoubleRaster dest) {
+        if (src.getWidth() != dest.getWidth() || src.getHeight() != dest.getHeight()) {
+            throw new IllegalArgumentException("rasters differ in shape");
+        }
+    }
+
+    /**
+     * Set all cells of the given raster to a value.
+     */
+    public void fill(DoubleRaster raster, final double value) {
+        raster.beforeWrite(0, raster.getStorage().size());
+        final RasterStorage storage = raster.getStorage();
+        final int width = raster.getWidth();
+
+        run(width, raster.getHeight(), new RowBlock() {
+            @Override
+            public void run(int rowStart, int rowEnd) {
+                storage.fill(rowStart * width, (rowEnd - rowStart) * width, value);
+            }
+        });
+    }
+
+    /**
+     * Add a value to all cells of the given raster.
+     */
+    public void add(DoubleRaster raster, final double value) {
+        raster.beforeWrite(0, raster.getStorage().size());
+        final RasterStorage storage = raster.getStorage();
+        final int width = raster.getWidth();
+
+        run(width, raster.getHeight(), new RowBlock() {
+            @Override
+            public void run(int rowStart, int rowEnd) {
+                storage.add(rowStart * width, (rowEnd - rowStart) * width, value);
+            }
+        });
+    }
+
+    /**
+     * Apply an operator to every cell of a raster, in place.
+     */
+    public void map(DoubleRaster raster, CellOperator operator) {
+        map(raster, raster, operator);
+    }
+
+    /**
+     * Apply an operator to every cell of <code>src</code>, storing the results in <code>dest</code>. Both rasters should have
+     * the same shape, and may be the same raster.
+     */
+    public void map(DoubleRaster src, DoubleRaster dest, final CellOperator operator) {
+        checkSameShape(src, dest);
+        dest.beforeWrite(0, dest.getStorage().size());
+
+        final RasterStorage in = src.getStorage();
+        final RasterStorage out = dest.getStorage();
+        final int width = src.getWidth();
+
+        run(width, src.getHeight(), new RowBlock() {
+            @Override
+            public void run(int rowStart, int rowEnd) {
+                double[] inArray = in.array();
+                double[] outArray = out.array();
+
+                if (inArray != null && outArray != null) {
+                    for (int row = rowStart; row < rowEnd; row++) {
+                        int offset = row * width;
+                        for (int column = 0; column < width; column++) {
+                            outArray[offset + column] = operator.apply(row, column, inArray[offset + column]);
+                        }
+                    }
+                    return;
+                }
+
+                float[] inFloats = in.floatArray();
+                float[] outFloats = out.floatArray();
+
+                if (inFloats != null && outFloats != null) {
+                    for (int row = rowStart; row < rowEnd; row++) {
+                        int offset = row * width;
+                        for (int column = 0; column < width; column++) {
+                            outFloats[offset + column] = (float) operator.apply(row, column, inFloats[offset + column]);
+                        }
+                    }
+                    return;
+                }
+
+                //storage not on the heap, or of different precisions, process a row at a time
+                double[] values = new double[width];
+                for (int row = rowStart; row < rowEnd; row++) {
+                    in.get(row * width, values, 0, width);
+                    for (int column = 0; column < width; column++) {
+                        values[column] = operator.apply(row, column, values[column]);
+                    }
+                    out.set(row * width, values, 0, width);
+                }
+            }
+        });
+    }
+
+    /**
+     * Compute every cell of <code>dest</code> from the neighbourhood of the same cell in <code>src</code>. Neighbours outside
+     * of the raster are determined by the given boundary mode.
+     * 
+     * @param src
+     *            the raster to read from
+     * @param dest
+     *            the raster to write to. Should have the same shape as, but be different from, <code>src</code>
+     * @param radius
+     *            the radius of the neighbourhood: 1 for a 3x3 stencil, 2 for a 5x5 stencil
+     * @param boundary
+     *            how to treat neighbours outside of the raster
+     * @param operator
+     *            the operator computing the new value of a cell
+     */
+    public void stencil(DoubleRaster src, DoubleRaster dest, final int radius, final Boundary boundary,
+            final StencilOperator operator) {
+        checkSameShape(src, dest);
+        if (src == dest || src.getStorage() == dest.getStorage()) {
+            throw new IllegalArgumentException("stencil source and destination should be different rasters");
+        }
+        if (radius < 1 || radius > 2) {
+            throw new IllegalArgumentException("unsupported stencil radius " + radius + ", should be 1 (3x3) or 2 (5x5)");
+        }
+
+        dest.beforeWrite(0, dest.getStorage().size());
+
+        final RasterStorage in = src.getStorage();
+        final RasterStorage out = dest.getStorage();
+        final int width = src.getWidth();
+        final int height = src.getHeight();
+
+        run(width, height, new RowBlock() {
+            @Override
+            public void run(int rowStart, int rowEnd) {
+                int size = 2 * radius + 1;
+                int paddedWidth = width + 2 * radius;
+
+                //ring buffer of padded input rows, row r is kept in slot (r mod size)
+                double[][] rows = new double[size][paddedWidth];
+                double[] window = new double[size * size];
+                double[] result = new double[width];
+
+                for (int r = rowStart - radius; r < rowStart + radius; r++) {
+                    loadRow(in, r, width, height, radius, boundary, rows[Math.floorMod(r, size)]);
+                }
+
+                for (int row = rowStart; row < rowEnd; row++) {
+                    loadRow(in, row + radius, width, height, radius, boundary, rows[Math.floorMod(row + radius, size)]);
+
+                    for (int column = 0; column < width; column++) {
+                        for (int dy = 0; dy < size; dy++) {
+                            System.arraycopy(rows[Math.floorMod(row - radius + dy, size)], column, window, dy * size, size);
+                        }
+                        result[column] = operator.apply(window, row, column);
+                    }
+                    out.set(row * width, result, 0, width);
+                }
+            }
+        });
+    }
+
+    /**
+     * Load a (possibly out of range) row into a padded row buffer, applying the boundary mode on all sides.
+     */
+    private static void loadRow(RasterStorage storage, int row, int width, int height, int radius, Boundary boundary,
+            double[] dest) {
+        int sourceRow = boundary.map(row, height);
+        if (sourceRow < 0) {
+            Arrays.fill(dest, 0.0);
+            return;
+        }
+
+        storage.get(sourceRow * width, dest, radius, width);
+
+        for (int i = 1; i <= radius; i++) {
+            int left = boundary.map(-i, width);
+            int right = boundary.map(width - 1 + i, width);
+            dest[radius - i] = left < 0 ? 0.0 : dest[radius + left];
+            dest[radius + width - 1 + i] = right < 0 ? 0.0 : dest[radius + right];
+        }
+    }
+
+}
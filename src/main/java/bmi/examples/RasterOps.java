@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+/**
+ * Bulk element-wise operations on (parts of) double arrays, as used by the heap storage of rasters. Use {@link #get()} to
+ * obtain the fastest implementation available: a SIMD implementation based on the (incubating) Java Vector API if the
+ * jdk.incubator.vector module is available, or plain scalar loops otherwise.
+ * 
+ * Results are identical for both implementations, except for {@link #sum(double[], int, int)}, which may add values in a
+ * different order, and {@link #scatter(double[], int, int[], double[])} with duplicate indices, where it is unspecified which
+ * value is stored.
+ */
+public abstract class RasterOps {
+
+    /**
+     * System property which, if set to "false", disables the vectorized implementation.
+     */
+    public static final String VECTOR_PROPERTY = "bmi.vector";
+
+    static final String VECTOR_CLASS = "bmi.examples.VectorRasterOps";
+
+    private static final RasterOps SCALAR = new ScalarRasterOps();
+
+    private static final RasterOps VECTOR = loadVector();
+
+    private static RasterOps loadVector() {
+        if ("false".equals(System.getProperty(VECTOR_PROPERTY))) {
+            return null;
+        }
+        try {
+            return (RasterOps) Class.forName(VECTOR_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            //vector implementation not on the classpath
+            return null;
+        } catch (LinkageError e) {
+            //jdk.incubator.vector module not available, or too old a JVM
+            return null;
+        }
+    }
+
+    /**
+     * @return the fastest available implementation.
+     */
+    public static RasterOps get() {
+        if (VECTOR != null) {
+            return VECTOR;
+        }
+        return SCALAR;
+    }
+
+    /**
+     * @return the scalar implementation.
+     */
+    public static RasterOps scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * @return the vectorized implementation, or null if it is not available.
+     */
+    public static RasterOps vector() {
+        return VECTOR;
+    }
+
+    /**
+     * @return a short name for this implementation.
+     */
+    public abstract String getName();
+
+    public abstract void fill(double[] a, int offset, int length, double value);
+
+    public abstract void addScalar(double[] a, int offset, int length, double value);
+
+    public void copy(double[] src, int srcOffset, double[] dest, int destOffset, int length) {
+        System.arraycopy(src, srcOffset, dest, destOffset, length);
+    }
+
+    /**
+     * dest[offset + i] = src[indices[i]] for all indices.
+     */
+    public abstract void gather(double[] src, int[] indices, double[] dest, int offset);
+
+    /**
+     * dest[indices[i]] = src[offset + i] for all indices.
+     */
+    public abstract void scatter(double[] src, int offset, int[] indices, double[] dest);
+
+    /**
+     * y[yOffset + i] += alpha * x[xOffset + i] for i in [0, length).
+     */
+    public abstract void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length);
+
+    /**
+     * Limit all values to the range [min, max].
+     */
+    public abstract void clamp(double[] a, int offset, int length, double min, double max);
+
+    /**
+     * a[offset + i] += value for all i in [0, length) where mask[maskOffset + i] is set.
+     */
+    public abstract void maskedAdd(double[] a, int offset, int length, boolean[] mask, int maskOffset, double value);
+
+    /**
+     * @return the minimum value, or positive infinity if length is 0. NaN values are ignored.
+     */
+    public abstract double min(double[] a, int offset, int length);
+
+    /**
+     * @return the maximum value, or negative infinity if length is 0. NaN values are ignored.
+     */
+    public abstract double max(double[] a, int offset, int length);
+
+    public abstract double sum(double[] a, int offset, int length);
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+}
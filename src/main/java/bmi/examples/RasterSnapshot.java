@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+/**
+ * Copy-on-write snapshot of a {@link DoubleRaster}, created by {@link DoubleRaster#snapshot()}. Holds a copy of every block
+ * of the raster that has been modified since the snapshot was taken, and nothing else.
+ */
+public final class RasterSnapshot {
+
+    final DoubleRaster raster;
+    final int version;
+    //original values of modified blocks (double[] or float[], as stored by the raster), null for blocks that are unchanged.
+    //Copies may be shared with other snapshots.
+    final Object[] blocks;
+    boolean released = false;
+
+    RasterSnapshot(DoubleRaster raster, int version, int blockCount) {
+        this.raster = raster;
+        this.version = version;
+        this.blocks = new Object[blockCount];
+    }
+
+    /**
+     * @return the raster this is a snapshot of.
+     */
+    public DoubleRaster getRaster() {
+        return raster;
+    }
+
+    /**
+     * @return the number of blocks copied so far, each of {@link DoubleRaster#SNAPSHOT_BLOCK_SIZE} cells.
+     */
+    public int getCopiedBlocks() {
+        int result = 0;
+        for (Object block : blocks) {
+            if (block != null) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    public boolean isReleased() {
+        return released;
+    }
+
+}
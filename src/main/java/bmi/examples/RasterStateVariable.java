@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import java.nio.ByteBuffer;
+
+import bmi.state.StateVariable;
+
+/**
+ * Exposes a {@link DoubleRaster} as part of the state of a model.
+ */
+public class RasterStateVariable implements StateVariable {
+
+    private final String name;
+    private final DoubleRaster raster;
+    private final double[] spacing;
+    private final double[] origin;
+
+    public RasterStateVariable(String name, DoubleRaster raster, double[] spacing, double[] origin) {
+        this.name = name;
+        this.raster = raster;
+        this.spacing = spacing;
+        this.origin = origin;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getType() {
+        return raster.getType();
+    }
+
+    private boolean isFloat() {
+        return raster.getType().equals("float32");
+    }
+
+    @Override
+    public int getElementSize() {
+        return isFloat() ? Float.SIZE / 8 : Double.SIZE / 8;
+    }
+
+    @Override
+    public int getSize() {
+        return raster.getStorage().size();
+    }
+
+    @Override
+    public int[] getGridShape() {
+        return new int[] { raster.getHeight(), raster.getWidth() };
+    }
+
+    @Override
+    public double[] getGridSpacing() {
+        return spacing;
+    }
+
+    @Override
+    public double[] getGridOrigin() {
+        return origin;
+    }
+
+    @Override
+    public void save(int start, int count, ByteBuffer dest) {
+        if (isFloat()) {
+            raster.getStorage().get(start, dest.asFloatBuffer(), count);
+        } else {
+            raster.getStorage().get(start, dest.asDoubleBuffer(), count);
+        }
+    }
+
+    @Override
+    public void load(int start, int count, ByteBuffer src) {
+        raster.beforeWrite(start, count);
+        if (isFloat()) {
+            raster.getStorage().set(start, src.asFloatBuffer(), count);
+        } else {
+            raster.getStorage().set(start, src.asDoubleBuffer(), count);
+        }
+    }
+
+}
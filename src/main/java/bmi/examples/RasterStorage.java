@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Backing store for the values of a {@link DoubleRaster}. Elements are addressed by their (row major) index in the raster.
+ * 
+ * Storage keeps values in a single precision, given by {@link #getType()}. Values of the other precision are converted on
+ * every access.
+ */
+public interface RasterStorage {
+
+    /**
+     * @return the number of values in this storage.
+     */
+    public int size();
+
+    /**
+     * @return the BMI type of the stored values: "float64" or "float32".
+     */
+    public String getType();
+
+    public double get(int index);
+
+    public void set(int index, double value);
+
+    public void fill(int start, int length, double value);
+
+    public void add(int start, int length, double value);
+
+    /**
+     * Copy <code>length</code> values starting at <code>start</code> into <code>dest</code>, starting at <code>offset</code>.
+     */
+    public void get(int start, double[] dest, int offset, int length);
+
+    /**
+     * Copy <code>length</code> values starting at <code>start</code> into <code>dest</code>, advancing its position.
+     */
+    public void get(int start, DoubleBuffer dest, int length);
+
+    public void set(int start, double[] src, int offset, int length);
+
+    public void set(int start, DoubleBuffer src, int length);
+
+    public void get(int start, float[] dest, int offset, int length);
+
+    public void get(int start, FloatBuffer dest, int length);
+
+    public void set(int start, float[] src, int offset, int length);
+
+    public void set(int start, FloatBuffer src, int length);
+
+    /**
+     * @return the array backing this storage, or null if the values are not stored in a heap array of doubles.
+     */
+    public double[] array();
+
+    /**
+     * @return the array backing this storage, or null if the values are not stored in a heap array of floats.
+     */
+    public float[] floatArray();
+
+    /**
+     * Write any pending changes to the underlying medium. The storage should not be used afterwards.
+     */
+    public void close();
+
+}
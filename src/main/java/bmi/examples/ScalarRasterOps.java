@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import java.util.Arrays;
+
+/**
+ * Plain loop implementation of the raster operations, used when the Vector API is not available.
+ */
+class ScalarRasterOps extends RasterOps {
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public void fill(double[] a, int offset, int length, double value) {
+        Arrays.fill(a, offset, offset + length, value);
+    }
+
+    @Override
+    public void addScalar(double[] a, int offset, int length, double value) {
+        for (int i = offset; i < offset + length; i++) {
+            a[i] += value;
+        }
+    }
+
+    @Override
+    public void gather(double[] src, int[] indices, double[] dest, int offset) {
+        for (int i = 0; i < indices.length; i++) {
+            dest[offset + i] = src[indices[i]];
+        }
+    }
+
+    @Override
+    public void scatter(double[] src, int offset, int[] indices, double[] dest) {
+        for (int i = 0; i < indices.length; i++) {
+            dest[indices[i]] = src[offset + i];
+        }
+    }
+
+    @Override
+    public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    @Override
+    public void clamp(double[] a, int offset, int length, double min, double max) {
+        for (int i = offset; i < offset + length; i++) {
+            a[i] = Math.min(Math.max(a[i], min), max);
+        }
+    }
+
+    @Override
+    public void maskedAdd(double[] a, int offset, int length, boolean[] mask, int maskOffset, double value) {
+        for (int i = 0; i < length; i++) {
+            if (mask[maskOffset + i]) {
+                a[offset + i] += value;
+            }
+        }
+    }
+
+    @Override
+    public double min(double[] a, int offset, int length) {
+        double result = Double.POSITIVE_INFINITY;
+        for (int i = offset; i < offset + length; i++) {
+            if (a[i] < result) {
+                result = a[i];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public double max(double[] a, int offset, int length) {
+        double result = Double.NEGATIVE_INFINITY;
+        for (int i = offset; i < offset + length; i++) {
+            if (a[i] > result) {
+                result = a[i];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public double sum(double[] a, int offset, int length) {
+        double result = 0;
+        for (int i = offset; i < offset + length; i++) {
+            result += a[i];
+        }
+        return result;
+    }
+
+}
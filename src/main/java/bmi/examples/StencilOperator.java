@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+/**
+ * Operation computing the new value of a cell from its neighbourhood, as used by
+ * {@link RasterKernels#stencil(DoubleRaster, DoubleRaster, int, Boundary, StencilOperator)}. Implementations may be called
+ * concurrently from multiple threads.
+ */
+public interface StencilOperator {
+
+    /**
+     * Compute the new value of a cell.
+     * 
+     * @param window
+     *            the values of the (2 * radius + 1) by (2 * radius + 1) neighbourhood of the cell in row major order, with the
+     *            cell itself in the center. Only valid during this call.
+     * @param row
+     *            the row of the cell
+     * @param column
+     *            the column of the cell
+     * @return the new value of the cell
+     */
+    public double apply(double[] window, int row, int column);
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.mesh;
+
+import bmi.BMIGridType;
+import bmi.GridGeometry;
+
+/**
+ * Unstructured geometry of the faces of a mesh, with the centroid of every face as its coordinate.
+ */
+final class FaceGeometry extends GridGeometry {
+
+    private final UnstructuredMesh mesh;
+
+    FaceGeometry(UnstructuredMesh mesh) {
+        super(1, mesh.getFaceCount());
+        this.mesh = mesh;
+    }
+
+    @Override
+    public BMIGridType getType() {
+        return BMIGridType.UNSTRUCTURED;
+    }
+
+    @Override
+    public double getX(int index) {
+        return mesh.getFaceX(index);
+    }
+
+    @Override
+    public double getY(int index) {
+        return mesh.getFaceY(index);
+    }
+
+    @Override
+    protected double[] computeGridX() {
+        double[] result = new double[getSize()];
+        for (int face = 0; face < result.length; face++) {
+            result[face] = mesh.getFaceX(face);
+        }
+        return result;
+    }
+
+    @Override
+    protected double[] computeGridY() {
+        double[] result = new double[getSize()];
+        for (int face = 0; face < result.length; face++) {
+            result[face] = mesh.getFaceY(face);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.mesh;
+
+import bmi.BMI;
+import bmi.BMIModelException;
+import bmi.GridGeometry;
+
+/**
+ * Unstructured mesh of polygonal faces, stored in primitive arrays only, so meshes of tens of millions of faces fit in memory.
+ *
+ * Nodes have x and y coordinates. Faces are stored in compressed sparse row (CSR) form: the nodes of face f are
+ * <code>connectivity[offsets[f]]</code> up to (excluding) <code>connectivity[offsets[f + 1]]</code>, in counter clockwise
+ * order, so <code>offsets</code> has one element more than there are faces. These are the arrays returned by
+ * {@link BMI#getGridConnectivity(String)} and {@link BMI#getGridOffset(String)}.
+ *
+ * The faces of every node, and the neighbours of every face (faces sharing an edge) are computed on first use, and stored in
+ * CSR form as well. Meshes are not modified after creation, and can be shared between threads.
+ */
+public final class UnstructuredMesh {
+
+    /**
+     * Adjacency lists in CSR form: the elements adjacent to element i are values[offsets[i]] up to values[offsets[i + 1]].
+     */
+    private static final class Adjacency {
+        final int[] offsets;
+        final int[] values;
+
+        Adjacency(int[] offsets, int[] values) {
+            this.offsets = offsets;
+            this.values = values;
+        }
+    }
+
+    private final double[] nodeX;
+    private final double[] nodeY;
+    private final int[] connectivity;
+    private final int[] offsets;
+
+    private volatile Adjacency nodeFaces = null;
+    private volatile Adjacency neighbours = null;
+    private volatile GridGeometry faceGeometry = null;
+
+    private UnstructuredMesh(double[] nodeX, double[] nodeY, int[] connectivity, int[] offsets) {
+        this.nodeX = nodeX;
+        this.nodeY = nodeY;
+        this.connectivity = connectivity;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Create a mesh from its arrays. To save memory the arrays are not copied, and should not be modified afterwards.
+     *
+     * @param nodeX
+     *            the x coordinate of every node
+     * @param nodeY
+     *            the y coordinate of every node
+     * @param connectivity
+     *            the nodes of all faces
+     * @param offsets
+     *            the position of the first node of every face in <code>connectivity</code>, followed by the length of
+     *            <code>connectivity</code>
+     * @throws IllegalArgumentException
+     *             if the arrays do not describe a valid mesh
+     */
+    public static UnstructuredMesh create(double[] nodeX, double[] nodeY, int[] connectivity, int[] offsets) {
+        if (nodeX.length != nodeY.length) {
+            throw new IllegalArgumentException("got " + nodeX.length + " x but " + nodeY.length + " y coordinates");
+        }
+        if (offsets.length == 0 || offsets[0] != 0 || offsets[offsets.length - 1] != connectivity.length) {
+            throw new IllegalArgumentException("offsets should start at 0 and end at the length of the connectivity");
+        }
+        for (int face = 0; face < offsets.length - 1; face++) {
+            if (offsets[face + 1] - offsets[face] < 3) {
+                throw new IllegalArgumentException("face " + face + " has less than 3 nodes");
+            }
+        }
+        for (int i = 0; i < connectivity.length; i++) {
+            if (connectivity[i] < 0 || connectivity[i] >= nodeX.length) {
+                throw new IllegalArgumentException("node " + connectivity[i] + " of connectivity does not exist");
+            }
+        }
+        return new UnstructuredMesh(nodeX, nodeY, connectivity, offsets);
+    }
+
+    /**
+     * Get the mesh of a variable, using the grid functions of the model. Offsets are accepted both with and without the
+     * leading 0, i.e. as the start or as the end of every face.
+     *
+     * @throws BMIModelException
+     *             if the model does not provide a valid mesh for the variable
+     */
+    public static UnstructuredMesh of(BMI model, String longVarName) throws BMIModelException {
+        int[] connectivity = model.getGridConnectivity(longVarName);
+        int[] offsets = model.getGridOffset(longVarName);
+
+        if (offsets.length > 0 && offsets[0] != 0) {
+            int[] starts = new int[offsets.length + 1];
+            System.arraycopy(offsets, 0, starts, 1, offsets.length);
+            offsets = starts;
+        }
+
+        try {
+            return create(model.getGridX(longVarName), model.getGridY(longVarName), connectivity, offsets);
+        } catch (IllegalArgumentException e) {
+            throw new BMIModelException("invalid mesh for variable " + longVarName + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Create a mesh covering a rectangle of <code>rows</code> by <code>columns</code> cells, each split into two triangles.
+     * The first node is at (0, 0).
+     *
+     * @param dy
+     *            the height of a cell
+     * @param dx
+     *            the width of a cell
+     */
+    public static UnstructuredMesh triangulated(int rows, int columns, double dy, double dx) {
+        if (rows < 1 || columns < 1 || 6L * rows * columns > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("cannot triangulate " + rows + "x" + columns + " cells");
+        }
+        int nodeColumns = columns + 1;
+        int nodeCount = (rows + 1) * nodeColumns;
+        double[] x = new double[nodeCount];
+        double[] y = new double[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            x[node] = (node % nodeColumns) * dx;
+            y[node] = (node / nodeColumns) * dy;
+        }
+
+        int faceCount = 2 * rows * columns;
+        int[] connectivity = new int[3 * faceCount];
+        int[] offsets = new int[faceCount + 1];
+        int next = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int lowerLeft = row * nodeColumns + column;
+                int upperLeft = lowerLeft + nodeColumns;
+
+                connectivity[next++] = lowerLeft;
+                connectivity[next++] = lowerLeft + 1;
+                connectivity[next++] = upperLeft + 1;
+
+                connectivity[next++] = lowerLeft;
+                connectivity[next++] = upperLeft + 1;
+                connectivity[next++] = upperLeft;
+            }
+        }
+        for (int face = 0; face <= faceCount; face++) {
+            offsets[face] = 3 * face;
+        }
+        return new UnstructuredMesh(x, y, connectivity, offsets);
+    }
+
+    public int getNodeCount() {
+        return nodeX.length;
+    }
+
+    public int getFaceCount() {
+        return offsets.length - 1;
+    }
+
+    public double getNodeX(int node) {
+        return nodeX[node];
+    }
+
+    public double getNodeY(int node) {
+        return nodeY[node];
+    }
+
+    /**
+     * @return the x coordinates of all nodes. Should not be modified.
+     */
+    public double[] getNodeX() {
+        return nodeX;
+    }
+
+    /**
+     * @return the y coordinates of all nodes. Should not be modified.
+     */
+    public double[] getNodeY() {
+        return nodeY;
+    }
+
+    /**
+     * @return the nodes of all faces. Should not be modified.
+     */
+    public int[] getConnectivity() {
+        return connectivity;
+    }
+
+    /**
+     * @return the position of the first node of every face in the connectivity, followed by its length. Should not be
+     *         modified.
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * @return the number of nodes of a face.
+     */
+    public int getFaceSize(int face) {
+        return offsets[face + 1] - offsets[face];
+    }
+
+    /**
+     * @return the i-th node of a face.
+     */
+    public int getFaceNode(int face, int i) {
+        return connectivity[offsets[face] + i];
+    }
+
+    /**
+     * @return the x coordinate of the centroid of the nodes of a face.
+     */
+    public double getFaceX(int face) {
+        double sum = 0;
+        for (int i = offsets[face]; i < offsets[face + 1]; i++) {
+            sum += nodeX[connectivity[i]];
+        }
+        return sum / (offsets[face + 1] - offsets[face]);
+    }
+
+    /**
+     * @return the y coordinate of the centroid of the nodes of a face.
+     */
+    public double getFaceY(int face) {
+        double sum = 0;
+        for (int i = offsets[face]; i < offsets[face + 1]; i++) {
+            sum += nodeY[connectivity[i]];
+        }
+        return sum / (offsets[face + 1] - offsets[face]);
+    }
+
+    /**
+     * Returns the geometry of the faces, with the centroid of every face as its coordinate. Useful for variables with a value
+     * per face. Centroids are computed on demand.
+     */
+    public GridGeometry getFaceGeometry() {
+        GridGeometry result = faceGeometry;
+        if (result == null) {
+            result = new FaceGeometry(this);
+            faceGeometry = result;
+        }
+        return result;
+    }
+
+    private Adjacency nodeFaces() {
+        Adjacency result = nodeFaces;
+        if (result == null) {
+            result = computeNodeFaces();
+            nodeFaces = result;
+        }
+        return result;
+    }
+
+    private Adjacency computeNodeFaces() {
+        //counting sort of the connectivity by node
+        int[] starts = new int[nodeX.length + 1];
+        for (int node : connectivity) {
+            starts[node + 1]++;
+        }
+        for (int node = 0; node < nodeX.length; node++) {
+            starts[node + 1] += starts[node];
+        }
+
+        int[] faces = new int[connectivity.length];
+        int[] next = starts.clone();
+        for (int face = 0; face < getFaceCount(); face++) {
+            for (int i = offsets[face]; i < offsets[face + 1]; i++) {
+                faces[next[connectivity[i]]++] = face;
+            }
+        }
+        return new Adjacency(starts, faces);
+    }
+
+    /**
+     * @return the number of faces a node is part of.
+     */
+    public int getNodeFaceCount(int node) {
+        Adjacency adjacency = nodeFaces();
+        return adjacency.offsets[node + 1] - adjacency.offsets[node];
+    }
+
+    /**
+     * @return the i-th face of a node, in ascending order.
+     */
+    public int getNodeFace(int node, int i) {
+        Adjacency adjacency = nodeFaces();
+        return adjacency.values[adjacency.offsets[node] + i];
+    }
+
+    private Adjacency neighbours() {
+        Adjacency result = neighbours;
+        if (result == null) {
+            result = computeNeighbours();
+            neighbours = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return true if the given face has an edge between nodes a and b, in either direction.
+     */
+    private boolean hasEdge(int face, int a, int b) {
+        int start = offsets[face];
+        int size = offsets[face + 1] - start;
+        for (int i = 0; i < size; i++) {
+            int node = connectivity[start + i];
+            int following = connectivity[start + (i + 1) % size];
+            if ((node == a && following == b) || (node == b && following == a)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the neighbours of a face: for every edge, the other faces of its first node that share the edge. Writes them to
+     * <code>dest</code> at <code>position</code>, or only counts them if <code>dest</code> is null.
+     * 
+     * @return the number of neighbours
+     */
+    private int findNeighbours(Adjacency nodeFaces, int face, int[] dest, int position) {
+        int start = offsets[face];
+        int size = offsets[face + 1] - start;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int a = connectivity[start + i];
+            int b = connectivity[start + (i + 1) % size];
+            for (int j = nodeFaces.offsets[a]; j < nodeFaces.offsets[a + 1]; j++) {
+                int other = nodeFaces.values[j];
+                if (other != face && hasEdge(other, a, b)) {
+                    if (dest != null) {
+                        dest[position + count] = other;
+                    }
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private Adjacency computeNeighbours() {
+        Adjacency nodeFaces = nodeFaces();
+        int faceCount = getFaceCount();
+
+        int[] starts = new int[faceCount + 1];
+        for (int face = 0; face < faceCount; face++) {
+            starts[face + 1] = starts[face] + findNeighbours(nodeFaces, face, null, 0);
+        }
+        int[] values = new int[starts[faceCount]];
+        for (int face = 0; face < faceCount; face++) {
+            findNeighbours(nodeFaces, face, values, starts[face]);
+        }
+        return new Adjacency(starts, values);
+    }
+
+    /**
+     * @return the number of faces sharing an edge with the given face.
+     */
+    public int getNeighbourCount(int face) {
+        Adjacency adjacency = neighbours();
+        return adjacency.offsets[face + 1] - adjacency.offsets[face];
+    }
+
+    public int getNeighbour(int face, int i) {
+        Adjacency adjacency = neighbours();
+        return adjacency.values[adjacency.offsets[face] + i];
+    }
+
+    /**
+     * @return the position of the first neighbour of every face in {@link #getNeighbours()}, followed by its length. Should
+     *         not be modified.
+     */
+    public int[] getNeighbourOffsets() {
+        return neighbours().offsets;
+    }
+
+    /**
+     * @return the neighbours of all faces, in CSR form. Should not be modified.
+     */
+    public int[] getNeighbours() {
+        return neighbours().values;
+    }
+
+    /**
+     * @return the largest number of neighbours of any face.
+     */
+    public int getMaxNeighbourCount() {
+        int[] starts = neighbours().offsets;
+        int result = 0;
+        for (int face = 0; face < starts.length - 1; face++) {
+            result = Math.max(result, starts[face + 1] - starts[face]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "UnstructuredMesh [nodes=" + getNodeCount() + ", faces=" + getFaceCount() + "]";
+    }
+
+}
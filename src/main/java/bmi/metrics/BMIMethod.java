@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.metrics;
+
+/**
+ * All functions of the (E)BMI interface, as tracked by {@link MetricsEBMI}.
+ */
+public enum BMIMethod {
+
+    INITIALIZE("initialize"),
+    UPDATE("update"),
+    UPDATE_UNTIL("updateUntil"),
+    UPDATE_FRAC("updateFrac"),
+    FINALIZE_MODEL("finalizeModel"),
+    GET_COMPONENT_NAME("getComponentName"),
+    GET_INPUT_VAR_NAMES("getInputVarNames"),
+    GET_OUTPUT_VAR_NAMES("getOutputVarNames"),
+    GET_VAR_TYPE("getVarType"),
+    GET_VAR_UNITS("getVarUnits"),
+    GET_VAR_RANK("getVarRank"),
+    GET_VAR_SIZE("getVarSize"),
+    GET_VAR_NBYTES("getVarNbytes"),
+    GET_START_TIME("getStartTime"),
+    GET_CURRENT_TIME("getCurrentTime"),
+    GET_END_TIME("getEndTime"),
+    GET_TIME_STEP("getTimeStep"),
+    GET_TIME_UNITS("getTimeUnits"),
+    GET_DOUBLE("getDouble"),
+    GET_DOUBLE_AT_INDICES("getDoubleAtIndices"),
+    SET_DOUBLE("setDouble"),
+    SET_DOUBLE_AT_INDICES("setDoubleAtIndices"),
+    GET_FLOAT("getFloat"),
+    GET_FLOAT_AT_INDICES("getFloatAtIndices"),
+    SET_FLOAT("setFloat"),
+    SET_FLOAT_AT_INDICES("setFloatAtIndices"),
+    GET_GRID_TYPE("getGridType"),
+    GET_GRID_SHAPE("getGridShape"),
+    GET_GRID_SPACING("getGridSpacing"),
+    GET_GRID_ORIGIN("getGridOrigin"),
+    GET_GRID_X("getGridX"),
+    GET_GRID_Y("getGridY"),
+    GET_GRID_Z("getGridZ"),
+    GET_GRID_CONNECTIVITY("getGridConnectivity"),
+    GET_GRID_OFFSET("getGridOffset"),
+    INITIALIZE_CONFIG("initializeConfig"),
+    INITIALIZE_MODEL("initializeModel"),
+    SET_START_TIME("setStartTime"),
+    SET_END_TIME("setEndTime"),
+    GET_ATTRIBUTE_NAMES("getAttributeNames"),
+    GET_ATTRIBUTE_VALUE("getAttributeValue"),
+    SET_ATTRIBUTE_VALUE("setAttributeValue"),
+    SAVE_STATE("saveState"),
+    LOAD_STATE("loadState");
+
+    private final String methodName;
+
+    private BMIMethod(String methodName) {
+        this.methodName = methodName;
+    }
+
+    /**
+     * @return the name of the Java method, e.g. "getDouble".
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+
+}
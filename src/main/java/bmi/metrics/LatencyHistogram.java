@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds, with log-linear buckets in the style of HdrHistogram: every power of two
+ * is split into 32 equally sized buckets, giving a relative precision of about 3%. Values of 2^40 ns (about 18 minutes) and
+ * more all end up in the last bucket. Recording is a single atomic increment plus two uncontended adder updates, and is safe
+ * to do from any number of threads.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return value < 0 ? 0 : (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * @return the lowest value that ends up in the given bucket.
+     */
+    static long lowestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return ((long) (SUB_BUCKETS + bucket % SUB_BUCKETS)) << shift;
+    }
+
+    /**
+     * @return the highest value that ends up in the given bucket.
+     */
+    static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        return lowestValue(bucket) + (1L << (bucket / SUB_BUCKETS - 1)) - 1;
+    }
+
+    public void record(long nanos) {
+        counts.incrementAndGet(bucket(nanos));
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        max.reset();
+    }
+
+    /**
+     * Take a snapshot of this histogram. Values recorded concurrently may or may not be included.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy, total.sum(), max.get());
+    }
+
+    /**
+     * Immutable copy of the contents of a histogram.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        Snapshot(long[] counts, long total, long max) {
+            this.counts = counts;
+            long count = 0;
+            for (long c : counts) {
+                count += c;
+            }
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the sum of all recorded values, in nanoseconds.
+         */
+        public long getTotal() {
+            return total;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0.0 : ((double) total) / count;
+        }
+
+        /**
+         * @param percentile
+         *            the percentile, between 0 and 100
+         * @return the (upper bound of the bucket of the) value below which the given percentage of values fall, or 0 if there
+         *         are no values.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValue(i), max);
+                }
+            }
+            return max;
+        }
+
+    }
+
+}
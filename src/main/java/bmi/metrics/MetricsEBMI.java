@@ -0,0 +1,743 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import bmi.BMIGridType;
+import bmi.BMIModelException;
+import bmi.EBMI;
+import bmi.ForwardingEBMI;
+
+/**
+ * Decorator that records metrics for every call to a model: per function and per variable the number of calls, a latency
+ * histogram, and the number of bytes transferred by the get and set functions (based on getVarNbytes). Recording is lock
+ * free and costs in the order of tens of nanoseconds per call, so it can be left enabled in production runs. Use
+ * {@link #snapshot()} to retrieve the metrics.
+ */
+public class MetricsEBMI extends ForwardingEBMI {
+
+    /**
+     * Metrics of a single function, for a single variable.
+     */
+    static final class CallMetrics {
+
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder bytes = new LongAdder();
+
+        void record(long start) {
+            latency.record(System.nanoTime() - start);
+        }
+
+        void addBytes(long count) {
+            bytes.add(count);
+        }
+
+        void reset() {
+            latency.reset();
+            bytes.reset();
+        }
+    }
+
+    /**
+     * Metrics of all functions for a single variable (or for functions not related to a variable).
+     */
+    final class VariableMetrics {
+
+        private final String variable;
+        private final AtomicReferenceArray<CallMetrics> calls = new AtomicReferenceArray<CallMetrics>(BMIMethod.values().length);
+
+        //cached sizes of the variable, -1 if not yet known
+        private volatile long nbytes = -1;
+        private volatile int elementSize = -1;
+
+        VariableMetrics(String variable) {
+            this.variable = variable;
+        }
+
+        CallMetrics get(BMIMethod method) {
+            CallMetrics result = calls.get(method.ordinal());
+            if (result == null) {
+                calls.compareAndSet(method.ordinal(), null, new CallMetrics());
+                result = calls.get(method.ordinal());
+            }
+            return result;
+        }
+
+        long getNbytes() {
+            if (nbytes < 0) {
+                fetchSizes();
+            }
+            return Math.max(nbytes, 0);
+        }
+
+        int getElementSize() {
+            if (elementSize < 0) {
+                fetchSizes();
+            }
+            return Math.max(elementSize, 0);
+        }
+
+        private void fetchSizes() {
+            try {
+                int bytes = getDelegate().getVarNbytes(variable);
+                int size = getDelegate().getVarSize(variable);
+                elementSize = size == 0 ? 0 : bytes / size;
+                nbytes = bytes;
+            } catch (BMIModelException e) {
+                //sizes not available (yet), do not count bytes
+            }
+        }
+
+        void resetSizes() {
+            nbytes = -1;
+            elementSize = -1;
+        }
+    }
+
+    private final ConcurrentMap<String, VariableMetrics> variables = new ConcurrentHashMap<String, VariableMetrics>();
+
+    //metrics of functions not related to a single variable
+    private final VariableMetrics modelMetrics = new VariableMetrics(null);
+
+    public MetricsEBMI(EBMI delegate) {
+        super(delegate);
+    }
+
+    private VariableMetrics variable(String name) {
+        VariableMetrics result = variables.get(name);
+        if (result == null) {
+            variables.putIfAbsent(name, new VariableMetrics(name));
+            result = variables.get(name);
+        }
+        return result;
+    }
+
+    /**
+     * Record the latency of a call for a variable. Entries for a variable are only created once a call for it succeeds, so
+     * bad names passed by callers do not add entries. Failed calls are still recorded for variables that already have one.
+     *
+     * @return the metrics of the call, or null if the call failed for a variable without an entry
+     */
+    private CallMetrics record(String name, BMIMethod method, long start, boolean succeeded) {
+        long elapsed = System.nanoTime() - start;
+        VariableMetrics variable = succeeded ? variable(name) : variables.get(name);
+        if (variable == null) {
+            return null;
+        }
+        CallMetrics result = variable.get(method);
+        result.latency.record(elapsed);
+        return result;
+    }
+
+    private void resetSizes() {
+        for (VariableMetrics variable : variables.values()) {
+            variable.resetSizes();
+        }
+    }
+
+    private static void addEntries(VariableMetrics metrics, List<MetricsSnapshot.Entry> entries) {
+        for (BMIMethod method : BMIMethod.values()) {
+            CallMetrics call = metrics.calls.get(method.ordinal());
+            if (call != null) {
+                entries.add(new MetricsSnapshot.Entry(method, metrics.variable, call.latency.snapshot(), call.bytes.sum()));
+            }
+        }
+    }
+
+    /**
+     * Take a snapshot of all metrics recorded so far. Calls made concurrently may or may not be included.
+     */
+    public MetricsSnapshot snapshot() {
+        List<MetricsSnapshot.Entry> entries = new ArrayList<MetricsSnapshot.Entry>();
+        addEntries(modelMetrics, entries);
+        for (VariableMetrics variable : variables.values()) {
+            addEntries(variable, entries);
+        }
+        return new MetricsSnapshot(entries);
+    }
+
+    /**
+     * Clear all metrics recorded so far.
+     */
+    public void reset() {
+        for (BMIMethod method : BMIMethod.values()) {
+            CallMetrics call = modelMetrics.calls.get(method.ordinal());
+            if (call != null) {
+                call.reset();
+            }
+        }
+        variables.clear();
+    }
+
+    @Override
+    public void initialize(String file) throws BMIModelException {
+        resetSizes();
+        CallMetrics stats = modelMetrics.get(BMIMethod.INITIALIZE);
+        long start = System.nanoTime();
+        try {
+            super.initialize(file);
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public void update() throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.UPDATE);
+        long start = System.nanoTime();
+        try {
+            super.update();
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public void updateUntil(double time) throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.UPDATE_UNTIL);
+        long start = System.nanoTime();
+        try {
+            super.updateUntil(time);
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public void updateFrac(double timeFrac) throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.UPDATE_FRAC);
+        long start = System.nanoTime();
+        try {
+            super.updateFrac(timeFrac);
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public void finalizeModel() throws BMIModelException {
+        resetSizes();
+        CallMetrics stats = modelMetrics.get(BMIMethod.FINALIZE_MODEL);
+        long start = System.nanoTime();
+        try {
+            super.finalizeModel();
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public String getComponentName() throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.GET_COMPONENT_NAME);
+        long start = System.nanoTime();
+        try {
+            return super.getComponentName();
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public String[] getInputVarNames() throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.GET_INPUT_VAR_NAMES);
+        long start = System.nanoTime();
+        try {
+            return super.getInputVarNames();
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public String[] getOutputVarNames() throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.GET_OUTPUT_VAR_NAMES);
+        long start = System.nanoTime();
+        try {
+            return super.getOutputVarNames();
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public String getVarType(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            String result = super.getVarType(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            record(longVarName, BMIMethod.GET_VAR_TYPE, start, succeeded);
+        }
+    }
+
+    @Override
+    public String getVarUnits(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            String result = super.getVarUnits(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            record(longVarName, BMIMethod.GET_VAR_UNITS, start, succeeded);
+        }
+    }
+
+    @Override
+    public int getVarRank(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            int result = super.getVarRank(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            record(longVarName, BMIMethod.GET_VAR_RANK, start, succeeded);
+        }
+    }
+
+    @Override
+    public int getVarSize(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            int result = super.getVarSize(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            record(longVarName, BMIMethod.GET_VAR_SIZE, start, succeeded);
+        }
+    }
+
+    @Override
+    public int getVarNbytes(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            int result = super.getVarNbytes(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            record(longVarName, BMIMethod.GET_VAR_NBYTES, start, succeeded);
+        }
+    }
+
+    @Override
+    public double getStartTime() throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.GET_START_TIME);
+        long start = System.nanoTime();
+        try {
+            return super.getStartTime();
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public double getCurrentTime() throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.GET_CURRENT_TIME);
+        long start = System.nanoTime();
+        try {
+            return super.getCurrentTime();
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public double getEndTime() throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.GET_END_TIME);
+        long start = System.nanoTime();
+        try {
+            return super.getEndTime();
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public double getTimeStep() throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.GET_TIME_STEP);
+        long start = System.nanoTime();
+        try {
+            return super.getTimeStep();
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public String getTimeUnits() throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.GET_TIME_UNITS);
+        long start = System.nanoTime();
+        try {
+            return super.getTimeUnits();
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public double[] getDouble(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            double[] result = super.getDouble(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            CallMetrics stats = record(longVarName, BMIMethod.GET_DOUBLE, start, succeeded);
+            if (succeeded) {
+                stats.addBytes(variable(longVarName).getNbytes());
+            }
+        }
+    }
+
+    @Override
+    public double[] getDoubleAtIndices(String longVarName, int[] indices) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            double[] result = super.getDoubleAtIndices(longVarName, indices);
+            succeeded = true;
+            return result;
+        } finally {
+            CallMetrics stats = record(longVarName, BMIMethod.GET_DOUBLE_AT_INDICES, start, succeeded);
+            if (succeeded) {
+                stats.addBytes(((long) indices.length) * variable(longVarName).getElementSize());
+            }
+        }
+    }
+
+    @Override
+    public void setDouble(String longVarName, double[] src) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            super.setDouble(longVarName, src);
+            succeeded = true;
+        } finally {
+            CallMetrics stats = record(longVarName, BMIMethod.SET_DOUBLE, start, succeeded);
+            if (succeeded) {
+                stats.addBytes(variable(longVarName).getNbytes());
+            }
+        }
+    }
+
+    @Override
+    public void setDoubleAtIndices(String longVarName, int[] indices, double[] src) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            super.setDoubleAtIndices(longVarName, indices, src);
+            succeeded = true;
+        } finally {
+            CallMetrics stats = record(longVarName, BMIMethod.SET_DOUBLE_AT_INDICES, start, succeeded);
+            if (succeeded) {
+                stats.addBytes(((long) indices.length) * variable(longVarName).getElementSize());
+            }
+        }
+    }
+
+    @Override
+    public float[] getFloat(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            float[] result = super.getFloat(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            CallMetrics stats = record(longVarName, BMIMethod.GET_FLOAT, start, succeeded);
+            if (succeeded) {
+                stats.addBytes(variable(longVarName).getNbytes());
+            }
+        }
+    }
+
+    @Override
+    public float[] getFloatAtIndices(String longVarName, int[] indices) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            float[] result = super.getFloatAtIndices(longVarName, indices);
+            succeeded = true;
+            return result;
+        } finally {
+            CallMetrics stats = record(longVarName, BMIMethod.GET_FLOAT_AT_INDICES, start, succeeded);
+            if (succeeded) {
+                stats.addBytes(((long) indices.length) * variable(longVarName).getElementSize());
+            }
+        }
+    }
+
+    @Override
+    public void setFloat(String longVarName, float[] src) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            super.setFloat(longVarName, src);
+            succeeded = true;
+        } finally {
+            CallMetrics stats = record(longVarName, BMIMethod.SET_FLOAT, start, succeeded);
+            if (succeeded) {
+                stats.addBytes(variable(longVarName).getNbytes());
+            }
+        }
+    }
+
+    @Override
+    public void setFloatAtIndices(String longVarName, int[] indices, float[] src) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            super.setFloatAtIndices(longVarName, indices, src);
+            succeeded = true;
+        } finally {
+            CallMetrics stats = record(longVarName, BMIMethod.SET_FLOAT_AT_INDICES, start, succeeded);
+            if (succeeded) {
+                stats.addBytes(((long) indices.length) * variable(longVarName).getElementSize());
+            }
+        }
+    }
+
+    @Override
+    public BMIGridType getGridType(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            BMIGridType result = super.getGridType(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            record(longVarName, BMIMethod.GET_GRID_TYPE, start, succeeded);
+        }
+    }
+
+    @Override
+    public int[] getGridShape(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            int[] result = super.getGridShape(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            record(longVarName, BMIMethod.GET_GRID_SHAPE, start, succeeded);
+        }
+    }
+
+    @Override
+    public double[] getGridSpacing(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            double[] result = super.getGridSpacing(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            record(longVarName, BMIMethod.GET_GRID_SPACING, start, succeeded);
+        }
+    }
+
+    @Override
+    public double[] getGridOrigin(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            double[] result = super.getGridOrigin(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            record(longVarName, BMIMethod.GET_GRID_ORIGIN, start, succeeded);
+        }
+    }
+
+    @Override
+    public double[] getGridX(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            double[] result = super.getGridX(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            record(longVarName, BMIMethod.GET_GRID_X, start, succeeded);
+        }
+    }
+
+    @Override
+    public double[] getGridY(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            double[] result = super.getGridY(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            record(longVarName, BMIMethod.GET_GRID_Y, start, succeeded);
+        }
+    }
+
+    @Override
+    public double[] getGridZ(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            double[] result = super.getGridZ(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            record(longVarName, BMIMethod.GET_GRID_Z, start, succeeded);
+        }
+    }
+
+    @Override
+    public int[] getGridConnectivity(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            int[] result = super.getGridConnectivity(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            record(longVarName, BMIMethod.GET_GRID_CONNECTIVITY, start, succeeded);
+        }
+    }
+
+    @Override
+    public int[] getGridOffset(String longVarName) throws BMIModelException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            int[] result = super.getGridOffset(longVarName);
+            succeeded = true;
+            return result;
+        } finally {
+            record(longVarName, BMIMethod.GET_GRID_OFFSET, start, succeeded);
+        }
+    }
+
+    @Override
+    public void initializeConfig(String configFile) throws BMIModelException {
+        resetSizes();
+        CallMetrics stats = modelMetrics.get(BMIMethod.INITIALIZE_CONFIG);
+        long start = System.nanoTime();
+        try {
+            super.initializeConfig(configFile);
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public void initializeModel() throws BMIModelException {
+        resetSizes();
+        CallMetrics stats = modelMetrics.get(BMIMethod.INITIALIZE_MODEL);
+        long start = System.nanoTime();
+        try {
+            super.initializeModel();
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public void setStartTime(double startTime) throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.SET_START_TIME);
+        long start = System.nanoTime();
+        try {
+            super.setStartTime(startTime);
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public void setEndTime(double endTime) throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.SET_END_TIME);
+        long start = System.nanoTime();
+        try {
+            super.setEndTime(endTime);
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public String[] getAttributeNames() throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.GET_ATTRIBUTE_NAMES);
+        long start = System.nanoTime();
+        try {
+            return super.getAttributeNames();
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public String getAttributeValue(String attributeName) throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.GET_ATTRIBUTE_VALUE);
+        long start = System.nanoTime();
+        try {
+            return super.getAttributeValue(attributeName);
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public void setAttributeValue(String attributeName, String attributeValue) throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.SET_ATTRIBUTE_VALUE);
+        long start = System.nanoTime();
+        try {
+            super.setAttributeValue(attributeName, attributeValue);
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public void saveState(String destinationDirectory) throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.SAVE_STATE);
+        long start = System.nanoTime();
+        try {
+            super.saveState(destinationDirectory);
+        } finally {
+            stats.record(start);
+        }
+    }
+
+    @Override
+    public void loadState(String sourceDirectory) throws BMIModelException {
+        CallMetrics stats = modelMetrics.get(BMIMethod.LOAD_STATE);
+        long start = System.nanoTime();
+        try {
+            super.loadState(sourceDirectory);
+        } finally {
+            stats.record(start);
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.metrics;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the metrics recorded by a {@link MetricsEBMI}.
+ */
+public final class MetricsSnapshot {
+
+    /**
+     * Metrics of a single function for a single variable.
+     */
+    public static final class Entry {
+
+        private final BMIMethod method;
+        private final String variable;
+        private final LatencyHistogram.Snapshot latency;
+        private final long bytes;
+
+        Entry(BMIMethod method, String variable, LatencyHistogram.Snapshot latency, long bytes) {
+            this.method = method;
+            this.variable = variable;
+            this.latency = latency;
+            this.bytes = bytes;
+        }
+
+        public BMIMethod getMethod() {
+            return method;
+        }
+
+        /**
+         * @return the variable, or null for functions not related to a variable.
+         */
+        public String getVariable() {
+            return variable;
+        }
+
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        /**
+         * @return the latency histogram, in nanoseconds.
+         */
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+
+        /**
+         * @return the number of bytes transferred by get and set functions.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+    }
+
+    static final String CSV_HEADER = "method,variable,count,bytes,total_ns,mean_ns,p50_ns,p90_ns,p99_ns,p999_ns,max_ns";
+
+    private final List<Entry> entries;
+
+    MetricsSnapshot(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return the entry for the given function and variable (null for functions not related to a variable), or null if the
+     *         function was not called.
+     */
+    public Entry getEntry(BMIMethod method, String variable) {
+        for (Entry entry : entries) {
+            if (entry.method == method && (variable == null ? entry.variable == null : variable.equals(entry.variable))) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Write all entries in CSV format, with a header line.
+     * 
+     * @param out
+     *            where to write to
+     * @throws IOException
+     *             if writing fails
+     */
+    public void writeCsv(Appendable out) throws IOException {
+        out.append(CSV_HEADER).append('\n');
+        for (Entry entry : entries) {
+            LatencyHistogram.Snapshot latency = entry.latency;
+            out.append(entry.method.getMethodName()).append(',');
+            out.append(entry.variable == null ? "" : entry.variable).append(',');
+            out.append(Long.toString(latency.getCount())).append(',');
+            out.append(Long.toString(entry.bytes)).append(',');
+            out.append(Long.toString(latency.getTotal())).append(',');
+            out.append(Long.toString(Math.round(latency.getMean()))).append(',');
+            out.append(Long.toString(latency.getValueAtPercentile(50))).append(',');
+            out.append(Long.toString(latency.getValueAtPercentile(90))).append(',');
+            out.append(Long.toString(latency.getValueAtPercentile(99))).append(',');
+            out.append(Long.toString(latency.getValueAtPercentile(99.9))).append(',');
+            out.append(Long.toString(latency.getMax())).append('\n');
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        try {
+            writeCsv(result);
+        } catch (IOException e) {
+            //cannot happen for a StringBuilder
+            throw new IllegalStateException(e);
+        }
+        return result.toString();
+    }
+
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.output;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import bmi.BMIModelException;
+
+/**
+ * Reads a time series file written by {@link OutputRecorder}. The index at the end of the file is loaded when the file is
+ * opened, after which any record of any variable is read with a single positioned read, without scanning the file.
+ *
+ * A reader is not thread safe.
+ */
+public class OutputReader implements Closeable {
+
+    private static final class Variable {
+
+        private final int size;
+        private final double[] times;
+        private final long[] offsets;
+        private final int[] lengths;
+
+        Variable(int size, int count) {
+            this.size = size;
+            this.times = new double[count];
+            this.offsets = new long[count];
+            this.lengths = new int[count];
+        }
+    }
+
+    private final File file;
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+    private final boolean compressed;
+
+    private final Map<String, Variable> variables = new LinkedHashMap<String, Variable>();
+
+    //reused between reads
+    private ByteBuffer buffer = null;
+    private byte[] inflated = null;
+    private Inflater inflater = null;
+
+    /**
+     * Open a file and load its index.
+     *
+     * @param file
+     *            a file written by {@link OutputRecorder}
+     * @throws BMIModelException
+     *             if the file cannot be read, is not an output file, or was not closed properly
+     */
+    public OutputReader(File file) throws BMIModelException {
+        this.file = file;
+        try {
+            raf = new RandomAccessFile(file, "r");
+        } catch (IOException e) {
+            throw new BMIModelException("could not open output file " + file, e);
+        }
+        channel = raf.getChannel();
+
+        try {
+            long fileSize = channel.size();
+            if (fileSize < OutputRecorder.HEADER_SIZE + OutputRecorder.FOOTER_SIZE) {
+                throw new BMIModelException(file + " is not an output file, or incomplete");
+            }
+
+            ByteBuffer header = read(0, OutputRecorder.HEADER_SIZE);
+            if (header.getInt() != OutputRecorder.MAGIC) {
+                throw new BMIModelException(file + " is not an output file");
+            }
+            if (header.getInt() != OutputRecorder.VERSION) {
+                throw new BMIModelException("unsupported output file version in " + file);
+            }
+            compressed = (header.getInt() & OutputRecorder.FLAG_COMPRESSED) != 0;
+
+            ByteBuffer footer = read(fileSize - OutputRecorder.FOOTER_SIZE, OutputRecorder.FOOTER_SIZE);
+            long indexOffset = footer.getLong();
+            if (footer.getInt() != OutputRecorder.MAGIC || indexOffset < OutputRecorder.HEADER_SIZE
+                    || indexOffset > fileSize - OutputRecorder.FOOTER_SIZE) {
+                throw new BMIModelException("output file " + file + " has no index, was the recorder closed?");
+            }
+
+            ByteBuffer index = read(indexOffset, (int) (fileSize - OutputRecorder.FOOTER_SIZE - indexOffset));
+            int count = index.getInt();
+            for (int i = 0; i < count; i++) {
+                byte[] name = new byte[index.getShort() & 0xFFFF];
+                index.get(name);
+                int size = index.getInt();
+                Variable variable = new Variable(size, index.getInt());
+                for (int j = 0; j < variable.times.length; j++) {
+                    variable.times[j] = index.getDouble();
+                    variable.offsets[j] = index.getLong();
+                    variable.lengths[j] = index.getInt();
+                }
+                variables.put(new String(name, OutputRecorder.UTF8), variable);
+            }
+        } catch (IOException e) {
+            close();
+            throw new BMIModelException("could not read output file " + file, e);
+        } catch (BMIModelException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        //compressed chunks are inflated from a heap array, others are read directly
+        if (buffer == null || buffer.capacity() < length || compressed != buffer.hasArray()) {
+            int capacity = Math.max(length, 4096);
+            buffer = compressed ? ByteBuffer.allocate(capacity) : ByteBuffer.allocateDirect(capacity);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        buffer.clear();
+        buffer.limit(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("unexpected end of file " + file);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private Variable getVariable(String longVarName) throws BMIModelException {
+        Variable result = variables.get(longVarName);
+        if (result == null) {
+            throw new BMIModelException("variable " + longVarName + " not recorded in " + file);
+        }
+        return result;
+    }
+
+    public String[] getVariableNames() {
+        return variables.keySet().toArray(new String[variables.size()]);
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * @return the number of values of the given variable.
+     */
+    public int getSize(String longVarName) throws BMIModelException {
+        return getVariable(longVarName).size;
+    }
+
+    /**
+     * @return the number of times the given variable was recorded.
+     */
+    public int getRecordCount(String longVarName) throws BMIModelException {
+        return getVariable(longVarName).times.length;
+    }
+
+    /**
+     * @return the model times at which the given variable was recorded, in order.
+     */
+    public double[] getTimes(String longVarName) throws BMIModelException {
+        return getVariable(longVarName).times.clone();
+    }
+
+    public double getTime(String longVarName, int record) throws BMIModelException {
+        Variable variable = getVariable(longVarName);
+        checkRecord(variable, longVarName, record);
+        return variable.times[record];
+    }
+
+    /**
+     * @return the number of the record of the given variable at exactly the given time, or -1 if there is none.
+     */
+    public int findRecord(String longVarName, double time) throws BMIModelException {
+        int result = Arrays.binarySearch(getVariable(longVarName).times, time);
+        return result < 0 ? -1 : result;
+    }
+
+    private void checkRecord(Variable variable, String longVarName, int record) throws BMIModelException {
+        if (record < 0 || record >= variable.times.length) {
+            throw new BMIModelException("record " + record + " of variable " + longVarName + " out of range, "
+                    + variable.times.length + " records in file");
+        }
+    }
+
+    public double[] read(String longVarName, int record) throws BMIModelException {
+        double[] result = new double[getVariable(longVarName).size];
+        read(longVarName, record, result, 0);
+        return result;
+    }
+
+    /**
+     * Read a single record of a variable.
+     *
+     * @param longVarName
+     *            the variable to read
+     * @param record
+     *            the number of the record, counting from 0
+     * @param dest
+     *            the array to copy the values into
+     * @param offset
+     *            the first element of <code>dest</code> to write to
+     * @throws BMIModelException
+     *             in case of problems
+     */
+    public void read(String longVarName, int record, double[] dest, int offset) throws BMIModelException {
+        Variable variable = getVariable(longVarName);
+        checkRecord(variable, longVarName, record);
+
+        int bytes = variable.size * 8;
+        try {
+            ByteBuffer chunk = read(variable.offsets[record], variable.lengths[record]);
+            if (compressed) {
+                chunk = inflate(chunk, bytes);
+            } else if (chunk.remaining() != bytes) {
+                throw new BMIModelException("corrupt chunk in output file " + file);
+            }
+            chunk.asDoubleBuffer().get(dest, offset, variable.size);
+        } catch (IOException e) {
+            throw new BMIModelException("could not read output file " + file, e);
+        }
+    }
+
+    private ByteBuffer inflate(ByteBuffer chunk, int bytes) throws BMIModelException {
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        //one spare byte, so a chunk that inflates to too many bytes is detected
+        if (inflated == null || inflated.length < bytes + 1) {
+            inflated = new byte[bytes + 1];
+        }
+
+        inflater.reset();
+        inflater.setInput(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+        try {
+            int length = 0;
+            while (!inflater.finished() && length <= bytes) {
+                int inflatedBytes = inflater.inflate(inflated, length, bytes + 1 - length);
+                if (inflatedBytes == 0) {
+                    break;
+                }
+                length += inflatedBytes;
+            }
+            if (length != bytes || !inflater.finished()) {
+                throw new BMIModelException("corrupt chunk in output file " + file);
+            }
+        } catch (DataFormatException e) {
+            throw new BMIModelException("corrupt chunk in output file " + file, e);
+        }
+        return ByteBuffer.wrap(inflated, 0, bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void close() {
+        if (inflater != null) {
+            inflater.end();
+            inflater = null;
+        }
+        try {
+            raf.close();
+        } catch (IOException e) {
+            //ignore
+        }
+    }
+
+}
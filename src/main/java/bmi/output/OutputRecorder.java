@@ -0,0 +1,455 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.output;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import bmi.BMI;
+import bmi.BMIModelException;
+import bmi.BufferedBMI;
+
+/**
+ * Records output variables of a model to a binary time series file, without stalling the model on disk I/O. Each call to
+ * {@link #record()} copies the values of the variables that are due into pooled buffers, and hands them to a dedicated I/O
+ * thread that appends them to the file. The hand-off queue is bounded: if the disk cannot keep up, record() blocks until
+ * there is room again.
+ *
+ * <pre>
+ * OutputRecorder recorder = new OutputRecorder(model, file);
+ * recorder.addVariable("discharge", 1);
+ * recorder.addVariable("soil_moisture", 24);
+ * recorder.start();
+ * while (model.getCurrentTime() &lt; model.getEndTime()) {
+ *     model.update();
+ *     recorder.record();
+ * }
+ * recorder.close();
+ * </pre>
+ *
+ * Every recorded copy of a variable is written as a separate chunk, optionally deflate compressed. When the recorder is
+ * closed, an index of all chunks is appended, which allows {@link OutputReader} to read any record of any variable directly.
+ * The file is little endian:
+ *
+ * <pre>
+ * int     magic ("BMIO"), version, flags (1 = compressed chunks)
+ * ...     chunks: float64 values of one variable at one time, possibly compressed
+ * index:
+ *   int                   number of variables
+ *   per variable:
+ *     short + UTF-8 bytes   name
+ *     int                   number of values
+ *     int                   number of records
+ *     per record:
+ *       double              model time
+ *       long                offset of the chunk in the file
+ *       int                 size of the chunk in bytes
+ * long    offset of the index
+ * int     magic
+ * </pre>
+ *
+ * Only variables of type float64 can be recorded. The recorder is meant to be used by the thread driving the model.
+ */
+public class OutputRecorder implements AutoCloseable {
+
+    static final int MAGIC = 0x424D494F;
+    static final int VERSION = 1;
+    static final int FLAG_COMPRESSED = 1;
+
+    static final int HEADER_SIZE = 3 * 4;
+    static final int FOOTER_SIZE = 8 + 4;
+
+    static final Charset UTF8 = Charset.forName("UTF-8");
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    /**
+     * A copy of a variable at one time, on its way to the file. Reused once written.
+     */
+    private static final class Record {
+
+        private final Variable variable;
+        private final double[] values;
+        private double time;
+
+        Record(Variable variable) {
+            this.variable = variable;
+            this.values = variable == null ? null : new double[variable.size];
+        }
+    }
+
+    private static final class Variable {
+
+        private final String name;
+        private final int interval;
+        private final int size;
+
+        //records available for reuse
+        private final BlockingQueue<Record> pool;
+
+        //written by the I/O thread only
+        private double[] times = new double[16];
+        private long[] offsets = new long[16];
+        private int[] lengths = new int[16];
+        private int count = 0;
+
+        Variable(String name, int interval, int size, int poolSize) {
+            this.name = name;
+            this.interval = interval;
+            this.size = size;
+            this.pool = new ArrayBlockingQueue<Record>(poolSize);
+        }
+
+        void addChunk(double time, long offset, int length) {
+            if (count == times.length) {
+                times = Arrays.copyOf(times, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+                lengths = Arrays.copyOf(lengths, count * 2);
+            }
+            times[count] = time;
+            offsets[count] = offset;
+            lengths[count] = length;
+            count++;
+        }
+    }
+
+    //marks the end of the queue
+    private static final Record END = new Record(null);
+
+    private final BMI model;
+    private final File file;
+    private final int queueCapacity;
+    private final boolean compress;
+
+    private final List<Variable> variables = new ArrayList<Variable>();
+    private final BlockingQueue<Record> queue;
+
+    private FileChannel channel = null;
+    private Thread writer = null;
+    //set by the I/O thread when it stops because of an error
+    private volatile Throwable failure = null;
+
+    private long calls = 0;
+    private boolean closed = false;
+
+    /**
+     * Record to the given file, without compression and with a queue of {@value #DEFAULT_QUEUE_CAPACITY} records.
+     */
+    public OutputRecorder(BMI model, File file) {
+        this(model, file, DEFAULT_QUEUE_CAPACITY, false);
+    }
+
+    /**
+     * @param model
+     *            the model to record the output of
+     * @param file
+     *            the file to write, replaced if it exists
+     * @param queueCapacity
+     *            the number of records that may wait for the I/O thread before {@link #record()} blocks
+     * @param compress
+     *            if true, deflate every chunk
+     */
+    public OutputRecorder(BMI model, File file, int queueCapacity, boolean compress) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queue capacity should be at least 1, not " + queueCapacity);
+        }
+        this.model = model;
+        this.file = file;
+        this.queueCapacity = queueCapacity;
+        this.compress = compress;
+        this.queue = new ArrayBlockingQueue<Record>(queueCapacity);
+    }
+
+    /**
+     * Register a variable to record. Must be called before {@link #start()}.
+     *
+     * @param longVarName
+     *            the variable to record
+     * @param interval
+     *            record the variable on the first call to {@link #record()}, and every <code>interval</code> calls after that
+     * @throws BMIModelException
+     *             if the variable is not a float64 variable, or already registered
+     */
+    public void addVariable(String longVarName, int interval) throws BMIModelException {
+        if (channel != null) {
+            throw new IllegalStateException("recorder already started");
+        }
+        if (interval < 1) {
+            throw new BMIModelException("interval should be at least 1, not " + interval);
+        }
+        for (Variable variable : variables) {
+            if (variable.name.equals(longVarName)) {
+                throw new BMIModelException("variable " + longVarName + " already recorded");
+            }
+        }
+        if (!"float64".equals(model.getVarType(longVarName))) {
+            throw new BMIModelException("can only record float64 variables, not " + longVarName);
+        }
+
+        //enough records for a full queue, one being written, and one being filled
+        variables.add(new Variable(longVarName, interval, model.getVarSize(longVarName), queueCapacity + 2));
+    }
+
+    /**
+     * Create the file and start the I/O thread.
+     *
+     * @throws BMIModelException
+     *             if the file cannot be created
+     */
+    public void start() throws BMIModelException {
+        if (channel != null) {
+            throw new IllegalStateException("recorder already started");
+        }
+        try {
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            raf.setLength(0);
+            channel = raf.getChannel();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(compress ? FLAG_COMPRESSED : 0);
+            header.flip();
+            write(header);
+        } catch (IOException e) {
+            throw new BMIModelException("could not create output file " + file, e);
+        }
+
+        writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeRecords();
+            }
+        }, "bmi-output-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private void checkFailure() throws BMIModelException {
+        if (failure != null) {
+            throw new BMIModelException("could not write output file " + file, failure);
+        }
+    }
+
+    /**
+     * Record the variables that are due. Call once per time step, e.g. after every update. Blocks if the queue is full.
+     *
+     * @throws BMIModelException
+     *             if the values cannot be retrieved from the model, or writing the file failed
+     */
+    public void record() throws BMIModelException {
+        if (channel == null || closed) {
+            throw new IllegalStateException("recorder not running");
+        }
+        checkFailure();
+
+        double time = model.getCurrentTime();
+        for (Variable variable : variables) {
+            if (calls % variable.interval != 0) {
+                continue;
+            }
+
+            Record record = variable.pool.poll();
+            if (record == null) {
+                record = new Record(variable);
+            }
+            record.time = time;
+            if (model instanceof BufferedBMI) {
+                ((BufferedBMI) model).getDouble(variable.name, record.values, 0, variable.size);
+            } else {
+                double[] values = model.getDouble(variable.name);
+                System.arraycopy(values, 0, record.values, 0, variable.size);
+            }
+
+            enqueue(record);
+        }
+        calls++;
+    }
+
+    private void enqueue(Record record) throws BMIModelException {
+        try {
+            //wake up regularly, in case the writer died and will never make room
+            while (!queue.offer(record, 100, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BMIModelException("interrupted while waiting for output writer", e);
+        }
+    }
+
+    /**
+     * @return the number of records waiting for the I/O thread.
+     */
+    public int getQueueLength() {
+        return queue.size();
+    }
+
+    /**
+     * Wait until all records have been written, then write the index and close the file.
+     *
+     * @throws BMIModelException
+     *             if writing the file failed
+     */
+    @Override
+    public void close() throws BMIModelException {
+        if (closed || channel == null) {
+            closed = true;
+            return;
+        }
+        closed = true;
+
+        try {
+            try {
+                if (failure == null) {
+                    enqueue(END);
+                }
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BMIModelException("interrupted while waiting for output writer", e);
+            }
+            checkFailure();
+
+            try {
+                writeIndex();
+            } catch (IOException e) {
+                throw new BMIModelException("could not write index of output file " + file, e);
+            }
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                //ignore
+            }
+        }
+    }
+
+    // *** I/O thread ***
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void writeRecords() {
+        ByteBuffer raw = null;
+        byte[] compressed = null;
+        Deflater deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+
+        try {
+            while (true) {
+                Record record = queue.take();
+                if (record == END) {
+                    return;
+                }
+                Variable variable = record.variable;
+
+                int bytes = variable.size * 8;
+                if (raw == null || raw.capacity() < bytes) {
+                    raw = compress ? ByteBuffer.allocate(bytes) : ByteBuffer.allocateDirect(bytes);
+                    raw.order(ByteOrder.LITTLE_ENDIAN);
+                }
+                raw.clear();
+                raw.asDoubleBuffer().put(record.values, 0, variable.size);
+                raw.limit(bytes);
+
+                //values are copied, the record can be reused
+                double time = record.time;
+                variable.pool.offer(record);
+
+                long offset = channel.position();
+                if (compress) {
+                    deflater.reset();
+                    deflater.setInput(raw.array(), 0, bytes);
+                    deflater.finish();
+                    if (compressed == null) {
+                        compressed = new byte[Math.max(1024, bytes / 2)];
+                    }
+                    int length = 0;
+                    while (!deflater.finished()) {
+                        if (length == compressed.length) {
+                            compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                        }
+                        length += deflater.deflate(compressed, length, compressed.length - length);
+                    }
+                    write(ByteBuffer.wrap(compressed, 0, length));
+                    variable.addChunk(time, offset, length);
+                } else {
+                    write(raw);
+                    variable.addChunk(time, offset, bytes);
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            failure = new IOException("output writer interrupted", e);
+        } catch (Throwable e) {
+            //anything else, e.g. running out of memory, would otherwise leave the model thread waiting for room forever
+            failure = e;
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+            if (failure != null) {
+                //unblock the model thread
+                queue.clear();
+            }
+        }
+    }
+
+    private void writeIndex() throws IOException {
+        long indexOffset = channel.position();
+
+        int size = 4;
+        for (Variable variable : variables) {
+            size += 2 + variable.name.getBytes(UTF8).length + 4 + 4 + variable.count * (8 + 8 + 4);
+        }
+        size += FOOTER_SIZE;
+
+        ByteBuffer index = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        index.putInt(variables.size());
+        for (Variable variable : variables) {
+            byte[] name = variable.name.getBytes(UTF8);
+            index.putShort((short) name.length);
+            index.put(name);
+            index.putInt(variable.size);
+            index.putInt(variable.count);
+            for (int i = 0; i < variable.count; i++) {
+                index.putDouble(variable.times[i]);
+                index.putLong(variable.offsets[i]);
+                index.putInt(variable.lengths[i]);
+            }
+        }
+        index.putLong(indexOffset);
+        index.putInt(MAGIC);
+        index.flip();
+        write(index);
+        channel.force(true);
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.probe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import bmi.BMI;
+import bmi.BMIModelException;
+import bmi.BufferedBMI;
+import bmi.IndexPlan;
+import bmi.IndexPlanBMI;
+
+/**
+ * Time series of the values of a variable at a fixed set of indices, captured by a {@link ProbeEBMI}. Every sample consists
+ * of the model time and the values at the indices.
+ *
+ * Samples are stored in chunks of primitive arrays, one row per sample. Unbounded probes add a chunk when the last one is
+ * full, and keep all samples. Probes with a capacity allocate all chunks up front, and keep the last <code>capacity</code>
+ * samples in a ring buffer. Values are gathered straight into the chunks for models implementing {@link IndexPlanBMI} or
+ * {@link BufferedBMI}, so capturing a sample does not allocate.
+ *
+ * Exported values are in the order of the original index array, including duplicate indices.
+ */
+public final class Probe {
+
+    //number of doubles per chunk, 512 KiB
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final String variable;
+    private final int[] indices;
+    private final IndexPlan plan;
+    private final int capacity;
+    //time followed by the values in plan order
+    private final int rowLength;
+    private final int chunkRows;
+    private final List<double[]> chunks = new ArrayList<double[]>();
+
+    //number of samples captured since creation or the last clear
+    private long captured = 0;
+
+    Probe(String variable, int[] indices, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity should not be negative, not " + capacity);
+        }
+        this.variable = variable;
+        this.indices = indices.clone();
+        this.plan = IndexPlan.compile(indices);
+        this.capacity = capacity;
+        this.rowLength = plan.size() + 1;
+        this.chunkRows = Math.max(1, CHUNK_SIZE / rowLength);
+
+        if (capacity > 0) {
+            for (int rows = 0; rows < capacity; rows += chunkRows) {
+                chunks.add(new double[chunkRows * rowLength]);
+            }
+        }
+    }
+
+    public String getVariable() {
+        return variable;
+    }
+
+    /**
+     * @return the indices of the values captured, as given when the probe was added. Should not be modified.
+     */
+    public int[] getIndices() {
+        return indices;
+    }
+
+    IndexPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * @return the maximum number of samples kept, or 0 if all samples are kept.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of samples available, at most the capacity.
+     */
+    public int getSampleCount() {
+        return capacity > 0 ? (int) Math.min(captured, capacity) : (int) captured;
+    }
+
+    /**
+     * @return the number of samples captured, including those no longer kept because they were overwritten.
+     */
+    public long getCapturedCount() {
+        return captured;
+    }
+
+    /**
+     * Forget all samples. Chunks of unbounded probes are released.
+     */
+    public void clear() {
+        captured = 0;
+        if (capacity == 0) {
+            chunks.clear();
+        }
+    }
+
+    /**
+     * Capture the current values of the variable of this probe.
+     */
+    void capture(BMI model, double time) throws BMIModelException {
+        int row;
+        if (capacity > 0) {
+            row = (int) (captured % capacity);
+        } else if (captured < Integer.MAX_VALUE) {
+            row = (int) captured;
+            if (row / chunkRows == chunks.size()) {
+                chunks.add(new double[chunkRows * rowLength]);
+            }
+        } else {
+            throw new BMIModelException("probe of " + variable + " is full, clear it or use a capacity");
+        }
+        double[] chunk = chunks.get(row / chunkRows);
+        int offset = (row % chunkRows) * rowLength;
+
+        if (model instanceof IndexPlanBMI) {
+            ((IndexPlanBMI) model).getDoubleAtIndices(variable, plan, chunk, offset + 1);
+        } else if (model instanceof BufferedBMI) {
+            ((BufferedBMI) model).getDoubleAtIndices(variable, plan.getIndices(), chunk, offset + 1);
+        } else {
+            double[] values = model.getDoubleAtIndices(variable, plan.getIndices());
+            System.arraycopy(values, 0, chunk, offset + 1, plan.size());
+        }
+        chunk[offset] = time;
+        captured++;
+    }
+
+    /**
+     * @return the row of the given sample, counting from the oldest sample kept.
+     */
+    private int row(int sample) {
+        int count = getSampleCount();
+        if (sample < 0 || sample >= count) {
+            throw new IndexOutOfBoundsException("sample " + sample + " of probe with " + count + " samples");
+        }
+        if (capacity > 0) {
+            return (int) ((captured - count + sample) % capacity);
+        }
+        return sample;
+    }
+
+    public double getTime(int sample) {
+        int row = row(sample);
+        return chunks.get(row / chunkRows)[(row % chunkRows) * rowLength];
+    }
+
+    /**
+     * @return the model time of every sample, oldest first.
+     */
+    public double[] getTimes() {
+        double[] result = new double[getSampleCount()];
+        for (int sample = 0; sample < result.length; sample++) {
+            result[sample] = getTime(sample);
+        }
+        return result;
+    }
+
+    /**
+     * Copy the values of a sample into <code>dest</code>, one for every index of the probe.
+     */
+    public void getValues(int sample, double[] dest, int offset) {
+        int row = row(sample);
+        plan.expand(chunks.get(row / chunkRows), (row % chunkRows) * rowLength + 1, dest, offset);
+    }
+
+    /**
+     * @param position
+     *            position of the index in the indices of the probe
+     * @return the value at the given index in every sample, oldest first.
+     */
+    public double[] getSeries(int position) {
+        //values are stored in plan order
+        int column = Arrays.binarySearch(plan.getIndices(), indices[position]) + 1;
+
+        double[] result = new double[getSampleCount()];
+        for (int sample = 0; sample < result.length; sample++) {
+            int row = row(sample);
+            result[sample] = chunks.get(row / chunkRows)[(row % chunkRows) * rowLength + column];
+        }
+        return result;
+    }
+
+    /**
+     * @return the values of all samples, oldest first, with a value for every index of the probe per sample.
+     */
+    public double[] toArray() {
+        int count = getSampleCount();
+        double[] result = new double[count * indices.length];
+        for (int sample = 0; sample < count; sample++) {
+            getValues(sample, result, sample * indices.length);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "Probe [variable=" + variable + ", indices=" + indices.length + ", samples=" + getSampleCount() + "]";
+    }
+
+}
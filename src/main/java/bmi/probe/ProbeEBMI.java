@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.probe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import bmi.BMIModelException;
+import bmi.EBMI;
+import bmi.ForwardingEBMI;
+
+/**
+ * Decorator that captures time series of a model: the values at fixed indices of a variable (e.g. gauge locations) are
+ * sampled after every update. See {@link Probe} for how samples are stored and exported.
+ *
+ * To sample every step, updateUntil() is performed as a sequence of update() calls while there are probes. Use
+ * {@link #sample()} to capture additional samples, e.g. of the initial state. Probes keep their samples when the model is
+ * finalized. Like models, this class is not thread safe.
+ */
+public class ProbeEBMI extends ForwardingEBMI {
+
+    private final List<Probe> probes = new ArrayList<Probe>();
+
+    public ProbeEBMI(EBMI delegate) {
+        super(delegate);
+    }
+
+    /**
+     * Add a probe keeping all samples.
+     */
+    public Probe addProbe(String longVarName, int[] indices) throws BMIModelException {
+        return addProbe(longVarName, indices, 0);
+    }
+
+    /**
+     * Add a probe.
+     *
+     * @param longVarName
+     *            the variable to sample
+     * @param indices
+     *            the indices of the variable to sample, in any order
+     * @param capacity
+     *            the number of samples to keep, or 0 to keep all
+     * @return the new probe
+     * @throws BMIModelException
+     *             if the variable does not exist, or an index is outside of it
+     */
+    public Probe addProbe(String longVarName, int[] indices, int capacity) throws BMIModelException {
+        Probe result;
+        try {
+            result = new Probe(longVarName, indices, capacity);
+        } catch (IllegalArgumentException e) {
+            throw new BMIModelException("cannot probe " + longVarName + ": " + e.getMessage(), e);
+        }
+
+        //fails for unknown variables
+        getVarType(longVarName);
+        int size = getVarSize(longVarName);
+        if (result.getPlan().getMaxIndex() >= size) {
+            throw new BMIModelException("index " + result.getPlan().getMaxIndex() + " outside of variable " + longVarName
+                    + " of size " + size);
+        }
+
+        probes.add(result);
+        return result;
+    }
+
+    public void removeProbe(Probe probe) {
+        probes.remove(probe);
+    }
+
+    public List<Probe> getProbes() {
+        return Collections.unmodifiableList(probes);
+    }
+
+    /**
+     * Capture a sample of every probe, at the current time of the model.
+     */
+    public void sample() throws BMIModelException {
+        if (probes.isEmpty()) {
+            return;
+        }
+        double time = getCurrentTime();
+        for (Probe probe : probes) {
+            probe.capture(getDelegate(), time);
+        }
+    }
+
+    @Override
+    public void update() throws BMIModelException {
+        super.update();
+        sample();
+    }
+
+    @Override
+    public void updateUntil(double time) throws BMIModelException {
+        if (probes.isEmpty()) {
+            super.updateUntil(time);
+            return;
+        }
+        if (time < getCurrentTime() || time > getEndTime()) {
+            throw new BMIModelException("wrong time input: smaller than model time or larger than endTime");
+        }
+        double current = getCurrentTime();
+        while (current < time) {
+            super.update();
+            sample();
+
+            double next = getCurrentTime();
+            if (next <= current) {
+                throw new BMIModelException("model time did not advance beyond " + current);
+            }
+            current = next;
+        }
+    }
+
+    @Override
+    public void updateFrac(double timeFrac) throws BMIModelException {
+        super.updateFrac(timeFrac);
+        sample();
+    }
+
+}
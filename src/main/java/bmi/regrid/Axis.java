@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.regrid;
+
+/**
+ * Monotonic coordinates along one axis of an axis aligned grid, with lookup of intervals and cell bounds.
+ */
+final class Axis {
+
+    private final double[] coordinates;
+    private final boolean ascending;
+    //width of the cell if there is only a single coordinate
+    private final double singleWidth;
+
+    Axis(double[] coordinates, double singleWidth) {
+        if (coordinates.length == 0) {
+            throw new IllegalArgumentException("axis without coordinates");
+        }
+        this.coordinates = coordinates;
+        this.ascending = coordinates.length < 2 || coordinates[1] > coordinates[0];
+        this.singleWidth = singleWidth;
+
+        for (int i = 1; i < coordinates.length; i++) {
+            if (ascending ? coordinates[i] <= coordinates[i - 1] : coordinates[i] >= coordinates[i - 1]) {
+                throw new IllegalArgumentException("axis coordinates are not strictly monotonic");
+            }
+        }
+    }
+
+    int size() {
+        return coordinates.length;
+    }
+
+    /**
+     * @return the index i of the interval [c(i), c(i + 1)] containing the given coordinate, clamped to the first and last
+     *         interval. Always 0 for a single coordinate.
+     */
+    int interval(double value) {
+        int low = 0;
+        int high = coordinates.length - 1;
+
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (ascending ? coordinates[middle] <= value : coordinates[middle] >= value) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the relative position of the given coordinate in interval i, clamped to [0, 1].
+     */
+    double fraction(int interval, double value) {
+        if (coordinates.length < 2) {
+            return 0.0;
+        }
+        double result = (value - coordinates[interval]) / (coordinates[interval + 1] - coordinates[interval]);
+        return Math.max(0.0, Math.min(1.0, result));
+    }
+
+    int nearest(double value) {
+        int interval = interval(value);
+        return fraction(interval, value) > 0.5 ? interval + 1 : interval;
+    }
+
+    private double edge(int index) {
+        int n = coordinates.length;
+        if (n == 1) {
+            return coordinates[0] + (index - 0.5) * singleWidth;
+        } else if (index == 0) {
+            return coordinates[0] - (coordinates[1] - coordinates[0]) / 2;
+        } else if (index == n) {
+            return coordinates[n - 1] + (coordinates[n - 1] - coordinates[n - 2]) / 2;
+        }
+        return (coordinates[index - 1] + coordinates[index]) / 2;
+    }
+
+    double lower(int cell) {
+        return Math.min(edge(cell), edge(cell + 1));
+    }
+
+    double upper(int cell) {
+        return Math.max(edge(cell), edge(cell + 1));
+    }
+
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.regrid;
+
+import java.util.Arrays;
+
+import bmi.BMI;
+import bmi.BMIGridType;
+import bmi.BMIModelException;
+import bmi.GeometryBMI;
+import bmi.GridGeometry;
+
+/**
+ * Immutable description of the grid of a variable, as needed for regridding. Shapes are in row major order: { rows, columns },
+ * and spacing and origin use the same order: { y, x }.
+ *
+ * <ul>
+ * <li>uniform: shape, spacing and origin. Value (row, column) is at (origin + index * spacing).</li>
+ * <li>rectilinear: x coordinates of the columns and y coordinates of the rows.</li>
+ * <li>structured: shape, and x and y coordinates of every value.</li>
+ * <li>unstructured: x and y coordinates of every value.</li>
+ * </ul>
+ *
+ * Descriptions are compared by content, using a precomputed fingerprint to make lookups in a {@link WeightCache} cheap.
+ */
+public final class GridDescription {
+
+    private final BMIGridType type;
+    private final int rows;
+    private final int columns;
+    private final double[] spacing;
+    private final double[] origin;
+    private final double[] x;
+    private final double[] y;
+    private final long fingerprint;
+
+    private GridDescription(BMIGridType type, int rows, int columns, double[] spacing, double[] origin, double[] x, double[] y) {
+        this.type = type;
+        this.rows = rows;
+        this.columns = columns;
+        this.spacing = spacing;
+        this.origin = origin;
+        this.x = x;
+        this.y = y;
+
+        long hash = 1125899906842597L;
+        hash = mix(hash, type.ordinal());
+        hash = mix(hash, rows);
+        hash = mix(hash, columns);
+        for (double[] array : new double[][] { spacing, origin, x, y }) {
+            if (array != null) {
+                hash = mix(hash, array.length);
+                for (double value : array) {
+                    hash = mix(hash, Double.doubleToLongBits(value));
+                }
+            }
+        }
+        this.fingerprint = hash;
+    }
+
+    private static long mix(long hash, long value) {
+        hash ^= value;
+        hash *= 0x100000001b3L;
+        return hash ^ (hash >>> 29);
+    }
+
+    private static double[] checkLength(double[] coordinates, int length, String name) {
+        if (coordinates.length != length) {
+            throw new IllegalArgumentException("expected " + length + " " + name + " coordinates, got " + coordinates.length);
+        }
+        return coordinates.clone();
+    }
+
+    /**
+     * @param shape
+     *            { rows, columns }, or { columns } for a single row
+     * @param spacing
+     *            { dy, dx }, or { dx }
+     * @param origin
+     *            { y, x } of the first value, or { x }
+     */
+    public static GridDescription uniform(int[] shape, double[] spacing, double[] origin) {
+        if (shape.length == 1) {
+            return new GridDescription(BMIGridType.UNIFORM, 1, shape[0], new double[] { 1.0, spacing[0] },
+                    new double[] { 0.0, origin[0] }, null, null);
+        }
+        if (shape.length != 2 || spacing.length != 2 || origin.length != 2) {
+            throw new IllegalArgumentException("only one and two dimensional grids are supported");
+        }
+        return new GridDescription(BMIGridType.UNIFORM, shape[0], shape[1], spacing.clone(), origin.clone(), null, null);
+    }
+
+    /**
+     * @param x
+     *            the x coordinate of every column, in increasing or decreasing order
+     * @param y
+     *            the y coordinate of every row, in increasing or decreasing order
+     */
+    public static GridDescription rectilinear(double[] x, double[] y) {
+        return new GridDescription(BMIGridType.RECTILINEAR, y.length, x.length, null, null, x.clone(), y.clone());
+    }
+
+    /**
+     * @param shape
+     *            { rows, columns }
+     * @param x
+     *            the x coordinate of every value, row major
+     * @param y
+     *            the y coordinate of every value, row major
+     */
+    public static GridDescription structured(int[] shape, double[] x, double[] y) {
+        if (shape.length != 2) {
+            throw new IllegalArgumentException("only two dimensional structured grids are supported");
+        }
+        int size = shape[0] * shape[1];
+        return new GridDescription(BMIGridType.STRUCTURED, shape[0], shape[1], null, null, checkLength(x, size, "x"),
+                checkLength(y, size, "y"));
+    }
+
+    /**
+     * @param x
+     *            the x coordinate of every value
+     * @param y
+     *            the y coordinate of every value
+     */
+    public static GridDescription unstructured(double[] x, double[] y) {
+        return new GridDescription(BMIGridType.UNSTRUCTURED, 1, x.length, null, null, x.clone(), checkLength(y, x.length, "y"));
+    }
+
+    /**
+     * Describe the grid of a variable, using the grid functions of the model.
+     *
+     * @throws BMIModelException
+     *             if the model does not provide the required information, or the grid is not supported
+     */
+    public static GridDescription of(BMI model, String longVarName) throws BMIModelException {
+        BMIGridType type = model.getGridType(longVarName);
+
+        try {
+            switch (type) {
+            case UNIFORM:
+                return uniform(model.getGridShape(longVarName), model.getGridSpacing(longVarName),
+                        model.getGridOrigin(longVarName));
+            case RECTILINEAR:
+                return rectilinear(model.getGridX(longVarName), model.getGridY(longVarName));
+            case STRUCTURED:
+                return structured(model.getGridShape(longVarName), model.getGridX(longVarName), model.getGridY(longVarName));
+            default:
+                if (model instanceof GeometryBMI) {
+                    //the coordinates of every value, which for a mesh differ from its nodes
+                    GridGeometry geometry = ((GeometryBMI) model).getGridGeometry(longVarName);
+                    return unstructured(geometry.streamX().toArray(), geometry.streamY().toArray());
+                }
+                return unstructured(model.getGridX(longVarName), model.getGridY(longVarName));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new BMIModelException("unsupported grid for variable " + longVarName + ": " + e.getMessage(), e);
+        }
+    }
+
+    public BMIGridType getType() {
+        return type;
+    }
+
+    /**
+     * @return true if the grid is uniform or rectilinear, so its coordinates are given by an x and a y axis.
+     */
+    public boolean isAxisAligned() {
+        return type == BMIGridType.UNIFORM || type == BMIGridType.RECTILINEAR;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the number of values on this grid.
+     */
+    public int getSize() {
+        return rows * columns;
+    }
+
+    /**
+     * @return the x axis (columns) of an axis aligned grid.
+     */
+    Axis getColumnAxis() {
+        if (type == BMIGridType.RECTILINEAR) {
+            return new Axis(x, 0.0);
+        }
+        double[] result = new double[columns];
+        for (int i = 0; i < columns; i++) {
+            result[i] = origin[1] + i * spacing[1];
+        }
+        return new Axis(result, spacing[1]);
+    }
+
+    /**
+     * @return the y axis (rows) of an axis aligned grid.
+     */
+    Axis getRowAxis() {
+        if (type == BMIGridType.RECTILINEAR) {
+            return new Axis(y, 0.0);
+        }
+        double[] result = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            result[i] = origin[0] + i * spacing[0];
+        }
+        return new Axis(result, spacing[0]);
+    }
+
+    /**
+     * @return the x coordinate of the value at the given (row major) index.
+     */
+    public double getX(int index) {
+        switch (type) {
+        case UNIFORM:
+            return origin[1] + (index % columns) * spacing[1];
+        case RECTILINEAR:
+            return x[index % columns];
+        default:
+            return x[index];
+        }
+    }
+
+    /**
+     * @return the y coordinate of the value at the given (row major) index.
+     */
+    public double getY(int index) {
+        switch (type) {
+        case UNIFORM:
+            return origin[0] + (index / columns) * spacing[0];
+        case RECTILINEAR:
+            return y[index / columns];
+        default:
+            return y[index];
+        }
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof GridDescription)) {
+            return false;
+        }
+        GridDescription other = (GridDescription) object;
+        return fingerprint == other.fingerprint && type == other.type && rows == other.rows && columns == other.columns
+                && Arrays.equals(spacing, other.spacing) && Arrays.equals(origin, other.origin) && Arrays.equals(x, other.x)
+                && Arrays.equals(y, other.y);
+    }
+
+    @Override
+    public String toString() {
+        return "GridDescription [type=" + type + ", rows=" + rows + ", columns=" + columns + "]";
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.regrid;
+
+/**
+ * Method used to compute regridding weights.
+ */
+public enum RegridMethod {
+
+    /**
+     * Every target value is the value of the nearest source point. Supports all grid types.
+     */
+    NEAREST,
+
+    /**
+     * Every target value is interpolated from the four surrounding source points. Targets outside the source grid use the
+     * nearest edge. Requires an axis aligned (uniform or rectilinear) source grid.
+     */
+    BILINEAR,
+
+    /**
+     * First order conservative: every target cell is the area weighted sum of the source cells it overlaps, divided by its own
+     * area. Parts of target cells not covered by the source grid count as 0, so totals are preserved. Cell bounds lie halfway
+     * between points. Requires axis aligned source and target grids.
+     */
+    CONSERVATIVE;
+
+}
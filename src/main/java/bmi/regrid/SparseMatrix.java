@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.regrid;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Immutable sparse matrix in compressed sparse row (CSR) format, used to store regridding weights. Row <code>r</code> has its
+ * non zero entries at positions <code>rowStart[r]</code> up to <code>rowStart[r + 1]</code> of the column index and value
+ * arrays.
+ */
+public final class SparseMatrix {
+
+    //minimum number of non zero entries per task of a parallel multiplication
+    private static final int PARALLEL_THRESHOLD = 1 << 15;
+
+    private final int rows;
+    private final int columns;
+    private final int[] rowStart;
+    private final int[] columnIndices;
+    private final double[] values;
+
+    /**
+     * Create a matrix from its CSR arrays. The arrays are used directly, and should not be modified afterwards.
+     *
+     * @param rows
+     *            number of rows
+     * @param columns
+     *            number of columns
+     * @param rowStart
+     *            position of the first entry of every row, with one extra element holding the number of entries
+     * @param columnIndices
+     *            column of every entry
+     * @param values
+     *            value of every entry
+     */
+    public SparseMatrix(int rows, int columns, int[] rowStart, int[] columnIndices, double[] values) {
+        if (rowStart.length != rows + 1 || rowStart[0] != 0) {
+            throw new IllegalArgumentException("row start array should have " + (rows + 1) + " elements, starting at 0");
+        }
+        int entries = rowStart[rows];
+        if (columnIndices.length < entries || values.length < entries) {
+            throw new IllegalArgumentException("matrix has " + entries + " entries, but only " + columnIndices.length
+                    + " column indices and " + values.length + " values");
+        }
+        for (int i = 0; i < entries; i++) {
+            if (columnIndices[i] < 0 || columnIndices[i] >= columns) {
+                throw new IllegalArgumentException("column index " + columnIndices[i] + " out of range");
+            }
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.rowStart = rowStart;
+        this.columnIndices = columnIndices;
+        this.values = values;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the number of stored (non zero) entries.
+     */
+    public int getEntries() {
+        return rowStart[rows];
+    }
+
+    public int getRowStart(int row) {
+        return rowStart[row];
+    }
+
+    public int getColumnIndex(int entry) {
+        return columnIndices[entry];
+    }
+
+    public double getValue(int entry) {
+        return values[entry];
+    }
+
+    /**
+     * @return the sum of the values in every row. For regridding weights this is 1 for fully covered targets.
+     */
+    public double[] getRowSums() {
+        double[] result = new double[rows];
+        for (int row = 0; row < rows; row++) {
+            for (int i = rowStart[row]; i < rowStart[row + 1]; i++) {
+                result[row] += values[i];
+            }
+        }
+        return result;
+    }
+
+    private void multiply(double[] x, double[] y, int firstRow, int lastRow) {
+        for (int row = firstRow; row < lastRow; row++) {
+            double sum = 0.0;
+            for (int i = rowStart[row]; i < rowStart[row + 1]; i++) {
+                sum += values[i] * x[columnIndices[i]];
+            }
+            y[row] = sum;
+        }
+    }
+
+    private void checkVectors(double[] x, double[] y) {
+        if (x.length < columns || y.length < rows) {
+            throw new IllegalArgumentException("vectors of length " + x.length + " and " + y.length + " do not fit a " + rows
+                    + "x" + columns + " matrix");
+        }
+    }
+
+    /**
+     * Compute <code>y = A x</code> in the calling thread. Rows without entries are set to 0.
+     */
+    public void multiply(double[] x, double[] y) {
+        checkVectors(x, y);
+        multiply(x, y, 0, rows);
+    }
+
+    /**
+     * Compute <code>y = A x</code> in parallel. Rows are split into blocks with about the same number of entries, so rows
+     * with many entries (e.g. conservative weights for a coarse target) are spread evenly.
+     */
+    public void multiply(double[] x, double[] y, ForkJoinPool pool) {
+        checkVectors(x, y);
+
+        if (getEntries() <= PARALLEL_THRESHOLD) {
+            multiply(x, y, 0, rows);
+            return;
+        }
+
+        pool.invoke(new RowTask(x, y, 0, rows));
+    }
+
+    private final class RowTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] x;
+        private final double[] y;
+        private final int firstRow;
+        private final int lastRow;
+
+        RowTask(double[] x, double[] y, int firstRow, int lastRow) {
+            this.x = x;
+            this.y = y;
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+        }
+
+        @Override
+        protected void compute() {
+            int entries = rowStart[lastRow] - rowStart[firstRow];
+            if (entries <= PARALLEL_THRESHOLD || lastRow - firstRow < 2) {
+                multiply(x, y, firstRow, lastRow);
+                return;
+            }
+
+            //split at the row containing the middle entry
+            int middleEntry = rowStart[firstRow] + entries / 2;
+            int split = Arrays.binarySearch(rowStart, firstRow, lastRow, middleEntry);
+            if (split < 0) {
+                split = -split - 1;
+            }
+            split = Math.max(firstRow + 1, Math.min(lastRow - 1, split));
+
+            invokeAll(new RowTask(x, y, firstRow, split), new RowTask(x, y, split, lastRow));
+        }
+    }
+
+}
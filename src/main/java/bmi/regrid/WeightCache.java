@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.regrid;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import bmi.BMIModelException;
+
+/**
+ * Cache of regridding weights, keyed by the source and target grid and the method. Grids are compared by content, so weights
+ * are built only once per pair of grids, even if the grids are described again (e.g. by another instance of the same model).
+ * Safe to use from multiple threads: concurrent requests for the same weights wait for a single build.
+ */
+public class WeightCache {
+
+    private static final WeightCache DEFAULT = new WeightCache();
+
+    private static final class Key {
+
+        private final GridDescription source;
+        private final GridDescription target;
+        private final RegridMethod method;
+
+        Key(GridDescription source, GridDescription target, RegridMethod method) {
+            this.source = source;
+            this.target = target;
+            this.method = method;
+        }
+
+        @Override
+        public int hashCode() {
+            return (source.hashCode() * 31 + target.hashCode()) * 31 + method.ordinal();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) object;
+            return method == other.method && source.equals(other.source) && target.equals(other.target);
+        }
+    }
+
+    //used to get checked exceptions out of computeIfAbsent
+    private static final class BuildException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        BuildException(BMIModelException cause) {
+            super(cause);
+        }
+    }
+
+    private final ConcurrentHashMap<Key, SparseMatrix> weights = new ConcurrentHashMap<Key, SparseMatrix>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @return a cache shared by everything in this JVM.
+     */
+    public static WeightCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Get the weights to regrid from the source to the target grid, building them if needed.
+     *
+     * @throws BMIModelException
+     *             if the method does not support the given grids
+     */
+    public SparseMatrix getWeights(GridDescription source, GridDescription target, RegridMethod method)
+            throws BMIModelException {
+        Key key = new Key(source, target, method);
+
+        SparseMatrix result = weights.get(key);
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+
+        try {
+            return weights.computeIfAbsent(key, new Function<Key, SparseMatrix>() {
+                @Override
+                public SparseMatrix apply(Key key) {
+                    misses.increment();
+                    try {
+                        return Weights.build(key.source, key.target, key.method);
+                    } catch (BMIModelException e) {
+                        throw new BuildException(e);
+                    }
+                }
+            });
+        } catch (BuildException e) {
+            throw (BMIModelException) e.getCause();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of times weights were built.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return weights.size();
+    }
+
+    public void clear() {
+        weights.clear();
+    }
+
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.regrid;
+
+import java.util.Arrays;
+
+import bmi.BMIModelException;
+
+/**
+ * Computes regridding weights. The result is a matrix with a row for every target value and a column for every source value,
+ * so <code>target = weights * source</code>. Building weights is expensive, use a {@link WeightCache} to build them only
+ * once per pair of grids.
+ */
+public final class Weights {
+
+    private Weights() {
+        //utility class
+    }
+
+    /**
+     * Collects the entries of a sparse matrix row by row.
+     */
+    private static final class RowBuilder {
+
+        private final int[] rowStart;
+        private int[] columns = new int[16];
+        private double[] values = new double[16];
+        private int rows = 0;
+        private int entries = 0;
+
+        RowBuilder(int rows) {
+            this.rowStart = new int[rows + 1];
+        }
+
+        void add(int column, double value) {
+            if (value == 0.0) {
+                return;
+            }
+            if (entries == columns.length) {
+                columns = Arrays.copyOf(columns, entries * 2);
+                values = Arrays.copyOf(values, entries * 2);
+            }
+            columns[entries] = column;
+            values[entries] = value;
+            entries++;
+        }
+
+        void endRow() {
+            rows++;
+            rowStart[rows] = entries;
+        }
+
+        SparseMatrix build(int columnCount) {
+            return new SparseMatrix(rows, columnCount, rowStart, Arrays.copyOf(columns, entries), Arrays.copyOf(values, entries));
+        }
+    }
+
+    /**
+     * Uniform grid of buckets over a set of scattered points, for nearest neighbour lookups.
+     */
+    private static final class PointBuckets {
+
+        private final GridDescription grid;
+        private final double minX;
+        private final double minY;
+        private final double bucketWidth;
+        private final double bucketHeight;
+        private final int bucketColumns;
+        private final int bucketRows;
+        private final int[] bucketStart;
+        private final int[] points;
+
+        PointBuckets(GridDescription grid) {
+            this.grid = grid;
+            int size = grid.getSize();
+
+            double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < size; i++) {
+                minX = Math.min(minX, grid.getX(i));
+                maxX = Math.max(maxX, grid.getX(i));
+                minY = Math.min(minY, grid.getY(i));
+                maxY = Math.max(maxY, grid.getY(i));
+            }
+
+            //about one point per bucket
+            int perAxis = Math.max(1, (int) Math.sqrt(size));
+            this.minX = minX;
+            this.minY = minY;
+            this.bucketColumns = perAxis;
+            this.bucketRows = perAxis;
+            this.bucketWidth = Math.max((maxX - minX) / perAxis, Double.MIN_NORMAL);
+            this.bucketHeight = Math.max((maxY - minY) / perAxis, Double.MIN_NORMAL);
+
+            //counting sort of the points by bucket
+            int[] bucketOfPoint = new int[size];
+            bucketStart = new int[bucketColumns * bucketRows + 1];
+            for (int i = 0; i < size; i++) {
+                bucketOfPoint[i] = bucket(column(grid.getX(i)), row(grid.getY(i)));
+                bucketStart[bucketOfPoint[i] + 1]++;
+            }
+            for (int i = 0; i < bucketColumns * bucketRows; i++) {
+                bucketStart[i + 1] += bucketStart[i];
+            }
+            points = new int[size];
+            int[] next = Arrays.copyOf(bucketStart, bucketStart.length - 1);
+            for (int i = 0; i < size; i++) {
+                points[next[bucketOfPoint[i]]++] = i;
+            }
+        }
+
+        private int column(double x) {
+            return Math.max(0, Math.min(bucketColumns - 1, (int) ((x - minX) / bucketWidth)));
+        }
+
+        private int row(double y) {
+            return Math.max(0, Math.min(bucketRows - 1, (int) ((y - minY) / bucketHeight)));
+        }
+
+        private int bucket(int column, int row) {
+            return row * bucketColumns + column;
+        }
+
+        int nearest(double x, double y) {
+            int column = column(x);
+            int row = row(y);
+            int best = -1;
+            double bestDistance = Double.POSITIVE_INFINITY;
+
+            //search rings of buckets around the bucket of the point, until no closer point can exist
+            for (int ring = 0; ring <= Math.max(bucketColumns, bucketRows); ring++) {
+                for (int r = row - ring; r <= row + ring; r++) {
+                    if (r < 0 || r >= bucketRows) {
+                        continue;
+                    }
+                    for (int c = column - ring; c <= column + ring; c++) {
+                        if (c < 0 || c >= bucketColumns || (Math.abs(r - row) != ring && Math.abs(c - column) != ring)) {
+                            continue;
+                        }
+                        int bucket = bucket(c, r);
+                        for (int i = bucketStart[bucket]; i < bucketStart[bucket + 1]; i++) {
+                            double dx = grid.getX(points[i]) - x;
+                            double dy = grid.getY(points[i]) - y;
+                            double distance = dx * dx + dy * dy;
+                            if (distance < bestDistance || (distance == bestDistance && points[i] < best)) {
+                                bestDistance = distance;
+                                best = points[i];
+                            }
+                        }
+                    }
+                }
+                double reach = ring * Math.min(bucketWidth, bucketHeight);
+                if (best >= 0 && bestDistance <= reach * reach) {
+                    break;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Compute the weights to regrid values from the source to the target grid.
+     *
+     * @throws BMIModelException
+     *             if the method does not support the given grids
+     */
+    public static SparseMatrix build(GridDescription source, GridDescription target, RegridMethod method)
+            throws BMIModelException {
+        try {
+            switch (method) {
+            case NEAREST:
+                return nearest(source, target);
+            case BILINEAR:
+                return bilinear(source, target);
+            default:
+                return conservative(source, target);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new BMIModelException("cannot compute " + method + " weights: " + e.getMessage(), e);
+        }
+    }
+
+    private static SparseMatrix nearest(GridDescription source, GridDescription target) {
+        RowBuilder result = new RowBuilder(target.getSize());
+
+        if (source.isAxisAligned()) {
+            Axis columns = source.getColumnAxis();
+            Axis rows = source.getRowAxis();
+            for (int i = 0; i < target.getSize(); i++) {
+                int column = columns.nearest(target.getX(i));
+                int row = rows.nearest(target.getY(i));
+                result.add(row * source.getColumns() + column, 1.0);
+                result.endRow();
+            }
+        } else {
+            PointBuckets buckets = new PointBuckets(source);
+            for (int i = 0; i < target.getSize(); i++) {
+                result.add(buckets.nearest(target.getX(i), target.getY(i)), 1.0);
+                result.endRow();
+            }
+        }
+
+        return result.build(source.getSize());
+    }
+
+    private static SparseMatrix bilinear(GridDescription source, GridDescription target) {
+        if (!source.isAxisAligned()) {
+            throw new IllegalArgumentException("source grid should be uniform or rectilinear, not " + source.getType());
+        }
+        Axis columns = source.getColumnAxis();
+        Axis rows = source.getRowAxis();
+        int width = source.getColumns();
+        RowBuilder result = new RowBuilder(target.getSize());
+
+        for (int i = 0; i < target.getSize(); i++) {
+            double x = target.getX(i);
+            double y = target.getY(i);
+            int column = columns.interval(x);
+            int row = rows.interval(y);
+            double fx = columns.fraction(column, x);
+            double fy = rows.fraction(row, y);
+
+            int corner = row * width + column;
+            result.add(corner, (1 - fx) * (1 - fy));
+            if (fx > 0.0) {
+                result.add(corner + 1, fx * (1 - fy));
+            }
+            if (fy > 0.0) {
+                result.add(corner + width, (1 - fx) * fy);
+            }
+            if (fx > 0.0 && fy > 0.0) {
+                result.add(corner + width + 1, fx * fy);
+            }
+            result.endRow();
+        }
+
+        return result.build(source.getSize());
+    }
+
+    /**
+     * For every target cell along an axis, the source cells it overlaps (in cells[i]) and the lengths of the overlaps (in
+     * lengths[i]).
+     */
+    private static void overlaps(Axis source, Axis target, int[][] cells, double[][] lengths) {
+        int[] foundCells = new int[source.size()];
+        double[] foundLengths = new double[source.size()];
+
+        for (int t = 0; t < target.size(); t++) {
+            double lower = target.lower(t);
+            double upper = target.upper(t);
+            int found = 0;
+
+            for (int s = 0; s < source.size(); s++) {
+                double overlap = Math.min(upper, source.upper(s)) - Math.max(lower, source.lower(s));
+                if (overlap > 0.0) {
+                    foundCells[found] = s;
+                    foundLengths[found] = overlap;
+                    found++;
+                }
+            }
+            cells[t] = Arrays.copyOf(foundCells, found);
+            lengths[t] = Arrays.copyOf(foundLengths, found);
+        }
+    }
+
+    private static SparseMatrix conservative(GridDescription source, GridDescription target) {
+        if (!source.isAxisAligned() || !target.isAxisAligned()) {
+            throw new IllegalArgumentException("source and target grids should be uniform or rectilinear");
+        }
+        Axis sourceColumns = source.getColumnAxis();
+        Axis sourceRows = source.getRowAxis();
+        Axis targetColumns = target.getColumnAxis();
+        Axis targetRows = target.getRowAxis();
+
+        int[][] columnCells = new int[target.getColumns()][];
+        double[][] columnOverlaps = new double[target.getColumns()][];
+        overlaps(sourceColumns, targetColumns, columnCells, columnOverlaps);
+        int[][] rowCells = new int[target.getRows()][];
+        double[][] rowOverlaps = new double[target.getRows()][];
+        overlaps(sourceRows, targetRows, rowCells, rowOverlaps);
+
+        int width = source.getColumns();
+        RowBuilder result = new RowBuilder(target.getSize());
+
+        for (int row = 0; row < target.getRows(); row++) {
+            double height = targetRows.upper(row) - targetRows.lower(row);
+            for (int column = 0; column < target.getColumns(); column++) {
+                double area = height * (targetColumns.upper(column) - targetColumns.lower(column));
+                if (area <= 0.0) {
+                    throw new IllegalArgumentException("target cell without area");
+                }
+                for (int r = 0; r < rowCells[row].length; r++) {
+                    for (int c = 0; c < columnCells[column].length; c++) {
+                        result.add(rowCells[row][r] * width + columnCells[column][c],
+                                rowOverlaps[row][r] * columnOverlaps[column][c] / area);
+                    }
+                }
+                result.endRow();
+            }
+        }
+
+        return result.build(source.getSize());
+    }
+
+}
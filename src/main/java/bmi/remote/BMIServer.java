@@ -0,0 +1,385 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.remote;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import bmi.BMIModelException;
+import bmi.BufferedBMI;
+import bmi.EBMI;
+
+/**
+ * Hosts an EBMI model behind a socket, for use with {@link RemoteEBMI}. Requests are framed as described in
+ * {@link FrameBuffer}: a small binary header, followed by the arguments, with arrays sent as raw little endian blocks.
+ *
+ * Every connection is served by its own thread, which handles requests in the order they arrive and sends a response for
+ * each. Clients may send new requests before earlier responses have arrived (pipelining). Calls to the model are serialized,
+ * so the model is only ever called by one thread at a time, even with multiple connections.
+ *
+ * Any bound server channel can be used. The {@link #open(EBMI, SocketAddress)} convenience method opens a TCP server socket.
+ */
+public class BMIServer implements Closeable {
+
+    private static final AtomicInteger NEXT_CONNECTION = new AtomicInteger();
+
+    private final EBMI model;
+    private final ServerSocketChannel channel;
+
+    private final Set<SocketChannel> connections = ConcurrentHashMap.<SocketChannel> newKeySet();
+
+    private Thread acceptor = null;
+    private volatile boolean closed = false;
+
+    /**
+     * @param model
+     *            the model to host
+     * @param channel
+     *            a bound server channel to accept connections on
+     */
+    public BMIServer(EBMI model, ServerSocketChannel channel) {
+        this.model = model;
+        this.channel = channel;
+    }
+
+    /**
+     * Host a model on a new TCP server socket, and start accepting connections.
+     *
+     * @param model
+     *            the model to host
+     * @param address
+     *            the address to bind to. Use port 0 to pick a free port, and {@link #getLocalAddress()} to find it.
+     * @return the started server
+     * @throws IOException
+     *             if the socket cannot be opened
+     */
+    public static BMIServer open(EBMI model, SocketAddress address) throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            channel.bind(address);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        BMIServer result = new BMIServer(model, channel);
+        result.start();
+        return result;
+    }
+
+    public EBMI getModel() {
+        return model;
+    }
+
+    public SocketAddress getLocalAddress() throws IOException {
+        return channel.getLocalAddress();
+    }
+
+    /**
+     * Start accepting connections in a background thread.
+     */
+    public synchronized void start() {
+        if (acceptor != null) {
+            return;
+        }
+        acceptor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                accept();
+            }
+        }, "bmi-server-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Stop accepting connections, and close all open connections. Does not finalize the model.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        channel.close();
+        for (SocketChannel connection : connections) {
+            connection.close();
+        }
+    }
+
+    private void accept() {
+        while (!closed) {
+            final SocketChannel connection;
+            try {
+                connection = channel.accept();
+            } catch (IOException e) {
+                //closed, or the channel is broken. Either way, no more connections.
+                return;
+            }
+
+            if (connection.supportedOptions().contains(StandardSocketOptions.TCP_NODELAY)) {
+                try {
+                    connection.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                } catch (IOException e) {
+                    //not fatal, only slower
+                }
+            }
+
+            connections.add(connection);
+            if (closed) {
+                close(connection);
+                return;
+            }
+
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    serve(connection);
+                }
+            }, "bmi-server-connection-" + NEXT_CONNECTION.getAndIncrement());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void close(SocketChannel connection) {
+        connections.remove(connection);
+        try {
+            connection.close();
+        } catch (IOException e) {
+            //ignore
+        }
+    }
+
+    private void serve(SocketChannel connection) {
+        FrameBuffer in = new FrameBuffer();
+        FrameBuffer out = new FrameBuffer();
+
+        try {
+            while (in.readFrom(connection)) {
+                handle(in, out);
+                out.writeTo(connection);
+            }
+        } catch (AsynchronousCloseException e) {
+            //server closed
+        } catch (IOException e) {
+            //client went away or sent garbage, drop the connection
+        } finally {
+            close(connection);
+        }
+    }
+
+    private void handle(FrameBuffer in, FrameBuffer out) throws IOException {
+        Opcode opcode = Opcode.fromCode(in.getCode());
+        if (opcode == null) {
+            throw new IOException("unknown opcode " + in.getCode());
+        }
+
+        out.begin(in.getRequestId(), FrameBuffer.STATUS_OK);
+        try {
+            synchronized (model) {
+                if (!handleDirect(opcode, in, out)) {
+                    Kind[] kinds = opcode.getArguments();
+                    Object[] arguments = new Object[kinds.length];
+                    for (int i = 0; i < kinds.length; i++) {
+                        arguments[i] = in.get(kinds[i]);
+                    }
+                    out.put(opcode.getResult(), invoke(opcode, arguments));
+                }
+            }
+        } catch (BMIModelException | RuntimeException e) {
+            out.begin(in.getRequestId(), FrameBuffer.STATUS_ERROR);
+            out.putString(e.getMessage() == null ? e.toString() : e.getMessage());
+        }
+    }
+
+    /**
+     * Copy values of whole variables directly between the frame and a buffered model, without intermediate arrays.
+     *
+     * @return true if the call was handled
+     */
+    private boolean handleDirect(Opcode opcode, FrameBuffer in, FrameBuffer out) throws BMIModelException, IOException {
+        if (!(model instanceof BufferedBMI)) {
+            return false;
+        }
+        BufferedBMI buffered = (BufferedBMI) model;
+
+        switch (opcode) {
+        case GET_DOUBLE: {
+            String name = in.getString();
+            buffered.getDouble(name, out.reserveDoubles(model.getVarSize(name)));
+            return true;
+        }
+        case GET_FLOAT: {
+            String name = in.getString();
+            buffered.getFloat(name, out.reserveFloats(model.getVarSize(name)));
+            return true;
+        }
+        case SET_DOUBLE: {
+            String name = in.getString();
+            DoubleBuffer values = in.viewDoubles();
+            if (values == null || values.remaining() != model.getVarSize(name)) {
+                model.setDouble(name, values == null ? null : toArray(values));
+            } else {
+                buffered.setDouble(name, values);
+            }
+            return true;
+        }
+        case SET_FLOAT: {
+            String name = in.getString();
+            FloatBuffer values = in.viewFloats();
+            if (values == null || values.remaining() != model.getVarSize(name)) {
+                model.setFloat(name, values == null ? null : toArray(values));
+            } else {
+                buffered.setFloat(name, values);
+            }
+            return true;
+        }
+        default:
+            return false;
+        }
+    }
+
+    private static double[] toArray(DoubleBuffer values) {
+        double[] result = new double[values.remaining()];
+        values.get(result);
+        return result;
+    }
+
+    private static float[] toArray(FloatBuffer values) {
+        float[] result = new float[values.remaining()];
+        values.get(result);
+        return result;
+    }
+
+    private Object invoke(Opcode opcode, Object[] arguments) throws BMIModelException {
+        switch (opcode) {
+        case INITIALIZE:
+            model.initialize((String) arguments[0]);
+            return null;
+        case UPDATE:
+            model.update();
+            return null;
+        case UPDATE_UNTIL:
+            model.updateUntil((Double) arguments[0]);
+            return null;
+        case UPDATE_FRAC:
+            model.updateFrac((Double) arguments[0]);
+            return null;
+        case FINALIZE_MODEL:
+            model.finalizeModel();
+            return null;
+        case GET_COMPONENT_NAME:
+            return model.getComponentName();
+        case GET_INPUT_VAR_NAMES:
+            return model.getInputVarNames();
+        case GET_OUTPUT_VAR_NAMES:
+            return model.getOutputVarNames();
+        case GET_VAR_TYPE:
+            return model.getVarType((String) arguments[0]);
+        case GET_VAR_UNITS:
+            return model.getVarUnits((String) arguments[0]);
+        case GET_VAR_RANK:
+            return model.getVarRank((String) arguments[0]);
+        case GET_VAR_SIZE:
+            return model.getVarSize((String) arguments[0]);
+        case GET_VAR_NBYTES:
+            return model.getVarNbytes((String) arguments[0]);
+        case GET_START_TIME:
+            return model.getStartTime();
+        case GET_CURRENT_TIME:
+            return model.getCurrentTime();
+        case GET_END_TIME:
+            return model.getEndTime();
+        case GET_TIME_STEP:
+            return model.getTimeStep();
+        case GET_TIME_UNITS:
+            return model.getTimeUnits();
+        case GET_DOUBLE:
+            return model.getDouble((String) arguments[0]);
+        case GET_DOUBLE_AT_INDICES:
+            return model.getDoubleAtIndices((String) arguments[0], (int[]) arguments[1]);
+        case SET_DOUBLE:
+            model.setDouble((String) arguments[0], (double[]) arguments[1]);
+            return null;
+        case SET_DOUBLE_AT_INDICES:
+            model.setDoubleAtIndices((String) arguments[0], (int[]) arguments[1], (double[]) arguments[2]);
+            return null;
+        case GET_FLOAT:
+            return model.getFloat((String) arguments[0]);
+        case GET_FLOAT_AT_INDICES:
+            return model.getFloatAtIndices((String) arguments[0], (int[]) arguments[1]);
+        case SET_FLOAT:
+            model.setFloat((String) arguments[0], (float[]) arguments[1]);
+            return null;
+        case SET_FLOAT_AT_INDICES:
+            model.setFloatAtIndices((String) arguments[0], (int[]) arguments[1], (float[]) arguments[2]);
+            return null;
+        case GET_GRID_TYPE:
+            return model.getGridType((String) arguments[0]);
+        case GET_GRID_SHAPE:
+            return model.getGridShape((String) arguments[0]);
+        case GET_GRID_SPACING:
+            return model.getGridSpacing((String) arguments[0]);
+        case GET_GRID_ORIGIN:
+            return model.getGridOrigin((String) arguments[0]);
+        case GET_GRID_X:
+            return model.getGridX((String) arguments[0]);
+        case GET_GRID_Y:
+            return model.getGridY((String) arguments[0]);
+        case GET_GRID_Z:
+            return model.getGridZ((String) arguments[0]);
+        case GET_GRID_CONNECTIVITY:
+            return model.getGridConnectivity((String) arguments[0]);
+        case GET_GRID_OFFSET:
+            return model.getGridOffset((String) arguments[0]);
+        case INITIALIZE_CONFIG:
+            model.initializeConfig((String) arguments[0]);
+            return null;
+        case INITIALIZE_MODEL:
+            model.initializeModel();
+            return null;
+        case SET_START_TIME:
+            model.setStartTime((Double) arguments[0]);
+            return null;
+        case SET_END_TIME:
+            model.setEndTime((Double) arguments[0]);
+            return null;
+        case GET_ATTRIBUTE_NAMES:
+            return model.getAttributeNames();
+        case GET_ATTRIBUTE_VALUE:
+            return model.getAttributeValue((String) arguments[0]);
+        case SET_ATTRIBUTE_VALUE:
+            model.setAttributeValue((String) arguments[0], (String) arguments[1]);
+            return null;
+        case SAVE_STATE:
+            model.saveState((String) arguments[0]);
+            return null;
+        case LOAD_STATE:
+            model.loadState((String) arguments[0]);
+            return null;
+        default:
+            throw new BMIModelException("unsupported call " + opcode);
+        }
+    }
+
+}
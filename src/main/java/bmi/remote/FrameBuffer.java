@@ -0,0 +1,408 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.remote;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import bmi.BMIGridType;
+
+/**
+ * Growable direct buffer holding a single frame of the remote protocol. All values are little endian.
+ *
+ * A frame consists of a header and a payload:
+ *
+ * <pre>
+ * int32  length of the rest of the frame, in bytes
+ * int32  request id, chosen by the client and echoed in the response
+ * int8   opcode (request) or status (response)
+ * ...    payload
+ * </pre>
+ *
+ * The payload of a request holds the arguments of the call, the payload of a successful response its result, and the payload
+ * of an error response the error message. Values are encoded as follows:
+ *
+ * <pre>
+ * INT, GRID_TYPE   int32
+ * DOUBLE           float64
+ * STRING           int32 number of bytes (-1 for null), followed by that many bytes of UTF-8
+ * STRINGS          int32 number of strings (-1 for null), followed by that many STRING values
+ * INTS             int32 number of elements (-1 for null), followed by that many raw int32 values
+ * DOUBLES          int32 number of elements (-1 for null), followed by that many raw float64 values
+ * FLOATS           int32 number of elements (-1 for null), followed by that many raw float32 values
+ * </pre>
+ *
+ * Arrays are copied in bulk between the buffer and Java arrays, without any per element encoding.
+ */
+final class FrameBuffer {
+
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_ERROR = 1;
+
+    //length, request id and opcode or status
+    static final int HEADER_SIZE = 9;
+
+    static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private ByteBuffer buffer;
+
+    private int requestId;
+    private byte code;
+
+    FrameBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    FrameBuffer(int capacity) {
+        buffer = ByteBuffer.allocateDirect(Math.max(capacity, HEADER_SIZE)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    int getRequestId() {
+        return requestId;
+    }
+
+    byte getCode() {
+        return code;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Make room for at least the given number of bytes after the current position, keeping the content written so far.
+     */
+    private void ensure(long bytes) throws IOException {
+        if (bytes <= buffer.remaining()) {
+            return;
+        }
+        long needed = buffer.position() + bytes;
+        if (needed > Integer.MAX_VALUE - 8) {
+            throw new IOException("frame too large: " + needed + " bytes");
+        }
+        int capacity = (int) Math.max(needed, Math.min((long) buffer.capacity() * 2, Integer.MAX_VALUE - 8));
+
+        ByteBuffer larger = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+    }
+
+    // *** writing ***
+
+    /**
+     * Start a new frame, discarding the current content.
+     */
+    void begin(int requestId, byte code) {
+        this.requestId = requestId;
+        this.code = code;
+        buffer.clear();
+        buffer.putInt(0);
+        buffer.putInt(requestId);
+        buffer.put(code);
+    }
+
+    void putInt(int value) throws IOException {
+        ensure(4);
+        buffer.putInt(value);
+    }
+
+    void putDouble(double value) throws IOException {
+        ensure(8);
+        buffer.putDouble(value);
+    }
+
+    void putString(String value) throws IOException {
+        if (value == null) {
+            putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensure(4 + bytes.length);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    void putStrings(String[] values) throws IOException {
+        if (values == null) {
+            putInt(-1);
+            return;
+        }
+        putInt(values.length);
+        for (String value : values) {
+            putString(value);
+        }
+    }
+
+    void putInts(int[] values) throws IOException {
+        if (values == null) {
+            putInt(-1);
+            return;
+        }
+        ensure(4 + 4L * values.length);
+        buffer.putInt(values.length);
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + 4 * values.length);
+    }
+
+    void putDoubles(double[] values) throws IOException {
+        if (values == null) {
+            putInt(-1);
+            return;
+        }
+        reserveDoubles(values.length).put(values);
+    }
+
+    void putFloats(float[] values) throws IOException {
+        if (values == null) {
+            putInt(-1);
+            return;
+        }
+        reserveFloats(values.length).put(values);
+    }
+
+    /**
+     * Write the length of an array of doubles, and reserve room for its elements.
+     *
+     * @return a buffer of <code>length</code> elements to write the values into directly
+     */
+    DoubleBuffer reserveDoubles(int length) throws IOException {
+        return reserve(length, 8).asDoubleBuffer();
+    }
+
+    FloatBuffer reserveFloats(int length) throws IOException {
+        return reserve(length, 4).asFloatBuffer();
+    }
+
+    private ByteBuffer reserve(int length, int elementSize) throws IOException {
+        long bytes = (long) length * elementSize;
+        ensure(4 + bytes);
+        buffer.putInt(length);
+
+        //slices are always big endian, so set the order again
+        ByteBuffer slice = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        slice.limit((int) bytes);
+        buffer.position(buffer.position() + (int) bytes);
+        return slice;
+    }
+
+    void put(Kind kind, Object value) throws IOException {
+        switch (kind) {
+        case VOID:
+            break;
+        case INT:
+            putInt((Integer) value);
+            break;
+        case DOUBLE:
+            putDouble((Double) value);
+            break;
+        case STRING:
+            putString((String) value);
+            break;
+        case STRINGS:
+            putStrings((String[]) value);
+            break;
+        case INTS:
+            putInts((int[]) value);
+            break;
+        case DOUBLES:
+            putDoubles((double[]) value);
+            break;
+        case FLOATS:
+            putFloats((float[]) value);
+            break;
+        case GRID_TYPE:
+            putInt(value == null ? -1 : ((BMIGridType) value).getValue());
+            break;
+        }
+    }
+
+    /**
+     * Fill in the length of the frame and write it to the given channel.
+     */
+    void writeTo(WritableByteChannel channel) throws IOException {
+        buffer.putInt(0, buffer.position() - 4);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // *** reading ***
+
+    /**
+     * Read the next frame from the given channel, and position the buffer at the start of the payload.
+     *
+     * @return false if the channel was closed before the first byte of a frame was read
+     * @throws IOException
+     *             if the channel was closed halfway a frame, or the frame is invalid
+     */
+    boolean readFrom(ReadableByteChannel channel) throws IOException {
+        buffer.clear();
+        buffer.limit(4);
+        if (!readFully(channel, true)) {
+            return false;
+        }
+
+        int length = buffer.getInt(0);
+        if (length < HEADER_SIZE - 4) {
+            throw new IOException("invalid frame length: " + length);
+        }
+        buffer.limit(buffer.capacity());
+        buffer.position(4);
+        ensure(length);
+        buffer.limit(4 + length);
+        readFully(channel, false);
+
+        buffer.position(4);
+        requestId = buffer.getInt();
+        code = buffer.get();
+        return true;
+    }
+
+    private boolean readFully(ReadableByteChannel channel, boolean atStart) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (atStart && buffer.position() == 0) {
+                    return false;
+                }
+                throw new EOFException("connection closed halfway a frame");
+            }
+        }
+        return true;
+    }
+
+    int getInt() {
+        return buffer.getInt();
+    }
+
+    double getDouble() {
+        return buffer.getDouble();
+    }
+
+    String getString() {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    String[] getStrings() {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String[] result = new String[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = getString();
+        }
+        return result;
+    }
+
+    int[] getInts() {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        int[] result = new int[length];
+        buffer.asIntBuffer().get(result);
+        buffer.position(buffer.position() + 4 * length);
+        return result;
+    }
+
+    double[] getDoubles() {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        double[] result = new double[length];
+        buffer.asDoubleBuffer().get(result);
+        buffer.position(buffer.position() + 8 * length);
+        return result;
+    }
+
+    float[] getFloats() {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        float[] result = new float[length];
+        buffer.asFloatBuffer().get(result);
+        buffer.position(buffer.position() + 4 * length);
+        return result;
+    }
+
+    /**
+     * Read the length of an array of doubles, and return a view of its elements.
+     *
+     * @return the elements, or null if the array is null
+     */
+    DoubleBuffer viewDoubles() {
+        ByteBuffer view = view(8);
+        return view == null ? null : view.asDoubleBuffer();
+    }
+
+    FloatBuffer viewFloats() {
+        ByteBuffer view = view(4);
+        return view == null ? null : view.asFloatBuffer();
+    }
+
+    private ByteBuffer view(int elementSize) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        ByteBuffer slice = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        slice.limit(length * elementSize);
+        buffer.position(buffer.position() + length * elementSize);
+        return slice;
+    }
+
+    Object get(Kind kind) {
+        switch (kind) {
+        case INT:
+            return getInt();
+        case DOUBLE:
+            return getDouble();
+        case STRING:
+            return getString();
+        case STRINGS:
+            return getStrings();
+        case INTS:
+            return getInts();
+        case DOUBLES:
+            return getDoubles();
+        case FLOATS:
+            return getFloats();
+        case GRID_TYPE:
+            int value = getInt();
+            return value < 0 ? null : BMIGridType.findByValue(value);
+        default:
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.remote;
+
+import static bmi.remote.Kind.DOUBLE;
+import static bmi.remote.Kind.DOUBLES;
+import static bmi.remote.Kind.FLOATS;
+import static bmi.remote.Kind.GRID_TYPE;
+import static bmi.remote.Kind.INT;
+import static bmi.remote.Kind.INTS;
+import static bmi.remote.Kind.STRING;
+import static bmi.remote.Kind.STRINGS;
+import static bmi.remote.Kind.VOID;
+
+/**
+ * Remote calls, one for each function of the EBMI interface. The code of a call on the wire is its ordinal, so new calls
+ * should only ever be added at the end.
+ */
+enum Opcode {
+
+    INITIALIZE(VOID, STRING),
+    UPDATE(VOID),
+    UPDATE_UNTIL(VOID, DOUBLE),
+    UPDATE_FRAC(VOID, DOUBLE),
+    FINALIZE_MODEL(VOID),
+
+    GET_COMPONENT_NAME(STRING),
+    GET_INPUT_VAR_NAMES(STRINGS),
+    GET_OUTPUT_VAR_NAMES(STRINGS),
+
+    GET_VAR_TYPE(STRING, STRING),
+    GET_VAR_UNITS(STRING, STRING),
+    GET_VAR_RANK(INT, STRING),
+    GET_VAR_SIZE(INT, STRING),
+    GET_VAR_NBYTES(INT, STRING),
+
+    GET_START_TIME(DOUBLE),
+    GET_CURRENT_TIME(DOUBLE),
+    GET_END_TIME(DOUBLE),
+    GET_TIME_STEP(DOUBLE),
+    GET_TIME_UNITS(STRING),
+
+    GET_DOUBLE(DOUBLES, STRING),
+    GET_DOUBLE_AT_INDICES(DOUBLES, STRING, INTS),
+    SET_DOUBLE(VOID, STRING, DOUBLES),
+    SET_DOUBLE_AT_INDICES(VOID, STRING, INTS, DOUBLES),
+
+    GET_FLOAT(FLOATS, STRING),
+    GET_FLOAT_AT_INDICES(FLOATS, STRING, INTS),
+    SET_FLOAT(VOID, STRING, FLOATS),
+    SET_FLOAT_AT_INDICES(VOID, STRING, INTS, FLOATS),
+
+    GET_GRID_TYPE(GRID_TYPE, STRING),
+    GET_GRID_SHAPE(INTS, STRING),
+    GET_GRID_SPACING(DOUBLES, STRING),
+    GET_GRID_ORIGIN(DOUBLES, STRING),
+    GET_GRID_X(DOUBLES, STRING),
+    GET_GRID_Y(DOUBLES, STRING),
+    GET_GRID_Z(DOUBLES, STRING),
+    GET_GRID_CONNECTIVITY(INTS, STRING),
+    GET_GRID_OFFSET(INTS, STRING),
+
+    INITIALIZE_CONFIG(VOID, STRING),
+    INITIALIZE_MODEL(VOID),
+    SET_START_TIME(VOID, DOUBLE),
+    SET_END_TIME(VOID, DOUBLE),
+    GET_ATTRIBUTE_NAMES(STRINGS),
+    GET_ATTRIBUTE_VALUE(STRING, STRING),
+    SET_ATTRIBUTE_VALUE(VOID, STRING, STRING),
+    SAVE_STATE(VOID, STRING),
+    LOAD_STATE(VOID, STRING);
+
+    private static final Opcode[] VALUES = values();
+
+    private final Kind result;
+    private final Kind[] arguments;
+
+    private Opcode(Kind result, Kind... arguments) {
+        this.result = result;
+        this.arguments = arguments;
+    }
+
+    Kind getResult() {
+        return result;
+    }
+
+    Kind[] getArguments() {
+        return arguments;
+    }
+
+    byte getCode() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * @return the call with the given code, or null if the code is unknown.
+     */
+    static Opcode fromCode(byte code) {
+        int index = code & 0xff;
+        return index < VALUES.length ? VALUES[index] : null;
+    }
+
+}
@@ -0,0 +1,542 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.remote;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.Buffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import bmi.AsyncBMI;
+import bmi.BMIGridType;
+import bmi.BMIModelException;
+import bmi.EBMI;
+
+/**
+ * Client for a model hosted by a {@link BMIServer}. Every EBMI function is a remote call.
+ *
+ * Calls are pipelined: a request is sent as soon as it is made, and a background thread matches the responses to the
+ * requests by their id. The blocking EBMI functions wait for their response, but the asynchronous variants (e.g.
+ * {@link #updateAsync()} and {@link #getDoubleAsync(String, double[], int)}) return immediately, so multiple requests can be
+ * in flight at once. The server handles requests in the order they were sent, so the values returned by a get request sent
+ * after an update reflect that update.
+ *
+ * The client may be used by multiple threads. {@link #finalizeModel()} finalizes the remote model, but leaves the
+ * connection open; use {@link #close()} to close it.
+ */
+public class RemoteEBMI implements EBMI, AsyncBMI, Closeable {
+
+    /**
+     * A request waiting for its response.
+     */
+    private static class Call extends CompletableFuture<Object> {
+
+        private final Kind result;
+
+        //optional destination for the values of a DOUBLES or FLOATS result
+        private final Object dest;
+        private final int offset;
+
+        Call(Kind result) {
+            this(result, null, 0);
+        }
+
+        Call(Kind result, Object dest, int offset) {
+            this.result = result;
+            this.dest = dest;
+            this.offset = offset;
+        }
+
+        void checkDestination() throws BMIModelException {
+            int length;
+            if (dest instanceof double[]) {
+                length = ((double[]) dest).length;
+            } else if (dest instanceof float[]) {
+                length = ((float[]) dest).length;
+            } else {
+                return;
+            }
+            if (offset < 0 || offset > length) {
+                throw new BMIModelException("offset " + offset + " outside of destination of length " + length);
+            }
+        }
+
+        void decode(FrameBuffer in) {
+            if (dest instanceof double[]) {
+                DoubleBuffer values = in.viewDoubles();
+                if (fits(values, ((double[]) dest).length)) {
+                    values.get((double[]) dest, offset, values.remaining());
+                    complete(dest);
+                }
+            } else if (dest instanceof float[]) {
+                FloatBuffer values = in.viewFloats();
+                if (fits(values, ((float[]) dest).length)) {
+                    values.get((float[]) dest, offset, values.remaining());
+                    complete(dest);
+                }
+            } else {
+                complete(in.get(result));
+            }
+        }
+
+        private boolean fits(Buffer values, int length) {
+            if (values != null && values.remaining() <= length - offset) {
+                return true;
+            }
+            completeExceptionally(new BMIModelException("destination too small for "
+                    + (values == null ? "null" : values.remaining()) + " values at offset " + offset));
+            return false;
+        }
+    }
+
+    private final SocketChannel channel;
+
+    //guards writing requests, and the request ids
+    private final FrameBuffer out = new FrameBuffer();
+    private int nextRequestId = 0;
+
+    private final ConcurrentMap<Integer, Call> calls = new ConcurrentHashMap<Integer, Call>();
+
+    private final Thread reader;
+
+    //set once the connection has failed or was closed
+    private volatile BMIModelException failure = null;
+
+    /**
+     * @param channel
+     *            a connected channel to a {@link BMIServer}, in blocking mode
+     */
+    public RemoteEBMI(SocketChannel channel) {
+        this.channel = channel;
+
+        reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                readResponses();
+            }
+        }, "bmi-remote-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Connect to a server over TCP.
+     *
+     * @param address
+     *            the address of the server
+     * @return a client for the model hosted by the server
+     * @throws IOException
+     *             if the connection cannot be made
+     */
+    public static RemoteEBMI connect(SocketAddress address) throws IOException {
+        SocketChannel channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        return new RemoteEBMI(channel);
+    }
+
+    /**
+     * Close the connection. Requests that are still pending fail. Does not finalize the remote model.
+     */
+    @Override
+    public void close() throws IOException {
+        fail(new BMIModelException("connection closed"));
+        channel.close();
+    }
+
+    /**
+     * @return the number of requests sent for which no response has arrived yet.
+     */
+    public int getPendingCount() {
+        return calls.size();
+    }
+
+    private void fail(BMIModelException cause) {
+        if (failure == null) {
+            failure = cause;
+        }
+        for (Integer id : calls.keySet()) {
+            Call call = calls.remove(id);
+            if (call != null) {
+                call.completeExceptionally(failure);
+            }
+        }
+    }
+
+    private void readResponses() {
+        FrameBuffer in = new FrameBuffer();
+        try {
+            while (in.readFrom(channel)) {
+                Call call = calls.remove(in.getRequestId());
+                if (call == null) {
+                    throw new IOException("response to unknown request " + in.getRequestId());
+                }
+                if (in.getCode() == FrameBuffer.STATUS_OK) {
+                    try {
+                        call.decode(in);
+                    } catch (RuntimeException e) {
+                        //the frame has been read completely, so only this call is affected
+                        call.completeExceptionally(new BMIModelException("could not decode response", e));
+                    }
+                } else {
+                    call.completeExceptionally(new BMIModelException(in.getString()));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            fail(new BMIModelException("connection failed", e));
+        } finally {
+            //no more responses will arrive, whatever the reason
+            fail(new BMIModelException("connection closed"));
+            try {
+                channel.close();
+            } catch (IOException e) {
+                //ignore
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Call call, Opcode opcode, Object... arguments) throws BMIModelException {
+        //a bad destination would otherwise only show up on the reader thread
+        call.checkDestination();
+
+        synchronized (out) {
+            if (failure != null) {
+                throw new BMIModelException(failure.getMessage(), failure);
+            }
+            int id = nextRequestId++;
+            calls.put(id, call);
+
+            try {
+                out.begin(id, opcode.getCode());
+                Kind[] kinds = opcode.getArguments();
+                for (int i = 0; i < kinds.length; i++) {
+                    out.put(kinds[i], arguments[i]);
+                }
+                out.writeTo(channel);
+            } catch (IOException e) {
+                calls.remove(id);
+                BMIModelException cause = new BMIModelException("cannot send request", e);
+                fail(cause);
+                throw cause;
+            }
+
+            //the connection may have failed while registering the call
+            if (failure != null && calls.remove(id) != null) {
+                call.completeExceptionally(failure);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        CompletableFuture<T> result = (CompletableFuture<T>) (CompletableFuture<?>) call;
+        return result;
+    }
+
+    private Object call(Opcode opcode, Object... arguments) throws BMIModelException {
+        return await(this.<Object> submit(new Call(opcode.getResult()), opcode, arguments));
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws BMIModelException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof BMIModelException) {
+                throw (BMIModelException) e.getCause();
+            }
+            throw new BMIModelException("remote call failed", e.getCause());
+        } catch (CancellationException e) {
+            throw new BMIModelException("remote call cancelled", e);
+        }
+    }
+
+    // *** asynchronous calls ***
+
+    @Override
+    public CompletableFuture<Void> updateAsync() throws BMIModelException {
+        return submit(new Call(Kind.VOID), Opcode.UPDATE);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateUntilAsync(double time) throws BMIModelException {
+        return submit(new Call(Kind.VOID), Opcode.UPDATE_UNTIL, time);
+    }
+
+    public CompletableFuture<double[]> getDoubleAsync(String longVarName) throws BMIModelException {
+        return submit(new Call(Kind.DOUBLES), Opcode.GET_DOUBLE, longVarName);
+    }
+
+    /**
+     * Get all values of a variable, copying them straight from the response into the given array.
+     *
+     * @param longVarName
+     *            the variable to get
+     * @param dest
+     *            the array to copy the values into
+     * @param offset
+     *            the first element of <code>dest</code> to write to
+     * @return a future that completes with <code>dest</code> once the values have been copied
+     * @throws BMIModelException
+     *             if the request cannot be sent
+     */
+    public CompletableFuture<double[]> getDoubleAsync(String longVarName, double[] dest, int offset)
+            throws BMIModelException {
+        return submit(new Call(Kind.DOUBLES, dest, offset), Opcode.GET_DOUBLE, longVarName);
+    }
+
+    public CompletableFuture<Void> setDoubleAsync(String longVarName, double[] src) throws BMIModelException {
+        return submit(new Call(Kind.VOID), Opcode.SET_DOUBLE, longVarName, src);
+    }
+
+    public CompletableFuture<float[]> getFloatAsync(String longVarName, float[] dest, int offset) throws BMIModelException {
+        return submit(new Call(Kind.FLOATS, dest, offset), Opcode.GET_FLOAT, longVarName);
+    }
+
+    public CompletableFuture<Void> setFloatAsync(String longVarName, float[] src) throws BMIModelException {
+        return submit(new Call(Kind.VOID), Opcode.SET_FLOAT, longVarName, src);
+    }
+
+    // *** BMI ***
+
+    @Override
+    public void initialize(String file) throws BMIModelException {
+        call(Opcode.INITIALIZE, file);
+    }
+
+    @Override
+    public void update() throws BMIModelException {
+        call(Opcode.UPDATE);
+    }
+
+    @Override
+    public void updateUntil(double time) throws BMIModelException {
+        call(Opcode.UPDATE_UNTIL, time);
+    }
+
+    @Override
+    public void updateFrac(double timeFrac) throws BMIModelException {
+        call(Opcode.UPDATE_FRAC, timeFrac);
+    }
+
+    @Override
+    public void finalizeModel() throws BMIModelException {
+        call(Opcode.FINALIZE_MODEL);
+    }
+
+    @Override
+    public String getComponentName() throws BMIModelException {
+        return (String) call(Opcode.GET_COMPONENT_NAME);
+    }
+
+    @Override
+    public String[] getInputVarNames() throws BMIModelException {
+        return (String[]) call(Opcode.GET_INPUT_VAR_NAMES);
+    }
+
+    @Override
+    public String[] getOutputVarNames() throws BMIModelException {
+        return (String[]) call(Opcode.GET_OUTPUT_VAR_NAMES);
+    }
+
+    @Override
+    public String getVarType(String longVarName) throws BMIModelException {
+        return (String) call(Opcode.GET_VAR_TYPE, longVarName);
+    }
+
+    @Override
+    public String getVarUnits(String longVarName) throws BMIModelException {
+        return (String) call(Opcode.GET_VAR_UNITS, longVarName);
+    }
+
+    @Override
+    public int getVarRank(String longVarName) throws BMIModelException {
+        return (Integer) call(Opcode.GET_VAR_RANK, longVarName);
+    }
+
+    @Override
+    public int getVarSize(String longVarName) throws BMIModelException {
+        return (Integer) call(Opcode.GET_VAR_SIZE, longVarName);
+    }
+
+    @Override
+    public int getVarNbytes(String longVarName) throws BMIModelException {
+        return (Integer) call(Opcode.GET_VAR_NBYTES, longVarName);
+    }
+
+    @Override
+    public double getStartTime() throws BMIModelException {
+        return (Double) call(Opcode.GET_START_TIME);
+    }
+
+    @Override
+    public double getCurrentTime() throws BMIModelException {
+        return (Double) call(Opcode.GET_CURRENT_TIME);
+    }
+
+    @Override
+    public double getEndTime() throws BMIModelException {
+        return (Double) call(Opcode.GET_END_TIME);
+    }
+
+    @Override
+    public double getTimeStep() throws BMIModelException {
+        return (Double) call(Opcode.GET_TIME_STEP);
+    }
+
+    @Override
+    public String getTimeUnits() throws BMIModelException {
+        return (String) call(Opcode.GET_TIME_UNITS);
+    }
+
+    @Override
+    public double[] getDouble(String longVarName) throws BMIModelException {
+        return (double[]) call(Opcode.GET_DOUBLE, longVarName);
+    }
+
+    @Override
+    public double[] getDoubleAtIndices(String longVarName, int[] indices) throws BMIModelException {
+        return (double[]) call(Opcode.GET_DOUBLE_AT_INDICES, longVarName, indices);
+    }
+
+    @Override
+    public void setDouble(String longVarName, double[] src) throws BMIModelException {
+        call(Opcode.SET_DOUBLE, longVarName, src);
+    }
+
+    @Override
+    public void setDoubleAtIndices(String longVarName, int[] indices, double[] src) throws BMIModelException {
+        call(Opcode.SET_DOUBLE_AT_INDICES, longVarName, indices, src);
+    }
+
+    @Override
+    public float[] getFloat(String longVarName) throws BMIModelException {
+        return (float[]) call(Opcode.GET_FLOAT, longVarName);
+    }
+
+    @Override
+    public float[] getFloatAtIndices(String longVarName, int[] indices) throws BMIModelException {
+        return (float[]) call(Opcode.GET_FLOAT_AT_INDICES, longVarName, indices);
+    }
+
+    @Override
+    public void setFloat(String longVarName, float[] src) throws BMIModelException {
+        call(Opcode.SET_FLOAT, longVarName, src);
+    }
+
+    @Override
+    public void setFloatAtIndices(String longVarName, int[] indices, float[] src) throws BMIModelException {
+        call(Opcode.SET_FLOAT_AT_INDICES, longVarName, indices, src);
+    }
+
+    @Override
+    public BMIGridType getGridType(String longVarName) throws BMIModelException {
+        return (BMIGridType) call(Opcode.GET_GRID_TYPE, longVarName);
+    }
+
+    @Override
+    public int[] getGridShape(String longVarName) throws BMIModelException {
+        return (int[]) call(Opcode.GET_GRID_SHAPE, longVarName);
+    }
+
+    @Override
+    public double[] getGridSpacing(String longVarName) throws BMIModelException {
+        return (double[]) call(Opcode.GET_GRID_SPACING, longVarName);
+    }
+
+    @Override
+    public double[] getGridOrigin(String longVarName) throws BMIModelException {
+        return (double[]) call(Opcode.GET_GRID_ORIGIN, longVarName);
+    }
+
+    @Override
+    public double[] getGridX(String longVarName) throws BMIModelException {
+        return (double[]) call(Opcode.GET_GRID_X, longVarName);
+    }
+
+    @Override
+    public double[] getGridY(String longVarName) throws BMIModelException {
+        return (double[]) call(Opcode.GET_GRID_Y, longVarName);
+    }
+
+    @Override
+    public double[] getGridZ(String longVarName) throws BMIModelException {
+        return (double[]) call(Opcode.GET_GRID_Z, longVarName);
+    }
+
+    @Override
+    public int[] getGridConnectivity(String longVarName) throws BMIModelException {
+        return (int[]) call(Opcode.GET_GRID_CONNECTIVITY, longVarName);
+    }
+
+    @Override
+    public int[] getGridOffset(String longVarName) throws BMIModelException {
+        return (int[]) call(Opcode.GET_GRID_OFFSET, longVarName);
+    }
+
+    // *** EBMI ***
+
+    @Override
+    public void initializeConfig(String configFile) throws BMIModelException {
+        call(Opcode.INITIALIZE_CONFIG, configFile);
+    }
+
+    @Override
+    public void initializeModel() throws BMIModelException {
+        call(Opcode.INITIALIZE_MODEL);
+    }
+
+    @Override
+    public void setStartTime(double startTime) throws BMIModelException {
+        call(Opcode.SET_START_TIME, startTime);
+    }
+
+    @Override
+    public void setEndTime(double endTime) throws BMIModelException {
+        call(Opcode.SET_END_TIME, endTime);
+    }
+
+    @Override
+    public String[] getAttributeNames() throws BMIModelException {
+        return (String[]) call(Opcode.GET_ATTRIBUTE_NAMES);
+    }
+
+    @Override
+    public String getAttributeValue(String attributeName) throws BMIModelException {
+        return (String) call(Opcode.GET_ATTRIBUTE_VALUE, attributeName);
+    }
+
+    @Override
+    public void setAttributeValue(String attributeName, String attributeValue) throws BMIModelException {
+        call(Opcode.SET_ATTRIBUTE_VALUE, attributeName, attributeValue);
+    }
+
+    @Override
+    public void saveState(String destinationDirectory) throws BMIModelException {
+        call(Opcode.SAVE_STATE, destinationDirectory);
+    }
+
+    @Override
+    public void loadState(String sourceDirectory) throws BMIModelException {
+        call(Opcode.LOAD_STATE, sourceDirectory);
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.spatial;
+
+import bmi.BMIGridType;
+import bmi.GridGeometry;
+
+/**
+ * Index of a uniform or rectilinear grid. The nearest value is found per axis: by arithmetic on the origin and spacing for
+ * uniform grids, by binary search on the coordinates of the axis for rectilinear grids. Nearest neighbours are found by
+ * growing a window of rows and columns around the nearest value, until no value outside of it can be closer.
+ */
+final class AxisIndex extends SpatialIndex {
+
+    //coordinates of the columns and rows, in increasing or decreasing order
+    private final double[] columns;
+    private final double[] rows;
+    private final boolean uniform;
+
+    AxisIndex(GridGeometry geometry) {
+        super(geometry);
+        this.columns = geometry.getGridX();
+        this.rows = geometry.getGridY();
+        this.uniform = geometry.getType() == BMIGridType.UNIFORM;
+    }
+
+    private static int arithmetic(double[] axis, double value) {
+        if (axis.length == 1) {
+            return 0;
+        }
+        long result = Math.round((value - axis[0]) / (axis[1] - axis[0]));
+        return (int) Math.max(0, Math.min(axis.length - 1, result));
+    }
+
+    private static int binarySearch(double[] axis, double value) {
+        int n = axis.length;
+        if (n == 1) {
+            return 0;
+        }
+        boolean ascending = axis[1] > axis[0];
+        if (ascending ? value <= axis[0] : value >= axis[0]) {
+            return 0;
+        }
+        if (ascending ? value >= axis[n - 1] : value <= axis[n - 1]) {
+            return n - 1;
+        }
+        //axis[low] and axis[high] are on either side of the value
+        int low = 0;
+        int high = n - 1;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (ascending ? axis[middle] <= value : axis[middle] >= value) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return Math.abs(value - axis[low]) <= Math.abs(axis[high] - value) ? low : high;
+    }
+
+    private int nearest(double[] axis, double value) {
+        return uniform ? arithmetic(axis, value) : binarySearch(axis, value);
+    }
+
+    @Override
+    public int nearest(double x, double y) {
+        //distance is separable, so the nearest row and column together give the nearest value
+        return nearest(rows, y) * columns.length + nearest(columns, x);
+    }
+
+    @Override
+    int nearest(double x, double y, int[] index, double[] squared) {
+        return nearest(x, y);
+    }
+
+    private static double gap(double[] axis, int position, double value) {
+        return position < 0 || position >= axis.length ? Double.POSITIVE_INFINITY : Math.abs(axis[position] - value);
+    }
+
+    private int offerRow(double x, double y, int row, int first, int last, int k, int[] indices, double[] squared, int count) {
+        double dy = rows[row] - y;
+        for (int column = first; column <= last; column++) {
+            double dx = columns[column] - x;
+            count = offer(indices, squared, count, k, row * columns.length + column, dx * dx + dy * dy);
+        }
+        return count;
+    }
+
+    private int offerColumn(double x, double y, int column, int first, int last, int k, int[] indices, double[] squared,
+            int count) {
+        double dx = columns[column] - x;
+        for (int row = first; row <= last; row++) {
+            double dy = rows[row] - y;
+            count = offer(indices, squared, count, k, row * columns.length + column, dx * dx + dy * dy);
+        }
+        return count;
+    }
+
+    @Override
+    int search(double x, double y, int k, int[] indices, double[] squared) {
+        int column = nearest(columns, x);
+        int row = nearest(rows, y);
+        int firstColumn = column;
+        int lastColumn = column;
+        int firstRow = row;
+        int lastRow = row;
+        int count = offerRow(x, y, row, column, column, k, indices, squared, 0);
+
+        while (true) {
+            //axes are monotonic, so every value outside of the window is at least this far away along one of the axes
+            double left = gap(columns, firstColumn - 1, x);
+            double right = gap(columns, lastColumn + 1, x);
+            double below = gap(rows, firstRow - 1, y);
+            double above = gap(rows, lastRow + 1, y);
+            double bound = Math.min(Math.min(left, right), Math.min(below, above));
+
+            if (bound == Double.POSITIVE_INFINITY || bound * bound >= worst(squared, count, k)) {
+                return count;
+            }
+
+            //grow the window on the nearest side
+            if (bound == left) {
+                firstColumn--;
+                count = offerColumn(x, y, firstColumn, firstRow, lastRow, k, indices, squared, count);
+            } else if (bound == right) {
+                lastColumn++;
+                count = offerColumn(x, y, lastColumn, firstRow, lastRow, k, indices, squared, count);
+            } else if (bound == below) {
+                firstRow--;
+                count = offerRow(x, y, firstRow, firstColumn, lastColumn, k, indices, squared, count);
+            } else {
+                lastRow++;
+                count = offerRow(x, y, lastRow, firstColumn, lastColumn, k, indices, squared, count);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.spatial;
+
+import bmi.GridGeometry;
+
+/**
+ * Packed two dimensional KD-tree over the coordinates of all values of a grid. The tree is implicit: the points of a range
+ * are split at their median, which is stored in the middle of the range, with the points of the two subtrees on either
+ * side. Levels alternate between splitting on x and on y. Small ranges are searched linearly. The tree only consists of three
+ * arrays, with the coordinates in tree order so a search reads memory mostly sequentially.
+ */
+final class KdTree extends SpatialIndex {
+
+    //ranges of at most this many points are not split
+    private static final int LEAF_SIZE = 8;
+
+    //index of the value at each position of the tree
+    private final int[] order;
+    private final double[] xs;
+    private final double[] ys;
+
+    KdTree(GridGeometry geometry) {
+        super(geometry);
+        int size = geometry.getSize();
+        order = new int[size];
+        xs = new double[size];
+        ys = new double[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            xs[i] = geometry.getX(i);
+            ys[i] = geometry.getY(i);
+        }
+        build(0, size, true);
+    }
+
+    private void build(int low, int high, boolean splitX) {
+        if (high - low <= LEAF_SIZE) {
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        select(low, high - 1, middle, splitX ? xs : ys);
+        build(low, middle, !splitX);
+        build(middle + 1, high, !splitX);
+    }
+
+    /**
+     * Partially sort positions first up to and including last on the given key, so that position nth holds the element it
+     * would hold if fully sorted, with smaller or equal keys before and larger or equal keys after it.
+     */
+    private void select(int first, int last, int nth, double[] keys) {
+        while (last > first) {
+            double pivot = keys[(first + last) >>> 1];
+            int i = first;
+            int j = last;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (nth <= j) {
+                last = j;
+            } else if (nth >= i) {
+                first = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int index = order[i];
+        order[i] = order[j];
+        order[j] = index;
+        double x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        double y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+    }
+
+    private int offer(double x, double y, int position, int k, int[] indices, double[] squared, int count) {
+        double dx = xs[position] - x;
+        double dy = ys[position] - y;
+        return offer(indices, squared, count, k, order[position], dx * dx + dy * dy);
+    }
+
+    private int search(int low, int high, boolean splitX, double x, double y, int k, int[] indices, double[] squared,
+            int count) {
+        if (high - low <= LEAF_SIZE) {
+            for (int position = low; position < high; position++) {
+                count = offer(x, y, position, k, indices, squared, count);
+            }
+            return count;
+        }
+        int middle = (low + high) >>> 1;
+        count = offer(x, y, middle, k, indices, squared, count);
+
+        double difference = splitX ? x - xs[middle] : y - ys[middle];
+        if (difference < 0) {
+            count = search(low, middle, !splitX, x, y, k, indices, squared, count);
+            if (difference * difference < worst(squared, count, k)) {
+                count = search(middle + 1, high, !splitX, x, y, k, indices, squared, count);
+            }
+        } else {
+            count = search(middle + 1, high, !splitX, x, y, k, indices, squared, count);
+            if (difference * difference < worst(squared, count, k)) {
+                count = search(low, middle, !splitX, x, y, k, indices, squared, count);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    int search(double x, double y, int k, int[] indices, double[] squared) {
+        return search(0, order.length, true, x, y, k, indices, squared, 0);
+    }
+
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.spatial;
+
+import java.util.Arrays;
+
+import bmi.BMI;
+import bmi.BMIModelException;
+import bmi.GridGeometry;
+import bmi.regrid.SparseMatrix;
+
+/**
+ * Maps point coordinates (e.g. of gauges or satellite pixels) to the indices of the values of a grid, for use with
+ * {@link BMI#getDoubleAtIndices(String, int[])}. Supports nearest value lookups, k nearest neighbours and inverse distance
+ * weights. Distances are euclidean, in the coordinates of the grid.
+ *
+ * Uniform and rectilinear grids are searched with arithmetic on their axes, without any index structure. Structured and
+ * unstructured grids use a {@link KdTree}. Building an index is expensive for those, so build it once and reuse it every
+ * timestep: indices are immutable, and can be queried from multiple threads at the same time.
+ */
+public abstract class SpatialIndex {
+
+    private final GridGeometry geometry;
+
+    SpatialIndex(GridGeometry geometry) {
+        this.geometry = geometry;
+    }
+
+    /**
+     * Build an index for the given geometry.
+     */
+    public static SpatialIndex build(GridGeometry geometry) {
+        switch (geometry.getType()) {
+        case UNIFORM:
+        case RECTILINEAR:
+            return new AxisIndex(geometry);
+        default:
+            return new KdTree(geometry);
+        }
+    }
+
+    /**
+     * Build an index for the grid of a variable.
+     *
+     * @throws BMIModelException
+     *             if the model does not describe the grid of the variable
+     */
+    public static SpatialIndex of(BMI model, String longVarName) throws BMIModelException {
+        return build(GridGeometry.of(model, longVarName));
+    }
+
+    public GridGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @return the number of values of the grid.
+     */
+    public int getSize() {
+        return geometry.getSize();
+    }
+
+    /**
+     * @return the distance between a point and the value at the given index.
+     */
+    public double distance(double x, double y, int index) {
+        double dx = geometry.getX(index) - x;
+        double dy = geometry.getY(index) - y;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * @return the index of the value nearest to the given point. Points outside of the grid map to a value on its edge.
+     */
+    public int nearest(double x, double y) {
+        return nearest(x, y, new int[1], new double[1]);
+    }
+
+    /**
+     * Find the index of the value nearest to a point, using the given arrays of one element as buffers.
+     */
+    int nearest(double x, double y, int[] index, double[] squared) {
+        search(x, y, 1, index, squared);
+        return index[0];
+    }
+
+    /**
+     * @return the index of the value nearest to each point.
+     */
+    public int[] nearest(double[] x, double[] y) {
+        int[] result = new int[x.length];
+        nearest(x, y, Double.POSITIVE_INFINITY, result);
+        return result;
+    }
+
+    /**
+     * Find the index of the value nearest to each point, or -1 if it is further away than <code>maxDistance</code>, e.g. for
+     * points outside of the grid.
+     *
+     * @param dest
+     *            array to store an index for every point in
+     */
+    public void nearest(double[] x, double[] y, double maxDistance, int[] dest) {
+        if (x.length != y.length || dest.length < x.length) {
+            throw new IllegalArgumentException("got " + x.length + " x and " + y.length + " y coordinates for " + dest.length
+                    + " indices");
+        }
+        int[] index = new int[1];
+        double[] squared = new double[1];
+        for (int i = 0; i < x.length; i++) {
+            dest[i] = nearest(x[i], y[i], index, squared);
+            if (maxDistance < Double.POSITIVE_INFINITY && distance(x[i], y[i], dest[i]) > maxDistance) {
+                dest[i] = -1;
+            }
+        }
+    }
+
+    /**
+     * Find the k values nearest to a point, nearest first.
+     *
+     * @param k
+     *            the number of values to find
+     * @param indices
+     *            array of at least k elements to store the indices of the values in
+     * @param distances
+     *            array of at least k elements to store the distances to the values in
+     * @return the number of values found, k or the size of the grid if smaller
+     */
+    public int kNearest(double x, double y, int k, int[] indices, double[] distances) {
+        if (k < 1 || indices.length < k || distances.length < k) {
+            throw new IllegalArgumentException("cannot find " + k + " neighbours in arrays of length " + indices.length + " and "
+                    + distances.length);
+        }
+        int count = search(x, y, k, indices, distances);
+        sort(indices, distances, count);
+        for (int i = 0; i < count; i++) {
+            distances[i] = Math.sqrt(distances[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Compute inverse distance weights of the k values nearest to a point: weight is proportional to
+     * <code>1 / distance^power</code>, and all weights add up to 1. If the point coincides with a value, only that value is
+     * returned, with weight 1.
+     *
+     * @param indices
+     *            array of at least k elements to store the indices of the values in
+     * @param weights
+     *            array of at least k elements to store the weights in
+     * @return the number of values with a weight
+     */
+    public int inverseDistanceWeights(double x, double y, int k, double power, int[] indices, double[] weights) {
+        int count = kNearest(x, y, k, indices, weights);
+        if (count > 0 && weights[0] == 0.0) {
+            weights[0] = 1.0;
+            return 1;
+        }
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            weights[i] = 1.0 / Math.pow(weights[i], power);
+            sum += weights[i];
+        }
+        for (int i = 0; i < count; i++) {
+            weights[i] /= sum;
+        }
+        return count;
+    }
+
+    /**
+     * Compute inverse distance weights for every point, as a matrix with a row for every point and a column for every value of
+     * the grid. Interpolate values of the grid to the points with {@link SparseMatrix#multiply(double[], double[])}.
+     */
+    public SparseMatrix inverseDistanceWeights(double[] x, double[] y, int k, double power) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("got " + x.length + " x but " + y.length + " y coordinates");
+        }
+        int[] rowStart = new int[x.length + 1];
+        int[] columns = new int[x.length * Math.min(k, getSize())];
+        double[] values = new double[columns.length];
+        int[] indices = new int[k];
+        double[] weights = new double[k];
+
+        int entries = 0;
+        for (int i = 0; i < x.length; i++) {
+            int count = inverseDistanceWeights(x[i], y[i], k, power, indices, weights);
+            //CSR columns should be in ascending order within a row, which does not change the weights
+            sort(indices, weights, count, entries, columns, values);
+            entries += count;
+            rowStart[i + 1] = entries;
+        }
+        return new SparseMatrix(x.length, getSize(), rowStart, Arrays.copyOf(columns, entries),
+                Arrays.copyOf(values, entries));
+    }
+
+    private static void sort(int[] indices, double[] weights, int count, int offset, int[] columns, double[] values) {
+        for (int i = 0; i < count; i++) {
+            //insertion sort, count is small
+            int j = offset + i;
+            while (j > offset && columns[j - 1] > indices[i]) {
+                columns[j] = columns[j - 1];
+                values[j] = values[j - 1];
+                j--;
+            }
+            columns[j] = indices[i];
+            values[j] = weights[i];
+        }
+    }
+
+    /**
+     * Find the k values nearest to a point, in any order.
+     *
+     * @param indices
+     *            heap of k elements for the indices of the values, see {@link #offer(int[], double[], int, int, int, double)}
+     * @param squared
+     *            heap of k elements for the squared distances to the values
+     * @return the number of values found
+     */
+    abstract int search(double x, double y, int k, int[] indices, double[] squared);
+
+    /**
+     * Offer a value to a bounded max-heap of the nearest values found so far, ordered on squared distance.
+     *
+     * @return the new number of values in the heap
+     */
+    static int offer(int[] indices, double[] squared, int count, int k, int index, double distance) {
+        int position;
+        if (count < k) {
+            //sift up from the end
+            position = count;
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (squared[parent] >= distance) {
+                    break;
+                }
+                indices[position] = indices[parent];
+                squared[position] = squared[parent];
+                position = parent;
+            }
+            indices[position] = index;
+            squared[position] = distance;
+            return count + 1;
+        }
+        if (distance >= squared[0]) {
+            return count;
+        }
+        siftDown(indices, squared, count, index, distance);
+        return count;
+    }
+
+    /**
+     * Replace the root of a heap of <code>count</code> elements, and restore the heap order.
+     */
+    private static void siftDown(int[] indices, double[] squared, int count, int index, double distance) {
+        int position = 0;
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= count) {
+                break;
+            }
+            if (child + 1 < count && squared[child + 1] > squared[child]) {
+                child++;
+            }
+            if (squared[child] <= distance) {
+                break;
+            }
+            indices[position] = indices[child];
+            squared[position] = squared[child];
+            position = child;
+        }
+        indices[position] = index;
+        squared[position] = distance;
+    }
+
+    /**
+     * @return the largest distance in a full heap, or infinity if the heap is not full yet.
+     */
+    static double worst(double[] squared, int count, int k) {
+        return count < k ? Double.POSITIVE_INFINITY : squared[0];
+    }
+
+    /**
+     * Sort a heap in ascending order of distance.
+     */
+    private static void sort(int[] indices, double[] squared, int count) {
+        for (int last = count - 1; last > 0; last--) {
+            int index = indices[last];
+            double distance = squared[last];
+            indices[last] = indices[0];
+            squared[last] = squared[0];
+            siftDown(indices, squared, last, index, distance);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [type=" + geometry.getType() + ", size=" + getSize() + "]";
+    }
+
+}
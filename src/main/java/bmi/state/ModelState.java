@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.state;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The complete state of a model: its time fields and all of its variables. On save the time fields and variable contents are
+ * written to a {@link StateFile}, on load they are replaced by the contents of the file.
+ */
+public class ModelState {
+
+    private double time;
+    private double timeStep;
+    private double startTime;
+    private double endTime;
+
+    private final List<StateVariable> variables = new ArrayList<StateVariable>();
+
+    public ModelState() {
+    }
+
+    public ModelState(double time, double timeStep, double startTime, double endTime) {
+        this.time = time;
+        this.timeStep = timeStep;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public void addVariable(StateVariable variable) {
+        variables.add(variable);
+    }
+
+    public List<StateVariable> getVariables() {
+        return variables;
+    }
+
+    public StateVariable getVariable(String name) {
+        for (StateVariable variable : variables) {
+            if (variable.getName().equals(name)) {
+                return variable;
+            }
+        }
+        return null;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    public void setTime(double time) {
+        this.time = time;
+    }
+
+    public double getTimeStep() {
+        return timeStep;
+    }
+
+    public void setTimeStep(double timeStep) {
+        this.timeStep = timeStep;
+    }
+
+    public double getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(double startTime) {
+        this.startTime = startTime;
+    }
+
+    public double getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(double endTime) {
+        this.endTime = endTime;
+    }
+
+}
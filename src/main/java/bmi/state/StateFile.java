@@ -0,0 +1,313 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.state;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import bmi.BMIModelException;
+
+/**
+ * Reads and writes a {@link ModelState} as a single binary file, using memory mapped I/O. Variable contents are copied in
+ * bulk between the model and the mapped file, without intermediate streams or per-value conversion.
+ * 
+ * The file is little endian, and consists of a header followed by the (8 byte aligned) contents of every variable:
+ * 
+ * <pre>
+ * int     magic ("BMIS"), version, header size in bytes
+ * double  time, time step, start time, end time
+ * int     number of variables
+ * per variable:
+ *   short + UTF-8 bytes   name
+ *   short + UTF-8 bytes   type
+ *   int                   rank
+ *   int[rank]             grid shape
+ *   double[rank]          grid spacing
+ *   double[rank]          grid origin
+ *   long                  offset of the contents in the file
+ *   long                  size of the contents in bytes
+ * </pre>
+ */
+public final class StateFile {
+
+    public static final String FILE_NAME = "state.bin";
+
+    static final int MAGIC = 0x424D4953;
+    static final int VERSION = 1;
+
+    //maximum number of values mapped at once, well below the 2 GiB limit of a single mapping
+    private static final int CHUNK_VALUES = 1 << 27;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private StateFile() {
+        //utility class
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static int headerSize(ModelState state) {
+        int result = 3 * 4 + 4 * 8 + 4;
+        for (StateVariable variable : state.getVariables()) {
+            int rank = variable.getGridShape().length;
+            result += 2 + variable.getName().getBytes(UTF8).length;
+            result += 2 + variable.getType().getBytes(UTF8).length;
+            result += 4 + rank * (4 + 8 + 8) + 8 + 8;
+        }
+        return result;
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(UTF8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    private static File stateFile(File directory) throws BMIModelException {
+        if (!directory.isDirectory()) {
+            throw new BMIModelException("state directory " + directory + " does not exist");
+        }
+        return new File(directory, FILE_NAME);
+    }
+
+    /**
+     * Save the given state to the state file in the given directory, replacing any existing state file.
+     * 
+     * @param directory
+     *            the (existing) directory to write the state file to
+     * @param state
+     *            the state to save
+     * @throws BMIModelException
+     *             in case of problems
+     */
+    public static void save(File directory, ModelState state) throws BMIModelException {
+        File file = stateFile(directory);
+
+        int headerSize = headerSize(state);
+        long[] offsets = new long[state.getVariables().size()];
+        long end = align(headerSize);
+        for (int i = 0; i < offsets.length; i++) {
+            StateVariable variable = state.getVariables().get(i);
+            offsets[i] = end;
+            end = align(end + ((long) variable.getSize()) * variable.getElementSize());
+        }
+
+        try {
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                raf.setLength(end);
+                FileChannel channel = raf.getChannel();
+
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, headerSize);
+                header.order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(headerSize);
+                header.putDouble(state.getTime()).putDouble(state.getTimeStep());
+                header.putDouble(state.getStartTime()).putDouble(state.getEndTime());
+                header.putInt(offsets.length);
+
+                for (int i = 0; i < offsets.length; i++) {
+                    StateVariable variable = state.getVariables().get(i);
+                    putString(header, variable.getName());
+                    putString(header, variable.getType());
+                    int[] shape = variable.getGridShape();
+                    header.putInt(shape.length);
+                    for (int size : shape) {
+                        header.putInt(size);
+                    }
+                    for (double spacing : variable.getGridSpacing()) {
+                        header.putDouble(spacing);
+                    }
+                    for (double origin : variable.getGridOrigin()) {
+                        header.putDouble(origin);
+                    }
+                    header.putLong(offsets[i]);
+                    header.putLong(((long) variable.getSize()) * variable.getElementSize());
+
+                    transfer(channel, FileChannel.MapMode.READ_WRITE, variable, offsets[i]);
+                }
+                header.force();
+            } finally {
+                raf.close();
+            }
+        } catch (IOException e) {
+            throw new BMIModelException("could not save state to " + file, e);
+        }
+    }
+
+    /**
+     * Load the state file in the given directory into the given state. Time fields are replaced by those in the file, and the
+     * contents of all variables are copied into the variables of the given state, which should match those in the file by
+     * name, type and grid shape.
+     * 
+     * @param directory
+     *            the directory containing the state file
+     * @param state
+     *            the state to load into
+     * @throws BMIModelException
+     *             in case of problems, or if the file does not match the given state
+     */
+    public static void load(File directory, ModelState state) throws BMIModelException {
+        File file = stateFile(directory);
+
+        if (!file.isFile()) {
+            throw new BMIModelException("no state file in " + directory);
+        }
+
+        try {
+            RandomAccessFile raf = new RandomAccessFile(file, "r");
+            try {
+                FileChannel channel = raf.getChannel();
+
+                ByteBuffer prefix = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+                channel.read(prefix, 0);
+                prefix.flip();
+                if (prefix.remaining() < 12 || prefix.getInt() != MAGIC) {
+                    throw new BMIModelException(file + " is not a state file");
+                }
+                if (prefix.getInt() != VERSION) {
+                    throw new BMIModelException("unsupported state file version in " + file);
+                }
+                int headerSize = prefix.getInt();
+                long fileSize = channel.size();
+                if (headerSize < 12 || headerSize > fileSize) {
+                    throw new BMIModelException("invalid header size " + headerSize + " in state file " + file);
+                }
+
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, headerSize);
+                header.order(ByteOrder.LITTLE_ENDIAN);
+                header.position(12);
+
+                //parse and check the whole header before copying anything, so a bad file leaves the model untouched
+                double time;
+                double timeStep;
+                double startTime;
+                double endTime;
+                StateVariable[] variables;
+                long[] offsets;
+                try {
+                    time = header.getDouble();
+                    timeStep = header.getDouble();
+                    startTime = header.getDouble();
+                    endTime = header.getDouble();
+
+                    int count = header.getInt();
+                    if (count < 0 || count > header.remaining()) {
+                        throw new BMIModelException("invalid variable count " + count + " in state file " + file);
+                    }
+                    variables = new StateVariable[count];
+                    offsets = new long[count];
+                    Set<String> loaded = new HashSet<String>();
+                    for (int i = 0; i < count; i++) {
+                        String name = getString(header);
+                        String type = getString(header);
+                        int rank = header.getInt();
+                        if (rank < 0 || rank > header.remaining() / 4) {
+                            throw new BMIModelException("invalid rank " + rank + " of variable " + name + " in state file "
+                                    + file);
+                        }
+                        int[] shape = new int[rank];
+                        for (int j = 0; j < shape.length; j++) {
+                            shape[j] = header.getInt();
+                        }
+                        //spacing and origin are informational only
+                        header.position(header.position() + shape.length * 2 * 8);
+                        long offset = header.getLong();
+                        long bytes = header.getLong();
+
+                        StateVariable variable = state.getVariable(name);
+                        if (variable == null) {
+                            throw new BMIModelException("state file contains unknown variable " + name);
+                        }
+                        if (!loaded.add(name)) {
+                            throw new BMIModelException("variable " + name + " appears more than once in state file");
+                        }
+                        if (!variable.getType().equals(type) || !Arrays.equals(variable.getGridShape(), shape)
+                                || bytes != ((long) variable.getSize()) * variable.getElementSize()) {
+                            throw new BMIModelException("variable " + name + " in state file does not match model");
+                        }
+                        if (offset < headerSize || offset > fileSize - bytes) {
+                            throw new BMIModelException("contents of variable " + name + " outside of state file " + file);
+                        }
+                        variables[i] = variable;
+                        offsets[i] = offset;
+                    }
+
+                    for (StateVariable variable : state.getVariables()) {
+                        if (!loaded.contains(variable.getName())) {
+                            throw new BMIModelException("variable " + variable.getName() + " missing from state file");
+                        }
+                    }
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    throw new BMIModelException("corrupt header in state file " + file, e);
+                }
+
+                for (int i = 0; i < variables.length; i++) {
+                    transfer(channel, FileChannel.MapMode.READ_ONLY, variables[i], offsets[i]);
+                }
+
+                state.setTime(time);
+                state.setTimeStep(timeStep);
+                state.setStartTime(startTime);
+                state.setEndTime(endTime);
+            } finally {
+                raf.close();
+            }
+        } catch (IOException e) {
+            throw new BMIModelException("could not load state from " + file, e);
+        }
+    }
+
+    /**
+     * Copies the contents of a variable to (READ_WRITE) or from (READ_ONLY) the file, mapping at most CHUNK_VALUES values at a
+     * time.
+     */
+    private static void transfer(FileChannel channel, FileChannel.MapMode mode, StateVariable variable, long offset)
+            throws IOException {
+        int size = variable.getSize();
+        int elementSize = variable.getElementSize();
+
+        for (int start = 0; start < size; start += CHUNK_VALUES) {
+            int count = Math.min(CHUNK_VALUES, size - start);
+            MappedByteBuffer buffer = channel.map(mode, offset + ((long) start) * elementSize, ((long) count) * elementSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (mode == FileChannel.MapMode.READ_ONLY) {
+                variable.load(start, count, buffer);
+            } else {
+                variable.save(start, count, buffer);
+                buffer.force();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.state;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A single variable that is part of the state of a model, as written to and read from a {@link StateFile}.
+ */
+public interface StateVariable {
+
+    public String getName();
+
+    /**
+     * @return the BMI type of this variable, e.g. "float64".
+     */
+    public String getType();
+
+    /**
+     * @return the size of a single value in bytes.
+     */
+    public int getElementSize();
+
+    /**
+     * @return the number of values in this variable.
+     */
+    public int getSize();
+
+    public int[] getGridShape();
+
+    public double[] getGridSpacing();
+
+    public double[] getGridOrigin();
+
+    /**
+     * Copy <code>count</code> values, starting at value <code>start</code>, into <code>dest</code>. The buffer is positioned
+     * at the first byte to write, has exactly <code>count * getElementSize()</code> bytes remaining, and is in little endian
+     * byte order.
+     */
+    public void save(int start, int count, ByteBuffer dest);
+
+    /**
+     * Copy <code>count</code> values from <code>src</code> into this variable, starting at value <code>start</code>. The
+     * buffer has the same layout as in {@link #save(int, int, ByteBuffer)}.
+     */
+    public void load(int start, int count, ByteBuffer src);
+
+}
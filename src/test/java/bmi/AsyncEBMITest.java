@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bmi.examples.IncrementModel;
+
+public class AsyncEBMITest {
+
+    //fixture
+    private ExecutorService executor;
+    private AsyncEBMI model;
+
+    @Before
+    public void setUp() throws BMIModelException {
+        this.executor = Executors.newSingleThreadExecutor();
+        this.model = new AsyncEBMI(new IncrementModel(), executor);
+
+        this.model.initialize("");
+    }
+
+    @After
+    public void tearDown() throws BMIModelException {
+        model.finalizeModel();
+        executor.shutdown();
+    }
+
+    private CountDownLatch blockExecutor() {
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        return latch;
+    }
+
+    @Test
+    public void testUpdateAsync() throws Exception {
+        model.updateAsync().get();
+
+        assertEquals(2.0, model.getCurrentTime(), 0.0);
+        assertEquals(2.0, model.getDouble("var1")[0], 0.0);
+    }
+
+    @Test
+    public void testUpdateAsync_ReadsSnapshot() throws Exception {
+        model.setDoubleAtIndices("var1", new int[] { 3 }, new double[] { 10.0 });
+        CountDownLatch latch = blockExecutor();
+
+        CompletableFuture<Void> future = model.updateAsync();
+
+        assertEquals(1.0, model.getCurrentTime(), 0.0);
+        assertEquals(10.0, model.getDouble("var1")[3], 0.0);
+        assertArrayEquals(new double[] { 10.0, 1.0 }, model.getDoubleAtIndices("var1", new int[] { 3, 4 }), 0.0);
+
+        latch.countDown();
+        future.get();
+
+        assertEquals(2.0, model.getCurrentTime(), 0.0);
+        assertEquals(11.0, model.getDouble("var1")[3], 0.0);
+    }
+
+    @Test
+    public void testUpdateAsync_UnbufferedModel_ReadsSnapshot() throws Exception {
+        AsyncEBMI model = new AsyncEBMI(new ForwardingEBMI(new IncrementModel()) {
+        }, executor);
+        model.initialize("");
+
+        model.updateAsync().get();
+        CountDownLatch latch = blockExecutor();
+        CompletableFuture<Void> future = model.updateAsync();
+
+        //the snapshot of the second update reuses the array of the first
+        double[] values = model.getDouble("var1");
+        assertEquals(2.0, values[0], 0.0);
+        values[0] = 100.0;
+        assertEquals(2.0, model.getDouble("var1")[0], 0.0);
+
+        latch.countDown();
+        future.get();
+        assertEquals(3.0, model.getDouble("var1")[0], 0.0);
+
+        model.finalizeModel();
+    }
+
+    @Test
+    public void testUpdateAsync_SetWaitsForUpdate() throws Exception {
+        model.updateAsync();
+        model.setDoubleAtIndices("var1", new int[] { 0 }, new double[] { 10.0 });
+        model.updateAsync();
+        model.update();
+
+        assertEquals(4.0, model.getCurrentTime(), 0.0);
+        assertEquals(12.0, model.getDouble("var1")[0], 0.0);
+    }
+
+    @Test
+    public void testUpdateUntilAsync() throws Exception {
+        model.updateUntilAsync(5.0).get();
+
+        assertEquals(5.0, model.getCurrentTime(), 0.0);
+        assertEquals(5.0, model.getDouble("var1")[99], 0.0);
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void testUpdateUntilAsync_PastEndTime_FutureFails() throws Exception {
+        model.updateUntilAsync(25.0).get();
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testUpdateUntilAsync_PastEndTime_NextCallFails() throws Exception {
+        model.updateUntilAsync(25.0);
+
+        model.setDouble("var1", new double[100]);
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import bmi.examples.IncrementModel;
+
+public class BatchAdapterTest {
+
+    //fixture
+    private IncrementModel model;
+    private BatchAdapter adapter;
+
+    @Before
+    public void setUp() throws BMIModelException {
+        this.model = new IncrementModel();
+        this.model.initialize("");
+        //hide the buffered and batch interfaces of the model, to test the generic path
+        this.adapter = new BatchAdapter(new HandleAdapter(model));
+    }
+
+    @Test
+    public void testOf_BatchModel_ReturnsModel() {
+        assertSame(model, BatchAdapter.of(model));
+    }
+
+    @Test
+    public void testGetSetDoubleBatch() throws Exception {
+        VariableBatch batch = VariableBatch.create(adapter, new int[] { 2, 3 }, "var1");
+
+        adapter.setDoubleBatch(batch, new double[] { 0.0, 7.0, 8.0 }, 1);
+
+        double[] values = new double[2];
+        adapter.getDoubleBatch(batch, values, 0);
+
+        assertArrayEquals(new double[] { 7.0, 8.0 }, values, 0.0);
+        assertArrayEquals(new double[] { 1.0, 7.0, 8.0, 1.0 }, model.getDoubleAtIndices("var1", new int[] { 1, 2, 3, 4 }),
+                0.0);
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import bmi.examples.IncrementModel;
+
+public class CachingEBMITest {
+
+    //fixture
+    private AtomicInteger shapeCalls;
+    private CachingEBMI model;
+
+    @Before
+    public void setUp() throws BMIModelException {
+        this.shapeCalls = new AtomicInteger();
+
+        EBMI counting = new ForwardingEBMI(new IncrementModel()) {
+            @Override
+            public int[] getGridShape(String longVarName) throws BMIModelException {
+                shapeCalls.incrementAndGet();
+                return super.getGridShape(longVarName);
+            }
+        };
+
+        this.model = new CachingEBMI(counting);
+    }
+
+    @Test
+    public void testCachedAfterInitialize() throws Exception {
+        model.initialize("");
+
+        int[] first = model.getGridShape("var1");
+        int[] second = model.getGridShape("var1");
+
+        assertArrayEquals(new int[] { 10, 10 }, first);
+        assertSame(first, second);
+        assertEquals(1, shapeCalls.get());
+        assertEquals(1, model.getHits());
+        assertEquals(1, model.getMisses());
+        assertEquals(0.5, model.getHitRate(), 0.0);
+
+        assertEquals("float64", model.getVarType("var1"));
+        assertEquals("float64", model.getVarType("var1"));
+        assertEquals(2, model.getHits());
+    }
+
+    @Test
+    public void testNotCachedBeforeInitializeModel() throws Exception {
+        model.initializeConfig("");
+        model.getGridShape("var1");
+        model.getGridShape("var1");
+        assertEquals(2, shapeCalls.get());
+        assertEquals(0, model.getHits());
+
+        model.initializeModel();
+        model.getGridShape("var1");
+        model.getGridShape("var1");
+        assertEquals(3, shapeCalls.get());
+        assertEquals(1, model.getHits());
+    }
+
+    @Test
+    public void testInvalidatedByFinalize() throws Exception {
+        model.initialize("");
+        model.getGridShape("var1");
+        model.finalizeModel();
+
+        model.initialize("");
+        model.getGridShape("var1");
+
+        assertEquals(2, shapeCalls.get());
+        assertEquals(0, model.getHits());
+    }
+
+    @Test
+    public void testCopyArrays() throws Exception {
+        CachingEBMI copying = new CachingEBMI(new IncrementModel(), true);
+        copying.initialize("");
+
+        double[] first = copying.getGridSpacing("var1");
+        first[0] = 42.0;
+        double[] second = copying.getGridSpacing("var1");
+
+        assertNotSame(first, second);
+        assertArrayEquals(new double[] { 1.0, 1.0 }, second, 0.0);
+        assertEquals(1, copying.getHits());
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testUnknownVariable() throws Exception {
+        model.initialize("");
+        model.getVarUnits("foo");
+    }
+
+}
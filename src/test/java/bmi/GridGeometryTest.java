@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.util.PrimitiveIterator;
+
+import org.junit.Test;
+
+import bmi.examples.IncrementModel;
+
+public class GridGeometryTest {
+
+    private final GridGeometry uniform = GridGeometry.uniform(new int[] { 2, 3 }, new double[] { -0.5, 2.0 },
+            new double[] { 10.0, 1.0 });
+
+    @Test
+    public void testUniform_PerIndex() {
+        assertEquals(6, uniform.getSize());
+        assertEquals(5.0, uniform.getX(5), 0.0);
+        assertEquals(9.5, uniform.getY(5), 0.0);
+    }
+
+    @Test
+    public void testUniform_PerRow() {
+        double[] x = new double[4];
+        double[] y = new double[4];
+
+        uniform.getRowX(1, x, 1);
+        uniform.getRowY(1, y, 1);
+
+        assertArrayEquals(new double[] { 0, 1, 3, 5 }, x, 0.0);
+        assertArrayEquals(new double[] { 0, 9.5, 9.5, 9.5 }, y, 0.0);
+    }
+
+    @Test
+    public void testUniform_IteratorAndStream() {
+        PrimitiveIterator.OfDouble iterator = uniform.iterateY();
+        double[] y = new double[6];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = iterator.nextDouble();
+        }
+        assertFalse(iterator.hasNext());
+
+        assertArrayEquals(new double[] { 10, 10, 10, 9.5, 9.5, 9.5 }, y, 0.0);
+        assertArrayEquals(new double[] { 1, 3, 5, 1, 3, 5 }, uniform.streamX().toArray(), 0.0);
+        assertEquals(18.0, uniform.streamX().parallel().sum(), 0.0);
+    }
+
+    @Test
+    public void testUniform_GridArraysCached() {
+        double[] x = uniform.getGridX();
+
+        assertArrayEquals(new double[] { 1, 3, 5 }, x, 0.0);
+        assertArrayEquals(new double[] { 10, 9.5 }, uniform.getGridY(), 0.0);
+        assertSame(x, uniform.getGridX());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetRowX_OutsideGrid_Exception() {
+        uniform.getRowX(2, new double[3], 0);
+    }
+
+    @Test
+    public void testRectilinear() {
+        GridGeometry geometry = GridGeometry.rectilinear(new double[] { 0.0, 0.5, 2.0 }, new double[] { 4.0, 8.0 });
+        double[] y = new double[3];
+        geometry.getRowY(1, y, 0);
+
+        assertEquals(BMIGridType.RECTILINEAR, geometry.getType());
+        assertEquals(2.0, geometry.getX(5), 0.0);
+        assertArrayEquals(new double[] { 8, 8, 8 }, y, 0.0);
+        assertArrayEquals(new double[] { 0.0, 0.5, 2.0 }, geometry.getGridX(), 0.0);
+    }
+
+    @Test
+    public void testUnstructured() {
+        GridGeometry geometry = GridGeometry.unstructured(new double[] { 1, 2, 3 }, new double[] { 4, 5, 6 });
+
+        assertEquals(1, geometry.getRows());
+        assertEquals(5.0, geometry.getY(1), 0.0);
+        assertArrayEquals(new double[] { 1, 2, 3 }, geometry.streamX().toArray(), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStructured_WrongLength_Exception() {
+        GridGeometry.structured(new int[] { 2, 2 }, new double[4], new double[3]);
+    }
+
+    @Test
+    public void testOf_FromGridFunctions() throws Exception {
+        IncrementModel model = new IncrementModel(3, 4);
+        model.initialize("");
+        //hide the geometry of the model, so it is created from spacing and origin
+        BMI plain = new ForwardingBMI(model) {
+        };
+
+        GridGeometry geometry = GridGeometry.of(plain, "var1");
+
+        assertEquals(BMIGridType.UNIFORM, geometry.getType());
+        assertEquals(3, geometry.getRows());
+        assertEquals(4, geometry.getColumns());
+        assertArrayEquals(model.getGridX("var1"), geometry.getGridX(), 0.0);
+
+        model.finalizeModel();
+    }
+
+}
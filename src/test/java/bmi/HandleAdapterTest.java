@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bmi.examples.IncrementModel;
+
+public class HandleAdapterTest {
+
+    //fixture
+    private HandleAdapter adapter;
+
+    @Before
+    public void setUp() throws BMIModelException {
+        this.adapter = new HandleAdapter(new IncrementModel());
+
+        this.adapter.initialize("");
+    }
+
+    @After
+    public void tearDown() throws BMIModelException {
+        this.adapter.finalizeModel();
+    }
+
+    @Test
+    public void testOf_HandleModel_ReturnsModel() {
+        IncrementModel model = new IncrementModel();
+
+        assertSame(model, HandleAdapter.of(model));
+    }
+
+    @Test
+    public void testGetVarHandle_Cached() throws Exception {
+        VariableHandle handle = adapter.getVarHandle("var1");
+
+        assertSame(handle, adapter.getVarHandle("var1"));
+        assertEquals("float64", handle.getType());
+        assertEquals(100, handle.getSize());
+    }
+
+    @Test
+    public void testGetSetDouble() throws Exception {
+        VariableHandle handle = adapter.getVarHandle("var1");
+
+        adapter.setDoubleAtIndices(handle, new int[] { 1, 2 }, new double[] { 5.0, 6.0 });
+
+        double[] values = new double[3];
+        adapter.getDouble(handle, values, 0, 3);
+
+        assertArrayEquals(new double[] { 1.0, 5.0, 6.0 }, values, 0.0);
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testGetVarHandle_InvalidVariable_Exception() throws Exception {
+        adapter.getVarHandle("doesNotExistVar");
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testForeignHandle_Exception() throws Exception {
+        IncrementModel model = new IncrementModel();
+        model.initialize("");
+
+        adapter.getDouble(model.getVarHandle("var1"));
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class IndexPlanTest {
+
+    @Test
+    public void testCompile_SortsAndRemovesDuplicates() {
+        IndexPlan plan = IndexPlan.compile(new int[] { 7, 2, 3, 7, 4, 9 });
+
+        assertArrayEquals(new int[] { 2, 3, 4, 7, 9 }, plan.getIndices());
+        assertEquals(5, plan.size());
+        assertEquals(6, plan.getOriginalLength());
+        assertEquals(9, plan.getMaxIndex());
+    }
+
+    @Test
+    public void testCompile_Runs() {
+        IndexPlan plan = IndexPlan.compile(new int[] { 7, 2, 3, 7, 4, 9 });
+
+        assertEquals(3, plan.getRunCount());
+        assertEquals(2, plan.getRunStart(0));
+        assertEquals(3, plan.getRunLength(0));
+        assertEquals(0, plan.getRunOffset(0));
+        assertEquals(7, plan.getRunStart(1));
+        assertEquals(1, plan.getRunLength(1));
+        assertEquals(3, plan.getRunOffset(1));
+        assertEquals(9, plan.getRunStart(2));
+        assertEquals(4, plan.getRunOffset(2));
+    }
+
+    @Test
+    public void testCompile_Empty() {
+        IndexPlan plan = IndexPlan.compile(new int[0]);
+
+        assertEquals(0, plan.size());
+        assertEquals(0, plan.getRunCount());
+        assertEquals(-1, plan.getMaxIndex());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompile_NegativeIndex_Exception() {
+        IndexPlan.compile(new int[] { 3, -1 });
+    }
+
+    @Test
+    public void testExpand() {
+        IndexPlan plan = IndexPlan.compile(new int[] { 7, 2, 3, 7 });
+        double[] result = new double[5];
+
+        plan.expand(new double[] { -1, 20, 30, 70 }, 1, result, 1);
+
+        assertArrayEquals(new double[] { 0, 70, 20, 30, 70 }, result, 0.0);
+    }
+
+    @Test
+    public void testOfRuns_MergesAdjacentRuns() {
+        IndexPlan plan = IndexPlan.ofRuns(new int[] { 2, 4, 9 }, new int[] { 2, 1, 2 });
+
+        assertArrayEquals(new int[] { 2, 3, 4, 9, 10 }, plan.getIndices());
+        assertEquals(2, plan.getRunCount());
+        assertEquals(3, plan.getRunLength(0));
+        assertEquals(9, plan.getRunStart(1));
+        assertEquals(3, plan.getRunOffset(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOfRuns_Overlapping_Exception() {
+        IndexPlan.ofRuns(new int[] { 2, 3 }, new int[] { 2, 1 });
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.coupling;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bmi.BMIModelException;
+import bmi.EBMI;
+import bmi.ForwardingEBMI;
+import bmi.examples.IncrementModel;
+import bmi.regrid.RegridMethod;
+import bmi.regrid.WeightCache;
+
+public class CouplerTest {
+
+    /**
+     * Increment model with a time step of 2.
+     */
+    private static class SlowModel extends ForwardingEBMI {
+
+        SlowModel() {
+            super(new IncrementModel());
+        }
+
+        @Override
+        public double getTimeStep() throws BMIModelException {
+            return 2.0;
+        }
+
+        @Override
+        public void update() throws BMIModelException {
+            super.update();
+            super.update();
+        }
+    }
+
+    /**
+     * Model that keeps the last array given to setDouble, as models without BufferedBMI may do.
+     */
+    private static class KeepingModel extends ForwardingEBMI {
+
+        double[] kept;
+
+        KeepingModel() {
+            super(new IncrementModel());
+        }
+
+        @Override
+        public void setDouble(String longVarName, double[] src) throws BMIModelException {
+            kept = src;
+            super.setDouble(longVarName, src);
+        }
+    }
+
+    //fixture
+    private EBMI first;
+    private EBMI second;
+    private Coupler coupler;
+
+    @Before
+    public void setUp() throws BMIModelException {
+        first = new IncrementModel();
+        first.initialize("");
+        second = new IncrementModel();
+        second.initialize("");
+        coupler = new Coupler();
+    }
+
+    @After
+    public void tearDown() throws BMIModelException {
+        first.finalizeModel();
+        second.finalizeModel();
+    }
+
+    @Test
+    public void testExchange_Scaled() throws Exception {
+        coupler.addLink(new Link(first, "var1", null, second, "var1", null, 2.0, 1.0));
+
+        coupler.exchange();
+
+        double[] values = second.getDouble("var1");
+        assertEquals(3.0, values[0], 0.0);
+        assertEquals(3.0, values[99], 0.0);
+    }
+
+    @Test
+    public void testExchange_UnbufferedTarget_KeepsOwnArray() throws Exception {
+        KeepingModel target = new KeepingModel();
+        target.initialize("");
+        coupler.link(first, "var1", target, "var1");
+
+        coupler.exchange();
+        double[] kept = target.kept;
+        first.setDoubleAtIndices("var1", new int[] { 0 }, new double[] { 10.0 });
+        coupler.exchange();
+
+        assertEquals(1.0, kept[0], 0.0);
+        assertEquals(10.0, target.kept[0], 0.0);
+
+        target.finalizeModel();
+    }
+
+    @Test
+    public void testExchange_Indices() throws Exception {
+        first.setDoubleAtIndices("var1", new int[] { 0, 1 }, new double[] { 7.0, 8.0 });
+        coupler.addLink(new Link(first, "var1", new int[] { 1, 0 }, second, "var1", new int[] { 10, 11 }, 1.0, 0.0));
+
+        coupler.exchange();
+
+        double[] values = second.getDouble("var1");
+        assertEquals(8.0, values[10], 0.0);
+        assertEquals(7.0, values[11], 0.0);
+        assertEquals(1.0, values[0], 0.0);
+    }
+
+    @Test
+    public void testStep_SameTimeStep() throws Exception {
+        coupler.link(first, "var1", second, "var1");
+        first.setDoubleAtIndices("var1", new int[] { 0 }, new double[] { 10.0 });
+
+        coupler.step();
+
+        assertEquals(2.0, coupler.getCurrentTime(), 0.0);
+        assertEquals(2.0, first.getCurrentTime(), 0.0);
+        assertEquals(2.0, second.getCurrentTime(), 0.0);
+        assertEquals(11.0, second.getDouble("var1")[0], 0.0);
+    }
+
+    @Test
+    public void testUpdateUntil_DifferentTimeSteps() throws Exception {
+        EBMI slow = new SlowModel();
+        slow.initialize("");
+        coupler.addLink(new Link(slow, "var1", new int[] { 0 }, first, "var1", new int[] { 50 }, 1.0, 0.0));
+
+        coupler.updateUntil(5.0);
+
+        assertEquals(5.0, first.getCurrentTime(), 0.0);
+        assertEquals(5.0, slow.getCurrentTime(), 0.0);
+        //value received from the slow model at time 4 (3.0), incremented once
+        assertEquals(4.0, first.getDouble("var1")[50], 0.0);
+        assertEquals(5.0, first.getDouble("var1")[0], 0.0);
+
+        slow.finalizeModel();
+    }
+
+    @Test
+    public void testAddModel_Unlinked() throws Exception {
+        coupler.addModel(first);
+        coupler.addModel(first);
+
+        coupler.updateUntil(3.0);
+
+        assertEquals(1, coupler.getModels().size());
+        assertEquals(3.0, first.getCurrentTime(), 0.0);
+    }
+
+    @Test
+    public void testExchange_Regridded() throws Exception {
+        EBMI small = new IncrementModel(5, 4);
+        small.initialize("");
+        first.setDoubleAtIndices("var1", new int[] { 13 }, new double[] { 10.0 });
+        WeightCache cache = new WeightCache();
+        coupler = new Coupler(cache, ForkJoinPool.commonPool());
+        coupler.addLink(new Link(first, "var1", small, "var1", RegridMethod.NEAREST, 1.0, 0.0));
+
+        coupler.exchange();
+        coupler.prepare();
+
+        double[] values = small.getDouble("var1");
+        assertEquals(20, values.length);
+        //(row 1, column 3) on both grids
+        assertEquals(10.0, values[7], 0.0);
+        assertEquals(1.0, values[6], 0.0);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+
+        small.finalizeModel();
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testPrepare_UnknownVariable_Exception() throws Exception {
+        coupler.link(first, "var2", second, "var1");
+
+        coupler.prepare();
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testPrepare_SizeMismatch_Exception() throws Exception {
+        coupler.addLink(new Link(first, "var1", new int[] { 1, 2 }, second, "var1", null, 1.0, 0.0));
+
+        coupler.prepare();
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.ensemble;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bmi.BMIModelException;
+import bmi.EBMI;
+import bmi.examples.IncrementModel;
+import bmi.examples.RasterKernels;
+
+public class EnsembleTest {
+
+    private static final int MEMBERS = 7;
+
+    //fixture
+    private ForkJoinPool pool;
+    private Ensemble ensemble;
+
+    @Before
+    public void setUp() throws BMIModelException {
+        pool = new ForkJoinPool(3);
+        final RasterKernels kernels = new RasterKernels(pool, 1 << 16);
+
+        ensemble = new Ensemble(new ModelFactory() {
+            @Override
+            public EBMI create(int member) throws BMIModelException {
+                return new IncrementModel(2, 3, kernels);
+            }
+        }, MEMBERS, pool);
+    }
+
+    @After
+    public void tearDown() throws BMIModelException {
+        if (ensemble.getMember(0) != null) {
+            ensemble.finalizeModel();
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void testInitialize_Perturbed() throws Exception {
+        ensemble.initialize("", new Perturbation() {
+            @Override
+            public void apply(EBMI model, int member) throws BMIModelException {
+                model.setAttributeValue("raster.storage", member % 2 == 0 ? "heap" : "direct");
+            }
+        }, new Perturbation() {
+            @Override
+            public void apply(EBMI model, int member) throws BMIModelException {
+                model.setDoubleAtIndices("var1", new int[] { 0 }, new double[] { member * 10 });
+            }
+        });
+
+        assertEquals("direct", ensemble.getMember(3).getAttributeValue("raster.storage"));
+        assertEquals(6, ensemble.getCellCount("var1"));
+
+        double[] matrix = ensemble.getDouble("var1");
+
+        assertEquals(MEMBERS * 6, matrix.length);
+        for (int member = 0; member < MEMBERS; member++) {
+            assertEquals(member * 10, matrix[member * 6], 0.0);
+            assertEquals(1.0, matrix[member * 6 + 5], 0.0);
+        }
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        ensemble.initialize("");
+
+        ensemble.update();
+        ensemble.updateUntil(5.0);
+
+        double[] matrix = new double[MEMBERS * 6 + 1];
+        ensemble.getDouble("var1", matrix, 1);
+
+        assertEquals(0.0, matrix[0], 0.0);
+        for (int i = 1; i < matrix.length; i++) {
+            assertEquals(5.0, matrix[i], 0.0);
+        }
+        for (int member = 0; member < MEMBERS; member++) {
+            assertEquals(5.0, ensemble.getMember(member).getCurrentTime(), 0.0);
+        }
+    }
+
+    @Test
+    public void testSetDouble() throws Exception {
+        ensemble.initialize("");
+
+        double[] matrix = new double[MEMBERS * 6];
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] = i;
+        }
+        ensemble.setDouble("var1", matrix, 0);
+        ensemble.update();
+
+        assertArrayEquals(new double[] { 13, 14, 15, 16, 17, 18 }, ensemble.getMember(2).getDouble("var1"), 0.0);
+    }
+
+    @Test
+    public void testUpdate_MemberFails_Exception() throws Exception {
+        ensemble.initialize("");
+        ensemble.getMember(4).updateUntil(20.0);
+
+        try {
+            ensemble.update();
+            fail("update should fail for member 4");
+        } catch (BMIModelException e) {
+            assertEquals(true, e.getMessage().startsWith("ensemble member 4 failed"));
+        }
+
+        //other members are still updated
+        assertEquals(2.0, ensemble.getMember(3).getCurrentTime(), 0.0);
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testUpdate_NotInitialized_Exception() throws Exception {
+        ensemble.update();
+    }
+
+}
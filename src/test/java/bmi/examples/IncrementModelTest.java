@@ -18,23 +18,52 @@ package bmi.examples;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.DoubleBuffer;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import bmi.AsyncBMI;
 import bmi.EBMI;
 import bmi.BMIGridType;
 import bmi.BMIModelException;
+import bmi.BatchBMI;
+import bmi.BufferedBMI;
+import bmi.DeltaBMI;
+import bmi.GeometryBMI;
+import bmi.GridGeometry;
+import bmi.HandleBMI;
+import bmi.IndexPlan;
+import bmi.IndexPlanBMI;
+import bmi.ModelSnapshot;
+import bmi.RegionBMI;
+import bmi.SnapshotBMI;
+import bmi.VariableBatch;
+import bmi.VariableDelta;
+import bmi.VariableHandle;
 import bmi.examples.IncrementModel;
+import bmi.state.StateFile;
 
 public class IncrementModelTest {
 
     //fixture
     private EBMI model;
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Before
     public void setUp() throws BMIModelException {
         this.model = new IncrementModel();
@@ -353,6 +382,108 @@ public class IncrementModelTest {
         model.getDouble("doesNotExistVar");
     }
 
+    /**
+     * Test method for {@link bmi.BufferedBMI#getDouble(java.lang.String, double[], int, int)}.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testGetDouble_IntoArray() throws Exception {
+        BufferedBMI model = (BufferedBMI) this.model;
+
+        model.update();
+
+        double[] result = new double[102];
+
+        model.getDouble("var1", result, 2, 100);
+
+        assertEquals(0.0, result[1], 0.0);
+        for (int i = 2; i < result.length; i++) {
+            assertEquals(2.0, result[i], 0.0);
+        }
+    }
+
+    /**
+     * Test method for {@link bmi.BufferedBMI#getDouble(java.lang.String, java.nio.DoubleBuffer)}.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testGetDouble_IntoBuffer() throws Exception {
+        BufferedBMI model = (BufferedBMI) this.model;
+
+        model.update();
+
+        DoubleBuffer result = DoubleBuffer.allocate(100);
+
+        model.getDouble("var1", result);
+
+        assertEquals(100, result.position());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(2.0, result.get(i), 0.0);
+        }
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testGetDouble_IntoArray_InvalidVariable_Exception() throws Exception {
+        ((BufferedBMI) model).getDouble("doesNotExistVar", new double[100], 0, 100);
+    }
+
+    /**
+     * Test method for {@link bmi.BufferedBMI#getDoubleAtIndices(java.lang.String, int[], double[], int)}.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testGetDoubleAtIndices_IntoArray() throws Exception {
+        BufferedBMI model = (BufferedBMI) this.model;
+
+        model.setDoubleAtIndices("var1", new int[] { 7 }, new double[] { 5.0 });
+
+        double[] result = new double[4];
+
+        model.getDoubleAtIndices("var1", new int[] { 6, 7, 8 }, result, 1);
+
+        assertArrayEquals(new double[] { 0.0, 1.0, 5.0, 1.0 }, result, 0.0);
+    }
+
+    /**
+     * Test method for {@link bmi.BufferedBMI#setDoubleAtIndices(java.lang.String, int[], java.nio.DoubleBuffer)}.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testSetDoubleAtIndices_FromBuffer() throws Exception {
+        BufferedBMI model = (BufferedBMI) this.model;
+
+        DoubleBuffer values = DoubleBuffer.wrap(new double[] { 3.0, 4.0 });
+
+        model.setDoubleAtIndices("var1", new int[] { 10, 20 }, values);
+
+        assertEquals(2, values.position());
+        assertArrayEquals(new double[] { 3.0, 4.0, 1.0 }, model.getDoubleAtIndices("var1", new int[] { 10, 20, 30 }), 0.0);
+    }
+
+    /**
+     * Test method for {@link bmi.BufferedBMI#setDouble(java.lang.String, double[], int, int)}.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testSetDouble_FromArray() throws Exception {
+        BufferedBMI model = (BufferedBMI) this.model;
+
+        double[] data = new double[101];
+        Arrays.fill(data, 7.0);
+
+        model.setDouble("var1", data, 1, 100);
+
+        double[] result = model.getDouble("var1");
+        for (int i = 0; i < result.length; i++) {
+            assertEquals(7.0, result[i], 0.0);
+        }
+    }
+
     /**
      * Test method for {@link nl.esciencecenter.bmi.toymodels.IncrementModel#getDoubleAtIndices(java.lang.String, int[])}.
      * 
@@ -470,6 +601,194 @@ public class IncrementModelTest {
         model.setDoubleAtIndices("doesNotExistVar", indices, values);
     }
 
+    /**
+     * Test method for {@link bmi.HandleBMI#getVarHandle(java.lang.String)}.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testGetVarHandle() throws Exception {
+        VariableHandle handle = ((HandleBMI) model).getVarHandle("var1");
+
+        assertEquals("var1", handle.getName());
+        assertEquals("float64", handle.getType());
+        assertEquals(2, handle.getRank());
+        assertEquals(100, handle.getSize());
+        assertEquals(800, handle.getNbytes());
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testGetVarHandle_InvalidVariable_Exception() throws Exception {
+        ((HandleBMI) model).getVarHandle("doesNotExistVar");
+    }
+
+    @Test
+    public void testHandleGetSetDouble() throws Exception {
+        HandleBMI model = (HandleBMI) this.model;
+        VariableHandle handle = model.getVarHandle("var1");
+
+        model.setDoubleAtIndices(handle, new int[] { 3 }, new double[] { 8.0 });
+        model.update();
+
+        assertEquals(9.0, model.getDoubleAtIndices(handle, new int[] { 3 })[0], 0.0);
+        assertEquals(2.0, model.getDouble(handle)[0], 0.0);
+
+        double[] values = new double[100];
+        model.getDouble(handle, values, 0, 100);
+        assertEquals(9.0, values[3], 0.0);
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testHandle_AfterReinitialize_Exception() throws Exception {
+        HandleBMI model = (HandleBMI) this.model;
+        VariableHandle handle = model.getVarHandle("var1");
+
+        model.finalizeModel();
+        model.initialize("");
+
+        model.getDouble(handle);
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testHandle_Null_Exception() throws Exception {
+        ((HandleBMI) model).getDouble((VariableHandle) null);
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testHandle_NotInitialized_Exception() throws Exception {
+        IncrementModel model = new IncrementModel();
+        model.initializeConfig("");
+
+        model.getDouble((VariableHandle) null);
+    }
+
+    /**
+     * Test method for {@link bmi.BatchBMI#getDoubleBatch(bmi.VariableBatch, double[], int)}.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testGetDoubleBatch() throws Exception {
+        BatchBMI model = (BatchBMI) this.model;
+        VariableBatch batch = VariableBatch.create(model, new int[] { 0, 99 }, "var1", "var1");
+
+        model.setDoubleAtIndices("var1", new int[] { 99 }, new double[] { 5.0 });
+
+        double[] values = new double[5];
+        model.getDoubleBatch(batch, values, 1);
+
+        assertEquals(4, batch.getTotalLength());
+        assertArrayEquals(new double[] { 0.0, 1.0, 5.0, 1.0, 5.0 }, values, 0.0);
+    }
+
+    /**
+     * Test method for {@link bmi.BatchBMI#setDoubleBatch(bmi.VariableBatch, double[], int)}.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testSetDoubleBatch() throws Exception {
+        BatchBMI model = (BatchBMI) this.model;
+        VariableBatch batch = VariableBatch.create(model, "var1");
+
+        double[] values = new double[100];
+        Arrays.fill(values, 3.0);
+        model.setDoubleBatch(batch, values, 0);
+
+        assertEquals(100, batch.getLength(0));
+        assertEquals(3.0, model.getDouble("var1")[50], 0.0);
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testCreateBatch_InvalidVariable_Exception() throws Exception {
+        VariableBatch.create(model, "var1", "doesNotExistVar");
+    }
+
+    /**
+     * Test method for {@link bmi.RegionBMI#getDoubleRange(java.lang.String, int, double[], int, int)}.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testGetSetDoubleRange() throws Exception {
+        RegionBMI model = (RegionBMI) this.model;
+
+        model.setDoubleRange("var1", 95, new double[] { 0.0, 5.0, 6.0 }, 1, 2);
+
+        double[] values = new double[4];
+        model.getDoubleRange("var1", 94, values, 0, 4);
+
+        assertArrayEquals(new double[] { 1.0, 5.0, 6.0, 1.0 }, values, 0.0);
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testGetDoubleRange_OutOfRange_Exception() throws Exception {
+        ((RegionBMI) model).getDoubleRange("var1", 98, new double[3], 0, 3);
+    }
+
+    /**
+     * Test method for {@link bmi.RegionBMI#getDoubleWindow(java.lang.String, int, int, int, int, double[], int)}.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testGetSetDoubleWindow() throws Exception {
+        RegionBMI model = (RegionBMI) this.model;
+
+        //2 rows by 3 columns at row 4, column 7
+        model.setDoubleWindow("var1", 4, 7, 2, 3, new double[] { 1, 2, 3, 4, 5, 6 }, 0);
+
+        double[] all = model.getDouble("var1");
+        assertEquals(1.0, all[47], 0.0);
+        assertEquals(3.0, all[49], 0.0);
+        assertEquals(4.0, all[57], 0.0);
+        assertEquals(6.0, all[59], 0.0);
+
+        double[] values = new double[4];
+        model.getDoubleWindow("var1", 4, 8, 2, 2, values, 0);
+        assertArrayEquals(new double[] { 2, 3, 5, 6 }, values, 0.0);
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testGetDoubleWindow_OutsideGrid_Exception() throws Exception {
+        ((RegionBMI) model).getDoubleWindow("var1", 9, 0, 2, 2, new double[4], 0);
+    }
+
+    /**
+     * Test method for {@link bmi.IndexPlanBMI#getDoubleAtIndices(java.lang.String, bmi.IndexPlan, double[], int)}.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testGetSetDoubleAtIndices_Plan() throws Exception {
+        IndexPlanBMI model = (IndexPlanBMI) this.model;
+        IndexPlan plan = IndexPlan.compile(new int[] { 42, 3, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 3 });
+
+        double[] src = new double[plan.size() + 1];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = i;
+        }
+        model.setDoubleAtIndices("var1", plan, src, 1);
+
+        double[] all = model.getDouble("var1");
+        assertEquals(1.0, all[3], 0.0);
+        assertEquals(2.0, all[10], 0.0);
+        assertEquals(11.0, all[19], 0.0);
+        assertEquals(12.0, all[42], 0.0);
+        assertEquals(1.0, all[4], 0.0);
+
+        model.update();
+
+        double[] values = new double[plan.size()];
+        model.getDoubleAtIndices("var1", plan, values, 0);
+        assertArrayEquals(new double[] { 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13 }, values, 0.0);
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testGetDoubleAtIndices_PlanOutOfRange_Exception() throws Exception {
+        ((IndexPlanBMI) model).getDoubleAtIndices("var1", IndexPlan.compile(new int[] { 5, 100 }), new double[2], 0);
+    }
+
     /**
      * Test method for {@link nl.esciencecenter.bmi.toymodels.IncrementModel#getGridType(java.lang.String)}.
      * 
@@ -578,12 +897,98 @@ public class IncrementModelTest {
     }
 
     /**
-     * Test method for {@link bmi.BMI#saveState(double)}.
+     * Test method for {@link bmi.EBMI#saveState(java.lang.String)}.
      * @throws BMIModelException 
      */
     @Test(expected = BMIModelException.class)
-    public void testSaveState() throws BMIModelException {
-        model.saveState("somewhere");
+    public void testSaveState_NonExistingDirectory_Exception() throws BMIModelException {
+        model.saveState(new File(folder.getRoot(), "somewhere").getPath());
+    }
+
+    /**
+     * Test method for {@link bmi.EBMI#saveState(java.lang.String)} and {@link bmi.EBMI#loadState(java.lang.String)}.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testSaveAndLoadState() throws Exception {
+        String directory = folder.getRoot().getPath();
+
+        model.setDoubleAtIndices("var1", new int[] { 42 }, new double[] { 100.0 });
+        model.updateUntil(5.0);
+        model.saveState(directory);
+
+        model.updateUntil(15.0);
+        assertEquals(15.0, model.getDouble("var1")[0], 0.0);
+
+        model.loadState(directory);
+
+        assertEquals(5.0, model.getCurrentTime(), 0.0);
+        assertEquals(5.0, model.getDouble("var1")[0], 0.0);
+        assertEquals(104.0, model.getDouble("var1")[42], 0.0);
+
+        //loading into a fresh model instance
+        EBMI other = new IncrementModel();
+        other.initialize("");
+        other.loadState(directory);
+
+        assertEquals(5.0, other.getCurrentTime(), 0.0);
+        assertArrayEquals(model.getDouble("var1"), other.getDouble("var1"), 0.0);
+        other.finalizeModel();
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testLoadState_NoStateFile_Exception() throws Exception {
+        model.loadState(folder.getRoot().getPath());
+    }
+
+    private void corruptStateFile(long position, int value) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(new File(folder.getRoot(), StateFile.FILE_NAME), "rw");
+        try {
+            file.seek(position);
+            file.writeInt(Integer.reverseBytes(value));
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testLoadState_NegativeHeaderSize_Exception() throws Exception {
+        model.saveState(folder.getRoot().getPath());
+        corruptStateFile(8, -1);
+
+        model.loadState(folder.getRoot().getPath());
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testLoadState_TruncatedHeader_Exception() throws Exception {
+        model.saveState(folder.getRoot().getPath());
+        //header ends halfway the time fields
+        corruptStateFile(8, 20);
+
+        model.loadState(folder.getRoot().getPath());
+    }
+
+    @Test
+    public void testLoadState_ContentsOutsideFile_ModelUnchanged() throws Exception {
+        String directory = folder.getRoot().getPath();
+        model.saveState(directory);
+        RandomAccessFile file = new RandomAccessFile(new File(directory, StateFile.FILE_NAME), "rw");
+        try {
+            file.setLength(file.length() - 8);
+        } finally {
+            file.close();
+        }
+        model.update();
+
+        try {
+            model.loadState(directory);
+            fail("expected exception");
+        } catch (BMIModelException e) {
+            //expected
+        }
+        assertEquals(2.0, model.getCurrentTime(), 0.0);
+        assertEquals(2.0, model.getDouble("var1")[0], 0.0);
     }
 
     /**
@@ -638,9 +1043,11 @@ public class IncrementModelTest {
      * 
      * @throws BMIModelException
      */
-    @Test(expected = BMIModelException.class)
+    @Test
     public void testGetFloat() throws BMIModelException {
-        model.getFloat("var1");
+        float[] expected = new float[100];
+        Arrays.fill(expected, 1.0f);
+        assertArrayEquals(expected, model.getFloat("var1"), 0.0f);
     }
 
     /**
@@ -648,9 +1055,9 @@ public class IncrementModelTest {
      * 
      * @throws BMIModelException
      */
-    @Test(expected = BMIModelException.class)
+    @Test
     public void testGetFloatAtIndices() throws BMIModelException {
-        model.getFloatAtIndices("var1", new int[0]);
+        assertArrayEquals(new float[0], model.getFloatAtIndices("var1", new int[0]), 0.0f);
     }
 
     /**
@@ -658,9 +1065,12 @@ public class IncrementModelTest {
      * 
      * @throws BMIModelException
      */
-    @Test(expected = BMIModelException.class)
+    @Test
     public void testSetFloat() throws BMIModelException {
-        model.setFloat("var1", new float[0]);
+        float[] values = new float[100];
+        Arrays.fill(values, 0.5f);
+        model.setFloat("var1", values);
+        assertEquals(0.5, model.getDouble("var1")[99], 0.0);
     }
 
     /**
@@ -668,9 +1078,93 @@ public class IncrementModelTest {
      * 
      * @throws BMIModelException
      */
-    @Test(expected = BMIModelException.class)
+    @Test
     public void testSetFloatAtIndices() throws BMIModelException {
-        model.setFloatAtIndices("var1", new int[0], new float[0]);
+        model.setFloatAtIndices("var1", new int[] { 7 }, new float[] { 2.5f });
+        assertEquals(2.5, model.getDouble("var1")[7], 0.0);
+    }
+
+    private IncrementModel createFloatModel() throws BMIModelException {
+        IncrementModel result = new IncrementModel();
+        result.initializeConfig("");
+        result.setAttributeValue("var1.precision", "float32");
+        result.initializeModel();
+        return result;
+    }
+
+    @Test
+    public void testFloatPrecision_Metadata() throws Exception {
+        IncrementModel floatModel = createFloatModel();
+        try {
+            assertEquals("float32", floatModel.getVarType("var1"));
+            assertEquals(400, floatModel.getVarNbytes("var1"));
+            assertEquals("float32", floatModel.getVarHandle("var1").getType());
+        } finally {
+            floatModel.finalizeModel();
+        }
+    }
+
+    @Test
+    public void testFloatPrecision_Values() throws Exception {
+        IncrementModel floatModel = createFloatModel();
+        try {
+            float[] values = new float[100];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = i + 0.1f;
+            }
+            floatModel.setFloat("var1", values);
+            floatModel.update();
+
+            float[] result = floatModel.getFloat("var1");
+            assertEquals(values[42] + 1.0f, result[42], 0.0f);
+            //converted from the stored float, not from the original decimal value
+            assertEquals((double) (values[3] + 1.0f), floatModel.getDouble("var1")[3], 0.0);
+
+            floatModel.setDoubleAtIndices("var1", new int[] { 5 }, new double[] { 0.1 });
+            assertEquals(0.1f, floatModel.getFloatAtIndices("var1", new int[] { 5 })[0], 0.0f);
+        } finally {
+            floatModel.finalizeModel();
+        }
+    }
+
+    @Test
+    public void testFloatPrecision_Snapshot() throws Exception {
+        IncrementModel floatModel = createFloatModel();
+        try {
+            ModelSnapshot snapshot = floatModel.snapshot();
+            floatModel.update();
+            floatModel.restore(snapshot);
+
+            assertEquals(1.0f, floatModel.getFloat("var1")[0], 0.0f);
+        } finally {
+            floatModel.finalizeModel();
+        }
+    }
+
+    @Test
+    public void testFloatPrecision_State() throws Exception {
+        String directory = folder.newFolder("float-state").getPath();
+
+        IncrementModel floatModel = createFloatModel();
+        try {
+            floatModel.setFloatAtIndices("var1", new int[] { 9 }, new float[] { 0.3f });
+            floatModel.saveState(directory);
+            floatModel.update();
+            floatModel.loadState(directory);
+
+            assertEquals(0.3f, floatModel.getFloat("var1")[9], 0.0f);
+        } finally {
+            floatModel.finalizeModel();
+        }
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testFloatPrecision_MappedStorage() throws Exception {
+        IncrementModel floatModel = new IncrementModel();
+        floatModel.initializeConfig("");
+        floatModel.setAttributeValue("var1.precision", "float32");
+        floatModel.setAttributeValue("raster.storage", "mapped");
+        floatModel.initializeModel();
     }
 
     /**
@@ -678,9 +1172,14 @@ public class IncrementModelTest {
      * 
      * @throws BMIModelException
      */
-    @Test(expected = BMIModelException.class)
+    @Test
     public void testGetGridX() throws BMIModelException {
-        model.getGridX("var1");
+        assertArrayEquals(new double[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 }, model.getGridX("var1"), 0.0);
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testGetGridX_UnknownVariable_Exception() throws BMIModelException {
+        model.getGridX("var2");
     }
 
     /**
@@ -688,9 +1187,29 @@ public class IncrementModelTest {
      * 
      * @throws BMIModelException
      */
-    @Test(expected = BMIModelException.class)
+    @Test
     public void testGetGridY() throws BMIModelException {
-        model.getGridY("var1");
+        assertArrayEquals(new double[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 }, model.getGridY("var1"), 0.0);
+    }
+
+    @Test
+    public void testGetGridX_ModifiedResult_GeometryUnchanged() throws BMIModelException {
+        model.getGridX("var1")[3] = 100.0;
+        model.getGridY("var1")[2] = 100.0;
+
+        assertEquals(3.0, model.getGridX("var1")[3], 0.0);
+        assertEquals(2.0, model.getGridY("var1")[2], 0.0);
+        assertEquals(3.0, ((GeometryBMI) model).getGridGeometry("var1").getGridX()[3], 0.0);
+    }
+
+    @Test
+    public void testGetGridGeometry() throws BMIModelException {
+        GridGeometry geometry = ((GeometryBMI) model).getGridGeometry("var1");
+
+        assertEquals(BMIGridType.UNIFORM, geometry.getType());
+        assertEquals(100, geometry.getSize());
+        assertEquals(3.0, geometry.getX(23), 0.0);
+        assertEquals(2.0, geometry.getY(23), 0.0);
     }
 
     /**
@@ -771,7 +1290,9 @@ public class IncrementModelTest {
     
     @Test
     public void testGetAttributeNames() throws Exception {
-        assertArrayEquals("incorrect list of attribute names", new String[] { "author"}, model.getAttributeNames());
+        assertArrayEquals("incorrect list of attribute names", new String[] { "author", "raster.storage", "raster.file",
+                "state.buffering", "var1.precision" },
+                model.getAttributeNames());
     }
 
     @Test
@@ -789,6 +1310,340 @@ public class IncrementModelTest {
         model.setAttributeValue("some.attribute",  "some.value");
     }
 
+    @Test(expected = BMIModelException.class)
+    public void testSetAttributeValue_UnknownStorage_Exception() throws Exception {
+        EBMI model = new IncrementModel();
+
+        model.initializeConfig("");
+        model.setAttributeValue("raster.storage", "floppy");
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testSetAttributeValue_afterInit_Error() throws Exception {
+        model.setAttributeValue("raster.storage", "direct");
+    }
+
+    @Test
+    public void testDirectStorage() throws Exception {
+        assertStorage("direct", null);
+    }
+
+    @Test
+    public void testMappedStorage() throws Exception {
+        File file = File.createTempFile("increment-model-test", ".raster");
+        file.deleteOnExit();
+
+        assertStorage("mapped", file.getPath());
+
+        assertEquals(800, file.length());
+    }
+
+    private void assertStorage(String storage, String file) throws Exception {
+        EBMI model = new IncrementModel();
+
+        model.initializeConfig("");
+        model.setAttributeValue("raster.storage", storage);
+        if (file != null) {
+            model.setAttributeValue("raster.file", file);
+        }
+        model.initializeModel();
+
+        assertEquals(storage, model.getAttributeValue("raster.storage"));
+
+        model.setDoubleAtIndices("var1", new int[] { 4, 5 }, new double[] { 10.0, 10.0 });
+        model.updateUntil(3.0);
+
+        double[] result = model.getDouble("var1");
+        assertEquals(100, result.length);
+        assertEquals(3.0, result[0], 0.0);
+        assertEquals(12.0, result[4], 0.0);
+        assertArrayEquals(new double[] { 12.0, 3.0 }, model.getDoubleAtIndices("var1", new int[] { 5, 6 }), 0.0);
+
+        model.finalizeModel();
+    }
+
+    private IncrementModel createDoubleBuffered(RasterKernels kernels) throws BMIModelException {
+        IncrementModel model = new IncrementModel(kernels);
+
+        model.initializeConfig("");
+        model.setAttributeValue("state.buffering", "double");
+        model.initializeModel();
+
+        return model;
+    }
+
+    @Test
+    public void testUpdateAsync_SingleBuffered_Completed() throws Exception {
+        CompletableFuture<Void> future = ((AsyncBMI) model).updateAsync();
+
+        assertTrue(future.isDone());
+        assertEquals(2.0, model.getCurrentTime(), 0.0);
+        assertEquals(2.0, model.getDouble("var1")[0], 0.0);
+    }
+
+    @Test
+    public void testUpdateAsync_DoubleBuffered_ReadsPreviousStep() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        IncrementModel model = createDoubleBuffered(new RasterKernels(pool, 16));
+        model.setDoubleAtIndices("var1", new int[] { 4 }, new double[] { 10.0 });
+
+        //keep the only thread of the pool busy, so the step cannot start yet
+        final CountDownLatch latch = new CountDownLatch(1);
+        pool.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        CompletableFuture<Void> future = model.updateAsync();
+
+        assertEquals(1.0, model.getCurrentTime(), 0.0);
+        assertEquals(10.0, model.getDouble("var1")[4], 0.0);
+
+        latch.countDown();
+        future.get();
+
+        assertEquals(2.0, model.getCurrentTime(), 0.0);
+        assertEquals(11.0, model.getDouble("var1")[4], 0.0);
+        assertEquals(2.0, model.getDouble("var1")[5], 0.0);
+
+        model.finalizeModel();
+        pool.shutdown();
+    }
+
+    @Test
+    public void testUpdateAsync_DoubleBuffered_SetWaitsForStep() throws Exception {
+        IncrementModel model = createDoubleBuffered(RasterKernels.getDefault());
+
+        model.updateAsync();
+        model.setDoubleAtIndices("var1", new int[] { 0 }, new double[] { 10.0 });
+        model.updateAsync();
+        model.update();
+
+        assertEquals(4.0, model.getCurrentTime(), 0.0);
+        assertEquals(12.0, model.getDouble("var1")[0], 0.0);
+        assertEquals(4.0, model.getDouble("var1")[1], 0.0);
+
+        model.finalizeModel();
+    }
+
+    @Test
+    public void testUpdateUntilAsync_DoubleBuffered() throws Exception {
+        IncrementModel model = createDoubleBuffered(RasterKernels.getDefault());
+
+        model.updateUntilAsync(5.0).get();
+
+        assertEquals(5.0, model.getCurrentTime(), 0.0);
+        assertEquals(5.0, model.getDouble("var1")[99], 0.0);
+        assertEquals(null, model.getVarHandle("var1").getStorage());
+
+        model.updateUntilAsync(5.0).get();
+        assertEquals(5.0, model.getCurrentTime(), 0.0);
+
+        model.finalizeModel();
+    }
+
+    @Test
+    public void testUpdateUntilAsync_DoubleBuffered_ConcurrentReads() throws Exception {
+        IncrementModel model = new IncrementModel(200, 200, RasterKernels.getDefault());
+        model.initializeConfig("");
+        model.setAttributeValue("state.buffering", "double");
+        model.initializeModel();
+
+        double[] published = model.getDouble("var1");
+        double[] values = new double[published.length];
+
+        CompletableFuture<Void> future = model.updateUntilAsync(20.0);
+        while (!future.isDone()) {
+            double before = model.getCurrentTime();
+            model.getDouble("var1", values, 0, values.length);
+            double after = model.getCurrentTime();
+
+            //values and time always belong to the same step
+            if (before == after) {
+                for (int i = 0; i < values.length; i++) {
+                    assertEquals(before, values[i], 0.0);
+                }
+            }
+        }
+        future.get();
+
+        assertEquals(20.0, model.getCurrentTime(), 0.0);
+        assertEquals(20.0, model.getDouble("var1")[0], 0.0);
+        //the grid handed out before the update was never written by it
+        for (int i = 0; i < published.length; i++) {
+            assertEquals(1.0, published[i], 0.0);
+        }
+
+        model.finalizeModel();
+    }
+
+    @Test
+    public void testGetDoubleChanges_DuringUpdateAsync_NoStepMissed() throws Exception {
+        //records the latest version right after a step wrote its grid, as a concurrent delta read could see it
+        final long[] versionDuringStep = new long[1];
+        RasterKernels kernels = new RasterKernels(RasterKernels.getDefault().getPool(), 16) {
+            @Override
+            public void map(DoubleRaster src, DoubleRaster dest, CellOperator operator) {
+                super.map(src, dest, operator);
+                versionDuringStep[0] = DoubleRaster.getVersion();
+            }
+        };
+        IncrementModel model = createDoubleBuffered(kernels);
+
+        model.updateAsync().get();
+
+        VariableDelta delta = model.getDoubleChanges("var1", versionDuringStep[0]);
+        assertEquals(100, delta.size());
+        assertArrayEquals(model.getDouble("var1"), delta.getValues(), 0.0);
+
+        model.finalizeModel();
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testUpdateUntilAsync_PastEndTime_Exception() throws Exception {
+        ((AsyncBMI) model).updateUntilAsync(25.0);
+    }
+
+    @Test
+    public void testSnapshotRestore() throws Exception {
+        SnapshotBMI model = (SnapshotBMI) this.model;
+        model.setDoubleAtIndices("var1", new int[] { 7 }, new double[] { 10.0 });
+
+        ModelSnapshot snapshot = model.snapshot();
+        model.updateUntil(5.0);
+        model.setDoubleAtIndices("var1", new int[] { 7 }, new double[] { 20.0 });
+
+        model.restore(snapshot);
+        assertEquals(1.0, model.getCurrentTime(), 0.0);
+        assertEquals(10.0, model.getDouble("var1")[7], 0.0);
+        assertEquals(1.0, model.getDouble("var1")[8], 0.0);
+
+        //snapshots can be restored more than once
+        model.update();
+        model.restore(snapshot);
+        assertEquals(1.0, model.getCurrentTime(), 0.0);
+        assertEquals(10.0, model.getDouble("var1")[7], 0.0);
+
+        model.release(snapshot);
+    }
+
+    @Test
+    public void testSnapshotRestore_DoubleBuffered() throws Exception {
+        IncrementModel model = createDoubleBuffered(RasterKernels.getDefault());
+
+        model.update();
+        ModelSnapshot snapshot = model.snapshot();
+        model.update();
+        model.updateAsync().get();
+
+        model.restore(snapshot);
+        assertEquals(2.0, model.getCurrentTime(), 0.0);
+        assertEquals(2.0, model.getDouble("var1")[0], 0.0);
+
+        model.update();
+        assertEquals(3.0, model.getDouble("var1")[0], 0.0);
+
+        model.finalizeModel();
+    }
+
+    @Test
+    public void testGetDoubleChanges_FromZero_AllValues() throws Exception {
+        VariableDelta delta = ((DeltaBMI) model).getDoubleChanges("var1", 0);
+
+        assertEquals(100, delta.size());
+        assertArrayEquals(model.getDouble("var1"), delta.getValues(), 0.0);
+    }
+
+    @Test
+    public void testGetDoubleChanges_NoChanges_Empty() throws Exception {
+        DeltaBMI model = (DeltaBMI) this.model;
+        long version = model.getVarVersion("var1");
+
+        assertTrue(model.getDoubleChanges("var1", version).isEmpty());
+    }
+
+    @Test
+    public void testGetDoubleChanges_OnlyChangedBlocks() throws Exception {
+        IncrementModel model = new IncrementModel(100, 100);
+        model.initialize("");
+        VariableDelta start = model.getDoubleChanges("var1", 0);
+        assertEquals(10000, start.size());
+
+        model.setDoubleAtIndices("var1", new int[] { 5000 }, new double[] { 42.0 });
+        VariableDelta delta = model.getDoubleChanges("var1", start.getVersion());
+
+        assertEquals(DoubleRaster.CHANGE_BLOCK_SIZE, delta.size());
+        assertEquals(1, delta.getPlan().getRunCount());
+        assertEquals(4096, delta.getPlan().getRunStart(0));
+        assertEquals(42.0, delta.getValues()[5000 - 4096], 0.0);
+
+        //the whole grid changes at every step
+        model.update();
+        assertEquals(10000, model.getDoubleChanges("var1", delta.getVersion()).size());
+
+        model.finalizeModel();
+    }
+
+    @Test
+    public void testApplyDoubleChanges() throws Exception {
+        IncrementModel source = new IncrementModel(100, 100);
+        source.initialize("");
+        IncrementModel target = new IncrementModel(100, 100);
+        target.initialize("");
+        long version = source.getVarVersion("var1");
+
+        source.setDoubleAtIndices("var1", new int[] { 10, 9999 }, new double[] { 3.0, 4.0 });
+        VariableDelta delta = source.getDoubleChanges("var1", version);
+        assertEquals(2, delta.getPlan().getRunCount());
+        target.applyDoubleChanges("var1", delta);
+
+        assertArrayEquals(source.getDouble("var1"), target.getDouble("var1"), 0.0);
+
+        source.finalizeModel();
+        target.finalizeModel();
+    }
+
+    @Test
+    public void testGetDoubleChanges_DoubleBuffered_RestoreSwaps() throws Exception {
+        IncrementModel model = createDoubleBuffered(RasterKernels.getDefault());
+
+        ModelSnapshot snapshot = model.snapshot();
+        model.update();
+        long version = model.getVarVersion("var1");
+
+        //restores the other grid, which must be reported as changed as a whole
+        model.restore(snapshot);
+        VariableDelta delta = model.getDoubleChanges("var1", version);
+        assertEquals(100, delta.size());
+        assertEquals(1.0, delta.getValues()[0], 0.0);
+
+        model.finalizeModel();
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testRestore_Released_Exception() throws Exception {
+        SnapshotBMI model = (SnapshotBMI) this.model;
+
+        ModelSnapshot snapshot = model.snapshot();
+        model.release(snapshot);
+
+        model.restore(snapshot);
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testRestore_OtherModel_Exception() throws Exception {
+        IncrementModel other = new IncrementModel();
+        other.initialize("");
+
+        ((SnapshotBMI) model).restore(other.snapshot());
+    }
+
     
     
     
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bmi.BMIGridType;
+import bmi.BMIModelException;
+import bmi.mesh.UnstructuredMesh;
+
+public class MeshDiffusionModelTest {
+
+    //fixture
+    private MeshDiffusionModel model;
+
+    @Before
+    public void setUp() throws BMIModelException {
+        model = new MeshDiffusionModel();
+        model.initialize("");
+    }
+
+    @After
+    public void tearDown() {
+        model.finalizeModel();
+    }
+
+    private static double sum(double[] values) {
+        double result = 0;
+        for (double value : values) {
+            result += value;
+        }
+        return result;
+    }
+
+    @Test
+    public void testInitialState() throws BMIModelException {
+        double[] values = model.getDouble("concentration");
+
+        assertEquals(200, values.length);
+        assertEquals(1.0, values[0], 0.0);
+        assertEquals(1.0, sum(values), 0.0);
+    }
+
+    @Test
+    public void testUpdate_SpreadsToNeighbours() throws BMIModelException {
+        model.update();
+        double[] values = model.getDouble("concentration");
+
+        //face 0 has two neighbours, each receiving 0.1 of its concentration
+        assertEquals(0.8, values[0], 1e-12);
+        assertEquals(0.1, values[1], 1e-12);
+        assertEquals(0.1, values[2 + 1], 1e-12);
+        assertEquals(1.0, model.getCurrentTime(), 0.0);
+    }
+
+    @Test
+    public void testUpdateUntil_ConservesTotal() throws BMIModelException {
+        model.updateUntil(50);
+
+        double[] values = model.getDouble("concentration");
+        assertEquals(1.0, sum(values), 1e-12);
+        assertTrue(values[0] < 0.1);
+        assertTrue(values[199] > 0.0);
+    }
+
+    @Test
+    public void testUpdate_Parallel_SameResult() throws BMIModelException {
+        UnstructuredMesh mesh = UnstructuredMesh.triangulated(30, 40, 1.0, 1.0);
+        MeshDiffusionModel serial = new MeshDiffusionModel(mesh, new RasterKernels(ForkJoinPool.commonPool(), 1 << 20));
+        MeshDiffusionModel parallel = new MeshDiffusionModel(mesh, new RasterKernels(ForkJoinPool.commonPool(), 64));
+        serial.initialize("");
+        parallel.initialize("");
+
+        serial.updateUntil(10);
+        parallel.updateUntil(10);
+
+        assertArrayEquals(serial.getDouble("concentration"), parallel.getDouble("concentration"), 0.0);
+    }
+
+    @Test
+    public void testGrid() throws BMIModelException {
+        assertEquals(BMIGridType.UNSTRUCTURED, model.getGridType("concentration"));
+        assertEquals(121, model.getGridX("concentration").length);
+        assertEquals(201, model.getGridOffset("concentration").length);
+        assertEquals(600, model.getGridConnectivity("concentration").length);
+        assertEquals(200, model.getGridGeometry("concentration").getSize());
+        assertEquals(model.getMesh().getFaceX(5), model.getGridGeometry("concentration").getX(5), 0.0);
+    }
+
+    @Test
+    public void testGrid_ModifiedResult_MeshUnchanged() throws BMIModelException {
+        model.getGridX("concentration")[0] = 100.0;
+        model.getGridConnectivity("concentration")[0] = 100;
+
+        assertEquals(0.0, model.getGridX("concentration")[0], 0.0);
+        assertEquals(0.0, model.getMesh().getNodeX()[0], 0.0);
+        assertEquals(0, model.getGridConnectivity("concentration")[0]);
+    }
+
+    @Test
+    public void testMeshOf() throws BMIModelException {
+        UnstructuredMesh mesh = UnstructuredMesh.of(model, "concentration");
+
+        assertEquals(200, mesh.getFaceCount());
+        assertEquals(3, mesh.getMaxNeighbourCount());
+    }
+
+    @Test
+    public void testSetDouble() throws BMIModelException {
+        double[] values = new double[200];
+        values[10] = 2.0;
+        model.setDouble("concentration", values);
+        model.update();
+
+        assertEquals(2.0, sum(model.getDouble("concentration")), 1e-12);
+    }
+
+    @Test
+    public void testSetDiffusivity_BeforeInitialize() throws BMIModelException {
+        MeshDiffusionModel model = new MeshDiffusionModel();
+        model.setAttributeValue("diffusivity", "0.2");
+        model.initialize("");
+
+        assertEquals("0.2", model.getAttributeValue("diffusivity"));
+        model.update();
+        //face 0 has two neighbours, each receiving 0.2 of its concentration
+        assertEquals(0.6, model.getDouble("concentration")[0], 1e-12);
+
+        model.finalizeModel();
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testInitialize_UnstableDiffusivity_Exception() throws BMIModelException {
+        MeshDiffusionModel model = new MeshDiffusionModel();
+        model.initializeConfig("");
+        model.setAttributeValue("diffusivity", "0.5");
+        model.initializeModel();
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testGetDouble_UnknownVariable_Exception() throws BMIModelException {
+        model.getDouble("var1");
+    }
+
+}
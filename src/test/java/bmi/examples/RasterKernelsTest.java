@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class RasterKernelsTest {
+
+    private static final int WIDTH = 37;
+    private static final int HEIGHT = 23;
+
+    //tiny threshold, so work is split into many blocks
+    private final RasterKernels kernels = new RasterKernels(new ForkJoinPool(4), 50);
+
+    private static DoubleRaster createRaster(RasterStorage storage) {
+        DoubleRaster result = new DoubleRaster(WIDTH, HEIGHT, storage);
+        for (int i = 0; i < WIDTH * HEIGHT; i++) {
+            storage.set(i, i % 11);
+        }
+        return result;
+    }
+
+    /**
+     * Straightforward implementation of a stencil summing all neighbours, to compare against.
+     */
+    private static double neighbourSum(DoubleRaster raster, int row, int column, int radius, Boundary boundary) {
+        double result = 0;
+        for (int dy = -radius; dy <= radius; dy++) {
+            for (int dx = -radius; dx <= radius; dx++) {
+                int y = boundary.map(row + dy, HEIGHT);
+                int x = boundary.map(column + dx, WIDTH);
+                if (x >= 0 && y >= 0) {
+                    result += raster.getStorage().get(y * WIDTH + x);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void assertStencil(RasterStorage in, RasterStorage out, int radius, Boundary boundary) {
+        DoubleRaster src = createRaster(in);
+        DoubleRaster dest = new DoubleRaster(WIDTH, HEIGHT, out);
+
+        kernels.stencil(src, dest, radius, boundary, new StencilOperator() {
+            @Override
+            public double apply(double[] window, int row, int column) {
+                double sum = 0;
+                for (double value : window) {
+                    sum += value;
+                }
+                return sum;
+            }
+        });
+
+        for (int row = 0; row < HEIGHT; row++) {
+            for (int column = 0; column < WIDTH; column++) {
+                assertEquals(boundary + " at " + row + "," + column, neighbourSum(src, row, column, radius, boundary),
+                        out.get(row * WIDTH + column), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testStencil() {
+        for (Boundary boundary : Boundary.values()) {
+            for (int radius = 1; radius <= 2; radius++) {
+                assertStencil(new HeapRasterStorage(WIDTH * HEIGHT), new HeapRasterStorage(WIDTH * HEIGHT), radius, boundary);
+            }
+        }
+    }
+
+    @Test
+    public void testStencil_DirectStorage() {
+        assertStencil(new DirectRasterStorage(WIDTH * HEIGHT, 4), new DirectRasterStorage(WIDTH * HEIGHT, 5), 2,
+                Boundary.REFLECT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStencil_SameRaster_Exception() {
+        DoubleRaster raster = new DoubleRaster(WIDTH, HEIGHT);
+
+        kernels.stencil(raster, raster, 1, Boundary.CLAMP, null);
+    }
+
+    @Test
+    public void testMap() {
+        DoubleRaster raster = createRaster(new DirectRasterStorage(WIDTH * HEIGHT, 6));
+
+        kernels.map(raster, new CellOperator() {
+            @Override
+            public double apply(int row, int column, double value) {
+                return row * 1000 + column + value / 100;
+            }
+        });
+
+        for (int i = 0; i < WIDTH * HEIGHT; i++) {
+            assertEquals((i / WIDTH) * 1000 + (i % WIDTH) + (i % 11) / 100.0, raster.getStorage().get(i), 0.0);
+        }
+    }
+
+    @Test
+    public void testFillAndAdd() {
+        DoubleRaster raster = new DoubleRaster(WIDTH, HEIGHT);
+
+        kernels.fill(raster, 3.0);
+        kernels.add(raster, 1.5);
+
+        for (double value : raster.getValues()) {
+            assertEquals(4.5, value, 0.0);
+        }
+    }
+
+}
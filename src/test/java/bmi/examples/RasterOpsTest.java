@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Compares the best available implementation (vectorized if available) to the scalar one.
+ */
+public class RasterOpsTest {
+
+    //not a multiple of any vector length, to test the tail loops
+    private static final int SIZE = 1003;
+    private static final int OFFSET = 3;
+
+    private final RasterOps ops = RasterOps.get();
+    private final RasterOps scalar = RasterOps.scalar();
+
+    private static double[] random(long seed) {
+        Random random = new Random(seed);
+        double[] result = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            result[i] = random.nextDouble() * 100 - 50;
+        }
+        result[17] = Double.NaN;
+        return result;
+    }
+
+    private static int[] randomIndices(long seed, int count) {
+        Random random = new Random(seed);
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = random.nextInt(SIZE);
+        }
+        return result;
+    }
+
+    @Test
+    public void testFillAndAddScalar() {
+        double[] expected = random(1);
+        double[] result = random(1);
+
+        scalar.fill(expected, OFFSET, 500, 4.0);
+        ops.fill(result, OFFSET, 500, 4.0);
+        scalar.addScalar(expected, 200, 801, 0.5);
+        ops.addScalar(result, 200, 801, 0.5);
+
+        assertArrayEquals(expected, result, 0.0);
+    }
+
+    @Test
+    public void testGather() {
+        double[] src = random(2);
+        int[] indices = randomIndices(3, 333);
+
+        double[] expected = new double[SIZE];
+        double[] result = new double[SIZE];
+        scalar.gather(src, indices, expected, OFFSET);
+        ops.gather(src, indices, result, OFFSET);
+
+        assertArrayEquals(expected, result, 0.0);
+    }
+
+    @Test
+    public void testScatter() {
+        double[] src = random(4);
+        //distinct indices, the result for duplicates is unspecified
+        int[] indices = new int[331];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = (i * 7) % SIZE;
+        }
+
+        double[] expected = random(5);
+        double[] result = random(5);
+        scalar.scatter(src, OFFSET, indices, expected);
+        ops.scatter(src, OFFSET, indices, result);
+
+        assertArrayEquals(expected, result, 0.0);
+    }
+
+    @Test
+    public void testAxpyAndClamp() {
+        double[] x = random(6);
+        double[] expected = random(7);
+        double[] result = random(7);
+
+        scalar.axpy(1.5, x, 1, expected, OFFSET, 999);
+        ops.axpy(1.5, x, 1, result, OFFSET, 999);
+        scalar.clamp(expected, 0, SIZE, -10, 20);
+        ops.clamp(result, 0, SIZE, -10, 20);
+
+        assertArrayEquals(expected, result, 0.0);
+    }
+
+    @Test
+    public void testMaskedAdd() {
+        double[] expected = random(8);
+        double[] result = random(8);
+        boolean[] mask = new boolean[SIZE];
+        for (int i = 0; i < SIZE; i += 3) {
+            mask[i] = true;
+        }
+
+        scalar.maskedAdd(expected, OFFSET, 990, mask, 5, 2.0);
+        ops.maskedAdd(result, OFFSET, 990, mask, 5, 2.0);
+
+        assertArrayEquals(expected, result, 0.0);
+    }
+
+    @Test
+    public void testReductions() {
+        double[] a = random(9);
+
+        assertEquals(scalar.min(a, OFFSET, 997), ops.min(a, OFFSET, 997), 0.0);
+        assertEquals(scalar.max(a, OFFSET, 997), ops.max(a, OFFSET, 997), 0.0);
+        assertEquals(scalar.sum(a, 20, 900), ops.sum(a, 20, 900), 1e-9);
+        assertEquals(Double.POSITIVE_INFINITY, ops.min(a, 0, 0), 0.0);
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class RasterSnapshotTest {
+
+    //three and a half snapshot blocks
+    private static final int WIDTH = 512;
+    private static final int HEIGHT = 28;
+
+    private static double[] range(int length, double first) {
+        double[] result = new double[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = first + i;
+        }
+        return result;
+    }
+
+    @Test
+    public void testSnapshot_CopiesOnlyModifiedBlocks() {
+        DoubleRaster raster = new DoubleRaster(WIDTH, HEIGHT);
+        RasterSnapshot snapshot = raster.snapshot();
+
+        assertEquals(0, snapshot.getCopiedBlocks());
+
+        raster.setValues(new int[] { 5, 4100, 4101 }, new double[] { 1, 2, 3 });
+        assertEquals(2, snapshot.getCopiedBlocks());
+
+        raster.setRange(4000, range(200, 0), 0, 200);
+        assertEquals(2, snapshot.getCopiedBlocks());
+
+        raster.restore(snapshot);
+        assertArrayEquals(new double[WIDTH * HEIGHT], raster.getValues(), 0.0);
+    }
+
+    @Test
+    public void testSnapshot_Kernels() {
+        DoubleRaster raster = new DoubleRaster(WIDTH, HEIGHT, new DirectRasterStorage(WIDTH * HEIGHT));
+        raster.setValues(range(WIDTH * HEIGHT, 0));
+        double[] expected = raster.getValues();
+
+        RasterSnapshot snapshot = raster.snapshot();
+        new RasterKernels(RasterKernels.getDefault().getPool(), 1000).add(raster, 1.0);
+
+        assertEquals(4, snapshot.getCopiedBlocks());
+
+        raster.restore(snapshot);
+        assertArrayEquals(expected, raster.getValues(), 0.0);
+    }
+
+    @Test
+    public void testSnapshot_Multiple() {
+        DoubleRaster raster = new DoubleRaster(WIDTH, HEIGHT);
+
+        RasterSnapshot first = raster.snapshot();
+        raster.setRange(0, new double[] { 1 }, 0, 1);
+        RasterSnapshot second = raster.snapshot();
+        raster.setRange(0, new double[] { 2 }, 0, 1);
+        raster.setRange(5000, new double[] { 2 }, 0, 1);
+
+        raster.restore(second);
+        assertEquals(1.0, raster.getValues()[0], 0.0);
+        assertEquals(0.0, raster.getValues()[5000], 0.0);
+
+        //restoring the first snapshot modifies the raster, so the second should copy the current values first
+        raster.restore(first);
+        assertEquals(0.0, raster.getValues()[0], 0.0);
+
+        raster.restore(second);
+        assertEquals(1.0, raster.getValues()[0], 0.0);
+
+        raster.release(first);
+        raster.release(second);
+        raster.setRange(9000, new double[] { 3 }, 0, 1);
+        assertEquals(2, first.getCopiedBlocks());
+        assertEquals(true, first.isReleased());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRestore_OtherRaster_Exception() {
+        DoubleRaster raster = new DoubleRaster(WIDTH, HEIGHT);
+
+        new DoubleRaster(WIDTH, HEIGHT).restore(raster.snapshot());
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.DoubleBuffer;
+
+import org.junit.Test;
+
+public class RasterStorageTest {
+
+    //small chunks, so bulk copies cross chunk boundaries
+    private static final int CHUNK_SHIFT = 3;
+
+    private static void assertStorage(RasterStorage storage) {
+        assertEquals(20, storage.size());
+
+        storage.fill(0, 20, 1.0);
+        storage.add(5, 10, 2.0);
+        storage.set(19, 7.0);
+
+        assertEquals(1.0, storage.get(4), 0.0);
+        assertEquals(3.0, storage.get(5), 0.0);
+        assertEquals(3.0, storage.get(14), 0.0);
+        assertEquals(1.0, storage.get(15), 0.0);
+        assertEquals(7.0, storage.get(19), 0.0);
+
+        double[] values = new double[12];
+        storage.get(4, values, 1, 11);
+        assertArrayEquals(new double[] { 0, 1, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3 }, values, 0.0);
+
+        double[] src = new double[20];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = i;
+        }
+        storage.set(2, src, 3, 17);
+        assertEquals(1.0, storage.get(1), 0.0);
+        assertEquals(3.0, storage.get(2), 0.0);
+        assertEquals(19.0, storage.get(18), 0.0);
+
+        DoubleBuffer buffer = DoubleBuffer.allocate(20);
+        buffer.put(-1.0);
+        storage.get(0, buffer, 19);
+        assertEquals(20, buffer.position());
+        assertEquals(3.0, buffer.get(3), 0.0);
+
+        buffer.flip();
+        buffer.get();
+        storage.set(1, buffer, 19);
+        assertEquals(20, buffer.position());
+        assertEquals(4.0, storage.get(4), 0.0);
+        assertEquals(19.0, storage.get(19), 0.0);
+
+        float[] floats = new float[4];
+        storage.get(16, floats, 0, 4);
+        assertArrayEquals(new float[] { 16, 17, 18, 19 }, floats, 0.0f);
+        storage.set(0, new float[] { 0.5f, 0.25f }, 0, 2);
+        assertEquals(0.25, storage.get(1), 0.0);
+
+        storage.close();
+    }
+
+    @Test
+    public void testHeapStorage() {
+        assertStorage(new HeapRasterStorage(20));
+    }
+
+    @Test
+    public void testHeapFloatStorage() {
+        HeapFloatRasterStorage storage = new HeapFloatRasterStorage(20);
+        assertEquals("float32", storage.getType());
+        assertEquals(20, storage.floatArray().length);
+
+        assertStorage(storage);
+    }
+
+    @Test
+    public void testDirectStorage() {
+        assertStorage(new DirectRasterStorage(20, CHUNK_SHIFT));
+    }
+
+    @Test
+    public void testMappedStorage() throws Exception {
+        File file = File.createTempFile("raster-storage-test", ".raster");
+        file.deleteOnExit();
+
+        assertStorage(new MappedRasterStorage(file, 20, CHUNK_SHIFT));
+
+        //values are kept in the file
+        RasterStorage storage = new MappedRasterStorage(file, 20, CHUNK_SHIFT);
+        assertEquals(19.0, storage.get(19), 0.0);
+        storage.close();
+    }
+
+}
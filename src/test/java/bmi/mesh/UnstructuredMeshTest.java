@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.mesh;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class UnstructuredMeshTest {
+
+    //two triangles and a quad:
+    //
+    // 3---4---5
+    // | / |   |
+    // 0---1---2
+    private final UnstructuredMesh mesh = UnstructuredMesh.create(new double[] { 0, 1, 2, 0, 1, 2 },
+            new double[] { 0, 0, 0, 1, 1, 1 }, new int[] { 0, 1, 4, 0, 4, 3, 1, 2, 5, 4 }, new int[] { 0, 3, 6, 10 });
+
+    private static int[] neighbours(UnstructuredMesh mesh, int face) {
+        int[] result = new int[mesh.getNeighbourCount(face)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = mesh.getNeighbour(face, i);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    @Test
+    public void testFaces() {
+        assertEquals(6, mesh.getNodeCount());
+        assertEquals(3, mesh.getFaceCount());
+        assertEquals(4, mesh.getFaceSize(2));
+        assertEquals(5, mesh.getFaceNode(2, 2));
+        assertEquals(1.5, mesh.getFaceX(2), 0.0);
+        assertEquals(0.5, mesh.getFaceY(2), 0.0);
+    }
+
+    @Test
+    public void testNodeFaces() {
+        assertEquals(2, mesh.getNodeFaceCount(0));
+        assertEquals(3, mesh.getNodeFaceCount(4));
+        assertEquals(2, mesh.getNodeFace(5, 0));
+        assertEquals(2, mesh.getNodeFace(4, 2));
+    }
+
+    @Test
+    public void testNeighbours() {
+        assertArrayEquals(new int[] { 1, 2 }, neighbours(mesh, 0));
+        assertArrayEquals(new int[] { 0 }, neighbours(mesh, 1));
+        assertArrayEquals(new int[] { 0 }, neighbours(mesh, 2));
+        assertEquals(2, mesh.getMaxNeighbourCount());
+        assertArrayEquals(new int[] { 0, 2, 3, 4 }, mesh.getNeighbourOffsets());
+    }
+
+    @Test
+    public void testTriangulated() {
+        UnstructuredMesh mesh = UnstructuredMesh.triangulated(3, 4, 1.0, 2.0);
+
+        assertEquals(20, mesh.getNodeCount());
+        assertEquals(24, mesh.getFaceCount());
+        assertEquals(8.0, mesh.getNodeX(19), 0.0);
+        assertEquals(3.0, mesh.getNodeY(19), 0.0);
+        //interior triangles have three neighbours, corner triangles one
+        assertEquals(3, mesh.getMaxNeighbourCount());
+        assertEquals(1, mesh.getNeighbourCount(2 * 3));
+        assertEquals(1, mesh.getNeighbourCount(2 * 8 + 1));
+        assertEquals(3, mesh.getNeighbourCount(2 * 5));
+    }
+
+    @Test
+    public void testFaceGeometry() {
+        assertEquals(3, mesh.getFaceGeometry().getSize());
+        assertArrayEquals(new double[] { 2.0 / 3, 1.0 / 3, 1.5 }, mesh.getFaceGeometry().getGridX(), 1e-12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreate_UnknownNode_Exception() {
+        UnstructuredMesh.create(new double[3], new double[3], new int[] { 0, 1, 3 }, new int[] { 0, 3 });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreate_InvalidOffsets_Exception() {
+        UnstructuredMesh.create(new double[3], new double[3], new int[] { 0, 1, 2 }, new int[] { 0, 2 });
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import bmi.BMIModelException;
+import bmi.examples.IncrementModel;
+
+public class MetricsEBMITest {
+
+    //fixture
+    private MetricsEBMI model;
+
+    @Before
+    public void setUp() throws BMIModelException {
+        this.model = new MetricsEBMI(new IncrementModel());
+
+        this.model.initialize("");
+    }
+
+    @Test
+    public void testCountsAndBytes() throws Exception {
+        model.update();
+        model.update();
+        model.getDouble("var1");
+        model.getDoubleAtIndices("var1", new int[] { 1, 2, 3 });
+        model.setDouble("var1", new double[100]);
+
+        MetricsSnapshot snapshot = model.snapshot();
+
+        assertEquals(2, snapshot.getEntry(BMIMethod.UPDATE, null).getCount());
+        assertEquals(1, snapshot.getEntry(BMIMethod.INITIALIZE, null).getCount());
+        assertEquals(800, snapshot.getEntry(BMIMethod.GET_DOUBLE, "var1").getBytes());
+        assertEquals(24, snapshot.getEntry(BMIMethod.GET_DOUBLE_AT_INDICES, "var1").getBytes());
+        assertEquals(800, snapshot.getEntry(BMIMethod.SET_DOUBLE, "var1").getBytes());
+        assertNull(snapshot.getEntry(BMIMethod.GET_FLOAT, "var1"));
+    }
+
+    @Test
+    public void testFailedCallsAreTimed() throws Exception {
+        model.getDouble("var1");
+        try {
+            model.getDoubleAtIndices("var1", new int[] { 1000 });
+            fail("expected exception");
+        } catch (RuntimeException e) {
+            //expected
+        }
+
+        MetricsSnapshot.Entry entry = model.snapshot().getEntry(BMIMethod.GET_DOUBLE_AT_INDICES, "var1");
+        assertEquals(1, entry.getCount());
+        assertEquals(0, entry.getBytes());
+    }
+
+    @Test
+    public void testUnknownVariable_NoEntry() throws Exception {
+        try {
+            model.getDouble("doesNotExistVar");
+            fail("expected exception");
+        } catch (BMIModelException e) {
+            //expected
+        }
+
+        assertNull(model.snapshot().getEntry(BMIMethod.GET_DOUBLE, "doesNotExistVar"));
+    }
+
+    @Test
+    public void testCsvExport() throws Exception {
+        model.update();
+
+        String csv = model.snapshot().toString();
+
+        assertTrue(csv.startsWith(MetricsSnapshot.CSV_HEADER + "\n"));
+        assertTrue(csv.contains("\nupdate,,1,0,"));
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        model.getDouble("var1");
+        model.reset();
+
+        assertNull(model.snapshot().getEntry(BMIMethod.GET_DOUBLE, "var1"));
+    }
+
+    @Test
+    public void testHistogramBuckets() {
+        for (long value : new long[] { 0, 1, 31, 32, 33, 63, 64, 65, 1000, 123456789, 1L << 40 }) {
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(value + " below bucket", LatencyHistogram.lowestValue(bucket) <= value);
+            assertTrue(value + " above bucket", LatencyHistogram.highestValue(bucket) >= value);
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1000000, snapshot.getMax());
+        assertEquals(500000, snapshot.getValueAtPercentile(50), 500000 * 0.04);
+        assertEquals(990000, snapshot.getValueAtPercentile(99), 990000 * 0.04);
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.output;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import bmi.BMIModelException;
+import bmi.examples.IncrementModel;
+
+public class OutputRecorderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    //fixture
+    private IncrementModel model;
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        this.model = new IncrementModel();
+        this.model.initialize("");
+        this.file = folder.newFile("output.bin");
+    }
+
+    @After
+    public void tearDown() throws BMIModelException {
+        model.finalizeModel();
+    }
+
+    private void run(OutputRecorder recorder, int steps) throws BMIModelException {
+        recorder.start();
+        recorder.record();
+        for (int i = 0; i < steps; i++) {
+            model.update();
+            recorder.record();
+        }
+        recorder.close();
+    }
+
+    private void checkRecords(OutputReader reader) throws BMIModelException {
+        assertArrayEquals(new String[] { "var1" }, reader.getVariableNames());
+        assertEquals(100, reader.getSize("var1"));
+        assertEquals(3, reader.getRecordCount("var1"));
+        assertArrayEquals(new double[] { 1.0, 3.0, 5.0 }, reader.getTimes("var1"), 0.0);
+
+        double[] expected = new double[100];
+        for (int record = 2; record >= 0; record--) {
+            Arrays.fill(expected, 1.0 + 2 * record);
+            assertArrayEquals(expected, reader.read("var1", record), 0.0);
+        }
+    }
+
+    @Test
+    public void testRecordAndRead() throws Exception {
+        OutputRecorder recorder = new OutputRecorder(model, file);
+        recorder.addVariable("var1", 2);
+        run(recorder, 5);
+
+        OutputReader reader = new OutputReader(file);
+        try {
+            checkRecords(reader);
+            assertEquals(2, reader.findRecord("var1", 5.0));
+            assertEquals(-1, reader.findRecord("var1", 2.0));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testCompressed() throws Exception {
+        OutputRecorder recorder = new OutputRecorder(model, file, 1, true);
+        recorder.addVariable("var1", 2);
+        run(recorder, 5);
+
+        //constant grids compress very well
+        assertTrue(file.length() < 3 * 100 * 8);
+
+        OutputReader reader = new OutputReader(file);
+        try {
+            assertTrue(reader.isCompressed());
+            checkRecords(reader);
+
+            double[] dest = new double[102];
+            reader.read("var1", 1, dest, 2);
+            assertEquals(3.0, dest[101], 0.0);
+            assertEquals(0.0, dest[1], 0.0);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testRecordOutOfRange() throws Exception {
+        OutputRecorder recorder = new OutputRecorder(model, file);
+        recorder.addVariable("var1", 1);
+        run(recorder, 1);
+
+        OutputReader reader = new OutputReader(file);
+        try {
+            reader.read("var1", 2);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testNotClosed() throws Exception {
+        OutputRecorder recorder = new OutputRecorder(model, file);
+        recorder.addVariable("var1", 1);
+        recorder.start();
+        recorder.record();
+
+        try {
+            new OutputReader(file).close();
+        } finally {
+            recorder.close();
+        }
+    }
+
+}
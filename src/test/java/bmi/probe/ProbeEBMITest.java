@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.probe;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bmi.BMIModelException;
+import bmi.ForwardingEBMI;
+import bmi.examples.IncrementModel;
+
+public class ProbeEBMITest {
+
+    //fixture
+    private IncrementModel model;
+    private ProbeEBMI probing;
+
+    @Before
+    public void setUp() throws BMIModelException {
+        model = new IncrementModel();
+        probing = new ProbeEBMI(model);
+        probing.initialize("");
+    }
+
+    @After
+    public void tearDown() throws BMIModelException {
+        probing.finalizeModel();
+    }
+
+    @Test
+    public void testUpdate_CapturesSample() throws BMIModelException {
+        model.setDoubleAtIndices("var1", new int[] { 7 }, new double[] { 10.0 });
+        Probe probe = probing.addProbe("var1", new int[] { 7, 3 });
+
+        probing.update();
+        probing.update();
+
+        assertEquals(2, probe.getSampleCount());
+        assertArrayEquals(new double[] { 2.0, 3.0 }, probe.getTimes(), 0.0);
+        assertArrayEquals(new double[] { 11.0, 2.0, 12.0, 3.0 }, probe.toArray(), 0.0);
+        assertArrayEquals(new double[] { 11.0, 12.0 }, probe.getSeries(0), 0.0);
+    }
+
+    @Test
+    public void testUpdateUntil_CapturesEveryStep() throws BMIModelException {
+        Probe probe = probing.addProbe("var1", new int[] { 0 });
+        probing.sample();
+
+        probing.updateUntil(5.0);
+
+        assertEquals(5.0, probing.getCurrentTime(), 0.0);
+        assertArrayEquals(new double[] { 1, 2, 3, 4, 5 }, probe.getTimes(), 0.0);
+        assertArrayEquals(new double[] { 1, 2, 3, 4, 5 }, probe.getSeries(0), 0.0);
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testUpdateUntil_PastEndTime_Exception() throws BMIModelException {
+        probing.addProbe("var1", new int[] { 0 });
+
+        probing.updateUntil(100.0);
+    }
+
+    @Test
+    public void testCapacity_KeepsLastSamples() throws BMIModelException {
+        Probe probe = probing.addProbe("var1", new int[] { 99 }, 3);
+
+        probing.updateUntil(6.0);
+
+        assertEquals(3, probe.getSampleCount());
+        assertEquals(5, probe.getCapturedCount());
+        assertArrayEquals(new double[] { 4, 5, 6 }, probe.getSeries(0), 0.0);
+    }
+
+    @Test
+    public void testDuplicateIndices() throws BMIModelException {
+        Probe probe = probing.addProbe("var1", new int[] { 5, 2, 5 });
+        model.setDoubleAtIndices("var1", new int[] { 2 }, new double[] { 0.0 });
+
+        probing.update();
+        double[] values = new double[4];
+        probe.getValues(0, values, 1);
+
+        assertArrayEquals(new double[] { 0, 2, 1, 2 }, values, 0.0);
+    }
+
+    @Test
+    public void testManyChunks() throws BMIModelException {
+        IncrementModel large = new IncrementModel(200, 200);
+        ProbeEBMI probing = new ProbeEBMI(large);
+        probing.initializeConfig("");
+        probing.setEndTime(1000);
+        probing.initializeModel();
+        int[] indices = new int[1000];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i * 40;
+        }
+        Probe probe = probing.addProbe("var1", indices);
+
+        probing.updateUntil(200);
+
+        assertEquals(199, probe.getSampleCount());
+        assertEquals(200.0, probe.getTime(198), 0.0);
+        assertEquals(200.0, probe.getSeries(999)[198], 0.0);
+        probing.finalizeModel();
+    }
+
+    @Test
+    public void testModelWithoutBufferedAccess() throws BMIModelException {
+        //hides the buffered and index plan functions of the model
+        ProbeEBMI probing = new ProbeEBMI(new ForwardingEBMI(model) {
+        });
+        Probe probe = probing.addProbe("var1", new int[] { 4 });
+
+        probing.update();
+
+        assertArrayEquals(new double[] { 2.0 }, probe.toArray(), 0.0);
+    }
+
+    @Test
+    public void testClear() throws BMIModelException {
+        Probe probe = probing.addProbe("var1", new int[] { 4 });
+        probing.update();
+
+        probe.clear();
+        probing.update();
+
+        assertArrayEquals(new double[] { 3.0 }, probe.getTimes(), 0.0);
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testAddProbe_IndexOutsideVariable_Exception() throws BMIModelException {
+        probing.addProbe("var1", new int[] { 100 });
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testAddProbe_UnknownVariable_Exception() throws BMIModelException {
+        probing.addProbe("var2", new int[] { 1 });
+    }
+
+}
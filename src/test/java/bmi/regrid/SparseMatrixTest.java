@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.regrid;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class SparseMatrixTest {
+
+    // [ 1 0 2 ]
+    // [ 0 0 0 ]
+    // [ 0 3 0 ]
+    private final SparseMatrix matrix = new SparseMatrix(3, 3, new int[] { 0, 2, 2, 3 }, new int[] { 0, 2, 1 },
+            new double[] { 1, 2, 3 });
+
+    @Test
+    public void testMultiply() {
+        double[] result = new double[] { -1, -1, -1 };
+
+        matrix.multiply(new double[] { 1, 10, 100 }, result);
+
+        assertArrayEquals(new double[] { 201, 0, 30 }, result, 0.0);
+    }
+
+    @Test
+    public void testGetRowSums() {
+        assertArrayEquals(new double[] { 3, 0, 3 }, matrix.getRowSums(), 0.0);
+        assertEquals(3, matrix.getEntries());
+    }
+
+    @Test
+    public void testMultiply_Parallel() {
+        //random matrix with rows of very different lengths, large enough to be split
+        int rows = 5000;
+        int columns = 1000;
+        Random random = new Random(42);
+        int[] rowStart = new int[rows + 1];
+        for (int row = 0; row < rows; row++) {
+            rowStart[row + 1] = rowStart[row] + (row % 100 == 0 ? 500 : random.nextInt(20));
+        }
+        int[] columnIndices = new int[rowStart[rows]];
+        double[] values = new double[rowStart[rows]];
+        for (int i = 0; i < values.length; i++) {
+            columnIndices[i] = random.nextInt(columns);
+            values[i] = random.nextDouble();
+        }
+        SparseMatrix matrix = new SparseMatrix(rows, columns, rowStart, columnIndices, values);
+        double[] x = new double[columns];
+        for (int i = 0; i < columns; i++) {
+            x[i] = random.nextDouble();
+        }
+
+        double[] expected = new double[rows];
+        matrix.multiply(x, expected);
+        double[] result = new double[rows];
+        ForkJoinPool pool = new ForkJoinPool(4);
+        matrix.multiply(x, result, pool);
+        pool.shutdown();
+
+        assertArrayEquals(expected, result, 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreate_InvalidColumn_Exception() {
+        new SparseMatrix(1, 2, new int[] { 0, 1 }, new int[] { 2 }, new double[] { 1 });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMultiply_ShortVector_Exception() {
+        matrix.multiply(new double[2], new double[3]);
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.regrid;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import bmi.BMIGridType;
+import bmi.BMIModelException;
+import bmi.examples.IncrementModel;
+
+public class WeightsTest {
+
+    private static double[] regrid(SparseMatrix weights, double[] values) {
+        double[] result = new double[weights.getRows()];
+        weights.multiply(values, result);
+        return result;
+    }
+
+    //4x4 grid with unit spacing, value = 10 * y + x
+    private final GridDescription fine = GridDescription.uniform(new int[] { 4, 4 }, new double[] { 1, 1 },
+            new double[] { 0, 0 });
+    private final double[] fineValues = new double[] { 0, 1, 2, 3, 10, 11, 12, 13, 20, 21, 22, 23, 30, 31, 32, 33 };
+
+    //2x2 grid with spacing 2, covering the same area as the fine grid
+    private final GridDescription coarse = GridDescription.uniform(new int[] { 2, 2 }, new double[] { 2, 2 },
+            new double[] { 0.5, 0.5 });
+
+    @Test
+    public void testNearest() throws Exception {
+        GridDescription target = GridDescription.unstructured(new double[] { 0.4, 2.6, 10.0 }, new double[] { 0.0, 1.2, -3.0 });
+
+        SparseMatrix weights = Weights.build(fine, target, RegridMethod.NEAREST);
+
+        assertArrayEquals(new double[] { 0, 13, 3 }, regrid(weights, fineValues), 0.0);
+    }
+
+    @Test
+    public void testNearest_UnstructuredSource() throws Exception {
+        GridDescription source = GridDescription.unstructured(new double[] { 0, 5, 0, 5, 2.5 },
+                new double[] { 0, 0, 5, 5, 2.5 });
+        GridDescription target = GridDescription.rectilinear(new double[] { 1.5, 4.9 }, new double[] { 0.1, 3.0 });
+
+        SparseMatrix weights = Weights.build(source, target, RegridMethod.NEAREST);
+
+        assertArrayEquals(new double[] { 1, 2, 5, 4 }, regrid(weights, new double[] { 1, 2, 3, 4, 5 }), 0.0);
+    }
+
+    @Test
+    public void testBilinear_LinearFieldIsExact() throws Exception {
+        GridDescription target = GridDescription.rectilinear(new double[] { 0.5, 1.25, 2.9 }, new double[] { 0.0, 2.5 });
+
+        SparseMatrix weights = Weights.build(fine, target, RegridMethod.BILINEAR);
+
+        assertArrayEquals(new double[] { 0.5, 1.25, 2.9, 25.5, 26.25, 27.9 }, regrid(weights, fineValues), 1e-12);
+    }
+
+    @Test
+    public void testBilinear_OutsideUsesEdge() throws Exception {
+        GridDescription target = GridDescription.unstructured(new double[] { -5.0 }, new double[] { 1.0 });
+
+        SparseMatrix weights = Weights.build(fine, target, RegridMethod.BILINEAR);
+
+        assertArrayEquals(new double[] { 10 }, regrid(weights, fineValues), 1e-12);
+    }
+
+    @Test
+    public void testConservative_Coarsen() throws Exception {
+        SparseMatrix weights = Weights.build(fine, coarse, RegridMethod.CONSERVATIVE);
+
+        //every coarse cell is the mean of four fine cells
+        assertArrayEquals(new double[] { 5.5, 7.5, 25.5, 27.5 }, regrid(weights, fineValues), 1e-12);
+        assertArrayEquals(new double[] { 1, 1, 1, 1 }, weights.getRowSums(), 1e-12);
+    }
+
+    @Test
+    public void testConservative_PreservesTotal() throws Exception {
+        SparseMatrix weights = Weights.build(coarse, fine, RegridMethod.CONSERVATIVE);
+        double[] coarseValues = new double[] { 1, 2, 3, 4 };
+
+        double[] result = regrid(weights, coarseValues);
+
+        //fine cells have a quarter of the area of coarse cells
+        double total = 0;
+        for (double value : result) {
+            total += value / 4;
+        }
+        assertEquals(10.0, total, 1e-12);
+        assertEquals(1.0, result[0], 1e-12);
+        assertEquals(4.0, result[15], 1e-12);
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testBilinear_UnstructuredSource_Exception() throws Exception {
+        Weights.build(GridDescription.unstructured(new double[] { 0, 1 }, new double[] { 0, 1 }), fine,
+                RegridMethod.BILINEAR);
+    }
+
+    @Test
+    public void testGridDescription_Of() throws Exception {
+        IncrementModel model = new IncrementModel(3, 5);
+        model.initialize("");
+
+        GridDescription grid = GridDescription.of(model, "var1");
+
+        assertEquals(BMIGridType.UNIFORM, grid.getType());
+        assertEquals(15, grid.getSize());
+        assertEquals(4.0, grid.getX(14), 0.0);
+        assertEquals(2.0, grid.getY(14), 0.0);
+        assertEquals(GridDescription.uniform(new int[] { 3, 5 }, new double[] { 1, 1 }, new double[] { 0, 0 }), grid);
+        model.finalizeModel();
+    }
+
+    @Test
+    public void testWeightCache() throws Exception {
+        WeightCache cache = new WeightCache();
+
+        SparseMatrix first = cache.getWeights(fine, coarse, RegridMethod.CONSERVATIVE);
+        SparseMatrix second = cache.getWeights(
+                GridDescription.uniform(new int[] { 4, 4 }, new double[] { 1, 1 }, new double[] { 0, 0 }), coarse,
+                RegridMethod.CONSERVATIVE);
+        cache.getWeights(fine, coarse, RegridMethod.NEAREST);
+
+        assertSame(first, second);
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.size());
+    }
+
+}
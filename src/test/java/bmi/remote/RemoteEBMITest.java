@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.remote;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bmi.BMIGridType;
+import bmi.BMIModelException;
+import bmi.examples.IncrementModel;
+
+public class RemoteEBMITest {
+
+    //fixture
+    private BMIServer server;
+    private RemoteEBMI model;
+
+    @Before
+    public void setUp() throws Exception {
+        this.server = BMIServer.open(new IncrementModel(), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        this.model = RemoteEBMI.connect(server.getLocalAddress());
+
+        this.model.initialize("");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        model.close();
+        server.close();
+    }
+
+    @Test
+    public void testMetadata() throws Exception {
+        assertArrayEquals(new String[] { "var1" }, model.getOutputVarNames());
+        assertEquals("float64", model.getVarType("var1"));
+        assertEquals(BMIGridType.UNIFORM, model.getGridType("var1"));
+        assertArrayEquals(new int[] { 10, 10 }, model.getGridShape("var1"));
+        assertEquals(1.0, model.getTimeStep(), 0.0);
+    }
+
+    @Test
+    public void testGetSetDouble() throws Exception {
+        double[] values = new double[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 0.5;
+        }
+        model.setDouble("var1", values);
+
+        assertArrayEquals(values, model.getDouble("var1"), 0.0);
+        assertArrayEquals(new double[] { 1.5, 49.5 }, model.getDoubleAtIndices("var1", new int[] { 3, 99 }), 0.0);
+    }
+
+    @Test
+    public void testError() throws Exception {
+        try {
+            model.getDouble("foo");
+            fail("expected exception");
+        } catch (BMIModelException e) {
+            assertTrue(e.getMessage().contains("foo"));
+        }
+
+        //the connection is still usable
+        assertEquals(1.0, model.getCurrentTime(), 0.0);
+    }
+
+    @Test
+    public void testPipelining() throws Exception {
+        double[] before = new double[100];
+        double[] after = new double[102];
+
+        CompletableFuture<double[]> first = model.getDoubleAsync("var1", before, 0);
+        CompletableFuture<Void> update = model.updateAsync();
+        CompletableFuture<double[]> second = model.getDoubleAsync("var1", after, 2);
+
+        assertSame(after, second.get());
+        update.get();
+        assertSame(before, first.get());
+
+        assertEquals(1.0, before[99], 0.0);
+        assertEquals(2.0, after[101], 0.0);
+        assertEquals(0.0, after[1], 0.0);
+        assertEquals(0, model.getPendingCount());
+    }
+
+    @Test
+    public void testDestinationTooSmall() throws Exception {
+        try {
+            model.getDoubleAsync("var1", new double[10], 0).get();
+            fail("expected exception");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof BMIModelException);
+        }
+    }
+
+    @Test
+    public void testNegativeOffset_ConnectionStillUsable() throws Exception {
+        try {
+            model.getDoubleAsync("var1", new double[200], -1);
+            fail("expected exception");
+        } catch (BMIModelException e) {
+            //expected
+        }
+
+        assertEquals(1.0, model.getCurrentTime(), 0.0);
+        assertEquals(0, model.getPendingCount());
+    }
+
+    @Test(expected = BMIModelException.class)
+    public void testClosed() throws Exception {
+        model.close();
+        model.getCurrentTime();
+    }
+
+}
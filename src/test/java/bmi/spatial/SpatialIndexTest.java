@@ -0,0 +1,188 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.spatial;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import bmi.GridGeometry;
+import bmi.examples.IncrementModel;
+import bmi.examples.MeshDiffusionModel;
+import bmi.regrid.SparseMatrix;
+
+public class SpatialIndexTest {
+
+    private static GridGeometry randomPoints(int size, long seed) {
+        Random random = new Random(seed);
+        double[] x = new double[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = random.nextDouble() * 100;
+            y[i] = random.nextDouble() * 50;
+        }
+        return GridGeometry.unstructured(x, y);
+    }
+
+    private static double squared(GridGeometry geometry, int index, double x, double y) {
+        double dx = geometry.getX(index) - x;
+        double dy = geometry.getY(index) - y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Check the k nearest neighbours of random points against a linear search.
+     */
+    private static void checkNeighbours(SpatialIndex index, int k, long seed) {
+        GridGeometry geometry = index.getGeometry();
+        Random random = new Random(seed);
+        int[] indices = new int[k];
+        double[] distances = new double[k];
+
+        for (int point = 0; point < 200; point++) {
+            double x = random.nextDouble() * 120 - 10;
+            double y = random.nextDouble() * 70 - 10;
+
+            assertEquals(k, index.kNearest(x, y, k, indices, distances));
+
+            //the k-th distance should be the k-th smallest of all distances
+            int closer = 0;
+            for (int i = 0; i < geometry.getSize(); i++) {
+                if (Math.sqrt(squared(geometry, i, x, y)) < distances[k - 1]) {
+                    closer++;
+                }
+            }
+            assertTrue(closer < k);
+            for (int i = 0; i < k; i++) {
+                assertEquals(Math.sqrt(squared(geometry, indices[i], x, y)), distances[i], 1e-12);
+                assertTrue(i == 0 || distances[i] >= distances[i - 1]);
+            }
+            assertEquals(distances[0], index.distance(x, y, index.nearest(x, y)), 1e-12);
+        }
+    }
+
+    @Test
+    public void testUniform_Nearest() {
+        //rows from top to bottom, as common for rasters
+        SpatialIndex index = SpatialIndex.build(GridGeometry.uniform(new int[] { 4, 5 }, new double[] { -2.0, 1.0 },
+                new double[] { 10.0, 0.0 }));
+
+        assertTrue(index instanceof AxisIndex);
+        assertEquals(2 * 5 + 3, index.nearest(3.2, 6.5));
+        //outside of the grid maps to the edge
+        assertEquals(3 * 5 + 4, index.nearest(100, -100));
+    }
+
+    @Test
+    public void testRectilinear_Nearest() {
+        SpatialIndex index = SpatialIndex.build(GridGeometry.rectilinear(new double[] { 0, 1, 5, 6 }, new double[] { 3, 2 }));
+
+        assertArrayEquals(new int[] { 0, 2, 7 }, index.nearest(new double[] { 0.4, 3.1, 5.6 }, new double[] { 9, 2.6, 0 }));
+    }
+
+    @Test
+    public void testNearest_MaxDistance() {
+        SpatialIndex index = SpatialIndex.build(GridGeometry.uniform(new int[] { 10, 10 }, new double[] { 1, 1 },
+                new double[] { 0, 0 }));
+        int[] result = new int[2];
+
+        index.nearest(new double[] { 4.2, 12.0 }, new double[] { 7.1, 3.0 }, 0.5, result);
+
+        assertArrayEquals(new int[] { 74, -1 }, result);
+    }
+
+    @Test
+    public void testAxis_KNearest() {
+        checkNeighbours(SpatialIndex.build(GridGeometry.uniform(new int[] { 20, 30 }, new double[] { 2.5, 3.3 },
+                new double[] { 0, 1 })), 7, 1);
+        checkNeighbours(SpatialIndex.build(GridGeometry.rectilinear(new double[] { 0, 1, 2, 10, 40, 41, 90 },
+                new double[] { 45, 30, 29, 3 })), 5, 2);
+    }
+
+    @Test
+    public void testKdTree_KNearest() {
+        SpatialIndex index = SpatialIndex.build(randomPoints(1000, 3));
+
+        assertTrue(index instanceof KdTree);
+        checkNeighbours(index, 1, 4);
+        checkNeighbours(index, 12, 5);
+    }
+
+    @Test
+    public void testKdTree_DuplicatePoints() {
+        SpatialIndex index = SpatialIndex.build(GridGeometry.unstructured(new double[50], new double[50]));
+        int[] indices = new int[3];
+        double[] distances = new double[3];
+
+        assertEquals(3, index.kNearest(3, 4, 3, indices, distances));
+        assertEquals(5.0, distances[2], 0.0);
+    }
+
+    @Test
+    public void testKNearest_MoreThanSize() {
+        SpatialIndex index = SpatialIndex.build(GridGeometry.unstructured(new double[] { 0, 1 }, new double[] { 0, 0 }));
+
+        assertEquals(2, index.kNearest(0.9, 0, 5, new int[5], new double[5]));
+    }
+
+    @Test
+    public void testInverseDistanceWeights() {
+        SpatialIndex index = SpatialIndex.build(GridGeometry.unstructured(new double[] { 0, 1, 3 }, new double[] { 0, 0, 0 }));
+        int[] indices = new int[2];
+        double[] weights = new double[2];
+
+        assertEquals(2, index.inverseDistanceWeights(0.25, 0, 2, 1.0, indices, weights));
+        assertArrayEquals(new int[] { 0, 1 }, indices);
+        assertArrayEquals(new double[] { 0.75, 0.25 }, weights, 1e-12);
+
+        //a point on a value only uses that value
+        assertEquals(1, index.inverseDistanceWeights(3, 0, 2, 2.0, indices, weights));
+        assertEquals(2, indices[0]);
+        assertEquals(1.0, weights[0], 0.0);
+    }
+
+    @Test
+    public void testInverseDistanceWeights_Matrix() {
+        SpatialIndex index = SpatialIndex.build(GridGeometry.unstructured(new double[] { 0, 1, 3 }, new double[] { 0, 0, 0 }));
+        SparseMatrix weights = index.inverseDistanceWeights(new double[] { 0.75, 3 }, new double[] { 0, 0 }, 2, 1.0);
+        double[] result = new double[2];
+
+        weights.multiply(new double[] { 10, 20, 30 }, result);
+
+        assertArrayEquals(new double[] { 17.5, 30 }, result, 1e-12);
+    }
+
+    @Test
+    public void testOf_Models() throws Exception {
+        IncrementModel raster = new IncrementModel(4, 6);
+        raster.initialize("");
+        assertEquals(2 * 6 + 5, SpatialIndex.of(raster, "var1").nearest(5.4, 1.8));
+        raster.finalizeModel();
+
+        //values of the mesh model are located at the centroids of its faces
+        MeshDiffusionModel mesh = new MeshDiffusionModel();
+        mesh.initialize("");
+        SpatialIndex index = SpatialIndex.of(mesh, "concentration");
+        assertEquals(200, index.getSize());
+        assertEquals(5, index.nearest(mesh.getMesh().getFaceX(5), mesh.getMesh().getFaceY(5)));
+        mesh.finalizeModel();
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 Netherlands eScience Center
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bmi.examples;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Raster operations using the SIMD instructions of the CPU, through the (incubating) Java Vector API. Requires Java 17 or
+ * newer, started with <code>--add-modules jdk.incubator.vector</code>. Loaded by {@link RasterOps#get()} if available.
+ */
+class VectorRasterOps extends RasterOps {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public String getName() {
+        return "vector";
+    }
+
+    @Override
+    public void fill(double[] a, int offset, int length, double value) {
+        DoubleVector v = DoubleVector.broadcast(SPECIES, value);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            v.intoArray(a, offset + i);
+        }
+        for (; i < length; i++) {
+            a[offset + i] = value;
+        }
+    }
+
+    @Override
+    public void addScalar(double[] a, int offset, int length, double value) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, offset + i).add(value).intoArray(a, offset + i);
+        }
+        for (; i < length; i++) {
+            a[offset + i] += value;
+        }
+    }
+
+    @Override
+    public void gather(double[] src, int[] indices, double[] dest, int offset) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(indices.length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, src, 0, indices, i).intoArray(dest, offset + i);
+        }
+        for (; i < indices.length; i++) {
+            dest[offset + i] = src[indices[i]];
+        }
+    }
+
+    @Override
+    public void scatter(double[] src, int offset, int[] indices, double[] dest) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(indices.length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, src, offset + i).intoArray(dest, 0, indices, i);
+        }
+        for (; i < indices.length; i++) {
+            dest[indices[i]] = src[offset + i];
+        }
+    }
+
+    @Override
+    public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOffset + i);
+            DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOffset + i);
+            //separate multiply and add (not fma) to round exactly like the scalar version
+            vy.add(vx.mul(alpha)).intoArray(y, yOffset + i);
+        }
+        for (; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    @Override
+    public void clamp(double[] a, int offset, int length, double min, double max) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, offset + i).max(min).min(max).intoArray(a, offset + i);
+        }
+        for (; i < length; i++) {
+            a[offset + i] = Math.min(Math.max(a[offset + i], min), max);
+        }
+    }
+
+    @Override
+    public void maskedAdd(double[] a, int offset, int length, boolean[] mask, int maskOffset, double value) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            VectorMask<Double> m = VectorMask.fromArray(SPECIES, mask, maskOffset + i);
+            DoubleVector.fromArray(SPECIES, a, offset + i).add(value, m).intoArray(a, offset + i);
+        }
+        for (; i < length; i++) {
+            if (mask[maskOffset + i]) {
+                a[offset + i] += value;
+            }
+        }
+    }
+
+    @Override
+    public double min(double[] a, int offset, int length) {
+        DoubleVector result = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, a, offset + i);
+            result = result.min(v.blend(Double.POSITIVE_INFINITY, v.test(VectorOperators.IS_NAN)));
+        }
+        double tail = result.reduceLanes(VectorOperators.MIN);
+        for (; i < length; i++) {
+            if (a[offset + i] < tail) {
+                tail = a[offset + i];
+            }
+        }
+        return tail;
+    }
+
+    @Override
+    public double max(double[] a, int offset, int length) {
+        DoubleVector result = DoubleVector.broadcast(SPECIES, Double.NEGATIVE_INFINITY);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, a, offset + i);
+            result = result.max(v.blend(Double.NEGATIVE_INFINITY, v.test(VectorOperators.IS_NAN)));
+        }
+        double tail = result.reduceLanes(VectorOperators.MAX);
+        for (; i < length; i++) {
+            if (a[offset + i] > tail) {
+                tail = a[offset + i];
+            }
+        }
+        return tail;
+    }
+
+    @Override
+    public double sum(double[] a, int offset, int length) {
+        DoubleVector result = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            result = result.add(DoubleVector.fromArray(SPECIES, a, offset + i));
+        }
+        double tail = result.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            tail += a[offset + i];
+        }
+        return tail;
+    }
+
+}